@@ -10,11 +10,61 @@ public class CacheConstant {
    */
   public static final String DISH_KEY_PREFIX = "dish_";
 
+  /**
+   * Dish cache version key prefix, one counter per category.
+   */
+  public static final String DISH_VERSION_KEY_PREFIX = "dish_version_";
+
+  /**
+   * Setmeal list response cache key prefix.
+   */
+  public static final String SETMEAL_KEY_PREFIX = "setmeal_";
+
+  /**
+   * Category list response cache key prefix.
+   */
+  public static final String CATEGORY_KEY_PREFIX = "category_";
+
+  /**
+   * Spring Cache name for setmeal lists stored in Redis.
+   */
+  public static final String SETMEAL_CACHE_NAME = "setmealCache";
+
+  /**
+   * Redis channel for broadcasting menu cache invalidation to other nodes.
+   */
+  public static final String MENU_CACHE_INVALIDATION_CHANNEL = "menu_cache_invalidation";
+
+  /**
+   * Redis channel for relaying WebSocket broadcasts to every node.
+   */
+  public static final String WEBSOCKET_BROADCAST_CHANNEL = "websocket_broadcast";
+
+  /**
+   * Shopping cart Redis hash key prefix, one hash per user.
+   */
+  public static final String SHOPPING_CART_KEY_PREFIX = "shopping_cart:";
+
   /**
    * Refresh token Redis key prefix.
    */
   public static final String REFRESH_TOKEN_KEY_PREFIX = "refresh_token:";
 
+  /**
+   * Idempotency record Redis key prefix, followed by scope, user id and client key.
+   */
+  public static final String IDEMPOTENCY_KEY_PREFIX = "idempotency:";
+
+  /**
+   * Redis sorted set of unpaid order ids scored by their payment deadline in epoch millis.
+   */
+  public static final String ORDER_TIMEOUT_KEY = "order_timeout";
+
+  /**
+   * Order number node id lease key prefix, followed by the node id; the value is the holder.
+   */
+  public static final String ORDER_NODE_ID_KEY_PREFIX = "order_node_id:";
+
   private CacheConstant() {
     // 工具类，禁止实例化
   }
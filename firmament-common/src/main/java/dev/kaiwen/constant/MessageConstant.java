@@ -26,6 +26,9 @@ public class MessageConstant {
   public static final String ALREADY_EXIST = "已存在";
   public static final String ADDRESS_BOOK_NOT_FOUND = "地址不存在";
   public static final String ADDRESS_BOOK_ACCESS_DENIED = "无权访问该地址";
+  public static final String REQUEST_IN_PROGRESS = "请求正在处理中，请勿重复提交";
+  public static final String IDEMPOTENCY_KEY_INVALID = "幂等键不合法";
+  public static final String IDEMPOTENCY_KEY_REUSED = "幂等键已用于内容不同的请求，请为新请求生成新的幂等键";
 
   private MessageConstant() {
     // 工具类，禁止实例化
@@ -0,0 +1,17 @@
+package dev.kaiwen.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单配置属性.
+ */
+@Component
+@ConfigurationProperties(prefix = "firmament.order")
+@Data
+public class OrderProperties {
+
+  // 本节点的订单号节点id（0-9），多节点部署时每个节点必须不同；不配置时启动时从 Redis 租用一个空闲的id
+  private Integer nodeId;
+}
@@ -0,0 +1,52 @@
+package dev.kaiwen.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip 工具类.
+ * 预先压缩缓存的响应体时使用，根据请求的 Accept-Encoding 决定返回原始内容还是压缩内容.
+ */
+public class GzipUtil {
+
+  private GzipUtil() {
+    // 工具类，禁止实例化
+  }
+
+  /**
+   * 判断客户端是否接受 gzip 压缩，忽略 q=0 的情况.
+   *
+   * @param acceptEncoding 请求头 Accept-Encoding 的值，可以为 null
+   * @return 接受 gzip 时返回 true
+   */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String part : acceptEncoding.split(",")) {
+      String[] tokens = part.trim().split(";");
+      if ("gzip".equalsIgnoreCase(tokens[0].trim())) {
+        return tokens.length < 2 || !tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 使用 gzip 压缩内容.
+   *
+   * @param body 原始内容
+   * @return 压缩后的内容
+   */
+  public static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(body);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,123 @@
+package dev.kaiwen.utils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 订单号生成器.
+ * 订单号共 24 位：17 位毫秒时间戳（yyyyMMddHHmmssSSS）+ 4 位用户id后缀 + 1 位节点id + 2 位毫秒内序号.
+ * 同一节点同一毫秒内的序号递增，节点id各不相同，因此不需要查询数据库判断订单号是否重复.
+ * 同一毫秒内序号用完或系统时钟回拨时，继续使用上一个毫秒之后的时间戳，保证单节点内时间戳单调递增.
+ * 节点id由服务端提供：显式配置时为固定值，从 Redis 租用时每次生成前读取当前租约，租约失效时拒绝生成.
+ */
+public class OrderNumberGenerator {
+
+  static final int ORDER_NUMBER_LENGTH = 24;
+  public static final int MAX_NODE_ID = 9;
+  static final int SEQUENCE_PER_MILLI = 100;
+
+  private final IntSupplier nodeIdSource;
+  private final LongSupplier clock;
+  private final ZoneId zoneId;
+
+  // 上一次分配使用的毫秒时间戳和该毫秒内的序号
+  private long lastMillis = -1;
+  private int sequence;
+
+  /**
+   * 构造使用系统时钟的订单号生成器.
+   *
+   * @param nodeId 本节点的节点id（0-9）
+   */
+  public OrderNumberGenerator(int nodeId) {
+    this(fixedNodeId(nodeId), System::currentTimeMillis, ZoneId.systemDefault());
+  }
+
+  /**
+   * 构造使用系统时钟、节点id可变的订单号生成器.
+   *
+   * @param nodeIdSource 每次生成前读取本节点当前的节点id，无可用id时应抛出异常
+   */
+  public OrderNumberGenerator(IntSupplier nodeIdSource) {
+    this(nodeIdSource, System::currentTimeMillis, ZoneId.systemDefault());
+  }
+
+  OrderNumberGenerator(int nodeId, LongSupplier clock, ZoneId zoneId) {
+    this(fixedNodeId(nodeId), clock, zoneId);
+  }
+
+  OrderNumberGenerator(IntSupplier nodeIdSource, LongSupplier clock, ZoneId zoneId) {
+    this.nodeIdSource = nodeIdSource;
+    this.clock = clock;
+    this.zoneId = zoneId;
+  }
+
+  private static IntSupplier fixedNodeId(int nodeId) {
+    checkNodeId(nodeId);
+    return () -> nodeId;
+  }
+
+  private static void checkNodeId(int nodeId) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException("订单号节点id必须在 0-" + MAX_NODE_ID + " 之间：" + nodeId);
+    }
+  }
+
+  /**
+   * 生成订单号.
+   *
+   * @param userId 下单用户id
+   * @return 24 位订单号
+   */
+  public String next(Long userId) {
+    // 先读取节点id，租约失效时在分配序号前失败
+    int nodeId = nodeIdSource.getAsInt();
+    checkNodeId(nodeId);
+    long millis;
+    int seq;
+    synchronized (this) {
+      long now = clock.getAsLong();
+      if (now > lastMillis) {
+        lastMillis = now;
+        sequence = 0;
+      } else if (++sequence >= SEQUENCE_PER_MILLI) {
+        lastMillis++;
+        sequence = 0;
+      }
+      millis = lastMillis;
+      seq = sequence;
+    }
+    return format(millis, userId != null ? Math.floorMod(userId, 10000L) : 0, nodeId, seq);
+  }
+
+  private String format(long millis, long userSuffix, int nodeId, int seq) {
+    LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId);
+    char[] chars = new char[ORDER_NUMBER_LENGTH];
+    int pos = 0;
+    pos = digits(chars, pos, time.getYear(), 4);
+    pos = digits(chars, pos, time.getMonthValue(), 2);
+    pos = digits(chars, pos, time.getDayOfMonth(), 2);
+    pos = digits(chars, pos, time.getHour(), 2);
+    pos = digits(chars, pos, time.getMinute(), 2);
+    pos = digits(chars, pos, time.getSecond(), 2);
+    pos = digits(chars, pos, time.getNano() / 1_000_000, 3);
+    pos = digits(chars, pos, userSuffix, 4);
+    pos = digits(chars, pos, nodeId, 1);
+    digits(chars, pos, seq, 2);
+    return new String(chars);
+  }
+
+  /**
+   * 将数值按固定宽度写入字符数组，不足时左侧补 0.
+   */
+  private static int digits(char[] chars, int pos, long value, int width) {
+    for (int i = pos + width - 1; i >= pos; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return pos + width;
+  }
+}
@@ -0,0 +1,67 @@
+package dev.kaiwen.benchmark;
+
+import dev.kaiwen.utils.OrderNumberGenerator;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 订单号生成基准测试.
+ * 对比原来的格式化方式（每次创建 DateTimeFormatter 并使用 String.format，不含数据库查询）与 OrderNumberGenerator.
+ * 运行方式：执行 main 方法，或 mvn -pl firmament-common test-compile 后使用 JMH Runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+  private OrderNumberGenerator generator;
+
+  @Setup
+  public void setUp() {
+    generator = new OrderNumberGenerator(0);
+  }
+
+  @Benchmark
+  public String generator() {
+    return generator.next(12345L);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String generatorContended() {
+    return generator.next(12345L);
+  }
+
+  @Benchmark
+  public String legacyFormat() {
+    LocalDateTime now = LocalDateTime.now();
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    int randomNum = ThreadLocalRandom.current().nextInt(1000);
+    return String.format("%s%s%03d", now.format(formatter), "2345", randomNum);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(OrderNumberGeneratorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
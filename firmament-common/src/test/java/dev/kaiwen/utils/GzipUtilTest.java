@@ -0,0 +1,35 @@
+package dev.kaiwen.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class GzipUtilTest {
+
+  @Test
+  void acceptsGzipHandlesQualityValues() {
+    assertTrue(GzipUtil.acceptsGzip("gzip"));
+    assertTrue(GzipUtil.acceptsGzip("deflate, GZIP;q=0.8"));
+    assertFalse(GzipUtil.acceptsGzip("gzip;q=0"));
+    assertFalse(GzipUtil.acceptsGzip("gzip; q=0.00"));
+    assertFalse(GzipUtil.acceptsGzip("br, deflate"));
+    assertFalse(GzipUtil.acceptsGzip(null));
+  }
+
+  @Test
+  void gzipRoundTrips() throws IOException {
+    byte[] body = "{\"code\":1,\"data\":\"宫保鸡丁\"}".getBytes(StandardCharsets.UTF_8);
+
+    byte[] compressed = GzipUtil.gzip(body);
+
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(body, in.readAllBytes());
+    }
+  }
+}
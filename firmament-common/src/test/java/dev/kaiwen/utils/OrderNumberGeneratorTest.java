@@ -0,0 +1,162 @@
+package dev.kaiwen.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class OrderNumberGeneratorTest {
+
+  private static final ZoneId ZONE = ZoneOffset.UTC;
+  private static final long MILLIS = LocalDateTime.of(2026, 3, 5, 9, 8, 7, 6_000_000)
+      .toInstant(ZoneOffset.UTC).toEpochMilli();
+
+  @Test
+  void nextKeepsExistingNumberFormat() {
+    OrderNumberGenerator generator = new OrderNumberGenerator(3, () -> MILLIS, ZONE);
+
+    String number = generator.next(12L);
+
+    assertEquals("20260305090807006" + "0012" + "3" + "00", number);
+    assertEquals(24, number.length());
+  }
+
+  @Test
+  void nextUsesLastFourDigitsOfUserId() {
+    OrderNumberGenerator generator = new OrderNumberGenerator(0, () -> MILLIS, ZONE);
+
+    assertEquals("2345", generator.next(12345L).substring(17, 21));
+  }
+
+  @Test
+  void sequenceIncrementsWithinSameMillisecondAndResetsOnNext() {
+    AtomicLong clock = new AtomicLong(MILLIS);
+    OrderNumberGenerator generator = new OrderNumberGenerator(1, clock::get, ZONE);
+
+    assertEquals("00", generator.next(1L).substring(22));
+    assertEquals("01", generator.next(1L).substring(22));
+    clock.incrementAndGet();
+    String number = generator.next(1L);
+
+    assertEquals("007", number.substring(14, 17));
+    assertEquals("00", number.substring(22));
+  }
+
+  @Test
+  void sequenceOverflowMovesToNextMillisecond() {
+    OrderNumberGenerator generator = new OrderNumberGenerator(0, () -> MILLIS, ZONE);
+
+    String last = null;
+    for (int i = 0; i <= OrderNumberGenerator.SEQUENCE_PER_MILLI; i++) {
+      last = generator.next(1L);
+    }
+
+    assertEquals("20260305090807007" + "0001" + "0" + "00", last);
+  }
+
+  @Test
+  void clockMovingBackwardsStillProducesIncreasingNumbers() {
+    AtomicLong clock = new AtomicLong(MILLIS);
+    OrderNumberGenerator generator = new OrderNumberGenerator(0, clock::get, ZONE);
+
+    String before = generator.next(1L);
+    clock.addAndGet(-1000);
+    String after = generator.next(1L);
+
+    assertTrue(after.compareTo(before) > 0);
+    assertEquals(before.substring(0, 17), after.substring(0, 17));
+  }
+
+  @Test
+  void concurrentCallsNeverProduceDuplicates() throws Exception {
+    // 时钟固定在同一毫秒，让所有线程竞争序号并频繁触发序号溢出
+    OrderNumberGenerator generator = new OrderNumberGenerator(0, () -> MILLIS, ZONE);
+    int threads = 8;
+    int perThread = 20_000;
+    Set<String> numbers = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long userId = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < perThread; i++) {
+            numbers.add(generator.next(userId));
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(threads * perThread, numbers.size());
+  }
+
+  @Test
+  void differentNodesNeverCollide() {
+    OrderNumberGenerator node0 = new OrderNumberGenerator(0, () -> MILLIS, ZONE);
+    OrderNumberGenerator node1 = new OrderNumberGenerator(1, () -> MILLIS, ZONE);
+    Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+    for (int i = 0; i < 1000; i++) {
+      numbers.add(node0.next(1L));
+      numbers.add(node1.next(1L));
+    }
+
+    assertEquals(2000, numbers.size());
+  }
+
+  @Test
+  void nodeIdOutOfRangeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(10));
+  }
+
+  @Test
+  void nodeIdSourceIsReadOnEveryCall() {
+    AtomicInteger nodeId = new AtomicInteger(2);
+    OrderNumberGenerator generator = new OrderNumberGenerator(nodeId::get, () -> MILLIS, ZONE);
+
+    assertEquals("2", generator.next(1L).substring(21, 22));
+    nodeId.set(5);
+    assertEquals("5", generator.next(1L).substring(21, 22));
+  }
+
+  @Test
+  void nodeIdSourceFailureStopsGeneration() {
+    OrderNumberGenerator generator = new OrderNumberGenerator(() -> {
+      throw new IllegalStateException("lease lost");
+    }, () -> MILLIS, ZONE);
+
+    assertThrows(IllegalStateException.class, () -> generator.next(1L));
+  }
+
+  @Test
+  void nodeIdSourceOutOfRangeIsRejected() {
+    OrderNumberGenerator generator = new OrderNumberGenerator(() -> 10, () -> MILLIS, ZONE);
+
+    assertThrows(IllegalArgumentException.class, () -> generator.next(1L));
+  }
+}
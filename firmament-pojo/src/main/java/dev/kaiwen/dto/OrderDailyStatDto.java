@@ -0,0 +1,29 @@
+package dev.kaiwen.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * 订单按日聚合统计结果.
+ */
+@Data
+public class OrderDailyStatDto implements Serializable {
+
+  // 下单日期
+  private LocalDate orderDate;
+
+  // 当天订单总数
+  private Long totalOrders;
+
+  // 当天有效订单数（已完成订单）
+  private Long validOrders;
+
+  // 当天已完成订单金额合计
+  private BigDecimal validAmount;
+
+  // 当天已取消订单数
+  private Long cancelledOrders;
+
+}
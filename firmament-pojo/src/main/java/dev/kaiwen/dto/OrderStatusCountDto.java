@@ -0,0 +1,22 @@
+package dev.kaiwen.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * 订单按状态聚合统计结果.
+ */
+@Data
+public class OrderStatusCountDto implements Serializable {
+
+  // 下单日期，只在按日期分组时有值
+  private LocalDate orderDate;
+
+  // 订单状态
+  private Integer status;
+
+  // 该状态的订单数
+  private Long orderCount;
+
+}
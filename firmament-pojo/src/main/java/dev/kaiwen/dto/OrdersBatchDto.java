@@ -0,0 +1,16 @@
+package dev.kaiwen.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 订单批量操作数据传输对象.
+ */
+@Data
+public class OrdersBatchDto implements Serializable {
+
+  // 订单id列表
+  private List<Long> ids;
+
+}
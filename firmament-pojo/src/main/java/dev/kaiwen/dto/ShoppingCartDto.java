@@ -12,5 +12,7 @@ public class ShoppingCartDto implements Serializable {
   private Long dishId;
   private Long setmealId;
   private String dishFlavor;
+  // 数量，仅批量添加时使用，为空时按 1 计算
+  private Integer number;
 
 }
@@ -0,0 +1,19 @@
+package dev.kaiwen.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * 用户按日聚合统计结果.
+ */
+@Data
+public class UserDailyStatDto implements Serializable {
+
+  // 注册日期
+  private LocalDate createDate;
+
+  // 当天新增用户数
+  private Long newUsers;
+
+}
@@ -0,0 +1,50 @@
+package dev.kaiwen.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 每日营业数据汇总，每个自然日一行.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("daily_business_stats")
+public class DailyBusinessStats implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  // 统计日期（按下单日期/注册日期归属）
+  @TableId(type = IdType.INPUT)
+  private LocalDate statDate;
+
+  // 营业额：已完成订单金额合计
+  private BigDecimal turnover;
+
+  // 订单总数
+  private Integer totalOrders;
+
+  // 有效订单数（已完成订单）
+  private Integer validOrders;
+
+  // 已取消订单数
+  private Integer cancelledOrders;
+
+  // 新增用户数
+  private Integer newUsers;
+
+  // 最后更新时间
+  private LocalDateTime updateTime;
+}
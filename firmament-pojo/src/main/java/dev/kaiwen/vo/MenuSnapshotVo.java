@@ -0,0 +1,27 @@
+package dev.kaiwen.vo;
+
+import dev.kaiwen.entity.Category;
+import dev.kaiwen.entity.Setmeal;
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 菜单快照视图对象，包含 C 端展示的全部分类、菜品和套餐.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSnapshotVo implements Serializable {
+
+  // 启用的分类，按排序字段升序
+  private List<Category> categories;
+  // 起售中的菜品，包含口味
+  private List<DishVo> dishes;
+  // 起售中的套餐
+  private List<Setmeal> setmeals;
+}
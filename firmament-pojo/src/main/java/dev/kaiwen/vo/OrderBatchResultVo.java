@@ -0,0 +1,24 @@
+package dev.kaiwen.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 订单批量操作结果视图对象.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResultVo implements Serializable {
+
+  // 处理成功的订单id
+  private List<Long> succeeded;
+
+  // 不存在或状态不允许该操作的订单id
+  private List<Long> failed;
+}
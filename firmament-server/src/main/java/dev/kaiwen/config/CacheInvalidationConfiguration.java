@@ -0,0 +1,70 @@
+package dev.kaiwen.config;
+
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.MenuCacheService;
+import dev.kaiwen.service.MenuSnapshotService;
+import java.nio.charset.StandardCharsets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 本地缓存跨节点清理配置类.
+ * 订阅 Redis 频道，收到其他节点的清理通知后清理本节点的本地缓存.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "firmament.cache", name = "invalidation-enabled",
+    havingValue = "true")
+public class CacheInvalidationConfiguration {
+
+  // 等待处理的消息上限，处理线程阻塞时丢弃多出的消息并记录日志，避免占满内存
+  private static final int LISTENER_QUEUE_CAPACITY = 1000;
+
+  /**
+   * 注册菜单缓存清理通知的监听容器.
+   *
+   * @param redisConnectionFactory Redis连接工厂
+   * @param menuCacheService       菜单接口响应缓存服务
+   * @param menuSnapshotService    菜单快照服务
+   * @param catalogIndexService    商品目录索引服务
+   * @return RedisMessageListenerContainer实例
+   */
+  @Bean
+  public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+      RedisConnectionFactory redisConnectionFactory, MenuCacheService menuCacheService,
+      MenuSnapshotService menuSnapshotService, CatalogIndexService catalogIndexService) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    // 默认执行器每条消息新建一个线程，消息多时线程数不受控且处理顺序不确定，改为单线程按顺序处理
+    container.setTaskExecutor(listenerExecutor());
+    container.addMessageListener((message, pattern) -> {
+      String keyPattern = new String(message.getBody(), StandardCharsets.UTF_8);
+      log.debug("收到菜单缓存清理通知，pattern={}", keyPattern);
+      menuCacheService.evictLocal(keyPattern);
+      // 任何菜单缓存的清理都意味着菜单发生了变更
+      menuSnapshotService.invalidate();
+      catalogIndexService.invalidate();
+    }, new ChannelTopic(CacheConstant.MENU_CACHE_INVALIDATION_CHANNEL));
+    return container;
+  }
+
+  private static ThreadPoolTaskExecutor listenerExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(LISTENER_QUEUE_CAPACITY);
+    executor.setThreadNamePrefix("cache-invalidation-");
+    executor.setDaemon(true);
+    executor.setRejectedExecutionHandler((task, pool) ->
+        log.warn("菜单缓存清理通知积压超过 {} 条，丢弃消息", LISTENER_QUEUE_CAPACITY));
+    executor.initialize();
+    return executor;
+  }
+}
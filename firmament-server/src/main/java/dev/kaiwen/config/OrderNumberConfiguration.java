@@ -0,0 +1,38 @@
+package dev.kaiwen.config;
+
+import dev.kaiwen.properties.OrderProperties;
+import dev.kaiwen.service.OrderNodeIdService;
+import dev.kaiwen.utils.OrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 订单号生成器配置类.
+ * 显式配置了 firmament.order.node-id 时使用配置的节点id，否则从 Redis 租用一个空闲的节点id，
+ * 避免多个副本使用同一份配置时节点id相同而生成重复的订单号；租约丢失后生成器随租约切换到新的id.
+ */
+@Configuration
+@Slf4j
+public class OrderNumberConfiguration {
+
+  /**
+   * 创建订单号生成器.
+   *
+   * @param orderProperties    订单配置属性
+   * @param orderNodeIdService 订单号节点id租约服务
+   * @return OrderNumberGenerator实例
+   */
+  @Bean
+  public OrderNumberGenerator orderNumberGenerator(OrderProperties orderProperties,
+      OrderNodeIdService orderNodeIdService) {
+    Integer nodeId = orderProperties.getNodeId();
+    if (nodeId != null) {
+      log.info("使用配置的订单号节点id：{}", nodeId);
+      return new OrderNumberGenerator(nodeId);
+    }
+    // 启动时租用失败直接失败；之后每次生成订单号都读取当前租约，租约失效时拒绝生成
+    orderNodeIdService.acquire();
+    return new OrderNumberGenerator(orderNodeIdService::currentNodeId);
+  }
+}
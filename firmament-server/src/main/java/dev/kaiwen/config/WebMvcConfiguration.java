@@ -58,7 +58,8 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
         .excludePathPatterns("/user/category/list")
         .excludePathPatterns("/user/dish/list")
         .excludePathPatterns("/user/setmeal/list")
-        .excludePathPatterns("/user/setmeal/dish/**");
+        .excludePathPatterns("/user/setmeal/dish/**")
+        .excludePathPatterns("/user/menu/snapshot");
   }
 
   /**
@@ -76,8 +77,8 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
         new JacksonObjectMapper()) {
       @Override
       public boolean canWrite(@NonNull Class<?> clazz, @Nullable MediaType mediaType) {
-        // 排除 String 类型和 Swagger 相关路径
-        if (clazz == String.class || isSwaggerPath()) {
+        // 排除 String 类型、已经序列化好的字节和 Swagger 相关路径
+        if (clazz == String.class || clazz == byte[].class || isSwaggerPath()) {
           return false;
         }
         return super.canWrite(clazz, mediaType);
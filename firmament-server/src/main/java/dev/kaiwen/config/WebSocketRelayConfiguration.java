@@ -0,0 +1,55 @@
+package dev.kaiwen.config;
+
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.websocket.WebSocketRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * WebSocket跨节点群发配置类.
+ * 订阅 Redis 频道，把任一节点发布的群发消息推送给本节点的客户端.
+ */
+@Configuration
+@Slf4j
+public class WebSocketRelayConfiguration {
+
+  // 等待处理的消息上限，处理线程阻塞时丢弃多出的消息并记录日志，避免占满内存
+  private static final int LISTENER_QUEUE_CAPACITY = 1000;
+
+  /**
+   * 注册WebSocket群发消息的监听容器.
+   *
+   * @param redisConnectionFactory Redis连接工厂
+   * @param webSocketRelay         WebSocket跨节点群发中继
+   * @return RedisMessageListenerContainer实例
+   */
+  @Bean
+  public RedisMessageListenerContainer webSocketRelayListenerContainer(
+      RedisConnectionFactory redisConnectionFactory, WebSocketRelay webSocketRelay) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    // 默认执行器每条消息新建一个线程，消息多时线程数不受控且处理顺序不确定，改为单线程按顺序处理
+    container.setTaskExecutor(listenerExecutor());
+    container.addMessageListener(webSocketRelay,
+        new ChannelTopic(CacheConstant.WEBSOCKET_BROADCAST_CHANNEL));
+    return container;
+  }
+
+  private static ThreadPoolTaskExecutor listenerExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(LISTENER_QUEUE_CAPACITY);
+    executor.setThreadNamePrefix("websocket-relay-");
+    executor.setDaemon(true);
+    executor.setRejectedExecutionHandler((task, pool) ->
+        log.warn("WebSocket群发消息积压超过 {} 条，丢弃消息", LISTENER_QUEUE_CAPACITY));
+    executor.initialize();
+    return executor;
+  }
+}
@@ -1,11 +1,13 @@
 package dev.kaiwen.controller.admin;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.dto.CategoryDto;
 import dev.kaiwen.dto.CategoryPageQueryDto;
 import dev.kaiwen.entity.Category;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.MenuCacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
@@ -31,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class CategoryController {
 
   private final CategoryService categoryService;
+  private final MenuCacheService menuCacheService;
 
   /**
    * Create a new category.
@@ -43,6 +46,7 @@ public class CategoryController {
   public Result<String> save(@RequestBody CategoryDto categoryDto) {
     log.info("新增分类：{}", categoryDto);
     categoryService.save(categoryDto);
+    menuCacheService.evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
     return Result.success();
   }
 
@@ -72,6 +76,7 @@ public class CategoryController {
   public Result<String> deleteById(Long id) {
     log.info("删除分类：{}", id);
     categoryService.deleteById(id);
+    menuCacheService.evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
     return Result.success();
   }
 
@@ -86,6 +91,7 @@ public class CategoryController {
   @Operation(summary = "修改分类")
   public Result<String> update(@RequestBody CategoryDto categoryDto) {
     categoryService.update(categoryDto);
+    menuCacheService.evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
     return Result.success();
   }
 
@@ -100,6 +106,7 @@ public class CategoryController {
   @Operation(summary = "启用禁用分类")
   public Result<String> enableOrDisable(@PathVariable Integer status, Long id) {
     categoryService.enableOrDisable(status, id);
+    menuCacheService.evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
     return Result.success();
   }
 
@@ -6,6 +6,7 @@ import dev.kaiwen.dto.DishPageQueryDto;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.vo.DishVo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,7 +16,6 @@ import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -37,7 +37,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class DishController {
 
   private final DishService dishService;
-  private final RedisTemplate<String, Object> redisTemplateStringObject;
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final MenuCacheService menuCacheService;
 
   /**
    * Create a new dish.
@@ -51,8 +52,7 @@ public class DishController {
   public Result<String> createDish(@RequestBody DishDto dishDto) {
     log.info("新增菜品: {}", dishDto);
     dishService.saveWithFlavor(dishDto);
-    String key = CacheConstant.DISH_KEY_PREFIX + dishDto.getCategoryId();
-    cleanCache(key);
+    cleanCache(dishDto.getCategoryId());
 
     return Result.success();
   }
@@ -97,7 +97,7 @@ public class DishController {
 
     // 只清理相关分类的缓存，而不是清空所有分类
     for (Long categoryId : categoryIds) {
-      cleanCache(CacheConstant.DISH_KEY_PREFIX + categoryId);
+      cleanCache(categoryId);
     }
     log.info("已清理 {} 个分类的菜品缓存", categoryIds.size());
 
@@ -137,11 +137,11 @@ public class DishController {
     dishService.updateDish(dishDto);
 
     // 清理新分类的缓存
-    cleanCache(CacheConstant.DISH_KEY_PREFIX + dishDto.getCategoryId());
+    cleanCache(dishDto.getCategoryId());
 
     // 如果分类发生了变更，也要清理旧分类的缓存
     if (oldDish != null && !oldDish.getCategoryId().equals(dishDto.getCategoryId())) {
-      cleanCache(CacheConstant.DISH_KEY_PREFIX + oldDish.getCategoryId());
+      cleanCache(oldDish.getCategoryId());
       log.info("菜品分类已变更，清理了旧分类 {} 和新分类 {} 的缓存",
           oldDish.getCategoryId(), dishDto.getCategoryId());
     } else {
@@ -171,7 +171,7 @@ public class DishController {
 
     // 只清理该菜品所属分类的缓存
     if (dish != null) {
-      cleanCache(CacheConstant.DISH_KEY_PREFIX + dish.getCategoryId());
+      cleanCache(dish.getCategoryId());
       log.info("已清理起售停售操作后分类 {} 的菜品缓存", dish.getCategoryId());
     }
 
@@ -179,17 +179,16 @@ public class DishController {
   }
 
   /**
-   * Clean cache data.
+   * Clean the dish cache of a category in Redis and in the local cache of every node.
    *
-   * @param pattern The cache key pattern to match.
+   * @param categoryId The category ID.
    */
-  private void cleanCache(String pattern) {
-    Set<String> keys = redisTemplateStringObject.keys(pattern);
-    // 先判断：既不是 null，也不是空集合，才执行删除
-    if (!CollectionUtils.isEmpty(keys)) {
-      redisTemplateStringObject.delete(keys);
-    }
+  private void cleanCache(Long categoryId) {
+    // 递增分类的缓存版本号，旧版本的缓存不会再被读取，等待过期即可，不需要扫描 Redis
+    redisTemplateStringString.opsForValue()
+        .increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    // Redis 清理之后再清理本地缓存，避免本地缓存从旧的 Redis 数据回填
+    menuCacheService.evict(CacheConstant.DISH_KEY_PREFIX + categoryId);
   }
 
 }
-
@@ -1,5 +1,6 @@
 package dev.kaiwen.controller.admin;
 
+import dev.kaiwen.dto.OrdersBatchDto;
 import dev.kaiwen.dto.OrdersCancelDto;
 import dev.kaiwen.dto.OrdersConfirmDto;
 import dev.kaiwen.dto.OrdersPageQueryDto;
@@ -7,6 +8,7 @@ import dev.kaiwen.dto.OrdersRejectionDto;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.OrderService;
+import dev.kaiwen.vo.OrderBatchResultVo;
 import dev.kaiwen.vo.OrderStatisticsVo;
 import dev.kaiwen.vo.OrderVo;
 import io.swagger.v3.oas.annotations.Operation;
@@ -138,5 +140,41 @@ public class OrderController {
     orderService.complete(id);
     return Result.success();
   }
-}
 
+  /**
+   * Confirm multiple orders in one request.
+   *
+   * @param ordersBatchDto The batch data transfer object containing order IDs.
+   * @return The IDs that were confirmed and the IDs that were missing or not awaiting
+   *     confirmation.
+   */
+  @PutMapping("/confirm/batch")
+  @Operation(summary = "批量接单")
+  public Result<OrderBatchResultVo> confirmBatch(@RequestBody OrdersBatchDto ordersBatchDto) {
+    return Result.success(orderService.confirmBatch(ordersBatchDto.getIds()));
+  }
+
+  /**
+   * Deliver multiple orders in one request.
+   *
+   * @param ordersBatchDto The batch data transfer object containing order IDs.
+   * @return The IDs that were dispatched and the IDs that were missing or not confirmed.
+   */
+  @PutMapping("/delivery/batch")
+  @Operation(summary = "批量派送订单")
+  public Result<OrderBatchResultVo> deliveryBatch(@RequestBody OrdersBatchDto ordersBatchDto) {
+    return Result.success(orderService.deliveryBatch(ordersBatchDto.getIds()));
+  }
+
+  /**
+   * Complete multiple orders in one request.
+   *
+   * @param ordersBatchDto The batch data transfer object containing order IDs.
+   * @return The IDs that were completed and the IDs that were missing or not in delivery.
+   */
+  @PutMapping("/complete/batch")
+  @Operation(summary = "批量完成订单")
+  public Result<OrderBatchResultVo> completeBatch(@RequestBody OrdersBatchDto ordersBatchDto) {
+    return Result.success(orderService.completeBatch(ordersBatchDto.getIds()));
+  }
+}
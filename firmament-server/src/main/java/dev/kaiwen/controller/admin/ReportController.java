@@ -20,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -100,33 +101,45 @@ public class ReportController {
   }
 
   /**
-   * Export business data report for the last 30 days.
+   * Export business data report. Defaults to the last 30 days when no range is given.
    *
+   * @param begin    The start date of the export period, optional.
+   * @param end      The end date of the export period, optional.
    * @param response The HTTP servlet response to write the Excel file.
    * @throws IOException If export fails.
    */
   @GetMapping("/export")
-  @Operation(summary = "导出最近30天的数据报表")
-  public void export(HttpServletResponse response) throws IOException {
-    log.info("导出最近30天的数据报表");
-
-
+  @Operation(summary = "导出数据报表")
+  public void export(
+      @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate begin,
+      @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate end,
+      HttpServletResponse response) throws IOException {
+    if (end == null) {
+      end = LocalDate.now();
+    }
+    if (begin == null) {
+      begin = end.minusDays(29);
+    }
+    log.info("导出数据报表: {}, {}", begin, end);
 
-    // 设置响应头
+    // 设置响应头，Excel 流式写出，不设置 Content-Length
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd");
     String fileName =
-        "运营数据报表_" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".xlsx";
+        "运营数据报表_" + begin.format(formatter) + "-" + end.format(formatter) + ".xlsx";
     fileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("\\+", "%20");
-    // 调用service获取Excel数据
-    byte[] excelBytes = reportService.exportBusinessData();
     response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
     response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + fileName);
-    response.setContentLength(excelBytes.length);
 
-    // 写入响应流
-    try (OutputStream outputStream = response.getOutputStream()) {
-      outputStream.write(excelBytes);
-      outputStream.flush();
+    OutputStream outputStream = response.getOutputStream();
+    try {
+      reportService.exportBusinessData(begin, end, outputStream);
+    } catch (RuntimeException e) {
+      // 尚未写出任何内容时清空响应头，交给全局异常处理器返回 JSON
+      if (!response.isCommitted()) {
+        response.reset();
+      }
+      throw e;
     }
+    outputStream.flush();
   }
 }
-
@@ -1,9 +1,11 @@
 package dev.kaiwen.controller.admin;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.dto.SetmealDto;
 import dev.kaiwen.dto.SetmealPageQueryDto;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.result.Result;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.service.SetmealService;
 import dev.kaiwen.vo.SetmealVo;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,7 +13,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,6 +36,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class SetmealController {
 
   private final SetmealService setmealService;
+  private final MenuCacheService menuCacheService;
+  private final CacheManager cacheManager;
 
   /**
    * Create a new setmeal.
@@ -43,11 +48,11 @@ public class SetmealController {
    */
   @PostMapping
   @Operation(summary = "新增套餐")
-  @CacheEvict(cacheNames = "setmealCache", key = "#setmealDto.categoryId")
   public Result<String> save(@RequestBody SetmealDto setmealDto) {
 
     log.info("新增套餐：{}", setmealDto);
     setmealService.saveWithDish(setmealDto);
+    cleanCache(setmealDto.getCategoryId());
     return Result.success();
   }
 
@@ -90,10 +95,10 @@ public class SetmealController {
    */
   @PutMapping
   @Operation(summary = "修改套餐")
-  @CacheEvict(cacheNames = "setmealCache", allEntries = true)
   public Result<String> update(@RequestBody SetmealDto setmealDto) {
     log.info("修改套餐：{}", setmealDto);
     setmealService.update(setmealDto);
+    cleanCache(null);
     return Result.success();
   }
 
@@ -105,10 +110,10 @@ public class SetmealController {
    */
   @DeleteMapping
   @Operation(summary = "批量删除套餐")
-  @CacheEvict(cacheNames = "setmealCache", allEntries = true)
   public Result<String> delete(@RequestParam List<Long> ids) {
     log.info("批量删除套餐：{}", ids);
     setmealService.deleteBatch(ids);
+    cleanCache(null);
     return Result.success();
   }
 
@@ -121,10 +126,29 @@ public class SetmealController {
    */
   @PostMapping("/status/{status}")
   @Operation(summary = "套餐起售停售")
-  @CacheEvict(cacheNames = "setmealCache", allEntries = true)
   public Result<String> startOrStop(@PathVariable Integer status, @RequestParam Long id) {
     log.info("套餐起售停售，状态：{}，套餐ID：{}", status, id);
     setmealService.startOrStop(status, id);
+    cleanCache(null);
     return Result.success();
   }
-}
\ No newline at end of file
+
+  /**
+   * Clean the setmealCache Redis cache and the local response cache of every node.
+   *
+   * @param categoryId The category ID to clean, or null to clean all categories.
+   */
+  private void cleanCache(Long categoryId) {
+    Cache cache = cacheManager.getCache(CacheConstant.SETMEAL_CACHE_NAME);
+    if (cache != null) {
+      if (categoryId == null) {
+        cache.clear();
+      } else {
+        cache.evict(categoryId);
+      }
+    }
+    // Redis 清理之后再清理本地缓存，避免本地缓存从旧的 Redis 数据回填
+    String suffix = categoryId == null ? "*" : String.valueOf(categoryId);
+    menuCacheService.evict(CacheConstant.SETMEAL_KEY_PREFIX + suffix);
+  }
+}
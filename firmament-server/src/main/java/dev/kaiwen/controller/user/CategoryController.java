@@ -1,13 +1,18 @@
 package dev.kaiwen.controller.user;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.entity.Category;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.MenuCacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,17 +26,24 @@ import org.springframework.web.bind.annotation.RestController;
 public class CategoryController {
 
   private final CategoryService categoryService;
+  private final MenuCacheService menuCacheService;
 
   /**
-   * Get categories by type.
+   * Get categories by type. The serialized response is cached in memory.
    *
-   * @param type The category type.
-   * @return The list of categories matching the type.
+   * @param type           The category type.
+   * @param acceptEncoding The Accept-Encoding request header.
+   * @return The UTF-8 JSON of the list of categories matching the type.
    */
   @GetMapping("/list")
   @Operation(summary = "查询分类")
-  public Result<List<Category>> list(Integer type) {
-    List<Category> list = categoryService.list(type);
-    return Result.success(list);
+  public ResponseEntity<byte[]> list(Integer type,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    return menuCacheService.respond(CacheConstant.CATEGORY_KEY_PREFIX + type, acceptEncoding,
+        () -> {
+          List<Category> list = categoryService.list(type);
+          return Result.success(list);
+        });
   }
 }
@@ -3,19 +3,25 @@ package dev.kaiwen.controller.user;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.constant.StatusConstant;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.vo.DishVo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -31,20 +37,38 @@ import org.springframework.web.bind.annotation.RestController;
 public class DishController {
 
   private final DishService dishService;
+  private final MenuCacheService menuCacheService;
   private final RedisTemplate<String, String> redisTemplateStringString;
   private final ObjectMapper objectMapper;
 
+  // 旧版本的缓存不再被读取，依靠过期时间回收
+  private static final Duration DISH_CACHE_TTL = Duration.ofDays(1);
+
   /**
-   * Get dishes by category ID.
+   * Get dishes by category ID. The serialized response is cached in memory.
    *
-   * @param categoryId The category ID.
-   * @return The list of dishes in the category.
+   * @param categoryId     The category ID.
+   * @param acceptEncoding The Accept-Encoding request header.
+   * @return The UTF-8 JSON of the list of dishes in the category.
    */
   @GetMapping("/list")
   @Operation(summary = "根据分类id查询菜品")
-  public Result<List<DishVo>> list(@RequestParam Long categoryId) {
+  public ResponseEntity<byte[]> list(@RequestParam Long categoryId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    return menuCacheService.respond(CacheConstant.DISH_KEY_PREFIX + categoryId, acceptEncoding,
+        () -> Result.success(loadDishList(categoryId)));
+  }
+
+  /**
+   * 本地缓存未命中时加载菜品列表，先查 Redis，再查数据库.
+   *
+   * @param categoryId 分类ID
+   * @return 菜品列表
+   */
+  private List<DishVo> loadDishList(Long categoryId) {
     log.info("根据分类id查询菜品：{}", categoryId);
-    String key = "dish_" + categoryId;
+    String key = versionedKey(categoryId);
 
     // 从 Redis 获取缓存数据
     String cacheJson = redisTemplateStringString.opsForValue().get(key);
@@ -53,7 +77,7 @@ public class DishController {
         List<DishVo> list = parseDishCache(cacheJson);
         if (list != null && !list.isEmpty()) {
           log.info("菜品缓存命中，key={}", key);
-          return Result.success(list);
+          return list;
         }
       } catch (JsonProcessingException | IllegalArgumentException ex) {
         log.warn("菜品缓存解析失败，已清理缓存 key={}", key, ex);
@@ -68,12 +92,25 @@ public class DishController {
     List<DishVo> list = dishService.listWithFlavor(dish);
     if (list != null) {
       try {
-        redisTemplateStringString.opsForValue().set(key, objectMapper.writeValueAsString(list));
+        redisTemplateStringString.opsForValue()
+            .set(key, objectMapper.writeValueAsString(list), DISH_CACHE_TTL);
       } catch (JsonProcessingException ex) {
         log.warn("菜品缓存序列化失败，跳过缓存 key={}", key, ex);
       }
     }
-    return Result.success(list);
+    return list;
+  }
+
+  /**
+   * 拼接带版本号的 Redis 缓存 key，如 dish_100:v3，分类的菜品变更后版本号递增.
+   *
+   * @param categoryId 分类ID
+   * @return Redis 缓存 key
+   */
+  private String versionedKey(Long categoryId) {
+    String version = redisTemplateStringString.opsForValue()
+        .get(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    return CacheConstant.DISH_KEY_PREFIX + categoryId + ":v" + (version == null ? "0" : version);
   }
 
   private List<DishVo> parseDishCache(String cacheJson) throws JsonProcessingException {
@@ -0,0 +1,40 @@
+package dev.kaiwen.controller.user;
+
+import dev.kaiwen.service.MenuSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Menu controller for client side.
+ */
+@RestController
+@RequestMapping("/user/menu")
+@Tag(name = "C端-菜单接口")
+@RequiredArgsConstructor
+public class MenuController {
+
+  private final MenuSnapshotService menuSnapshotService;
+
+  /**
+   * Get all enabled categories, dishes with flavors and setmeals in one response.
+   *
+   * @param ifNoneMatch    The If-None-Match request header.
+   * @param acceptEncoding The Accept-Encoding request header.
+   * @return The UTF-8 JSON of the menu snapshot, or 304 when the client already has it.
+   */
+  @GetMapping("/snapshot")
+  @Operation(summary = "获取菜单快照")
+  public ResponseEntity<byte[]> snapshot(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    return menuSnapshotService.respond(ifNoneMatch, acceptEncoding);
+  }
+}
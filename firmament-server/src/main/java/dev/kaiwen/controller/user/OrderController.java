@@ -4,6 +4,7 @@ import dev.kaiwen.dto.OrdersPaymentDto;
 import dev.kaiwen.dto.OrdersSubmitDto;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.result.Result;
+import dev.kaiwen.service.IdempotencyService;
 import dev.kaiwen.service.OrderService;
 import dev.kaiwen.vo.OrderSubmitVo;
 import dev.kaiwen.vo.OrderVo;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -29,7 +31,13 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "用户端订单")
 public class OrderController {
 
+  /**
+   * Request header carrying the client generated idempotency key.
+   */
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
   private final OrderService orderService;
+  private final IdempotencyService idempotencyService;
 
   /**
    * Remind order by order number.
@@ -48,14 +56,26 @@ public class OrderController {
   /**
    * Submit order.
    *
+   * <p>When the client sends an {@code Idempotency-Key} header, retries with the same key return
+   * the result of the first submission instead of creating another order. Reusing a key with a
+   * different request body is rejected.
+   *
    * @param ordersSubmitDto The order submit data transfer object containing order information.
+   * @param idempotencyKey  The optional client generated idempotency key.
    * @return The order submit result containing order number and order amount.
    */
   @PostMapping("/submit")
   @Operation(summary = "用户提交订单")
-  public Result<OrderSubmitVo> submit(@RequestBody OrdersSubmitDto ordersSubmitDto) {
+  public Result<OrderSubmitVo> submit(@RequestBody OrdersSubmitDto ordersSubmitDto,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
     log.info("用户下单：{}", ordersSubmitDto);
-    OrderSubmitVo orderSubmitVo = orderService.submitOrder(ordersSubmitDto);
+    OrderSubmitVo orderSubmitVo;
+    if (idempotencyKey == null) {
+      orderSubmitVo = orderService.submitOrder(ordersSubmitDto);
+    } else {
+      orderSubmitVo = idempotencyService.execute("order_submit", idempotencyKey, ordersSubmitDto,
+          OrderSubmitVo.class, () -> orderService.submitOrder(ordersSubmitDto));
+    }
     return Result.success(orderSubmitVo);
 
   }
@@ -63,15 +83,28 @@ public class OrderController {
   /**
    * Pay for order.
    *
+   * <p>When the client sends an {@code Idempotency-Key} header, retries with the same key are
+   * answered without paying again. Reusing a key with a different request body is rejected.
+   *
    * @param ordersPaymentDto The order payment data transfer object containing order number and
    *                         payment method.
+   * @param idempotencyKey   The optional client generated idempotency key.
    * @return The operation result, returns success message on success.
    */
   @PutMapping("/payment")
   @Operation(summary = "订单支付")
-  public Result<String> payment(@RequestBody OrdersPaymentDto ordersPaymentDto) {
+  public Result<String> payment(@RequestBody OrdersPaymentDto ordersPaymentDto,
+      @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
     log.info("订单支付：{}", ordersPaymentDto);
-    orderService.payment(ordersPaymentDto);
+    if (idempotencyKey == null) {
+      orderService.payment(ordersPaymentDto);
+    } else {
+      idempotencyService.execute("order_payment", idempotencyKey, ordersPaymentDto, Void.class,
+          () -> {
+            orderService.payment(ordersPaymentDto);
+            return null;
+          });
+    }
     return Result.success("支付成功");
   }
 
@@ -1,8 +1,10 @@
 package dev.kaiwen.controller.user;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.constant.StatusConstant;
 import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.result.Result;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.service.SetmealService;
 import dev.kaiwen.vo.DishItemVo;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,9 +12,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,17 +33,41 @@ import org.springframework.web.bind.annotation.RestController;
 public class SetmealController {
 
   private final SetmealService setmealService;
+  private final MenuCacheService menuCacheService;
+  private final CacheManager cacheManager;
 
   /**
-   * Get setmeals by category ID.
+   * Get setmeals by category ID. The serialized response is cached in memory, in front of the
+   * setmealCache Redis cache.
    *
-   * @param categoryId The category ID.
-   * @return The list of setmeals in the category.
+   * @param categoryId     The category ID.
+   * @param acceptEncoding The Accept-Encoding request header.
+   * @return The UTF-8 JSON of the list of setmeals in the category.
    */
   @GetMapping("/list")
   @Operation(summary = "根据分类id查询套餐")
-  @Cacheable(cacheNames = "setmealCache", key = "#categoryId") // setmealCache::100
-  public Result<List<Setmeal>> list(Long categoryId) {
+  public ResponseEntity<byte[]> list(Long categoryId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    return menuCacheService.respond(CacheConstant.SETMEAL_KEY_PREFIX + categoryId,
+        acceptEncoding, () -> loadSetmealList(categoryId));
+  }
+
+  /**
+   * 本地缓存未命中时加载套餐列表，先查 Redis（setmealCache::100），再查数据库.
+   *
+   * @param categoryId 分类ID
+   * @return 套餐列表结果
+   */
+  private Result<List<Setmeal>> loadSetmealList(Long categoryId) {
+    Cache cache = cacheManager.getCache(CacheConstant.SETMEAL_CACHE_NAME);
+    if (cache == null) {
+      return querySetmealList(categoryId);
+    }
+    return cache.get(categoryId, () -> querySetmealList(categoryId));
+  }
+
+  private Result<List<Setmeal>> querySetmealList(Long categoryId) {
     log.info("根据分类id查询套餐：{}", categoryId);
     Setmeal setmeal = new Setmeal();
     setmeal.setCategoryId(categoryId);
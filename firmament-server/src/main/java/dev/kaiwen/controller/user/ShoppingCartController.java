@@ -2,6 +2,7 @@ package dev.kaiwen.controller.user;
 
 import dev.kaiwen.dto.ShoppingCartDto;
 import dev.kaiwen.entity.ShoppingCart;
+import dev.kaiwen.exception.ShoppingCartBusinessException;
 import dev.kaiwen.result.Result;
 import dev.kaiwen.service.ShoppingCartService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,6 +27,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class ShoppingCartController {
 
+  private static final int MAX_BATCH_SIZE = 100;
+
   private final ShoppingCartService shoppingCartService;
 
   /**
@@ -43,6 +46,24 @@ public class ShoppingCartController {
     return Result.success();
   }
 
+  /**
+   * Add multiple items to shopping cart in one request.
+   *
+   * @param shoppingCartDtoList The items to add, each with the quantity in number.
+   * @return The operation result, returns success message on success.
+   * @throws ShoppingCartBusinessException If more than MAX_BATCH_SIZE items are submitted.
+   */
+  @PostMapping("/addBatch")
+  @Operation(summary = "批量添加购物车")
+  public Result<Void> addBatch(@RequestBody List<ShoppingCartDto> shoppingCartDtoList) {
+    log.info("批量添加购物车 商品信息: {}", shoppingCartDtoList);
+    if (shoppingCartDtoList != null && shoppingCartDtoList.size() > MAX_BATCH_SIZE) {
+      throw new ShoppingCartBusinessException("单次最多添加" + MAX_BATCH_SIZE + "个商品");
+    }
+    shoppingCartService.addShoppingCartBatch(shoppingCartDtoList);
+    return Result.success();
+  }
+
   /**
    * Decrease item quantity in shopping cart.
    *
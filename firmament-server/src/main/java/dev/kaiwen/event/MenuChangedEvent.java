@@ -0,0 +1,20 @@
+package dev.kaiwen.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 菜单变更事件.
+ * 菜品、套餐、分类发生新增、修改、删除或起售停售后发布，用于刷新菜单快照.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MenuChangedEvent {
+
+  public static final String DISH = "dish";
+  public static final String SETMEAL = "setmeal";
+  public static final String CATEGORY = "category";
+
+  // 变更来源：dish、setmeal、category
+  private final String source;
+}
@@ -0,0 +1,18 @@
+package dev.kaiwen.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 订单支付成功事件.
+ * 支付事务提交后向管理端推送来单提醒.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderPaidEvent {
+
+  // 订单id
+  private final Long orderId;
+  // 订单号
+  private final String orderNumber;
+}
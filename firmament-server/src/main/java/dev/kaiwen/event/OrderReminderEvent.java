@@ -0,0 +1,17 @@
+package dev.kaiwen.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 用户催单事件.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderReminderEvent {
+
+  // 订单id
+  private final Long orderId;
+  // 订单号
+  private final String orderNumber;
+}
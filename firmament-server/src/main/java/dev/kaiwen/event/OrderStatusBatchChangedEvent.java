@@ -0,0 +1,21 @@
+package dev.kaiwen.event;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 订单状态批量变更事件.
+ * 管理端批量接单、派送、完成后发布，向管理端推送一条汇总消息.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderStatusBatchChangedEvent {
+
+  // 状态发生变更的订单id
+  private final List<Long> orderIds;
+  // 变更后的状态
+  private final Integer status;
+  // 消息内容
+  private final String content;
+}
@@ -0,0 +1,48 @@
+package dev.kaiwen.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import dev.kaiwen.entity.DailyBusinessStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 每日营业数据汇总 Mapper 接口.
+ */
+@Mapper
+public interface DailyBusinessStatsMapper extends BaseMapper<DailyBusinessStats> {
+
+  /**
+   * 写入某天的完整汇总数据，已存在时整行覆盖.
+   *
+   * @param stats 汇总数据
+   * @return 影响行数
+   */
+  @Insert("INSERT INTO daily_business_stats "
+      + "(stat_date, turnover, total_orders, valid_orders, cancelled_orders, new_users, update_time) "
+      + "VALUES (#{statDate}, #{turnover}, #{totalOrders}, #{validOrders}, #{cancelledOrders}, "
+      + "#{newUsers}, NOW()) "
+      + "ON DUPLICATE KEY UPDATE turnover = VALUES(turnover), "
+      + "total_orders = VALUES(total_orders), valid_orders = VALUES(valid_orders), "
+      + "cancelled_orders = VALUES(cancelled_orders), new_users = VALUES(new_users), "
+      + "update_time = NOW()")
+  int upsert(DailyBusinessStats stats);
+
+  /**
+   * 在某天的汇总数据上累加增量，当天还没有数据时以增量作为初始值插入.
+   *
+   * @param delta 增量数据
+   * @return 影响行数
+   */
+  @Insert("INSERT INTO daily_business_stats "
+      + "(stat_date, turnover, total_orders, valid_orders, cancelled_orders, new_users, update_time) "
+      + "VALUES (#{statDate}, #{turnover}, #{totalOrders}, #{validOrders}, #{cancelledOrders}, "
+      + "#{newUsers}, NOW()) "
+      + "ON DUPLICATE KEY UPDATE turnover = turnover + VALUES(turnover), "
+      + "total_orders = total_orders + VALUES(total_orders), "
+      + "valid_orders = valid_orders + VALUES(valid_orders), "
+      + "cancelled_orders = cancelled_orders + VALUES(cancelled_orders), "
+      + "new_users = new_users + VALUES(new_users), "
+      + "update_time = NOW()")
+  int upsertIncrement(DailyBusinessStats delta);
+
+}
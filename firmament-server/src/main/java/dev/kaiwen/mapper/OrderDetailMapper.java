@@ -2,7 +2,10 @@ package dev.kaiwen.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import dev.kaiwen.entity.OrderDetail;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * 订单明细 Mapper 接口.
@@ -10,4 +13,20 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface OrderDetailMapper extends BaseMapper<OrderDetail> {
 
+  /**
+   * 使用一条多行 INSERT 语句批量写入订单明细.
+   *
+   * @param orderDetailList 订单明细列表，不能为空
+   * @return 影响行数
+   */
+  @Insert({"<script>",
+      "INSERT INTO order_detail ",
+      "(name, image, order_id, dish_id, setmeal_id, dish_flavor, number, amount) VALUES ",
+      "<foreach collection='orderDetailList' item='item' separator=','>",
+      "(#{item.name}, #{item.image}, #{item.orderId}, #{item.dishId}, #{item.setmealId}, ",
+      "#{item.dishFlavor}, #{item.number}, #{item.amount})",
+      "</foreach>",
+      "</script>"})
+  int insertBatch(@Param("orderDetailList") List<OrderDetail> orderDetailList);
+
 }
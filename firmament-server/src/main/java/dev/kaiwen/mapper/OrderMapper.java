@@ -1,8 +1,14 @@
 package dev.kaiwen.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import dev.kaiwen.dto.OrderDailyStatDto;
+import dev.kaiwen.dto.OrderStatusCountDto;
 import dev.kaiwen.entity.Orders;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 /**
  * 订单 Mapper 接口.
@@ -10,4 +16,46 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface OrderMapper extends BaseMapper<Orders> {
 
+  /**
+   * 按下单日期聚合订单数据，每天只返回一行.
+   *
+   * @param begin           开始时间（包含）
+   * @param end             结束时间（不包含）
+   * @param completedStatus 已完成订单状态
+   * @param cancelledStatus 已取消订单状态
+   * @return 每日订单统计，没有订单的日期不返回
+   */
+  @Select("SELECT DATE(order_time) AS order_date, "
+      + "COUNT(*) AS total_orders, "
+      + "COALESCE(SUM(CASE WHEN status = #{completedStatus} THEN 1 ELSE 0 END), 0) AS valid_orders, "
+      + "COALESCE(SUM(CASE WHEN status = #{completedStatus} THEN amount ELSE 0 END), 0) "
+      + "AS valid_amount, "
+      + "COALESCE(SUM(CASE WHEN status = #{cancelledStatus} THEN 1 ELSE 0 END), 0) "
+      + "AS cancelled_orders "
+      + "FROM orders "
+      + "WHERE order_time >= #{begin} AND order_time < #{end} "
+      + "GROUP BY DATE(order_time)")
+  List<OrderDailyStatDto> selectDailyStats(@Param("begin") LocalDateTime begin,
+      @Param("end") LocalDateTime end, @Param("completedStatus") Integer completedStatus,
+      @Param("cancelledStatus") Integer cancelledStatus);
+
+  /**
+   * 按下单日期和状态聚合订单数量.
+   * 返回开始时间之后的全部订单，以及更早但仍处于未结束状态的订单.
+   *
+   * @param beginTime    下单开始时间（包含）
+   * @param openStatuses 未结束的订单状态
+   * @return 每天每个状态的订单数，没有订单的组合不返回
+   */
+  @Select({"<script>",
+      "SELECT DATE(order_time) AS order_date, status, COUNT(*) AS order_count FROM orders",
+      "WHERE order_time &gt;= #{beginTime} OR status IN",
+      "<foreach collection='openStatuses' item='status' open='(' separator=',' close=')'>",
+      "#{status}",
+      "</foreach>",
+      "GROUP BY DATE(order_time), status",
+      "</script>"})
+  List<OrderStatusCountDto> selectDailyStatusCounts(@Param("beginTime") LocalDateTime beginTime,
+      @Param("openStatuses") List<Integer> openStatuses);
+
 }
@@ -2,7 +2,10 @@ package dev.kaiwen.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import dev.kaiwen.entity.ShoppingCart;
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 /**
  * 购物车 Mapper 接口.
@@ -10,4 +13,23 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface ShoppingCartMapper extends BaseMapper<ShoppingCart> {
 
+  /**
+   * 批量写入购物车条目，同一用户的同一商品和口味已存在时累加数量.
+   * 依赖 shopping_cart 表上的 uk_shopping_cart_item 唯一索引，见 sql/shopping_cart_item_key.sql.
+   *
+   * @param shoppingCartList 购物车条目列表
+   * @return 影响行数
+   */
+  @Insert({"<script>",
+      "INSERT INTO shopping_cart ",
+      "(name, image, user_id, dish_id, setmeal_id, dish_flavor, number, amount, create_time) ",
+      "VALUES ",
+      "<foreach collection='shoppingCartList' item='item' separator=','>",
+      "(#{item.name}, #{item.image}, #{item.userId}, #{item.dishId}, #{item.setmealId}, ",
+      "#{item.dishFlavor}, #{item.number}, #{item.amount}, #{item.createTime})",
+      "</foreach>",
+      " ON DUPLICATE KEY UPDATE number = number + VALUES(number)",
+      "</script>"})
+  int upsertBatch(@Param("shoppingCartList") List<ShoppingCart> shoppingCartList);
+
 }
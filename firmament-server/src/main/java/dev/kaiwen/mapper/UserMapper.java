@@ -1,8 +1,13 @@
 package dev.kaiwen.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import dev.kaiwen.dto.UserDailyStatDto;
 import dev.kaiwen.entity.User;
+import java.time.LocalDateTime;
+import java.util.List;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 /**
  * 用户 Mapper 接口.
@@ -10,4 +15,18 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
 
+  /**
+   * 按注册日期聚合新增用户数，每天只返回一行.
+   *
+   * @param begin 开始时间（包含）
+   * @param end   结束时间（不包含）
+   * @return 每日新增用户统计，没有新增用户的日期不返回
+   */
+  @Select("SELECT DATE(create_time) AS create_date, COUNT(*) AS new_users "
+      + "FROM user "
+      + "WHERE create_time >= #{begin} AND create_time < #{end} "
+      + "GROUP BY DATE(create_time)")
+  List<UserDailyStatDto> selectDailyNewUsers(@Param("begin") LocalDateTime begin,
+      @Param("end") LocalDateTime end);
+
 }
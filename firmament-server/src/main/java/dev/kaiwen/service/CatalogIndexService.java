@@ -0,0 +1,47 @@
+package dev.kaiwen.service;
+
+import java.math.BigDecimal;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 商品目录索引服务接口.
+ * 在内存中按 id 保存菜品、套餐的名称、图片和价格，供购物车和下单读取，菜单变更后重新构建.
+ */
+public interface CatalogIndexService {
+
+  /**
+   * 根据菜品id查询目录条目.
+   *
+   * @param dishId 菜品id
+   * @return 目录条目，菜品不存在时返回 null
+   */
+  CatalogItem getDish(Long dishId);
+
+  /**
+   * 根据套餐id查询目录条目.
+   *
+   * @param setmealId 套餐id
+   * @return 目录条目，套餐不存在时返回 null
+   */
+  CatalogItem getSetmeal(Long setmealId);
+
+  /**
+   * 使本节点的当前索引失效，下一次查询时重新构建.
+   */
+  void invalidate();
+
+  /**
+   * 目录条目，构建后不再修改.
+   */
+  @Getter
+  @RequiredArgsConstructor
+  final class CatalogItem {
+
+    private final Long id;
+    private final String name;
+    private final String image;
+    private final BigDecimal price;
+    private final Integer status;
+  }
+}
@@ -0,0 +1,66 @@
+package dev.kaiwen.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import dev.kaiwen.entity.DailyBusinessStats;
+import dev.kaiwen.entity.Orders;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日营业数据汇总服务接口.
+ */
+public interface DailyBusinessStatsService extends IService<DailyBusinessStats> {
+
+  /**
+   * 查询日期范围内的汇总数据.
+   *
+   * @param begin 开始日期（包含）
+   * @param end   结束日期（包含）
+   * @return 汇总数据列表，没有数据的日期不返回
+   */
+  List<DailyBusinessStats> listByDateRange(LocalDate begin, LocalDate end);
+
+  /**
+   * 根据订单表和用户表重新计算日期范围内每一天的汇总数据.
+   *
+   * @param begin 开始日期（包含）
+   * @param end   结束日期（包含）
+   */
+  void rebuild(LocalDate begin, LocalDate end);
+
+  /**
+   * 记录新下单.
+   *
+   * @param orders 新订单
+   */
+  void recordOrderCreated(Orders orders);
+
+  /**
+   * 记录订单状态流转.
+   *
+   * @param ordersDb 流转前的订单（需要包含状态、下单时间和金额）
+   * @param toStatus 流转后的状态
+   */
+  void recordOrderTransition(Orders ordersDb, Integer toStatus);
+
+  /**
+   * 批量记录订单状态流转.
+   *
+   * @param ordersList 流转前的订单列表（需要包含状态、下单时间和金额）
+   * @param toStatus   流转后的状态
+   */
+  void recordOrderTransitions(List<Orders> ordersList, Integer toStatus);
+
+  /**
+   * 记录新注册用户.
+   *
+   * @param createTime 注册时间
+   */
+  void recordUserRegistered(LocalDateTime createTime);
+
+  /**
+   * 把已提交但尚未写入数据库的增量写入汇总表.
+   */
+  void flushPendingDeltas();
+}
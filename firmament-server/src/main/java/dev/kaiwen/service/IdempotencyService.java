@@ -0,0 +1,27 @@
+package dev.kaiwen.service;
+
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求服务接口.
+ * 客户端为一次操作生成唯一的幂等键，重试时携带相同的键；同一用户同一键的操作只执行一次，
+ * 之后的重复请求直接返回 Redis 中保存的第一次执行结果，不访问数据库.
+ */
+public interface IdempotencyService {
+
+  /**
+   * 以幂等方式执行操作.
+   * 第一次请求执行 action 并保存结果；操作执行期间的重复请求抛出业务异常；操作失败时删除记录，允许客户端重试.
+   * 记录中同时保存请求内容的摘要，同一个键用于内容不同的请求时抛出业务异常，不返回第一次的结果.
+   *
+   * @param scope      操作范围，如 order_submit，不同操作的幂等键互不影响
+   * @param key        客户端提供的幂等键
+   * @param request    请求内容，按 JSON 计算摘要
+   * @param resultType 结果类型，用于反序列化保存的结果
+   * @param action     实际执行的操作
+   * @param <T>        结果类型
+   * @return 本次或第一次执行的结果
+   */
+  <T> T execute(String scope, String key, Object request, Class<T> resultType,
+      Supplier<T> action);
+}
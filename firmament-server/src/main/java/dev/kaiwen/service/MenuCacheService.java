@@ -0,0 +1,37 @@
+package dev.kaiwen.service;
+
+import dev.kaiwen.result.Result;
+import java.util.function.Supplier;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * 菜单接口响应缓存服务接口.
+ * 在本节点内存中缓存 C 端菜品、套餐、分类列表接口序列化好的 Result JSON（以及 gzip 压缩后的内容），
+ * 命中时直接写出字节，不需要访问 Redis，也不需要对象映射.
+ */
+public interface MenuCacheService {
+
+  /**
+   * 返回缓存的响应，未命中时调用 loader 加载并缓存.
+   *
+   * @param key            缓存 key，如 dish_1、setmeal_1、category_1
+   * @param acceptEncoding 请求头 Accept-Encoding，包含 gzip 时返回压缩后的内容
+   * @param loader         未命中时加载完整的 Result
+   * @return 响应体为 UTF-8 JSON 字节的响应
+   */
+  ResponseEntity<byte[]> respond(String key, String acceptEncoding, Supplier<Result<?>> loader);
+
+  /**
+   * 清理本节点的缓存，并通知其他节点清理.
+   *
+   * @param keyPattern 缓存 key 或以 * 结尾的前缀，如 dish_1 或 dish_*
+   */
+  void evict(String keyPattern);
+
+  /**
+   * 只清理本节点的缓存.
+   *
+   * @param keyPattern 缓存 key 或以 * 结尾的前缀，如 dish_1 或 dish_*
+   */
+  void evictLocal(String keyPattern);
+}
@@ -0,0 +1,24 @@
+package dev.kaiwen.service;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * 菜单快照服务接口.
+ * 在内存中保存序列化好的整份菜单，菜单变更后重新构建.
+ */
+public interface MenuSnapshotService {
+
+  /**
+   * 返回当前菜单快照，客户端的 ETag 与当前快照一致时返回 304.
+   *
+   * @param ifNoneMatch    请求头 If-None-Match
+   * @param acceptEncoding 请求头 Accept-Encoding，包含 gzip 时返回压缩后的内容
+   * @return 响应体为 UTF-8 JSON 字节的响应，或不带响应体的 304 响应
+   */
+  ResponseEntity<byte[]> respond(String ifNoneMatch, String acceptEncoding);
+
+  /**
+   * 使本节点的当前快照失效，下一次请求时重新构建.
+   */
+  void invalidate();
+}
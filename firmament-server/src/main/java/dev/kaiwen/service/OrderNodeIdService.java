@@ -0,0 +1,48 @@
+package dev.kaiwen.service;
+
+import java.time.Duration;
+
+/**
+ * 订单号节点id租约服务接口.
+ * 未显式配置 firmament.order.node-id 时，启动时从 Redis 租用一个其他节点未占用的节点id，
+ * 并由独立的续期线程定时续期，不受其他定时任务执行时间的影响.
+ */
+public interface OrderNodeIdService {
+
+  /**
+   * 租约有效期，节点停止续期超过该时间后节点id可被其他节点租用.
+   */
+  Duration LEASE_TTL = Duration.ofSeconds(30);
+
+  /**
+   * 续期间隔，租约有效期内可重试两次.
+   */
+  Duration RENEW_INTERVAL = Duration.ofSeconds(10);
+
+  /**
+   * 租用一个空闲的节点id并开始定时续期，已租用时返回同一个id.
+   *
+   * @return 节点id（0-9）
+   * @throws IllegalStateException 当所有节点id都已被其他节点占用时
+   */
+  int acquire();
+
+  /**
+   * 获取本节点当前租用的节点id.
+   * 最近一次成功续期后已超过租约有效期，或租约已被其他节点占用时，不再返回原来的id.
+   *
+   * @return 节点id（0-9）
+   * @throws dev.kaiwen.exception.OrderBusinessException 当前没有有效的租约时
+   */
+  int currentNodeId();
+
+  /**
+   * 续期已租用的节点id，租约已丢失时重新租用一个空闲的id.
+   */
+  void renew();
+
+  /**
+   * 停止续期并释放已租用的节点id.
+   */
+  void release();
+}
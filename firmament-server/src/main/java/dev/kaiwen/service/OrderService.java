@@ -9,9 +9,11 @@ import dev.kaiwen.dto.OrdersRejectionDto;
 import dev.kaiwen.dto.OrdersSubmitDto;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.result.PageResult;
+import dev.kaiwen.vo.OrderBatchResultVo;
 import dev.kaiwen.vo.OrderStatisticsVo;
 import dev.kaiwen.vo.OrderSubmitVo;
 import dev.kaiwen.vo.OrderVo;
+import java.util.List;
 
 /**
  * 订单服务接口.
@@ -38,6 +40,14 @@ public interface OrderService extends IService<Orders> {
    */
   void processTimeoutOrder();
 
+  /**
+   * 取消超时队列中已到期的订单.
+   *
+   * @param limit 本次最多处理的订单数
+   * @return 从队列中取出的订单数
+   */
+  int processTimeoutQueue(int limit);
+
   /**
    * 处理前一天未完成的订单：将前一天的所有未完成订单标记为已完成.
    */
@@ -132,6 +142,30 @@ public interface OrderService extends IService<Orders> {
    */
   void complete(Long id);
 
+  /**
+   * 批量接单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  OrderBatchResultVo confirmBatch(List<Long> ids);
+
+  /**
+   * 批量派送订单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  OrderBatchResultVo deliveryBatch(List<Long> ids);
+
+  /**
+   * 批量完成订单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  OrderBatchResultVo completeBatch(List<Long> ids);
+
   /**
    * 催单.
    *
@@ -0,0 +1,56 @@
+package dev.kaiwen.service;
+
+import dev.kaiwen.entity.Orders;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单状态计数服务接口.
+ * 在本节点内存中按下单日期和状态维护订单数量，供管理端看板直接读取.
+ */
+public interface OrderStatusCounterService {
+
+  /**
+   * 记录新下单.
+   *
+   * @param orders 新订单
+   */
+  void recordOrderCreated(Orders orders);
+
+  /**
+   * 记录订单状态流转.
+   *
+   * @param ordersDb 流转前的订单（需要包含状态和下单时间）
+   * @param toStatus 流转后的状态
+   */
+  void recordOrderTransition(Orders ordersDb, Integer toStatus);
+
+  /**
+   * 批量记录订单状态流转.
+   *
+   * @param ordersList 流转前的订单列表（需要包含状态和下单时间）
+   * @param toStatus   流转后的状态
+   */
+  void recordOrderTransitions(List<Orders> ordersList, Integer toStatus);
+
+  /**
+   * 查询某一天下单的订单在各状态的数量.
+   *
+   * @param orderDate 下单日期
+   * @return 不可变的 状态 -> 订单数 映射，没有订单的状态不包含在内
+   */
+  Map<Integer, Long> countByStatus(LocalDate orderDate);
+
+  /**
+   * 查询全部未结束订单在各状态的数量.
+   *
+   * @return 不可变的 状态 -> 订单数 映射，只包含待付款、待接单、已接单、派送中
+   */
+  Map<Integer, Long> countOpenByStatus();
+
+  /**
+   * 根据数据库重新校准计数，并记录校准前的偏差.
+   */
+  void reconcile();
+}
@@ -0,0 +1,33 @@
+package dev.kaiwen.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单支付超时队列服务接口.
+ * 下单时按支付截止时间登记订单，到期后由定时任务取出并取消，不再每分钟扫描订单表.
+ */
+public interface OrderTimeoutService {
+
+  /**
+   * 下单后的支付时限.
+   */
+  Duration PAYMENT_TIMEOUT = Duration.ofMinutes(15);
+
+  /**
+   * 登记待支付订单，登记失败时由低频的订单表扫描兜底.
+   *
+   * @param orderId   订单id
+   * @param orderTime 下单时间
+   */
+  void register(Long orderId, LocalDateTime orderTime);
+
+  /**
+   * 取出已到支付截止时间的订单id，取出的订单从队列中移除，多个节点不会取到同一个订单.
+   *
+   * @param limit 最多取出的数量
+   * @return 已到期的订单id，没有时返回空列表
+   */
+  List<Long> pollExpired(int limit);
+}
@@ -4,6 +4,7 @@ import dev.kaiwen.vo.OrderReportVo;
 import dev.kaiwen.vo.SalesTop10ReportVo;
 import dev.kaiwen.vo.TurnoverReportVo;
 import dev.kaiwen.vo.UserReportVo;
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 /**
@@ -48,10 +49,12 @@ public interface ReportService {
   SalesTop10ReportVo getSalesTop10(LocalDate begin, LocalDate end);
 
   /**
-   * 导出最近30天的数据报表.
+   * 导出指定日期范围的数据报表，Excel 直接流式写入输出流.
    *
-   * @return Excel文件的字节数组
+   * @param begin        开始日期
+   * @param end          结束日期
+   * @param outputStream Excel 写入的输出流
    */
-  byte[] exportBusinessData();
+  void exportBusinessData(LocalDate begin, LocalDate end, OutputStream outputStream);
 }
 
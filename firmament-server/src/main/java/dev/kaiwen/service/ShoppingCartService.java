@@ -17,6 +17,20 @@ public interface ShoppingCartService extends IService<ShoppingCart> {
    */
   void addShoppingCart(ShoppingCartDto shoppingCartDto);
 
+  /**
+   * 批量添加商品到购物车，同一商品的数量累加.
+   *
+   * @param shoppingCartDtoList 购物车DTO列表，number 为添加的数量
+   */
+  void addShoppingCartBatch(List<ShoppingCartDto> shoppingCartDtoList);
+
+  /**
+   * 将多个条目加入当前用户的购物车，用于再来一单.
+   *
+   * @param shoppingCartList 购物车条目列表
+   */
+  void addShoppingCartItems(List<ShoppingCart> shoppingCartList);
+
   /**
    * 减少购物车中商品数量.
    *
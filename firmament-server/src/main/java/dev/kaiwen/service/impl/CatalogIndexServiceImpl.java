@@ -0,0 +1,187 @@
+package dev.kaiwen.service.impl;
+
+import dev.kaiwen.entity.Dish;
+import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.SetmealService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 商品目录索引服务实现类.
+ * 索引按 id 排序保存在 long 数组中，通过二分查找定位条目，构建完成后不再修改，变更时整体替换.
+ * 索引未命中时回查数据库，查到说明索引已过期（例如其他节点新增了菜品），使索引失效后重新构建.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogIndexServiceImpl implements CatalogIndexService {
+
+  // 索引构建后的最长使用时间，限制了跨节点清理通知丢失时价格的陈旧时间
+  static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+  private final DishService dishService;
+  private final SetmealService setmealService;
+
+  // 当前索引，为 null 时表示需要重新构建
+  private final AtomicReference<Index> current = new AtomicReference<>();
+
+  // 每次失效递增，用于丢弃构建期间菜单又发生变更的索引
+  private final AtomicLong generation = new AtomicLong();
+
+  @Override
+  public CatalogItem getDish(Long dishId) {
+    if (dishId == null) {
+      return null;
+    }
+    CatalogItem item = index().dishes.get(dishId);
+    if (item != null) {
+      return item;
+    }
+    Dish dish = dishService.getById(dishId);
+    if (dish == null) {
+      return null;
+    }
+    invalidate();
+    return toItem(dish);
+  }
+
+  @Override
+  public CatalogItem getSetmeal(Long setmealId) {
+    if (setmealId == null) {
+      return null;
+    }
+    CatalogItem item = index().setmeals.get(setmealId);
+    if (item != null) {
+      return item;
+    }
+    Setmeal setmeal = setmealService.getById(setmealId);
+    if (setmeal == null) {
+      return null;
+    }
+    invalidate();
+    return toItem(setmeal);
+  }
+
+  @Override
+  public void invalidate() {
+    generation.incrementAndGet();
+    current.set(null);
+  }
+
+  /**
+   * 菜品、套餐、分类变更的事务提交后使索引失效.
+   *
+   * @param event 菜单变更事件
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMenuChanged(MenuChangedEvent event) {
+    log.debug("菜单发生变更，商品目录索引失效，来源：{}", event.getSource());
+    invalidate();
+  }
+
+  private Index index() {
+    Index index = current.get();
+    if (index == null || index.isExpired()) {
+      index = rebuild();
+    }
+    return index;
+  }
+
+  /**
+   * 重新构建索引，同一时间只有一个线程查询数据库.
+   */
+  private synchronized Index rebuild() {
+    Index index = current.get();
+    if (index != null && !index.isExpired()) {
+      return index;
+    }
+
+    long startGeneration = generation.get();
+    List<Dish> dishes = dishService.list();
+    List<Setmeal> setmeals = setmealService.list();
+    index = new Index(LongIndex.of(dishes, Dish::getId, CatalogIndexServiceImpl::toItem),
+        LongIndex.of(setmeals, Setmeal::getId, CatalogIndexServiceImpl::toItem));
+    current.set(index);
+    // 构建期间菜单又发生了变更，这份索引只用于本次查询，不保留
+    if (generation.get() != startGeneration) {
+      current.compareAndSet(index, null);
+    }
+    log.info("商品目录索引已重新构建，菜品 {} 个，套餐 {} 个", dishes.size(), setmeals.size());
+    return index;
+  }
+
+  private static CatalogItem toItem(Dish dish) {
+    return new CatalogItem(dish.getId(), dish.getName(), dish.getImage(), dish.getPrice(),
+        dish.getStatus());
+  }
+
+  private static CatalogItem toItem(Setmeal setmeal) {
+    return new CatalogItem(setmeal.getId(), setmeal.getName(), setmeal.getImage(),
+        setmeal.getPrice(), setmeal.getStatus());
+  }
+
+  /**
+   * 构建完成的索引.
+   */
+  private static final class Index {
+
+    private final LongIndex dishes;
+    private final LongIndex setmeals;
+    private final long builtAt = System.nanoTime();
+
+    private Index(LongIndex dishes, LongIndex setmeals) {
+      this.dishes = dishes;
+      this.setmeals = setmeals;
+    }
+
+    private boolean isExpired() {
+      return System.nanoTime() - builtAt > MAX_AGE.toNanos();
+    }
+  }
+
+  /**
+   * id 有序的 long 数组与对应条目数组，查询时不装箱、不计算哈希.
+   */
+  private static final class LongIndex {
+
+    private final long[] ids;
+    private final CatalogItem[] items;
+
+    private LongIndex(long[] ids, CatalogItem[] items) {
+      this.ids = ids;
+      this.items = items;
+    }
+
+    private static <T> LongIndex of(List<T> rows, Function<T, Long> idGetter,
+        Function<T, CatalogItem> mapper) {
+      List<T> sorted = rows.stream()
+          .filter(row -> idGetter.apply(row) != null)
+          .sorted(Comparator.comparing(idGetter))
+          .toList();
+      long[] ids = new long[sorted.size()];
+      CatalogItem[] items = new CatalogItem[sorted.size()];
+      for (int i = 0; i < sorted.size(); i++) {
+        ids[i] = idGetter.apply(sorted.get(i));
+        items[i] = mapper.apply(sorted.get(i));
+      }
+      return new LongIndex(ids, items);
+    }
+
+    private CatalogItem get(long id) {
+      int position = Arrays.binarySearch(ids, id);
+      return position >= 0 ? items[position] : null;
+    }
+  }
+}
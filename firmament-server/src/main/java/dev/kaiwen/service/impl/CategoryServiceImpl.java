@@ -14,6 +14,7 @@ import dev.kaiwen.dto.CategoryPageQueryDto;
 import dev.kaiwen.entity.Category;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.mapper.CategoryMapper;
 import dev.kaiwen.mapper.DishMapper;
@@ -28,6 +29,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -43,6 +45,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
   private final CategoryMapper mapper;
   private final DishMapper dishMapper;
   private final SetmealMapper setmealMapper;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * 新增分类.
@@ -60,6 +63,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     // 使用 ServiceImpl 提供的 save 方法
     // 注意：createTime、updateTime、createUser、updateUser 会通过 AutoFillMetaObjectHandler 自动填充
     this.save(category);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.CATEGORY));
   }
 
   /**
@@ -116,6 +120,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
 
     // 删除分类数据，使用 ServiceImpl 提供的 removeById 方法
     this.removeById(id);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.CATEGORY));
   }
 
   /**
@@ -131,6 +136,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
     // 使用 ServiceImpl 提供的 updateById 方法，只更新非空字段
     // 注意：updateTime、updateUser 会通过 AutoFillMetaObjectHandler 自动填充
     this.updateById(category);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.CATEGORY));
   }
 
   /**
@@ -148,6 +154,7 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category> i
         .set(Category::getUpdateTime, LocalDateTime.now())
         .set(Category::getUpdateUser, BaseContext.getCurrentId());
     mapper.update(null, updateWrapper);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.CATEGORY));
   }
 
   /**
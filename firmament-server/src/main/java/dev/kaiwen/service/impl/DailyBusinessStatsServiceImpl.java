@@ -0,0 +1,266 @@
+package dev.kaiwen.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import dev.kaiwen.dto.OrderDailyStatDto;
+import dev.kaiwen.dto.UserDailyStatDto;
+import dev.kaiwen.entity.DailyBusinessStats;
+import dev.kaiwen.entity.Orders;
+import dev.kaiwen.mapper.DailyBusinessStatsMapper;
+import dev.kaiwen.mapper.OrderMapper;
+import dev.kaiwen.mapper.UserMapper;
+import dev.kaiwen.service.DailyBusinessStatsService;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 每日营业数据汇总服务实现类.
+ * 当天数据随订单状态流转和用户注册增量累加，历史数据由定时任务根据明细表重新计算后定稿.
+ * 增量在业务事务提交后先在内存中按日期合并，再由定时任务写入数据库，
+ * 下单和订单状态流转的事务不再锁定当天的汇总行；节点宕机丢失的增量由定稿任务修正.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class DailyBusinessStatsServiceImpl extends
+    ServiceImpl<DailyBusinessStatsMapper, DailyBusinessStats> implements DailyBusinessStatsService {
+
+  private final DailyBusinessStatsMapper mapper;
+  private final OrderMapper orderMapper;
+  private final UserMapper userMapper;
+
+  // 尚未写入数据库的增量，按日期合并
+  private final Map<LocalDate, DailyBusinessStats> pendingDeltas = new ConcurrentHashMap<>();
+
+  /**
+   * 查询日期范围内的汇总数据.
+   *
+   * @param begin 开始日期（包含）
+   * @param end   结束日期（包含）
+   * @return 汇总数据列表
+   */
+  @Override
+  public List<DailyBusinessStats> listByDateRange(LocalDate begin, LocalDate end) {
+    // 使用 Wrappers + mapper 方式查询
+    LambdaQueryWrapper<DailyBusinessStats> wrapper = Wrappers.lambdaQuery(DailyBusinessStats.class)
+        .ge(DailyBusinessStats::getStatDate, begin)
+        .le(DailyBusinessStats::getStatDate, end)
+        .orderByAsc(DailyBusinessStats::getStatDate);
+    return mapper.selectList(wrapper);
+  }
+
+  /**
+   * 根据订单表和用户表重新计算日期范围内每一天的汇总数据.
+   *
+   * @param begin 开始日期（包含）
+   * @param end   结束日期（包含）
+   */
+  @Override
+  @Transactional
+  public void rebuild(LocalDate begin, LocalDate end) {
+    // 先写入已提交的增量，避免重新计算之后再次累加
+    flushPendingDeltas();
+
+    // 先为每一天准备一行全 0 数据，保证没有订单的日期也会覆盖掉旧值
+    Map<LocalDate, DailyBusinessStats> statsMap = new LinkedHashMap<>();
+    for (LocalDate date = begin; !date.isAfter(end); date = date.plusDays(1)) {
+      statsMap.put(date, emptyStats(date));
+    }
+
+    LocalDateTime beginTime = begin.atStartOfDay();
+    LocalDateTime endTime = end.plusDays(1).atStartOfDay();
+
+    List<OrderDailyStatDto> orderStats = orderMapper.selectDailyStats(beginTime, endTime,
+        Orders.COMPLETED, Orders.CANCELLED);
+    for (OrderDailyStatDto stat : orderStats) {
+      DailyBusinessStats stats = statsMap.get(stat.getOrderDate());
+      if (stats != null) {
+        stats.setTurnover(stat.getValidAmount() != null ? stat.getValidAmount() : BigDecimal.ZERO);
+        stats.setTotalOrders(toInt(stat.getTotalOrders()));
+        stats.setValidOrders(toInt(stat.getValidOrders()));
+        stats.setCancelledOrders(toInt(stat.getCancelledOrders()));
+      }
+    }
+
+    List<UserDailyStatDto> userStats = userMapper.selectDailyNewUsers(beginTime, endTime);
+    for (UserDailyStatDto stat : userStats) {
+      DailyBusinessStats stats = statsMap.get(stat.getCreateDate());
+      if (stats != null) {
+        stats.setNewUsers(toInt(stat.getNewUsers()));
+      }
+    }
+
+    statsMap.values().forEach(mapper::upsert);
+    log.info("每日营业数据汇总已重新计算：{} ~ {}", begin, end);
+  }
+
+  /**
+   * 记录新下单.
+   *
+   * @param orders 新订单
+   */
+  @Override
+  public void recordOrderCreated(Orders orders) {
+    DailyBusinessStats delta = emptyStats(orders.getOrderTime().toLocalDate());
+    delta.setTotalOrders(1);
+    accumulateAfterCommit(delta);
+  }
+
+  /**
+   * 记录订单状态流转.
+   *
+   * @param ordersDb 流转前的订单
+   * @param toStatus 流转后的状态
+   */
+  @Override
+  public void recordOrderTransition(Orders ordersDb, Integer toStatus) {
+    recordOrderTransitions(Collections.singletonList(ordersDb), toStatus);
+  }
+
+  /**
+   * 批量记录订单状态流转，同一天的订单合并为一次累加.
+   *
+   * @param ordersList 流转前的订单列表
+   * @param toStatus   流转后的状态
+   */
+  @Override
+  public void recordOrderTransitions(List<Orders> ordersList, Integer toStatus) {
+    Map<LocalDate, DailyBusinessStats> deltaMap = new LinkedHashMap<>();
+    for (Orders orders : ordersList) {
+      if (orders.getOrderTime() == null || toStatus.equals(orders.getStatus())) {
+        continue;
+      }
+      DailyBusinessStats delta = deltaMap.computeIfAbsent(orders.getOrderTime().toLocalDate(),
+          this::emptyStats);
+      applyTransition(delta, orders, toStatus);
+    }
+    deltaMap.values().forEach(this::accumulateAfterCommit);
+  }
+
+  /**
+   * 记录新注册用户.
+   *
+   * @param createTime 注册时间
+   */
+  @Override
+  public void recordUserRegistered(LocalDateTime createTime) {
+    DailyBusinessStats delta = emptyStats(createTime.toLocalDate());
+    delta.setNewUsers(1);
+    accumulateAfterCommit(delta);
+  }
+
+  /**
+   * 把内存中合并的增量写入数据库，每个日期一条累加语句.
+   * 写入失败的增量放回内存，下次再写.
+   */
+  @Override
+  public void flushPendingDeltas() {
+    for (LocalDate date : pendingDeltas.keySet()) {
+      DailyBusinessStats delta = pendingDeltas.remove(date);
+      if (delta == null) {
+        continue;
+      }
+      try {
+        mapper.upsertIncrement(delta);
+      } catch (RuntimeException ex) {
+        pendingDeltas.merge(date, delta, this::sum);
+        log.warn("每日营业数据增量写入失败，稍后重试：{}", date, ex);
+        return;
+      }
+    }
+  }
+
+  /**
+   * 应用关闭前写入剩余的增量.
+   */
+  @PreDestroy
+  public void flushOnShutdown() {
+    flushPendingDeltas();
+  }
+
+  /**
+   * 事务提交后把增量合并到内存，事务回滚时丢弃；没有事务时直接合并.
+   */
+  private void accumulateAfterCommit(DailyBusinessStats delta) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      accumulate(delta);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        accumulate(delta);
+      }
+    });
+  }
+
+  private void accumulate(DailyBusinessStats delta) {
+    pendingDeltas.merge(delta.getStatDate(), delta, this::sum);
+  }
+
+  private DailyBusinessStats sum(DailyBusinessStats a, DailyBusinessStats b) {
+    return DailyBusinessStats.builder()
+        .statDate(a.getStatDate())
+        .turnover(a.getTurnover().add(b.getTurnover()))
+        .totalOrders(a.getTotalOrders() + b.getTotalOrders())
+        .validOrders(a.getValidOrders() + b.getValidOrders())
+        .cancelledOrders(a.getCancelledOrders() + b.getCancelledOrders())
+        .newUsers(a.getNewUsers() + b.getNewUsers())
+        .build();
+  }
+
+  /**
+   * 根据流转前后的状态计算增量：离开已完成/已取消时扣减，进入已完成/已取消时累加.
+   *
+   * @param delta    增量数据
+   * @param ordersDb 流转前的订单
+   * @param toStatus 流转后的状态
+   */
+  private void applyTransition(DailyBusinessStats delta, Orders ordersDb, Integer toStatus) {
+    Integer fromStatus = ordersDb.getStatus();
+    BigDecimal amount = ordersDb.getAmount() != null ? ordersDb.getAmount() : BigDecimal.ZERO;
+
+    if (Orders.COMPLETED.equals(fromStatus)) {
+      delta.setValidOrders(delta.getValidOrders() - 1);
+      delta.setTurnover(delta.getTurnover().subtract(amount));
+    } else if (Orders.CANCELLED.equals(fromStatus)) {
+      delta.setCancelledOrders(delta.getCancelledOrders() - 1);
+    }
+
+    if (Orders.COMPLETED.equals(toStatus)) {
+      delta.setValidOrders(delta.getValidOrders() + 1);
+      delta.setTurnover(delta.getTurnover().add(amount));
+    } else if (Orders.CANCELLED.equals(toStatus)) {
+      delta.setCancelledOrders(delta.getCancelledOrders() + 1);
+    }
+  }
+
+  private DailyBusinessStats emptyStats(LocalDate date) {
+    return DailyBusinessStats.builder()
+        .statDate(date)
+        .turnover(BigDecimal.ZERO)
+        .totalOrders(0)
+        .validOrders(0)
+        .cancelledOrders(0)
+        .newUsers(0)
+        .build();
+  }
+
+  private int toInt(Long count) {
+    return count != null ? count.intValue() : 0;
+  }
+}
@@ -14,6 +14,7 @@ import dev.kaiwen.dto.DishPageQueryDto;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.DishFlavor;
 import dev.kaiwen.entity.SetmealDish;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.exception.DishDisableFailedException;
 import dev.kaiwen.mapper.DishFlavorMapper;
@@ -34,6 +35,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -52,6 +54,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
   private final DishFlavorService dishFlavorService;
   private final CategoryService categoryService;
   private final DishSetmealRelationService dishSetmealRelationService;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   @Transactional
@@ -65,7 +68,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
       flavors.forEach(f -> f.setDishId(dishId));
       dishFlavorService.saveBatch(flavors);
     }
-
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.DISH));
   }
 
   @Override
@@ -129,7 +132,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
     LambdaUpdateWrapper<DishFlavor> flavorUpdateWrapper = Wrappers.lambdaUpdate(DishFlavor.class)
         .in(DishFlavor::getDishId, ids);
     dishFlavorMapper.delete(flavorUpdateWrapper);
-
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.DISH));
   }
 
   @Override
@@ -164,7 +167,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
       // 对应 SQL: INSERT INTO dish_flavor (dish_id, name, value) VALUES (?,?,?), (?,?,?)...
       dishFlavorService.saveBatch(flavors);
     }
-
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.DISH));
   }
 
   @Override
@@ -214,6 +217,7 @@ public class DishServiceImpl extends ServiceImpl<DishMapper, Dish> implements Di
         .set(Dish::getUpdateTime, LocalDateTime.now())
         .set(Dish::getUpdateUser, BaseContext.getCurrentId());
     mapper.update(null, updateWrapper);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.DISH));
   }
 
   /**
@@ -0,0 +1,143 @@
+package dev.kaiwen.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.constant.MessageConstant;
+import dev.kaiwen.context.BaseContext;
+import dev.kaiwen.exception.BaseException;
+import dev.kaiwen.json.JacksonObjectMapper;
+import dev.kaiwen.service.IdempotencyService;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 幂等请求服务实现类.
+ * 第一次请求通过 SET NX 写入处理中标记，执行完成后用结果 JSON 覆盖标记；
+ * 重复请求读到结果时直接反序列化返回，读到处理中标记时拒绝，避免客户端重试时重复下单.
+ * 标记和结果前都带有请求内容的 MD5 摘要（{@code 摘要:标记或结果}），摘要不一致说明客户端复用了幂等键，直接拒绝.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+  // 处理中标记，结果 JSON 不会与之相同
+  static final String PENDING = "PENDING";
+  // 请求摘要（32 位十六进制 MD5）与标记或结果之间的分隔符
+  private static final char SEPARATOR = ':';
+  private static final int HASH_LENGTH = 32;
+  // 处理中标记的保留时间，需大于操作的最长执行时间，实例宕机时标记到期后允许重试
+  static final Duration PENDING_TTL = Duration.ofMinutes(1);
+  // 执行结果的保留时间，覆盖客户端的重试窗口
+  static final Duration RESULT_TTL = Duration.ofHours(24);
+
+  // 幂等键只允许字母、数字、下划线和短横线，长度不超过 64
+  private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+  /**
+   * 构造幂等请求服务.
+   *
+   * @param redisTemplateStringString 用于保存幂等记录的 RedisTemplate
+   */
+  public IdempotencyServiceImpl(RedisTemplate<String, String> redisTemplateStringString) {
+    this.redisTemplateStringString = redisTemplateStringString;
+  }
+
+  @Override
+  public <T> T execute(String scope, String key, Object request, Class<T> resultType,
+      Supplier<T> action) {
+    if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+      throw new BaseException(MessageConstant.IDEMPOTENCY_KEY_INVALID);
+    }
+    String redisKey = redisKey(scope, BaseContext.getCurrentId(), key);
+    String requestHash = requestHash(request);
+    ValueOperations<String, String> ops = redisTemplateStringString.opsForValue();
+
+    if (!Boolean.TRUE.equals(ops.setIfAbsent(redisKey, record(requestHash, PENDING),
+        PENDING_TTL))) {
+      String stored = ops.get(redisKey);
+      // 记录刚好过期或被失败的请求删除时同样视为处理中，由客户端稍后重试
+      if (stored == null) {
+        throw new BaseException(MessageConstant.REQUEST_IN_PROGRESS);
+      }
+      if (!stored.startsWith(requestHash + SEPARATOR)) {
+        log.warn("幂等键已用于内容不同的请求，key={}", redisKey);
+        throw new BaseException(MessageConstant.IDEMPOTENCY_KEY_REUSED);
+      }
+      String payload = stored.substring(HASH_LENGTH + 1);
+      if (PENDING.equals(payload)) {
+        throw new BaseException(MessageConstant.REQUEST_IN_PROGRESS);
+      }
+      log.info("重复请求直接返回已保存的结果，key={}", redisKey);
+      return deserialize(payload, resultType);
+    }
+
+    T result;
+    try {
+      result = action.get();
+    } catch (RuntimeException ex) {
+      // 操作失败时删除标记，客户端使用相同的键重试时重新执行
+      redisTemplateStringString.delete(redisKey);
+      throw ex;
+    }
+
+    try {
+      ops.set(redisKey, record(requestHash, serialize(result)), RESULT_TTL);
+    } catch (RuntimeException ex) {
+      // 结果已经提交，保存失败时把处理中标记延长到结果的保留时间，
+      // 否则标记一分钟后过期，客户端重试会再次执行操作
+      log.warn("幂等结果保存失败，保留处理中标记，key={}", redisKey, ex);
+      keepPendingMarker(redisKey);
+    }
+    return result;
+  }
+
+  private void keepPendingMarker(String redisKey) {
+    try {
+      redisTemplateStringString.expire(redisKey, RESULT_TTL);
+    } catch (RuntimeException ex) {
+      log.error("处理中标记延期失败，标记过期后重复请求会再次执行，key={}", redisKey, ex);
+    }
+  }
+
+  static String redisKey(String scope, Long userId, String key) {
+    return CacheConstant.IDEMPOTENCY_KEY_PREFIX + scope + ":" + userId + ":" + key;
+  }
+
+  static String record(String requestHash, String payload) {
+    return requestHash + SEPARATOR + payload;
+  }
+
+  /**
+   * 计算请求内容的摘要，请求对象按 JSON 序列化，字段顺序固定.
+   */
+  String requestHash(Object request) {
+    return DigestUtils.md5DigestAsHex(serialize(request).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String serialize(Object result) {
+    try {
+      return objectMapper.writeValueAsString(result);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("幂等记录序列化失败", ex);
+    }
+  }
+
+  private <T> T deserialize(String stored, Class<T> resultType) {
+    try {
+      return objectMapper.readValue(stored, resultType);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("幂等结果反序列化失败", ex);
+    }
+  }
+}
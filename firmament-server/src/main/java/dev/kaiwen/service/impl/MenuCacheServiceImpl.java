@@ -0,0 +1,201 @@
+package dev.kaiwen.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.json.JacksonObjectMapper;
+import dev.kaiwen.result.Result;
+import dev.kaiwen.service.MenuCacheService;
+import dev.kaiwen.utils.GzipUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+/**
+ * 菜单接口响应缓存服务实现类.
+ * 缓存值是最终的响应体字节，使用与消息转换器相同的 JacksonObjectMapper 序列化，保证与不走缓存时的输出一致.
+ * 容量和过期时间都有上限，过期时间同时限制了跨节点清理通知丢失时本地数据的陈旧时间.
+ * 同一个 key 未命中时只有一个请求回源加载，其他并发请求等待同一个加载结果.
+ */
+@Service
+@Slf4j
+public class MenuCacheServiceImpl implements MenuCacheService {
+
+  // 本地最多缓存的响应数
+  private static final long MAXIMUM_SIZE = 1000;
+  // 本地缓存写入后的过期时间
+  private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(5);
+  // 合并加载指标名
+  static final String LOAD_METRIC = "menu.cache.load";
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final ObjectMapper objectMapper = new JacksonObjectMapper();
+  private final Cache<String, CachedResponse> localCache;
+
+  // 正在回源加载的 key -> 加载结果
+  private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight =
+      new ConcurrentHashMap<>();
+
+  // 负责回源加载的请求数
+  private final Counter leaderCounter;
+  // 等待其他请求加载结果的请求数
+  private final Counter coalescedCounter;
+
+  /**
+   * 构造菜单接口响应缓存服务，并注册合并加载指标.
+   *
+   * @param redisTemplateStringString 用于发布清理通知的 RedisTemplate
+   * @param meterRegistry             指标注册表
+   */
+  public MenuCacheServiceImpl(RedisTemplate<String, String> redisTemplateStringString,
+      MeterRegistry meterRegistry) {
+    this.redisTemplateStringString = redisTemplateStringString;
+    this.localCache = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(EXPIRE_AFTER_WRITE)
+        .build();
+    this.leaderCounter = Counter.builder(LOAD_METRIC)
+        .tag("role", "leader")
+        .description("菜单缓存未命中时负责回源加载的请求数")
+        .register(meterRegistry);
+    this.coalescedCounter = Counter.builder(LOAD_METRIC)
+        .tag("role", "coalesced")
+        .description("菜单缓存未命中时等待其他请求加载结果的请求数")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public ResponseEntity<byte[]> respond(String key, String acceptEncoding,
+      Supplier<Result<?>> loader) {
+    CachedResponse cached = localCache.getIfPresent(key);
+    if (cached == null) {
+      cached = load(key, loader);
+    }
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (GzipUtil.acceptsGzip(acceptEncoding)) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzipBody);
+    }
+    return builder.body(cached.body);
+  }
+
+  @Override
+  public void evict(String keyPattern) {
+    evictLocal(keyPattern);
+    try {
+      redisTemplateStringString.convertAndSend(CacheConstant.MENU_CACHE_INVALIDATION_CHANNEL,
+          keyPattern);
+    } catch (RuntimeException ex) {
+      // 通知失败时其他节点的本地缓存最多在过期时间后刷新
+      log.warn("菜单缓存清理通知发送失败，pattern={}", keyPattern, ex);
+    }
+  }
+
+  @Override
+  public void evictLocal(String keyPattern) {
+    if (keyPattern == null || keyPattern.isEmpty()) {
+      return;
+    }
+    // 先移除正在进行的加载，使其结果不再写入缓存，之后的请求重新加载
+    int wildcard = keyPattern.indexOf('*');
+    if (wildcard < 0) {
+      inFlight.remove(keyPattern);
+      localCache.invalidate(keyPattern);
+      return;
+    }
+    String prefix = keyPattern.substring(0, wildcard);
+    inFlight.keySet().removeIf(key -> key.startsWith(prefix));
+    localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * 本地缓存未命中时加载，同一个 key 同时只有一个请求调用 loader.
+   */
+  private CachedResponse load(String key, Supplier<Result<?>> loader) {
+    CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+    CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      coalescedCounter.increment();
+      return await(existing);
+    }
+
+    leaderCounter.increment();
+    try {
+      // 拿到加载权之前可能刚有其他请求加载完成
+      CachedResponse cached = localCache.getIfPresent(key);
+      if (cached == null) {
+        Result<?> result = loader.get();
+        CachedResponse loaded = serialize(result);
+        // 没有数据的结果不缓存，下次请求重新加载；加载期间被清理过的结果也不缓存
+        if (result != null && result.getData() != null) {
+          inFlight.computeIfPresent(key, (k, current) -> {
+            if (current == future) {
+              localCache.put(k, loaded);
+            }
+            return current;
+          });
+        }
+        cached = loaded;
+      }
+      future.complete(cached);
+      return cached;
+    } catch (RuntimeException ex) {
+      future.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private static CachedResponse await(CompletableFuture<CachedResponse> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * 将 Result 序列化为 UTF-8 JSON，并同时准备 gzip 压缩后的内容.
+   */
+  private CachedResponse serialize(Result<?> result) {
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(result);
+      return new CachedResponse(body, GzipUtil.gzip(body));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("菜单响应序列化失败", ex);
+    }
+  }
+
+  /**
+   * 缓存的响应体.
+   */
+  private static final class CachedResponse {
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    private CachedResponse(byte[] body, byte[] gzipBody) {
+      this.body = body;
+      this.gzipBody = gzipBody;
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package dev.kaiwen.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.StatusConstant;
+import dev.kaiwen.entity.Category;
+import dev.kaiwen.entity.Dish;
+import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
+import dev.kaiwen.json.JacksonObjectMapper;
+import dev.kaiwen.result.Result;
+import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.MenuSnapshotService;
+import dev.kaiwen.service.SetmealService;
+import dev.kaiwen.utils.GzipUtil;
+import dev.kaiwen.vo.DishVo;
+import dev.kaiwen.vo.MenuSnapshotVo;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 菜单快照服务实现类.
+ * 快照构建完成后不再修改，变更时整体替换；ETag 由响应体内容计算，各节点对同一份菜单得到相同的 ETag.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MenuSnapshotServiceImpl implements MenuSnapshotService {
+
+  private final CategoryService categoryService;
+  private final DishService dishService;
+  private final SetmealService setmealService;
+
+  private final ObjectMapper objectMapper = new JacksonObjectMapper();
+
+  // 当前快照，为 null 时表示需要重新构建
+  private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+  // 每次失效递增，用于丢弃构建期间菜单又发生变更的快照
+  private final AtomicLong generation = new AtomicLong();
+
+  @Override
+  public ResponseEntity<byte[]> respond(String ifNoneMatch, String acceptEncoding) {
+    Snapshot snapshot = current.get();
+    if (snapshot == null) {
+      snapshot = rebuild();
+    }
+
+    boolean gzip = GzipUtil.acceptsGzip(acceptEncoding);
+    String etag = gzip ? snapshot.gzipEtag : snapshot.etag;
+    if (snapshot.matches(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(CacheControl.noCache())
+          .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache())
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipBody);
+    }
+    return builder.body(snapshot.body);
+  }
+
+  @Override
+  public void invalidate() {
+    generation.incrementAndGet();
+    current.set(null);
+  }
+
+  /**
+   * 菜品、套餐、分类变更的事务提交后使快照失效.
+   *
+   * @param event 菜单变更事件
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMenuChanged(MenuChangedEvent event) {
+    log.debug("菜单发生变更，快照失效，来源：{}", event.getSource());
+    invalidate();
+  }
+
+  /**
+   * 重新构建快照，同一时间只有一个线程查询数据库.
+   */
+  private synchronized Snapshot rebuild() {
+    Snapshot snapshot = current.get();
+    if (snapshot != null) {
+      return snapshot;
+    }
+
+    long startGeneration = generation.get();
+    snapshot = build();
+    current.set(snapshot);
+    // 构建期间菜单又发生了变更，这份快照只返回给本次请求，不保留
+    if (generation.get() != startGeneration) {
+      current.compareAndSet(snapshot, null);
+    }
+    return snapshot;
+  }
+
+  private Snapshot build() {
+    List<Category> categories = categoryService.list(null);
+    Set<Long> categoryIds = categories.stream().map(Category::getId).collect(Collectors.toSet());
+
+    Dish dishQuery = new Dish();
+    dishQuery.setStatus(StatusConstant.ENABLE);
+    List<DishVo> dishes = dishService.listWithFlavor(dishQuery).stream()
+        .filter(dish -> categoryIds.contains(dish.getCategoryId()))
+        .toList();
+
+    Setmeal setmealQuery = new Setmeal();
+    setmealQuery.setStatus(StatusConstant.ENABLE);
+    List<Setmeal> setmeals = setmealService.list(setmealQuery).stream()
+        .filter(setmeal -> categoryIds.contains(setmeal.getCategoryId()))
+        .toList();
+
+    MenuSnapshotVo menu = MenuSnapshotVo.builder()
+        .categories(categories)
+        .dishes(dishes)
+        .setmeals(setmeals)
+        .build();
+    try {
+      byte[] body = objectMapper.writeValueAsBytes(Result.success(menu));
+      log.info("菜单快照已重新构建，分类 {} 个，菜品 {} 个，套餐 {} 个",
+          categories.size(), dishes.size(), setmeals.size());
+      return new Snapshot(body, GzipUtil.gzip(body));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("菜单快照序列化失败", ex);
+    }
+  }
+
+  /**
+   * 构建完成的快照.
+   */
+  private static final class Snapshot {
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private Snapshot(byte[] body, byte[] gzipBody) {
+      String hash = DigestUtils.md5DigestAsHex(body);
+      this.body = body;
+      this.gzipBody = gzipBody;
+      // 同一份菜单的原始内容和 gzip 内容是不同的表示，使用不同的 ETag
+      this.etag = "\"" + hash + "\"";
+      this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    /**
+     * If-None-Match 使用弱比较，忽略 W/ 前缀.
+     */
+    private boolean matches(String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+      for (String tag : ifNoneMatch.split(",")) {
+        String candidate = tag.trim();
+        if (candidate.startsWith("W/")) {
+          candidate = candidate.substring(2);
+        }
+        if ("*".equals(candidate) || etag.equals(candidate) || gzipEtag.equals(candidate)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
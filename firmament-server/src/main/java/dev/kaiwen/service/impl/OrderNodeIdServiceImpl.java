@@ -0,0 +1,205 @@
+package dev.kaiwen.service.impl;
+
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.exception.OrderBusinessException;
+import dev.kaiwen.service.OrderNodeIdService;
+import dev.kaiwen.utils.OrderNumberGenerator;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * 订单号节点id租约服务实现类.
+ * 每个节点id对应一个带过期时间的 Redis key，值为租用者标识，SET NX 成功即租用成功.
+ * 续期在专用的单线程调度器中执行，不与 @Scheduled 任务共用线程；
+ * 本地记录租约到期时间，超过到期时间仍未续期成功时拒绝提供节点id，避免与接手该id的节点生成相同的订单号.
+ */
+@Service
+@Slf4j
+public class OrderNodeIdServiceImpl implements OrderNodeIdService {
+
+  // 仍由本节点持有时延长过期时间；key 已过期时重新占用；已被其他节点占用时返回 0
+  static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+      "local holder = redis.call('GET', KEYS[1]) "
+          + "if holder == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+          + "if not holder then "
+          + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1 end "
+          + "return 0", Long.class);
+
+  // 仍由本节点持有时删除
+  static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+      "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+          + "return 0", Long.class);
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final LongSupplier nanoClock;
+  private final String holder = UUID.randomUUID().toString();
+
+  private Integer nodeId;
+  // 租约在本地的到期时间（System.nanoTime），取发送命令前的时间，早于 Redis 中 key 的实际过期时间
+  private long leaseDeadline;
+  private ThreadPoolTaskScheduler renewScheduler;
+
+  /**
+   * 构造订单号节点id租约服务.
+   *
+   * @param redisTemplateStringString 用于保存租约的 RedisTemplate
+   */
+  @Autowired
+  public OrderNodeIdServiceImpl(RedisTemplate<String, String> redisTemplateStringString) {
+    this(redisTemplateStringString, System::nanoTime);
+  }
+
+  OrderNodeIdServiceImpl(RedisTemplate<String, String> redisTemplateStringString,
+      LongSupplier nanoClock) {
+    this.redisTemplateStringString = redisTemplateStringString;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public synchronized int acquire() {
+    if (nodeId != null) {
+      return nodeId;
+    }
+    int id = tryAcquire();
+    if (id < 0) {
+      throw new IllegalStateException("订单号节点id 0-" + OrderNumberGenerator.MAX_NODE_ID
+          + " 均已被其他节点占用，请减少节点数或通过 firmament.order.node-id 显式配置");
+    }
+    startRenewal();
+    return id;
+  }
+
+  @Override
+  public synchronized int currentNodeId() {
+    if (nodeId == null || nanoClock.getAsLong() - leaseDeadline >= 0) {
+      throw new OrderBusinessException("订单号节点id租约已失效，暂时无法下单，请稍后重试");
+    }
+    return nodeId;
+  }
+
+  @Override
+  public void renew() {
+    Integer id;
+    synchronized (this) {
+      id = nodeId;
+    }
+    if (id == null) {
+      // 之前的租约已丢失，重新租用；未开始续期或已释放时不做任何操作
+      synchronized (this) {
+        if (nodeId == null && renewScheduler != null) {
+          reacquire();
+        }
+      }
+      return;
+    }
+    long start = nanoClock.getAsLong();
+    Long renewed;
+    try {
+      renewed = redisTemplateStringString.execute(RENEW_SCRIPT, List.of(key(id)), holder,
+          String.valueOf(LEASE_TTL.toMillis()));
+    } catch (RuntimeException ex) {
+      // 保留本地到期时间，到期前仍可使用，到期后拒绝生成订单号
+      log.warn("订单号节点id {} 续期失败", id, ex);
+      return;
+    }
+    synchronized (this) {
+      if (!id.equals(nodeId)) {
+        return;
+      }
+      if (renewed != null && renewed != 0L) {
+        leaseDeadline = start + LEASE_TTL.toNanos();
+        return;
+      }
+      // 续期中断超过租约时间且已被其他节点租用，立即停止使用该id并重新租用
+      log.error("订单号节点id {} 已被其他节点占用，停止使用并重新租用", id);
+      nodeId = null;
+      reacquire();
+    }
+  }
+
+  @Override
+  @PreDestroy
+  public void release() {
+    Integer id;
+    ThreadPoolTaskScheduler scheduler;
+    synchronized (this) {
+      id = nodeId;
+      scheduler = renewScheduler;
+      nodeId = null;
+      renewScheduler = null;
+    }
+    if (scheduler != null) {
+      scheduler.shutdown();
+    }
+    if (id == null) {
+      return;
+    }
+    try {
+      redisTemplateStringString.execute(RELEASE_SCRIPT, List.of(key(id)), holder);
+    } catch (RuntimeException ex) {
+      log.warn("释放订单号节点id {} 失败，租约将在过期后自动释放", id, ex);
+    }
+  }
+
+  /**
+   * 依次尝试租用 0-9 号节点id，调用方需持有锁.
+   *
+   * @return 租用到的节点id，全部被占用时返回 -1
+   */
+  private int tryAcquire() {
+    for (int id = 0; id <= OrderNumberGenerator.MAX_NODE_ID; id++) {
+      long start = nanoClock.getAsLong();
+      Boolean acquired = redisTemplateStringString.opsForValue()
+          .setIfAbsent(key(id), holder, LEASE_TTL);
+      if (Boolean.TRUE.equals(acquired)) {
+        nodeId = id;
+        leaseDeadline = start + LEASE_TTL.toNanos();
+        log.info("租用订单号节点id：{}", id);
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  private void reacquire() {
+    if (tryAcquire() < 0) {
+      log.error("没有空闲的订单号节点id，下单将失败直到有节点释放");
+    }
+  }
+
+  private void startRenewal() {
+    if (renewScheduler != null) {
+      return;
+    }
+    ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    scheduler.setPoolSize(1);
+    scheduler.setThreadNamePrefix("order-node-id-renew-");
+    scheduler.setDaemon(true);
+    scheduler.initialize();
+    scheduler.scheduleWithFixedDelay(this::renewQuietly, Instant.now().plus(RENEW_INTERVAL),
+        RENEW_INTERVAL);
+    renewScheduler = scheduler;
+  }
+
+  private void renewQuietly() {
+    try {
+      renew();
+    } catch (RuntimeException ex) {
+      log.warn("订单号节点id续期异常", ex);
+    }
+  }
+
+  private static String key(int id) {
+    return CacheConstant.ORDER_NODE_ID_KEY_PREFIX + id;
+  }
+}
@@ -1,6 +1,5 @@
 package dev.kaiwen.service.impl;
 
-import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -20,35 +19,44 @@ import dev.kaiwen.entity.OrderDetail;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.entity.ShoppingCart;
 import dev.kaiwen.entity.User;
+import dev.kaiwen.event.OrderPaidEvent;
+import dev.kaiwen.event.OrderReminderEvent;
+import dev.kaiwen.event.OrderStatusBatchChangedEvent;
 import dev.kaiwen.exception.OrderBusinessException;
 import dev.kaiwen.exception.ShoppingCartBusinessException;
 import dev.kaiwen.mapper.OrderDetailMapper;
 import dev.kaiwen.mapper.OrderMapper;
-import dev.kaiwen.mapper.ShoppingCartMapper;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.service.AddressBookService;
-import dev.kaiwen.service.OrderDetailService;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.OrderService;
+import dev.kaiwen.service.OrderStatusCounterService;
+import dev.kaiwen.service.OrderTimeoutService;
 import dev.kaiwen.service.ShoppingCartService;
 import dev.kaiwen.service.UserService;
+import dev.kaiwen.utils.OrderNumberGenerator;
+import dev.kaiwen.vo.OrderBatchResultVo;
 import dev.kaiwen.vo.OrderStatisticsVo;
 import dev.kaiwen.vo.OrderSubmitVo;
 import dev.kaiwen.vo.OrderVo;
-import dev.kaiwen.websocket.WebSocketServer;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -60,33 +68,39 @@ import org.springframework.util.StringUtils;
 @RequiredArgsConstructor
 public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implements OrderService {
 
-  @SuppressWarnings("SpellCheckingInspection")
-  private static final String ORDER_NUMBER_DATE_PATTERN = "yyyyMMddHHmmssSSS";
   private static final String REFUND_LOG_MESSAGE = "订单 {} 已退款（模拟）";
-  private static final int ORDER_NUMBER_RANDOM_BOUND = 1000;
+  private static final String TIMEOUT_CANCEL_REASON = "订单超时，自动取消";
+  // 批量操作单次最多处理的订单数
+  private static final int MAX_BATCH_SIZE = 100;
 
   private final OrderMapper mapper;
-  private final ShoppingCartMapper shoppingCartMapper;
   private final OrderDetailMapper orderDetailMapper;
-  private final OrderDetailService orderDetailService;
   private final AddressBookService addressBookService;
   private final ShoppingCartService shoppingCartService;
+  private final CatalogIndexService catalogIndexService;
   private final UserService userService;
-  private final WebSocketServer webSocketServer;
+  private final DailyBusinessStatsService dailyBusinessStatsService;
+  private final OrderStatusCounterService orderStatusCounterService;
+  private final ApplicationEventPublisher eventPublisher;
   private final ObjectProvider<OrderService> orderServiceProvider;
+  private final OrderNumberGenerator orderNumberGenerator;
+  private final TransactionTemplate transactionTemplate;
+  private final OrderTimeoutService orderTimeoutService;
 
   /**
    * 用户下单.
+   * 读取和校验在事务外完成，事务只包含固定数量的写入语句，缩短持有连接和行锁的时间.
    *
    * @param ordersSubmitDto 订单提交DTO
    * @return 订单提交VO
    */
   @Override
-  @Transactional
   public OrderSubmitVo submitOrder(OrdersSubmitDto ordersSubmitDto) {
     Long userId = BaseContext.getCurrentId();
 
-    List<ShoppingCart> shoppingCartList = getValidatedShoppingCart(userId);
+    // 1. 事务外读取并校验下单需要的全部数据：购物车、地址、用户，价格来自内存中的商品目录索引
+    List<ShoppingCart> shoppingCartList = getValidatedShoppingCart();
+    applyCatalogPrices(shoppingCartList);
     BigDecimal totalAmount = calculateTotalAmount(shoppingCartList,
         ordersSubmitDto.getPackAmount());
 
@@ -99,43 +113,47 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     // 填充订单的空属性
     orders.setUserId(userId);
     LocalDateTime now = LocalDateTime.now();
-    orders.setNumber(generateOrderNumber(userId, now));
+    orders.setNumber(orderNumberGenerator.next(userId));
     orders.setStatus(Orders.PENDING_PAYMENT);
     orders.setPayStatus(Orders.UN_PAID);
     orders.setOrderTime(now);
 
     fillOrderAddressAndUser(orders, ordersSubmitDto.getAddressBookId(), userId);
 
-    // 插入订单到数据库
-    this.save(orders);
-
     // 将购物车条目转换为订单明细
     List<OrderDetail> orderDetailList = OrderDetailConverter.INSTANCE.cartList2DetailList(
         shoppingCartList);
 
-    // 设置订单ID并填充字段
-    Long orderId = orders.getId();
-    orderDetailList.forEach(orderDetail -> orderDetail.setOrderId(orderId));
+    // 2. 事务内只执行固定的写入：订单、当日营业数据、订单明细（一条多行 INSERT）
+    transactionTemplate.executeWithoutResult(status -> {
+      this.save(orders);
+      dailyBusinessStatsService.recordOrderCreated(orders);
+      orderStatusCounterService.recordOrderCreated(orders);
 
-    // 批量保存订单明细到数据库
-    orderDetailService.saveBatch(orderDetailList);
+      Long orderId = orders.getId();
+      orderDetailList.forEach(orderDetail -> orderDetail.setOrderId(orderId));
+      orderDetailMapper.insertBatch(orderDetailList);
+    });
 
-    // 提交订单成功后清空购物车
-    shoppingCartService.cleanShoppingCart();
+    // 3. 事务提交后清空购物车并登记支付超时，到期未支付时自动取消
+    // 购物车可能保存在 Redis 中，不受数据库事务控制，放在事务内时订单回滚会丢失购物车
+    cleanShoppingCartAfterCommit(orders.getId());
+    orderTimeoutService.register(orders.getId(), orders.getOrderTime());
 
     return buildOrderSubmitVo(orders);
-
   }
 
-  private List<ShoppingCart> getValidatedShoppingCart(Long userId) {
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<ShoppingCart> wrapper = Wrappers.lambdaQuery(ShoppingCart.class)
-        .eq(ShoppingCart::getUserId, userId);
-    boolean exists = shoppingCartMapper.selectCount(wrapper) > 0;
-    if (!exists) {
-      throw new ShoppingCartBusinessException(MessageConstant.SHOPPING_CART_IS_NULL);
+  private void cleanShoppingCartAfterCommit(Long orderId) {
+    try {
+      shoppingCartService.cleanShoppingCart();
+    } catch (RuntimeException ex) {
+      // 订单已提交，清空失败只会留下购物车条目，不影响下单结果
+      log.warn("订单 {} 已提交，清空购物车失败", orderId, ex);
     }
+  }
 
+  private List<ShoppingCart> getValidatedShoppingCart() {
+    // 购物车可能保存在数据库或 Redis 中，统一通过购物车服务读取
     List<ShoppingCart> shoppingCartList = shoppingCartService.showShoppingCart();
     if (CollectionUtils.isEmpty(shoppingCartList)) {
       throw new ShoppingCartBusinessException(MessageConstant.SHOPPING_CART_IS_NULL);
@@ -144,6 +162,23 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     return shoppingCartList;
   }
 
+  /**
+   * 使用商品目录索引中的当前名称、图片和价格覆盖购物车中加入时记录的信息，不查询数据库.
+   * 目录中已不存在的商品保留购物车中的信息.
+   */
+  private void applyCatalogPrices(List<ShoppingCart> shoppingCartList) {
+    for (ShoppingCart cart : shoppingCartList) {
+      CatalogItem item = cart.getDishId() != null
+          ? catalogIndexService.getDish(cart.getDishId())
+          : catalogIndexService.getSetmeal(cart.getSetmealId());
+      if (item != null) {
+        cart.setName(item.getName());
+        cart.setImage(item.getImage());
+        cart.setAmount(item.getPrice());
+      }
+    }
+  }
+
   private BigDecimal calculateTotalAmount(List<ShoppingCart> shoppingCartList, Integer packAmount) {
     BigDecimal totalAmount = shoppingCartList.stream()
         .filter(cart -> cart.getAmount() != null && cart.getNumber() != null)
@@ -157,39 +192,6 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     return totalAmount;
   }
 
-  private String generateOrderNumber(Long userId, LocalDateTime now) {
-    String userIdStr = userId.toString();
-    String userIdSuffix = userIdStr.length() >= 4 ? userIdStr.substring(userIdStr.length() - 4) :
-        String.format("%04d", userId);
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(ORDER_NUMBER_DATE_PATTERN);
-
-    String orderNumber = generateOrderNumberSuffix(now, formatter, userIdSuffix);
-    int retryCount = 0;
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> wrapper = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getNumber, orderNumber);
-    while (retryCount < 5 && mapper.selectCount(wrapper) > 0) {
-      orderNumber = generateOrderNumberSuffix(now, formatter, userIdSuffix);
-      wrapper = Wrappers.lambdaQuery(Orders.class)
-          .eq(Orders::getNumber, orderNumber);
-      retryCount++;
-    }
-    if (retryCount >= 5) {
-      long nanoTime = System.nanoTime();
-      String nanoSuffix = String.valueOf(nanoTime)
-          .substring(Math.max(0, String.valueOf(nanoTime).length() - 6));
-      orderNumber = now.format(formatter) + userIdSuffix + nanoSuffix;
-    }
-
-    return orderNumber;
-  }
-
-  private String generateOrderNumberSuffix(LocalDateTime now, DateTimeFormatter formatter,
-      String userIdSuffix) {
-    int randomNum = ThreadLocalRandom.current().nextInt(ORDER_NUMBER_RANDOM_BOUND);
-    return String.format("%s%s%03d", now.format(formatter), userIdSuffix, randomNum);
-  }
-
   private void fillOrderAddressAndUser(Orders orders, Long addressBookId, Long userId) {
     AddressBook addressBook = addressBookService.getByIdWithCheck(addressBookId);
     orders.setConsignee(addressBook.getConsignee());
@@ -233,6 +235,28 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     orders.setCancelTime(LocalDateTime.now());
   }
 
+  /**
+   * 执行订单状态流转.
+   * 以读取到的原状态作为更新条件，受影响行数为 0 说明订单在读取后已被其他请求修改，
+   * 此时原订单不再可信，不能用于记录汇总增量，直接按状态错误处理.
+   *
+   * @param ordersDb   流转前的订单
+   * @param transition 状态流转
+   * @param changes    除状态外需要一并更新的字段
+   */
+  private void applyTransition(Orders ordersDb, OrderTransition transition, Orders changes) {
+    if (!transition.allows(ordersDb.getStatus())) {
+      throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
+    }
+    changes.setStatus(transition.getToStatus());
+    int updated = mapper.update(changes, Wrappers.lambdaUpdate(Orders.class)
+        .eq(Orders::getId, ordersDb.getId())
+        .eq(Orders::getStatus, ordersDb.getStatus()));
+    if (updated == 0) {
+      throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
+    }
+  }
+
   /**
    * 订单支付（模拟支付，不调用微信支付接口）.
    *
@@ -265,56 +289,95 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
       throw new OrderBusinessException("订单已支付，请勿重复支付");
     }
 
-    // 更新订单信息
-    LocalDateTime now = LocalDateTime.now();
-    orders.setPayStatus(Orders.PAID); // 支付状态：已支付
-    orders.setStatus(Orders.TO_BE_CONFIRMED); // 订单状态：待接单
-    orders.setCheckoutTime(now); // 结账时间
-
-    // 如果提供了支付方式，更新支付方式
-    if (ordersPaymentDto.getPayMethod() != null) {
-      orders.setPayMethod(ordersPaymentDto.getPayMethod());
+    // 以待付款、未支付作为更新条件，与超时取消或重复支付并发时只有一个请求能修改成功
+    Orders changes = new Orders();
+    changes.setPayStatus(Orders.PAID); // 支付状态：已支付
+    changes.setStatus(Orders.TO_BE_CONFIRMED); // 订单状态：待接单
+    changes.setCheckoutTime(LocalDateTime.now()); // 结账时间
+    // 未提供支付方式时为 null，不更新该字段
+    changes.setPayMethod(ordersPaymentDto.getPayMethod());
+    int updated = mapper.update(changes, Wrappers.lambdaUpdate(Orders.class)
+        .eq(Orders::getId, orders.getId())
+        .eq(Orders::getStatus, Orders.PENDING_PAYMENT)
+        .eq(Orders::getPayStatus, Orders.UN_PAID));
+    if (updated == 0) {
+      throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
     }
 
-    // 更新订单到数据库
-    this.updateById(orders);
-    Map<String, Object> map = new HashMap<>();
-    map.put("type", 1);
-    map.put("orderId", orders.getId());
-    map.put("content", "订单号 :" + ordersPaymentDto.getOrderNumber());
-    String jsonString = JSON.toJSONString(map);
-
-    webSocketServer.sendToAllClient(jsonString);
+    // 更新成功后按原状态记录计数
+    orderStatusCounterService.recordOrderTransition(orders, Orders.TO_BE_CONFIRMED);
+    // 来单提醒在事务提交后异步推送，推送耗时不计入支付事务
+    eventPublisher.publishEvent(new OrderPaidEvent(orders.getId(),
+        ordersPaymentDto.getOrderNumber()));
   }
 
   /**
    * 处理超时订单：将超过15分钟未支付的订单自动取消.
+   * 订单超时主要由超时队列处理，这里扫描订单表兜底，处理登记失败或取出后未能取消的订单.
+   * 只查询订单id，取消与超时队列使用同一逻辑：每批在独立事务中加锁并按状态条件更新，
+   * 与超时队列或支付同时处理同一订单时不会覆盖对方的修改.
    */
   @Override
-  @Transactional
   public void processTimeoutOrder() {
-    LocalDateTime time = LocalDateTime.now().minusMinutes(15);
+    LocalDateTime time = LocalDateTime.now().minus(OrderTimeoutService.PAYMENT_TIMEOUT);
+
+    // 查询超时订单id：状态为待付款、支付状态为未支付、下单时间超过15分钟
+    List<Long> timeoutOrderIds = mapper.selectObjs(Wrappers.lambdaQuery(Orders.class)
+            .select(Orders::getId)
+            .eq(Orders::getStatus, Orders.PENDING_PAYMENT)
+            .eq(Orders::getPayStatus, Orders.UN_PAID)
+            .lt(Orders::getOrderTime, time))
+        .stream()
+        .map(id -> ((Number) id).longValue())
+        .toList();
 
-    // 查询超时订单：状态为待付款、支付状态为未支付、下单时间超过15分钟
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> wrapper = Wrappers.lambdaQuery(Orders.class)
+    for (int from = 0; from < timeoutOrderIds.size(); from += MAX_BATCH_SIZE) {
+      List<Long> batch = timeoutOrderIds.subList(from,
+          Math.min(from + MAX_BATCH_SIZE, timeoutOrderIds.size()));
+      transactionTemplate.executeWithoutResult(status -> cancelTimeoutOrders(batch));
+    }
+  }
+
+  /**
+   * 取消超时队列中已到期的订单.
+   * 订单在事务中加锁后再按状态条件更新，已支付或已取消的订单不受影响.
+   *
+   * @param limit 本次最多处理的订单数
+   * @return 从队列中取出的订单数
+   */
+  @Override
+  public int processTimeoutQueue(int limit) {
+    List<Long> orderIds = orderTimeoutService.pollExpired(limit);
+    if (orderIds.isEmpty()) {
+      return 0;
+    }
+    transactionTemplate.executeWithoutResult(status -> cancelTimeoutOrders(orderIds));
+    return orderIds.size();
+  }
+
+  private void cancelTimeoutOrders(List<Long> orderIds) {
+    List<Orders> timeoutOrders = mapper.selectList(Wrappers.lambdaQuery(Orders.class)
+        .in(Orders::getId, orderIds)
         .eq(Orders::getStatus, Orders.PENDING_PAYMENT)
         .eq(Orders::getPayStatus, Orders.UN_PAID)
-        .lt(Orders::getOrderTime, time);
-    List<Orders> timeoutOrders = mapper.selectList(wrapper);
-
-    if (timeoutOrders != null && !timeoutOrders.isEmpty()) {
-      LocalDateTime now = LocalDateTime.now();
-      // 批量更新超时订单
-      timeoutOrders.forEach(order -> {
-        order.setStatus(Orders.CANCELLED); // 订单状态：已取消
-        order.setCancelReason("订单超时，自动取消"); // 取消原因
-        order.setCancelTime(now); // 取消时间
-      });
-
-      // 批量更新到数据库
-      orderServiceProvider.getObject().updateBatchById(timeoutOrders);
+        .last("FOR UPDATE"));
+    if (timeoutOrders == null || timeoutOrders.isEmpty()) {
+      return;
     }
+
+    // 先按原状态记录汇总增量，再修改状态
+    dailyBusinessStatsService.recordOrderTransitions(timeoutOrders, Orders.CANCELLED);
+    orderStatusCounterService.recordOrderTransitions(timeoutOrders, Orders.CANCELLED);
+
+    List<Long> lockedIds = timeoutOrders.stream().map(Orders::getId).toList();
+    mapper.update(null, Wrappers.lambdaUpdate(Orders.class)
+        .set(Orders::getStatus, Orders.CANCELLED)
+        .set(Orders::getCancelReason, TIMEOUT_CANCEL_REASON)
+        .set(Orders::getCancelTime, LocalDateTime.now())
+        .in(Orders::getId, lockedIds)
+        .eq(Orders::getStatus, Orders.PENDING_PAYMENT)
+        .eq(Orders::getPayStatus, Orders.UN_PAID));
+    log.info("取消超时订单 {} 个", lockedIds.size());
   }
 
   /**
@@ -338,6 +401,10 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     List<Orders> incompleteOrders = mapper.selectList(wrapper);
 
     if (incompleteOrders != null && !incompleteOrders.isEmpty()) {
+      // 先按原状态记录汇总增量，再修改状态
+      dailyBusinessStatsService.recordOrderTransitions(incompleteOrders, Orders.COMPLETED);
+      orderStatusCounterService.recordOrderTransitions(incompleteOrders, Orders.COMPLETED);
+
       // 批量更新订单为已完成
       incompleteOrders.forEach(order -> {
         order.setStatus(Orders.COMPLETED); // 订单状态：已完成
@@ -378,19 +445,16 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     List<OrderVo> list = new ArrayList<>();
 
     // 查询出订单明细，并封装入OrderVO进行响应
-    if (pageInfo.getTotal() > 0) {
-      for (Orders orders : pageInfo.getRecords()) {
-        Long orderId = orders.getId(); // 订单id
-
-        // 查询订单明细
-        // 使用 Wrappers + mapper 方式查询
-        LambdaQueryWrapper<OrderDetail> orderDetailWrapper = Wrappers.lambdaQuery(OrderDetail.class)
-            .eq(OrderDetail::getOrderId, orderId);
-        List<OrderDetail> orderDetails = orderDetailMapper.selectList(orderDetailWrapper);
+    List<Orders> records = pageInfo.getRecords();
+    if (pageInfo.getTotal() > 0 && !CollectionUtils.isEmpty(records)) {
+      // 一次 IN 查询取回本页全部订单明细，避免每个订单单独查询一次（N+1）
+      Map<Long, List<OrderDetail>> orderDetailMap = getOrderDetailMap(records);
 
+      for (Orders orders : records) {
         OrderVo orderVo = new OrderVo();
         BeanUtils.copyProperties(orders, orderVo);
-        orderVo.setOrderDetailList(orderDetails);
+        orderVo.setOrderDetailList(
+            orderDetailMap.getOrDefault(orders.getId(), Collections.emptyList()));
 
         list.add(orderVo);
       }
@@ -398,6 +462,26 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     return new PageResult(pageInfo.getTotal(), list);
   }
 
+  /**
+   * 批量查询订单明细，并在内存中按订单id分组.
+   *
+   * @param ordersList 订单列表
+   * @return 订单id到订单明细列表的映射
+   */
+  private Map<Long, List<OrderDetail>> getOrderDetailMap(List<Orders> ordersList) {
+    List<Long> orderIds = ordersList.stream()
+        .map(Orders::getId)
+        .toList();
+
+    // 使用 Wrappers + mapper 方式查询
+    LambdaQueryWrapper<OrderDetail> orderDetailWrapper = Wrappers.lambdaQuery(OrderDetail.class)
+        .in(OrderDetail::getOrderId, orderIds);
+    List<OrderDetail> orderDetailList = orderDetailMapper.selectList(orderDetailWrapper);
+
+    return orderDetailList.stream()
+        .collect(Collectors.groupingBy(OrderDetail::getOrderId));
+  }
+
   /**
    * 查询订单详情.
    *
@@ -471,22 +555,19 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
       throw new OrderBusinessException(MessageConstant.ORDER_NOT_FOUND);
     }
 
-    // 订单状态 1待付款 2待接单 3已接单 4派送中 5已完成 6已取消
-    if (ordersDb.getStatus() > 2) {
-      throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
-    }
-
+    // 用户只能取消待付款和待接单的订单
     Orders orders = new Orders();
-    orders.setId(ordersDb.getId());
 
     // 订单处于待接单状态下取消，需要进行退款（模拟退款，直接标记为已退款）
-    if (ordersDb.getStatus().equals(Orders.TO_BE_CONFIRMED)) {
+    if (Orders.TO_BE_CONFIRMED.equals(ordersDb.getStatus())) {
       applyRefund(orders, ordersDb);
     }
 
     // 更新订单状态、取消原因、取消时间
     fillCancelInfo(orders, "用户取消", false);
-    updateById(orders);
+    applyTransition(ordersDb, OrderTransition.USER_CANCEL, orders);
+    dailyBusinessStatsService.recordOrderTransition(ordersDb, Orders.CANCELLED);
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.CANCELLED);
   }
 
   @Override
@@ -525,8 +606,8 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
       return shoppingCart;
     }).toList();
 
-    // 将购物车对象批量添加到数据库
-    shoppingCartService.saveBatch(shoppingCartList);
+    // 将购物车对象批量加入购物车
+    shoppingCartService.addShoppingCartItems(shoppingCartList);
   }
 
   /**
@@ -569,11 +650,15 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
 
     List<Orders> ordersList = page.getRecords();
     if (!CollectionUtils.isEmpty(ordersList)) {
+      // 整页订单明细一次查询取回，查询次数与分页大小无关
+      Map<Long, List<OrderDetail>> orderDetailMap = getOrderDetailMap(ordersList);
+
       for (Orders orders : ordersList) {
         // 将共同字段复制到OrderVO
         OrderVo orderVo = new OrderVo();
         BeanUtils.copyProperties(orders, orderVo);
-        String orderDishes = getOrderDishesStr(orders);
+        String orderDishes = getOrderDishesStr(
+            orderDetailMap.getOrDefault(orders.getId(), Collections.emptyList()));
 
         // 将订单菜品信息封装到orderVo中，并添加到orderVoList
         orderVo.setOrderDishes(orderDishes);
@@ -584,18 +669,12 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
   }
 
   /**
-   * 根据订单id获取菜品信息字符串.
+   * 根据订单明细拼接菜品信息字符串.
    *
-   * @param orders 订单信息
+   * @param orderDetailList 订单明细列表
    * @return 菜品信息字符串
    */
-  private String getOrderDishesStr(Orders orders) {
-    // 查询订单菜品详情信息（订单中的菜品和数量）
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<OrderDetail> orderDetailWrapper = Wrappers.lambdaQuery(OrderDetail.class)
-        .eq(OrderDetail::getOrderId, orders.getId());
-    List<OrderDetail> orderDetailList = orderDetailMapper.selectList(orderDetailWrapper);
-
+  private String getOrderDishesStr(List<OrderDetail> orderDetailList) {
     // 将每一条订单菜品信息拼接为字符串（格式：宫保鸡丁*3；）
     List<String> orderDishList = orderDetailList.stream()
         .map(x -> x.getName() + "*" + x.getNumber() + ";")
@@ -612,25 +691,16 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
    */
   @Override
   public OrderStatisticsVo statistics() {
-    // 根据状态，分别查询出待接单、待派送、派送中的订单数量
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> wrapper1 = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getStatus, Orders.TO_BE_CONFIRMED);
-    Integer toBeConfirmed = mapper.selectCount(wrapper1).intValue();
-
-    LambdaQueryWrapper<Orders> wrapper2 = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getStatus, Orders.CONFIRMED);
-    Integer confirmed = mapper.selectCount(wrapper2).intValue();
-
-    LambdaQueryWrapper<Orders> wrapper3 = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getStatus, Orders.DELIVERY_IN_PROGRESS);
-    Integer deliveryInProgress = mapper.selectCount(wrapper3).intValue();
+    // 直接读取内存中的订单状态计数，不查询数据库
+    Map<Integer, Long> statusCounts = orderStatusCounterService.countOpenByStatus();
 
     // 将查询出的数据封装到orderStatisticsVO中响应
     OrderStatisticsVo orderStatisticsVo = new OrderStatisticsVo();
-    orderStatisticsVo.setToBeConfirmed(toBeConfirmed);
-    orderStatisticsVo.setConfirmed(confirmed);
-    orderStatisticsVo.setDeliveryInProgress(deliveryInProgress);
+    orderStatisticsVo.setToBeConfirmed(
+        statusCounts.getOrDefault(Orders.TO_BE_CONFIRMED, 0L).intValue());
+    orderStatisticsVo.setConfirmed(statusCounts.getOrDefault(Orders.CONFIRMED, 0L).intValue());
+    orderStatisticsVo.setDeliveryInProgress(
+        statusCounts.getOrDefault(Orders.DELIVERY_IN_PROGRESS, 0L).intValue());
     return orderStatisticsVo;
   }
 
@@ -642,12 +712,14 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
   @Override
   @Transactional
   public void confirm(OrdersConfirmDto ordersConfirmDto) {
-    Orders orders = Orders.builder()
-        .id(ordersConfirmDto.getId())
-        .status(Orders.CONFIRMED)
-        .build();
+    // 查询原订单，用于校验状态和记录状态计数
+    Orders ordersDb = this.getById(ordersConfirmDto.getId());
+    if (ordersDb == null) {
+      throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
+    }
 
-    this.updateById(orders);
+    applyTransition(ordersDb, OrderTransition.CONFIRM, new Orders());
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.CONFIRMED);
   }
 
   /**
@@ -662,14 +734,13 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     Orders ordersDb = this.getById(ordersRejectionDto.getId());
 
     // 订单只有存在且状态为2（待接单）才可以拒单
-    if (ordersDb == null || !ordersDb.getStatus().equals(Orders.TO_BE_CONFIRMED)) {
+    if (ordersDb == null) {
       throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
     }
 
     // 支付状态
     Integer payStatus = ordersDb.getPayStatus();
     Orders orders = new Orders();
-    orders.setId(ordersDb.getId());
 
     if (Orders.PAID.equals(payStatus)) {
       // 用户已支付，需要退款（模拟退款，直接标记为已退款）
@@ -679,7 +750,9 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     // 拒单需要退款，根据订单id更新订单状态、拒单原因、取消时间
     fillCancelInfo(orders, ordersRejectionDto.getRejectionReason(), true);
 
-    updateById(orders);
+    applyTransition(ordersDb, OrderTransition.REJECT, orders);
+    dailyBusinessStatsService.recordOrderTransition(ordersDb, Orders.CANCELLED);
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.CANCELLED);
   }
 
   /**
@@ -701,7 +774,6 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     // 支付状态
     Integer payStatus = ordersDb.getPayStatus();
     Orders orders = new Orders();
-    orders.setId(ordersCancelDto.getId());
 
     if (Orders.PAID.equals(payStatus)) {
       // 用户已支付，需要退款（模拟退款，直接标记为已退款）
@@ -710,7 +782,9 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
 
     // 管理端取消订单需要退款，根据订单id更新订单状态、取消原因、取消时间
     fillCancelInfo(orders, ordersCancelDto.getCancelReason(), false);
-    updateById(orders);
+    applyTransition(ordersDb, OrderTransition.ADMIN_CANCEL, orders);
+    dailyBusinessStatsService.recordOrderTransition(ordersDb, Orders.CANCELLED);
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.CANCELLED);
   }
 
   /**
@@ -724,17 +798,14 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     // 根据id查询订单
     Orders ordersDb = this.getById(id);
 
-    // 校验订单是否存在，并且状态为3
-    if (ordersDb == null || !ordersDb.getStatus().equals(Orders.CONFIRMED)) {
+    // 校验订单是否存在，状态由流转校验为3
+    if (ordersDb == null) {
       throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
     }
 
-    Orders orders = new Orders();
-    orders.setId(ordersDb.getId());
     // 更新订单状态,状态转为派送中
-    orders.setStatus(Orders.DELIVERY_IN_PROGRESS);
-
-    updateById(orders);
+    applyTransition(ordersDb, OrderTransition.DELIVER, new Orders());
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.DELIVERY_IN_PROGRESS);
   }
 
   /**
@@ -748,18 +819,103 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
     // 根据id查询订单
     Orders ordersDb = this.getById(id);
 
-    // 校验订单是否存在，并且状态为4
-    if (ordersDb == null || !ordersDb.getStatus().equals(Orders.DELIVERY_IN_PROGRESS)) {
+    // 校验订单是否存在，状态由流转校验为4
+    if (ordersDb == null) {
       throw new OrderBusinessException(MessageConstant.ORDER_STATUS_ERROR);
     }
 
-    Orders orders = new Orders();
-    orders.setId(ordersDb.getId());
     // 更新订单状态,状态转为完成
-    orders.setStatus(Orders.COMPLETED);
+    Orders orders = new Orders();
     orders.setDeliveryTime(LocalDateTime.now());
 
-    updateById(orders);
+    applyTransition(ordersDb, OrderTransition.COMPLETE, orders);
+    dailyBusinessStatsService.recordOrderTransition(ordersDb, Orders.COMPLETED);
+    orderStatusCounterService.recordOrderTransition(ordersDb, Orders.COMPLETED);
+  }
+
+  /**
+   * 批量接单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  @Override
+  public OrderBatchResultVo confirmBatch(List<Long> ids) {
+    return applyBatchTransition(ids, OrderTransition.CONFIRM, new Orders(), "批量接单");
+  }
+
+  /**
+   * 批量派送订单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  @Override
+  public OrderBatchResultVo deliveryBatch(List<Long> ids) {
+    return applyBatchTransition(ids, OrderTransition.DELIVER, new Orders(), "批量派送");
+  }
+
+  /**
+   * 批量完成订单.
+   *
+   * @param ids 订单ID列表
+   * @return 每个订单的处理结果
+   */
+  @Override
+  public OrderBatchResultVo completeBatch(List<Long> ids) {
+    Orders changes = new Orders();
+    changes.setDeliveryTime(LocalDateTime.now());
+    return applyBatchTransition(ids, OrderTransition.COMPLETE, changes, "批量完成");
+  }
+
+  /**
+   * 批量执行订单状态流转.
+   * 事务内先锁定全部订单，再用一条按 id 和原状态过滤的 UPDATE 更新允许流转的订单，
+   * 提交后由推送线程向管理端推送一条汇总消息.
+   */
+  private OrderBatchResultVo applyBatchTransition(List<Long> ids, OrderTransition transition,
+      Orders changes, String action) {
+    List<Long> orderIds = ids == null ? List.of()
+        : ids.stream().filter(Objects::nonNull).distinct().toList();
+    if (orderIds.isEmpty()) {
+      return new OrderBatchResultVo(List.of(), List.of());
+    }
+    if (orderIds.size() > MAX_BATCH_SIZE) {
+      throw new OrderBusinessException("单次最多处理" + MAX_BATCH_SIZE + "个订单");
+    }
+
+    List<Long> succeeded = transactionTemplate.execute(status -> {
+      List<Orders> lockedOrders = mapper.selectList(Wrappers.lambdaQuery(Orders.class)
+          .in(Orders::getId, orderIds)
+          .last("FOR UPDATE"));
+      List<Orders> allowedOrders = lockedOrders.stream()
+          .filter(orders -> transition.allows(orders.getStatus()))
+          .toList();
+      if (allowedOrders.isEmpty()) {
+        return List.of();
+      }
+
+      List<Long> allowedIds = allowedOrders.stream().map(Orders::getId).toList();
+      changes.setStatus(transition.getToStatus());
+      mapper.update(changes, Wrappers.lambdaUpdate(Orders.class)
+          .in(Orders::getId, allowedIds)
+          .in(Orders::getStatus, transition.getFromStatuses()));
+
+      // 只有进入已完成、已取消时营业数据才会变化
+      if (Orders.COMPLETED.equals(transition.getToStatus())) {
+        dailyBusinessStatsService.recordOrderTransitions(allowedOrders, transition.getToStatus());
+      }
+      orderStatusCounterService.recordOrderTransitions(allowedOrders, transition.getToStatus());
+      return allowedIds;
+    });
+
+    List<Long> failed = orderIds.stream().filter(id -> !succeeded.contains(id)).toList();
+    if (!succeeded.isEmpty()) {
+      eventPublisher.publishEvent(new OrderStatusBatchChangedEvent(succeeded,
+          transition.getToStatus(), action + succeeded.size() + "单"));
+    }
+    log.info("{}：成功 {} 单，失败 {} 单", action, succeeded.size(), failed.size());
+    return new OrderBatchResultVo(succeeded, failed);
   }
 
   /**
@@ -777,14 +933,8 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, Orders> implement
       throw new OrderBusinessException(MessageConstant.ORDER_NOT_FOUND);
     }
 
-    // 构造催单消息，用ws推送消息给商家
-    Map<String, Object> map = new HashMap<>();
-    map.put("type", 2); // 1表示来单提醒 2表示客户催单
-    map.put("orderId", id);
-    map.put("content", "订单号:" + ordersDb.getNumber());
-    String jsonString = JSON.toJSONString(map);
-
-    webSocketServer.sendToAllClient(jsonString);
+    // 催单消息由推送线程异步发给商家
+    eventPublisher.publishEvent(new OrderReminderEvent(id, ordersDb.getNumber()));
   }
 
   @Override
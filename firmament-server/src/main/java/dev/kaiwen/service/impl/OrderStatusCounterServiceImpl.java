@@ -0,0 +1,304 @@
+package dev.kaiwen.service.impl;
+
+import dev.kaiwen.dto.OrderStatusCountDto;
+import dev.kaiwen.entity.Orders;
+import dev.kaiwen.mapper.OrderMapper;
+import dev.kaiwen.service.OrderStatusCounterService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 订单状态计数服务实现类.
+ * 计数只保存在本节点内存中：今天的全部订单，以及更早但仍未结束的订单.
+ * 订单状态流转在事务提交后累加到计数上，定时任务再根据数据库校准，校准前的偏差通过指标暴露.
+ * 校准查询期间发生的流转同时记入缓冲区，替换计数前重放到新计数上，避免丢失.
+ */
+@Service
+@Slf4j
+public class OrderStatusCounterServiceImpl implements OrderStatusCounterService {
+
+  // 未结束的订单状态：待付款、待接单、已接单、派送中
+  static final List<Integer> OPEN_STATUSES = List.of(Orders.PENDING_PAYMENT,
+      Orders.TO_BE_CONFIRMED, Orders.CONFIRMED, Orders.DELIVERY_IN_PROGRESS);
+
+  private final OrderMapper orderMapper;
+
+  // 上一次校准时内存计数与数据库的偏差（各计数差值绝对值之和）
+  private final AtomicLong lastDrift = new AtomicLong();
+
+  // 下单日期 -> 状态 -> 订单数，校准时整体替换
+  private volatile ConcurrentMap<LocalDate, ConcurrentMap<Integer, LongAdder>> counters =
+      new ConcurrentHashMap<>();
+
+  // 校准期间发生的流转，不在校准中时为 null
+  private ConcurrentMap<LocalDate, ConcurrentMap<Integer, LongAdder>> pending;
+
+  // 累加计数时持有读锁，开始缓冲和替换计数时持有写锁，保证每次流转要么已计入缓冲区，要么发生在替换之后
+  private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+  // 第一次校准之前计数不可用
+  private volatile boolean initialized;
+
+  /**
+   * 构造订单状态计数服务，并注册校准偏差指标.
+   *
+   * @param orderMapper   订单 Mapper
+   * @param meterRegistry 指标注册表
+   */
+  public OrderStatusCounterServiceImpl(OrderMapper orderMapper, MeterRegistry meterRegistry) {
+    this.orderMapper = orderMapper;
+    Gauge.builder("order.status.counter.drift", lastDrift, AtomicLong::get)
+        .description("订单状态计数上一次校准时与数据库的偏差")
+        .register(meterRegistry);
+  }
+
+  /**
+   * 记录新下单.
+   *
+   * @param orders 新订单
+   */
+  @Override
+  public void recordOrderCreated(Orders orders) {
+    if (orders.getOrderTime() == null || orders.getStatus() == null) {
+      return;
+    }
+    LocalDate orderDate = orders.getOrderTime().toLocalDate();
+    Integer status = orders.getStatus();
+    afterCommit(() -> add(orderDate, status, 1));
+  }
+
+  /**
+   * 记录订单状态流转.
+   *
+   * @param ordersDb 流转前的订单
+   * @param toStatus 流转后的状态
+   */
+  @Override
+  public void recordOrderTransition(Orders ordersDb, Integer toStatus) {
+    recordOrderTransitions(List.of(ordersDb), toStatus);
+  }
+
+  /**
+   * 批量记录订单状态流转.
+   * 流转前的状态和下单日期在调用时读取，调用方之后修改订单对象不影响计数.
+   *
+   * @param ordersList 流转前的订单列表
+   * @param toStatus   流转后的状态
+   */
+  @Override
+  public void recordOrderTransitions(List<Orders> ordersList, Integer toStatus) {
+    Map<LocalDate, Map<Integer, Long>> deltas = new HashMap<>();
+    for (Orders orders : ordersList) {
+      Integer fromStatus = orders.getStatus();
+      if (orders.getOrderTime() == null || fromStatus == null || fromStatus.equals(toStatus)) {
+        continue;
+      }
+      Map<Integer, Long> dayDeltas = deltas.computeIfAbsent(orders.getOrderTime().toLocalDate(),
+          date -> new HashMap<>());
+      dayDeltas.merge(fromStatus, -1L, Long::sum);
+      dayDeltas.merge(toStatus, 1L, Long::sum);
+    }
+    if (deltas.isEmpty()) {
+      return;
+    }
+    afterCommit(() -> deltas.forEach((orderDate, dayDeltas) ->
+        dayDeltas.forEach((status, delta) -> add(orderDate, status, delta))));
+  }
+
+  /**
+   * 查询某一天下单的订单在各状态的数量.
+   *
+   * @param orderDate 下单日期
+   * @return 状态 -> 订单数
+   */
+  @Override
+  public Map<Integer, Long> countByStatus(LocalDate orderDate) {
+    ensureInitialized();
+    Map<Integer, LongAdder> dayCounters = counters.get(orderDate);
+    if (dayCounters == null) {
+      return Map.of();
+    }
+    Map<Integer, Long> result = new HashMap<>();
+    dayCounters.forEach((status, adder) -> {
+      long count = adder.sum();
+      if (count > 0) {
+        result.put(status, count);
+      }
+    });
+    return Map.copyOf(result);
+  }
+
+  /**
+   * 查询全部未结束订单在各状态的数量.
+   *
+   * @return 状态 -> 订单数
+   */
+  @Override
+  public Map<Integer, Long> countOpenByStatus() {
+    ensureInitialized();
+    Map<Integer, Long> result = new HashMap<>();
+    for (Map<Integer, LongAdder> dayCounters : counters.values()) {
+      for (Integer status : OPEN_STATUSES) {
+        LongAdder adder = dayCounters.get(status);
+        if (adder != null) {
+          result.merge(status, adder.sum(), Long::sum);
+        }
+      }
+    }
+    result.values().removeIf(count -> count <= 0);
+    return Map.copyOf(result);
+  }
+
+  /**
+   * 根据数据库重新校准计数.
+   * 查询前开始缓冲流转，查询结果加上缓冲的流转后再替换计数，查询和替换之间发生的流转不会丢失.
+   */
+  @Override
+  public synchronized void reconcile() {
+    ConcurrentMap<LocalDate, ConcurrentMap<Integer, LongAdder>> buffer = new ConcurrentHashMap<>();
+    swapLock.writeLock().lock();
+    try {
+      pending = buffer;
+    } finally {
+      swapLock.writeLock().unlock();
+    }
+
+    ConcurrentMap<LocalDate, ConcurrentMap<Integer, LongAdder>> fresh = new ConcurrentHashMap<>();
+    LocalDate today = LocalDate.now();
+    try {
+      List<OrderStatusCountDto> rows = orderMapper.selectDailyStatusCounts(
+          today.atStartOfDay(), OPEN_STATUSES);
+      for (OrderStatusCountDto row : rows) {
+        if (row.getOrderDate() != null && row.getStatus() != null
+            && row.getOrderCount() != null) {
+          adder(fresh, row.getOrderDate(), row.getStatus()).add(row.getOrderCount());
+        }
+      }
+    } catch (RuntimeException ex) {
+      stopBuffering();
+      throw ex;
+    }
+
+    swapLock.writeLock().lock();
+    try {
+      pending = null;
+      buffer.forEach((orderDate, dayDeltas) -> dayDeltas.forEach((status, delta) ->
+          adder(fresh, orderDate, status).add(delta.sum())));
+      if (initialized) {
+        long drift = calculateDrift(counters, fresh, today);
+        lastDrift.set(drift);
+        if (drift > 0) {
+          log.warn("订单状态计数校准偏差：{}", drift);
+        }
+      }
+      counters = fresh;
+      initialized = true;
+    } finally {
+      swapLock.writeLock().unlock();
+    }
+  }
+
+  private void stopBuffering() {
+    swapLock.writeLock().lock();
+    try {
+      pending = null;
+    } finally {
+      swapLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 第一次读取时从数据库加载计数.
+   */
+  private void ensureInitialized() {
+    if (!initialized) {
+      synchronized (this) {
+        if (!initialized) {
+          reconcile();
+        }
+      }
+    }
+  }
+
+  /**
+   * 累加计数，正在校准时同时记入缓冲区；尚未从数据库加载且不在校准中时忽略，由第一次校准统一加载.
+   */
+  private void add(LocalDate orderDate, Integer status, long delta) {
+    swapLock.readLock().lock();
+    try {
+      if (pending != null) {
+        adder(pending, orderDate, status).add(delta);
+      }
+      if (initialized) {
+        adder(counters, orderDate, status).add(delta);
+      }
+    } finally {
+      swapLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * 在当前事务提交后执行，没有事务时立即执行.
+   */
+  private void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    } else {
+      action.run();
+    }
+  }
+
+  private static LongAdder adder(ConcurrentMap<LocalDate, ConcurrentMap<Integer, LongAdder>> map,
+      LocalDate orderDate, Integer status) {
+    return map.computeIfAbsent(orderDate, date -> new ConcurrentHashMap<>())
+        .computeIfAbsent(status, key -> new LongAdder());
+  }
+
+  /**
+   * 计算内存计数与数据库计数的偏差，只比较数据库查询范围内的计数.
+   */
+  private static long calculateDrift(
+      Map<LocalDate, ConcurrentMap<Integer, LongAdder>> live,
+      Map<LocalDate, ConcurrentMap<Integer, LongAdder>> fresh, LocalDate today) {
+    Set<LocalDate> dates = new HashSet<>(live.keySet());
+    dates.addAll(fresh.keySet());
+
+    long drift = 0;
+    for (LocalDate date : dates) {
+      Map<Integer, LongAdder> liveDay = live.getOrDefault(date, new ConcurrentHashMap<>());
+      Map<Integer, LongAdder> freshDay = fresh.getOrDefault(date, new ConcurrentHashMap<>());
+      Set<Integer> statuses = new HashSet<>(liveDay.keySet());
+      statuses.addAll(freshDay.keySet());
+      for (Integer status : statuses) {
+        if (date.isBefore(today) && !OPEN_STATUSES.contains(status)) {
+          continue;
+        }
+        long liveCount = liveDay.containsKey(status) ? liveDay.get(status).sum() : 0;
+        long freshCount = freshDay.containsKey(status) ? freshDay.get(status).sum() : 0;
+        drift += Math.abs(liveCount - freshCount);
+      }
+    }
+    return drift;
+  }
+}
@@ -0,0 +1,58 @@
+package dev.kaiwen.service.impl;
+
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.service.OrderTimeoutService;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * 订单支付超时队列服务实现类.
+ * 使用 Redis 有序集合保存待支付订单，score 为支付截止时间的毫秒时间戳，取出和移除在一个脚本中完成.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderTimeoutServiceImpl implements OrderTimeoutService {
+
+  /**
+   * 取出 score 不大于 ARGV[1] 的前 ARGV[2] 个成员并移除.
+   */
+  @SuppressWarnings("rawtypes")
+  static final RedisScript<List> POLL_SCRIPT = new DefaultRedisScript<>(
+      "local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) "
+          + "if #ids > 0 then redis.call('ZREM', KEYS[1], unpack(ids)) end "
+          + "return ids", List.class);
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+
+  @Override
+  public void register(Long orderId, LocalDateTime orderTime) {
+    long deadline = orderTime.plus(PAYMENT_TIMEOUT).atZone(ZoneId.systemDefault()).toInstant()
+        .toEpochMilli();
+    try {
+      redisTemplateStringString.opsForZSet()
+          .add(CacheConstant.ORDER_TIMEOUT_KEY, String.valueOf(orderId), deadline);
+    } catch (RuntimeException ex) {
+      // 订单已提交，登记失败不影响下单，超时后由订单表扫描取消
+      log.warn("订单超时登记失败，orderId={}", orderId, ex);
+    }
+  }
+
+  @Override
+  public List<Long> pollExpired(int limit) {
+    List<?> ids = redisTemplateStringString.execute(POLL_SCRIPT,
+        List.of(CacheConstant.ORDER_TIMEOUT_KEY), String.valueOf(System.currentTimeMillis()),
+        String.valueOf(limit));
+    if (ids == null || ids.isEmpty()) {
+      return List.of();
+    }
+    return ids.stream().map(id -> Long.valueOf(id.toString())).toList();
+  }
+}
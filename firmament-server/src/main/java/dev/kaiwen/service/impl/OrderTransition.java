@@ -0,0 +1,68 @@
+package dev.kaiwen.service.impl;
+
+import dev.kaiwen.entity.Orders;
+import java.util.Set;
+
+/**
+ * 订单状态流转.
+ * 每种操作声明允许的原状态和流转后的状态，更新时以原状态作为条件，受影响行数为 0 说明订单已被并发修改.
+ */
+enum OrderTransition {
+
+  /**
+   * 商家接单：待接单 -> 已接单.
+   */
+  CONFIRM(Set.of(Orders.TO_BE_CONFIRMED), Orders.CONFIRMED),
+
+  /**
+   * 商家拒单：待接单 -> 已取消.
+   */
+  REJECT(Set.of(Orders.TO_BE_CONFIRMED), Orders.CANCELLED),
+
+  /**
+   * 商家取消：未完成的订单 -> 已取消.
+   */
+  ADMIN_CANCEL(Set.of(Orders.PENDING_PAYMENT, Orders.TO_BE_CONFIRMED, Orders.CONFIRMED,
+      Orders.DELIVERY_IN_PROGRESS), Orders.CANCELLED),
+
+  /**
+   * 用户取消：待付款、待接单 -> 已取消.
+   */
+  USER_CANCEL(Set.of(Orders.PENDING_PAYMENT, Orders.TO_BE_CONFIRMED), Orders.CANCELLED),
+
+  /**
+   * 派送：已接单 -> 派送中.
+   */
+  DELIVER(Set.of(Orders.CONFIRMED), Orders.DELIVERY_IN_PROGRESS),
+
+  /**
+   * 完成：派送中 -> 已完成.
+   */
+  COMPLETE(Set.of(Orders.DELIVERY_IN_PROGRESS), Orders.COMPLETED);
+
+  private final Set<Integer> fromStatuses;
+  private final Integer toStatus;
+
+  OrderTransition(Set<Integer> fromStatuses, Integer toStatus) {
+    this.fromStatuses = fromStatuses;
+    this.toStatus = toStatus;
+  }
+
+  /**
+   * 判断订单当前状态是否允许执行该流转.
+   *
+   * @param status 订单当前状态
+   * @return 允许时返回 true
+   */
+  boolean allows(Integer status) {
+    return status != null && fromStatuses.contains(status);
+  }
+
+  Set<Integer> getFromStatuses() {
+    return fromStatuses;
+  }
+
+  Integer getToStatus() {
+    return toStatus;
+  }
+}
@@ -0,0 +1,226 @@
+package dev.kaiwen.service.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.context.BaseContext;
+import dev.kaiwen.dto.ShoppingCartDto;
+import dev.kaiwen.entity.ShoppingCart;
+import dev.kaiwen.exception.ShoppingCartBusinessException;
+import dev.kaiwen.mapper.ShoppingCartMapper;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
+import dev.kaiwen.service.ShoppingCartService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * 基于 Redis Hash 的购物车服务实现类.
+ * 每个用户一个 Hash，field 由菜品id、口味或套餐id组成，value 为数量；名称、图片和价格读取时从商品目录索引获取.
+ * 购物车不写入 shopping_cart 表，下单时直接从 Hash 生成订单明细.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "firmament.cart", name = "store", havingValue = "redis")
+public class RedisShoppingCartServiceImpl extends
+    ServiceImpl<ShoppingCartMapper, ShoppingCart> implements ShoppingCartService {
+
+  // 购物车最后一次修改后的保留时间
+  static final Duration CART_TTL = Duration.ofDays(7);
+
+  static final String DISH_FIELD_PREFIX = "dish:";
+  static final String SETMEAL_FIELD_PREFIX = "setmeal:";
+
+  /**
+   * 依次对每个 field 累加数量，数量不大于 0 时删除该 field，最后刷新过期时间.
+   * KEYS[1] 为购物车 key，ARGV[1] 为过期秒数，之后依次为 field 和增量.
+   */
+  static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+      "for i = 2, #ARGV, 2 do "
+          + "if redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) <= 0 then "
+          + "redis.call('HDEL', KEYS[1], ARGV[i]) end "
+          + "end "
+          + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+          + "return redis.call('HLEN', KEYS[1])", Long.class);
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final CatalogIndexService catalogIndexService;
+
+  /**
+   * 添加商品到购物车.
+   *
+   * @param shoppingCartDto 购物车DTO
+   * @throws ShoppingCartBusinessException 当商品ID为空或商品不存在时
+   */
+  @Override
+  public void addShoppingCart(ShoppingCartDto shoppingCartDto) {
+    Long dishId = shoppingCartDto.getDishId();
+    Long setmealId = shoppingCartDto.getSetmealId();
+    checkExists(dishId, setmealId);
+
+    increment(List.of(field(dishId, setmealId, shoppingCartDto.getDishFlavor()), "1"));
+  }
+
+  /**
+   * 批量添加商品到购物车，所有条目通过一次脚本调用累加.
+   *
+   * @param shoppingCartDtoList 购物车DTO列表，number 为添加的数量
+   * @throws ShoppingCartBusinessException 当商品ID为空、数量不合法或商品不存在时
+   */
+  @Override
+  public void addShoppingCartBatch(List<ShoppingCartDto> shoppingCartDtoList) {
+    if (shoppingCartDtoList == null || shoppingCartDtoList.isEmpty()) {
+      return;
+    }
+    List<String> fieldsAndDeltas = new ArrayList<>(shoppingCartDtoList.size() * 2);
+    for (ShoppingCartDto dto : shoppingCartDtoList) {
+      checkExists(dto.getDishId(), dto.getSetmealId());
+      Integer number = dto.getNumber();
+      if (number != null && number <= 0) {
+        throw new ShoppingCartBusinessException("商品数量必须大于0");
+      }
+      fieldsAndDeltas.add(field(dto.getDishId(), dto.getSetmealId(), dto.getDishFlavor()));
+      fieldsAndDeltas.add(String.valueOf(number != null ? number : 1));
+    }
+    increment(fieldsAndDeltas);
+  }
+
+  /**
+   * 将多个条目加入当前用户的购物车，用于再来一单.
+   *
+   * @param shoppingCartList 购物车条目列表
+   */
+  @Override
+  public void addShoppingCartItems(List<ShoppingCart> shoppingCartList) {
+    List<String> fieldsAndDeltas = new ArrayList<>();
+    for (ShoppingCart cart : shoppingCartList) {
+      if (cart.getDishId() == null && cart.getSetmealId() == null) {
+        continue;
+      }
+      int number = cart.getNumber() != null ? cart.getNumber() : 1;
+      fieldsAndDeltas.add(field(cart.getDishId(), cart.getSetmealId(), cart.getDishFlavor()));
+      fieldsAndDeltas.add(String.valueOf(number));
+    }
+    if (!fieldsAndDeltas.isEmpty()) {
+      increment(fieldsAndDeltas);
+    }
+  }
+
+  /**
+   * 减少购物车中商品数量.
+   *
+   * @param shoppingCartDto 购物车DTO
+   */
+  @Override
+  public void subShoppingCart(ShoppingCartDto shoppingCartDto) {
+    if (shoppingCartDto.getDishId() == null && shoppingCartDto.getSetmealId() == null) {
+      return;
+    }
+    increment(List.of(field(shoppingCartDto.getDishId(), shoppingCartDto.getSetmealId(),
+        shoppingCartDto.getDishFlavor()), "-1"));
+  }
+
+  /**
+   * 查看购物车.
+   * 目录中已不存在的商品不返回.
+   *
+   * @return 当前用户的购物车列表，按 field 排序
+   */
+  @Override
+  public List<ShoppingCart> showShoppingCart() {
+    Long userId = BaseContext.getCurrentId();
+    Map<String, String> entries = new TreeMap<>(
+        redisTemplateStringString.<String, String>opsForHash().entries(key(userId)));
+
+    List<ShoppingCart> shoppingCartList = new ArrayList<>(entries.size());
+    entries.forEach((field, value) -> {
+      ShoppingCart cart = toShoppingCart(field, Integer.parseInt(value));
+      if (cart != null) {
+        cart.setUserId(userId);
+        shoppingCartList.add(cart);
+      }
+    });
+    return shoppingCartList;
+  }
+
+  /**
+   * 清空购物车.
+   */
+  @Override
+  public void cleanShoppingCart() {
+    redisTemplateStringString.delete(key(BaseContext.getCurrentId()));
+  }
+
+  private void checkExists(Long dishId, Long setmealId) {
+    if (dishId == null && setmealId == null) {
+      throw new ShoppingCartBusinessException("商品ID不能为空");
+    }
+    if (dishId != null) {
+      if (catalogIndexService.getDish(dishId) == null) {
+        throw new ShoppingCartBusinessException("菜品不存在");
+      }
+    } else if (catalogIndexService.getSetmeal(setmealId) == null) {
+      throw new ShoppingCartBusinessException("套餐不存在");
+    }
+  }
+
+  private void increment(List<String> fieldsAndDeltas) {
+    List<String> args = new ArrayList<>(fieldsAndDeltas.size() + 1);
+    args.add(String.valueOf(CART_TTL.toSeconds()));
+    args.addAll(fieldsAndDeltas);
+    redisTemplateStringString.execute(INCREMENT_SCRIPT,
+        List.of(key(BaseContext.getCurrentId())), args.toArray());
+  }
+
+  /**
+   * 根据 field 和数量生成购物车条目，商品已不在目录中时返回 null.
+   */
+  private ShoppingCart toShoppingCart(String field, int number) {
+    ShoppingCart cart = new ShoppingCart();
+    cart.setNumber(number);
+    CatalogItem item;
+    if (field.startsWith(DISH_FIELD_PREFIX)) {
+      String[] parts = field.substring(DISH_FIELD_PREFIX.length()).split(":", 2);
+      cart.setDishId(Long.valueOf(parts[0]));
+      cart.setDishFlavor(parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null);
+      item = catalogIndexService.getDish(cart.getDishId());
+    } else if (field.startsWith(SETMEAL_FIELD_PREFIX)) {
+      cart.setSetmealId(Long.valueOf(field.substring(SETMEAL_FIELD_PREFIX.length())));
+      item = catalogIndexService.getSetmeal(cart.getSetmealId());
+    } else {
+      item = null;
+    }
+    if (item == null) {
+      log.debug("购物车条目对应的商品已不存在，field={}", field);
+      return null;
+    }
+    cart.setName(item.getName());
+    cart.setImage(item.getImage());
+    cart.setAmount(item.getPrice());
+    return cart;
+  }
+
+  static String key(Long userId) {
+    return CacheConstant.SHOPPING_CART_KEY_PREFIX + userId;
+  }
+
+  /**
+   * 菜品的 field 为 dish:菜品id:口味，套餐的 field 为 setmeal:套餐id.
+   */
+  static String field(Long dishId, Long setmealId, String dishFlavor) {
+    if (dishId != null) {
+      return DISH_FIELD_PREFIX + dishId + ":" + (dishFlavor != null ? dishFlavor : "");
+    }
+    return SETMEAL_FIELD_PREFIX + setmealId;
+  }
+}
@@ -2,12 +2,14 @@ package dev.kaiwen.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import dev.kaiwen.entity.DailyBusinessStats;
 import dev.kaiwen.entity.OrderDetail;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.entity.User;
 import dev.kaiwen.mapper.OrderDetailMapper;
 import dev.kaiwen.mapper.OrderMapper;
 import dev.kaiwen.mapper.UserMapper;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.OrderDetailService;
 import dev.kaiwen.service.OrderService;
 import dev.kaiwen.service.ReportService;
@@ -16,24 +18,29 @@ import dev.kaiwen.vo.OrderReportVo;
 import dev.kaiwen.vo.SalesTop10ReportVo;
 import dev.kaiwen.vo.TurnoverReportVo;
 import dev.kaiwen.vo.UserReportVo;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
@@ -47,49 +54,39 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
 
+  private static final String TEMPLATE_PATH = "template/model.xlsx";
+  // 明细数据开始行
+  private static final int DETAIL_START_ROW = 7;
+  // 流式写入时内存中保留的行数，超出的行刷到临时文件
+  private static final int EXPORT_ROW_WINDOW = 100;
+
   private final OrderMapper orderMapper;
   private final UserMapper userMapper;
   private final OrderDetailMapper orderDetailMapper;
+  private final DailyBusinessStatsService dailyBusinessStatsService;
+
+  // 已读取的报表模板内容，首次导出时加载
+  private volatile byte[] templateBytes;
 
   @Override
   public TurnoverReportVo getTurnoverStatistics(LocalDate begin, LocalDate end) {
     // 验证日期参数
     validateDateRange(begin, end);
 
-    // 查询指定日期范围内的已完成订单
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> ordersWrapper = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getStatus, Orders.COMPLETED)
-        .ge(Orders::getOrderTime, begin.atStartOfDay())
-        .le(Orders::getOrderTime, end.atTime(LocalTime.MAX));
-    List<Orders> ordersList = orderMapper.selectList(ordersWrapper);
-
-    // 按日期分组统计营业额
-    Map<LocalDate, BigDecimal> turnoverMap = new HashMap<>();
-    for (Orders order : ordersList) {
-      LocalDate orderDate = order.getOrderTime().toLocalDate();
-      BigDecimal amount = order.getAmount() != null ? order.getAmount() : BigDecimal.ZERO;
-      turnoverMap.put(orderDate, turnoverMap.getOrDefault(orderDate, BigDecimal.ZERO).add(amount));
-    }
-
-    // 填充日期范围内的所有日期
-    List<LocalDate> dateList = new ArrayList<>();
-    List<BigDecimal> turnoverList = new ArrayList<>();
-
-    LocalDate currentDate = begin;
-    while (!currentDate.isAfter(end)) {
-      dateList.add(currentDate);
-      turnoverList.add(turnoverMap.getOrDefault(currentDate, BigDecimal.ZERO));
-      currentDate = currentDate.plusDays(1);
+    // 从每日汇总读取营业额（已完成订单金额），以分为单位存入按日期下标的数组
+    int days = countDays(begin, end);
+    long[] turnoverCents = new long[days];
+    for (DailyBusinessStats stats : dailyBusinessStatsService.listByDateRange(begin, end)) {
+      int index = dayIndex(begin, stats.getStatDate(), days);
+      if (index >= 0) {
+        turnoverCents[index] = toCents(stats.getTurnover());
+      }
     }
 
     // 构建返回对象
-    String dateListStr = buildDateListString(dateList);
-    String turnoverListStr = buildBigDecimalListString(turnoverList);
-
     return TurnoverReportVo.builder()
-        .dateList(dateListStr)
-        .turnoverList(turnoverListStr)
+        .dateList(buildDateListString(begin, days))
+        .turnoverList(buildAmountListString(turnoverCents))
         .build();
   }
 
@@ -98,57 +95,35 @@ public class ReportServiceImpl implements ReportService {
     // 验证日期参数
     validateDateRange(begin, end);
 
-    // 查询指定日期范围内注册的用户
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<User> userWrapper = Wrappers.lambdaQuery(User.class)
-        .ge(User::getCreateTime, begin.atStartOfDay())
-        .le(User::getCreateTime, end.atTime(LocalTime.MAX));
-    List<User> userList = userMapper.selectList(userWrapper);
-
-    // 按日期分组统计每天新增的用户数
-    Map<LocalDate, Integer> newUserMap = new HashMap<>();
-    for (User user : userList) {
-      LocalDate createDate = user.getCreateTime().toLocalDate();
-      newUserMap.put(createDate, newUserMap.getOrDefault(createDate, 0) + 1);
+    // 从每日汇总读取新增用户数
+    int days = countDays(begin, end);
+    int[] newUsers = new int[days];
+    for (DailyBusinessStats stats : dailyBusinessStatsService.listByDateRange(begin, end)) {
+      int index = dayIndex(begin, stats.getStatDate(), days);
+      if (index >= 0) {
+        newUsers[index] = toInt(stats.getNewUsers());
+      }
     }
 
-    // 填充日期范围内的所有日期，并计算累计用户总量
-    List<LocalDate> dateList = new ArrayList<>();
-    List<Integer> newUserList = new ArrayList<>();
-    List<Integer> totalUserList = new ArrayList<>();
-
     // 查询开始日期之前的总用户数（作为基准）
     // 使用 Wrappers + mapper 方式查询
     LambdaQueryWrapper<User> baseUserWrapper = Wrappers.lambdaQuery(User.class)
         .lt(User::getCreateTime, begin.atStartOfDay());
     long baseUserCount = userMapper.selectCount(baseUserWrapper);
 
-    LocalDate currentDate = begin;
+    // 累计用户总量（基准数 + 从开始日期到当前日期的累计新增）
+    int[] totalUsers = new int[days];
     int cumulativeCount = (int) baseUserCount;
-
-    while (!currentDate.isAfter(end)) {
-      dateList.add(currentDate);
-
-      // 当天新增用户数
-      int newUserCount = newUserMap.getOrDefault(currentDate, 0);
-      newUserList.add(newUserCount);
-
-      // 累计用户总量（基准数 + 从开始日期到当前日期的累计新增）
-      cumulativeCount += newUserCount;
-      totalUserList.add(cumulativeCount);
-
-      currentDate = currentDate.plusDays(1);
+    for (int i = 0; i < days; i++) {
+      cumulativeCount += newUsers[i];
+      totalUsers[i] = cumulativeCount;
     }
 
     // 构建返回对象
-    String dateListStr = buildDateListString(dateList);
-    String newUserListStr = buildIntegerListString(newUserList);
-    String totalUserListStr = buildIntegerListString(totalUserList);
-
     return UserReportVo.builder()
-        .dateList(dateListStr)
-        .newUserList(newUserListStr)
-        .totalUserList(totalUserListStr)
+        .dateList(buildDateListString(begin, days))
+        .newUserList(buildIntArrayString(newUsers))
+        .totalUserList(buildIntArrayString(totalUsers))
         .build();
   }
 
@@ -157,67 +132,88 @@ public class ReportServiceImpl implements ReportService {
     // 验证日期参数
     validateDateRange(begin, end);
 
-    // 查询指定日期范围内的所有订单
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> ordersWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin.atStartOfDay())
-        .le(Orders::getOrderTime, end.atTime(LocalTime.MAX));
-    List<Orders> ordersList = orderMapper.selectList(ordersWrapper);
-
-    // 按日期分组统计每天的订单总数和有效订单数
-    Map<LocalDate, Integer> orderCountMap = new HashMap<>();
-    Map<LocalDate, Integer> validOrderCountMap = new HashMap<>();
+    // 从每日汇总读取订单总数和有效订单数
+    int days = countDays(begin, end);
+    int[] orderCounts = new int[days];
+    int[] validOrderCounts = new int[days];
 
     int totalOrderCount = 0;
     int validOrderCount = 0;
 
-    for (Orders order : ordersList) {
-      LocalDate orderDate = order.getOrderTime().toLocalDate();
-
-      // 统计每日订单总数
-      orderCountMap.put(orderDate, orderCountMap.getOrDefault(orderDate, 0) + 1);
-      totalOrderCount++;
-
-      // 统计每日有效订单数（已完成订单）
-      if (Orders.COMPLETED.equals(order.getStatus())) {
-        validOrderCountMap.put(orderDate, validOrderCountMap.getOrDefault(orderDate, 0) + 1);
-        validOrderCount++;
+    for (DailyBusinessStats stats : dailyBusinessStatsService.listByDateRange(begin, end)) {
+      int index = dayIndex(begin, stats.getStatDate(), days);
+      if (index >= 0) {
+        orderCounts[index] = toInt(stats.getTotalOrders());
+        validOrderCounts[index] = toInt(stats.getValidOrders());
+        totalOrderCount += orderCounts[index];
+        validOrderCount += validOrderCounts[index];
       }
     }
 
-    // 填充日期范围内的所有日期
-    List<LocalDate> dateList = new ArrayList<>();
-    List<Integer> orderCountList = new ArrayList<>();
-    List<Integer> validOrderCountList = new ArrayList<>();
-
-    LocalDate currentDate = begin;
-    while (!currentDate.isAfter(end)) {
-      dateList.add(currentDate);
-      orderCountList.add(orderCountMap.getOrDefault(currentDate, 0));
-      validOrderCountList.add(validOrderCountMap.getOrDefault(currentDate, 0));
-      currentDate = currentDate.plusDays(1);
-    }
-
     // 计算订单完成率
     Double orderCompletionRate = totalOrderCount > 0
         ? (double) validOrderCount / totalOrderCount
         : 0.0;
 
     // 构建返回对象
-    String dateListStr = buildDateListString(dateList);
-    String orderCountListStr = buildIntegerListString(orderCountList);
-    String validOrderCountListStr = buildIntegerListString(validOrderCountList);
-
     return OrderReportVo.builder()
-        .dateList(dateListStr)
-        .orderCountList(orderCountListStr)
-        .validOrderCountList(validOrderCountListStr)
+        .dateList(buildDateListString(begin, days))
+        .orderCountList(buildIntArrayString(orderCounts))
+        .validOrderCountList(buildIntArrayString(validOrderCounts))
         .totalOrderCount(totalOrderCount)
         .validOrderCount(validOrderCount)
         .orderCompletionRate(orderCompletionRate)
         .build();
   }
 
+  /**
+   * 计算日期范围包含的天数（首尾均包含）.
+   *
+   * @param begin 开始日期
+   * @param end   结束日期
+   * @return 天数
+   */
+  private int countDays(LocalDate begin, LocalDate end) {
+    return (int) ChronoUnit.DAYS.between(begin, end) + 1;
+  }
+
+  /**
+   * 计算日期在统计数组中的下标.
+   *
+   * @param begin 开始日期
+   * @param date  统计日期
+   * @param days  统计天数
+   * @return 数组下标，日期为空或不在范围内时返回 -1
+   */
+  private int dayIndex(LocalDate begin, LocalDate date, int days) {
+    if (date == null) {
+      return -1;
+    }
+    long index = ChronoUnit.DAYS.between(begin, date);
+    return index >= 0 && index < days ? (int) index : -1;
+  }
+
+  /**
+   * 将金额转换为以分为单位的整数.
+   *
+   * @param amount 金额
+   * @return 分，金额为空时返回 0
+   */
+  private long toCents(BigDecimal amount) {
+    return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue()
+        : 0L;
+  }
+
+  /**
+   * 将汇总计数转换为 int.
+   *
+   * @param count 汇总计数
+   * @return 计数，为空时返回 0
+   */
+  private int toInt(Integer count) {
+    return count != null ? count : 0;
+  }
+
   @Override
   public SalesTop10ReportVo getSalesTop10(LocalDate begin, LocalDate end) {
     // 验证日期参数
@@ -285,55 +281,19 @@ public class ReportServiceImpl implements ReportService {
   }
 
   @Override
-  public byte[] exportBusinessData() {
-    // 计算最近30天的日期范围
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    // 查询数据
-    List<Orders> ordersList = queryOrdersInRange(begin, end);
-    List<User> userList = queryUsersInRange(begin, end);
+  public void exportBusinessData(LocalDate begin, LocalDate end, OutputStream outputStream) {
+    // 验证日期参数
+    validateDateRange(begin, end);
 
-    // 按日期分组统计数据
+    // 从每日汇总读取数据
     Map<LocalDate, DailyData> dailyDataMap = initializeDailyDataMap(begin, end);
-    aggregateOrderData(ordersList, dailyDataMap);
-    aggregateUserData(userList, dailyDataMap);
+    fillDailyData(dailyBusinessStatsService.listByDateRange(begin, end), dailyDataMap);
 
     // 计算概览数据
     OverviewStatistics overview = calculateOverviewStatistics(dailyDataMap);
 
-    // 生成Excel
-    return generateExcel(dailyDataMap, overview, begin, end);
-  }
-
-  /**
-   * 查询指定日期范围内的订单.
-   *
-   * @param begin 开始日期
-   * @param end   结束日期
-   * @return 订单列表
-   */
-  private List<Orders> queryOrdersInRange(LocalDate begin, LocalDate end) {
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> ordersWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin.atStartOfDay())
-        .le(Orders::getOrderTime, end.atTime(LocalTime.MAX));
-    return orderMapper.selectList(ordersWrapper);
-  }
-
-  /**
-   * 查询指定日期范围内的用户.
-   *
-   * @param begin 开始日期
-   * @param end   结束日期
-   * @return 用户列表
-   */
-  private List<User> queryUsersInRange(LocalDate begin, LocalDate end) {
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<User> userWrapper = Wrappers.lambdaQuery(User.class)
-        .ge(User::getCreateTime, begin.atStartOfDay())
-        .le(User::getCreateTime, end.atTime(LocalTime.MAX));
-    return userMapper.selectList(userWrapper);
+    // 生成Excel并写入输出流
+    writeExcel(dailyDataMap, overview, begin, end, outputStream);
   }
 
   /**
@@ -354,43 +314,26 @@ public class ReportServiceImpl implements ReportService {
   }
 
   /**
-   * 聚合订单数据.
+   * 将每日汇总数据填充到每日数据映射.
    *
-   * @param ordersList   订单列表
+   * @param statsList    每日汇总数据列表
    * @param dailyDataMap 每日数据映射
    */
-  private void aggregateOrderData(List<Orders> ordersList, Map<LocalDate, DailyData> dailyDataMap) {
-    for (Orders order : ordersList) {
-      LocalDate orderDate = order.getOrderTime().toLocalDate();
-      DailyData data = dailyDataMap.get(orderDate);
+  private void fillDailyData(List<DailyBusinessStats> statsList,
+      Map<LocalDate, DailyData> dailyDataMap) {
+    for (DailyBusinessStats stats : statsList) {
+      DailyData data = dailyDataMap.get(stats.getStatDate());
       if (data != null) {
-        data.totalOrders++;
-        if (order.getAmount() != null) {
-          data.turnover = data.turnover.add(order.getAmount());
-        }
-        if (Orders.COMPLETED.equals(order.getStatus())) {
-          data.validOrders++;
+        data.totalOrders = toInt(stats.getTotalOrders());
+        data.validOrders = toInt(stats.getValidOrders());
+        data.newUsers = toInt(stats.getNewUsers());
+        if (stats.getTurnover() != null) {
+          data.turnover = stats.getTurnover();
         }
       }
     }
   }
 
-  /**
-   * 聚合用户数据.
-   *
-   * @param userList     用户列表
-   * @param dailyDataMap 每日数据映射
-   */
-  private void aggregateUserData(List<User> userList, Map<LocalDate, DailyData> dailyDataMap) {
-    for (User user : userList) {
-      LocalDate createDate = user.getCreateTime().toLocalDate();
-      DailyData data = dailyDataMap.get(createDate);
-      if (data != null) {
-        data.newUsers++;
-      }
-    }
-  }
-
   /**
    * 概览统计数据.
    */
@@ -429,34 +372,59 @@ public class ReportServiceImpl implements ReportService {
   }
 
   /**
-   * 生成Excel文件.
+   * 生成Excel文件并流式写入输出流.
+   * 模板中已有的行（概览和前30天明细）直接在模板上填写，超出模板的明细行通过 SXSSF 按窗口刷到临时文件.
    *
    * @param dailyDataMap 每日数据映射
    * @param overview     概览统计数据
    * @param begin        开始日期
    * @param end          结束日期
-   * @return Excel文件字节数组
+   * @param outputStream 输出流
    */
-  private byte[] generateExcel(Map<LocalDate, DailyData> dailyDataMap, OverviewStatistics overview,
-      LocalDate begin, LocalDate end) {
-    ClassPathResource templateResource = new ClassPathResource("template/model.xlsx");
-
-    try (InputStream templateInputStream = templateResource.getInputStream();
-        XSSFWorkbook workbook = new XSSFWorkbook(templateInputStream);
-        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-
-      Sheet sheet = workbook.getSheetAt(0);
-      fillOverviewData(sheet, overview);
-      fillDetailData(sheet, dailyDataMap, begin, end);
-
-      workbook.write(out);
-      return out.toByteArray();
+  private void writeExcel(Map<LocalDate, DailyData> dailyDataMap, OverviewStatistics overview,
+      LocalDate begin, LocalDate end, OutputStream outputStream) {
+    try (XSSFWorkbook template = new XSSFWorkbook(new ByteArrayInputStream(getTemplateBytes()));
+        SXSSFWorkbook workbook = new SXSSFWorkbook(template, EXPORT_ROW_WINDOW)) {
+      try {
+        Sheet templateSheet = template.getSheetAt(0);
+        fillOverviewData(templateSheet, overview);
+        fillDetailData(templateSheet, workbook.getSheetAt(0), dailyDataMap, begin, end);
+
+        workbook.write(outputStream);
+        outputStream.flush();
+      } finally {
+        // 删除 SXSSF 产生的临时文件
+        workbook.dispose();
+      }
     } catch (IOException e) {
       log.error("导出失败");
       throw new IllegalStateException("导出Excel失败", e);
     }
   }
 
+  /**
+   * 获取报表模板内容，首次使用时从 classpath 读取并缓存.
+   *
+   * @return 模板文件字节数组
+   * @throws IOException 读取模板失败
+   */
+  private byte[] getTemplateBytes() throws IOException {
+    byte[] bytes = templateBytes;
+    if (bytes == null) {
+      synchronized (this) {
+        bytes = templateBytes;
+        if (bytes == null) {
+          try (InputStream templateInputStream =
+              new ClassPathResource(TEMPLATE_PATH).getInputStream()) {
+            bytes = templateInputStream.readAllBytes();
+          }
+          templateBytes = bytes;
+        }
+      }
+    }
+    return bytes;
+  }
+
   /**
    * 填充概览数据.
    *
@@ -479,19 +447,26 @@ public class ReportServiceImpl implements ReportService {
   /**
    * 填充明细数据.
    *
-   * @param sheet       工作表
-   * @param dailyDataMap 每日数据映射
-   * @param begin        开始日期
-   * @param end          结束日期
+   * @param templateSheet  模板工作表（已有的行在这里填写）
+   * @param streamingSheet 流式工作表（超出模板的行在这里追加）
+   * @param dailyDataMap   每日数据映射
+   * @param begin          开始日期
+   * @param end            结束日期
    */
-  private void fillDetailData(Sheet sheet, Map<LocalDate, DailyData> dailyDataMap, LocalDate begin,
-      LocalDate end) {
-    int currentRow = 7; // 明细数据开始行
+  private void fillDetailData(Sheet templateSheet, Sheet streamingSheet,
+      Map<LocalDate, DailyData> dailyDataMap, LocalDate begin, LocalDate end) {
+    int templateLastRow = templateSheet.getLastRowNum();
+    // 超出模板的行沿用模板最后一行明细的样式
+    Row styleRow = templateSheet.getRow(templateLastRow);
+
+    int currentRow = DETAIL_START_ROW;
     LocalDate currentDate = begin;
 
     while (!currentDate.isAfter(end)) {
       DailyData data = dailyDataMap.get(currentDate);
-      Row dataRow = getOrCreateRow(sheet, currentRow);
+      Row dataRow = currentRow <= templateLastRow
+          ? getOrCreateRow(templateSheet, currentRow)
+          : createStyledRow(streamingSheet, styleRow, currentRow);
 
       final double dailyOrderCompletionRate =
           data.totalOrders > 0 ? (double) data.validOrders / data.totalOrders : 0.0;
@@ -512,6 +487,25 @@ public class ReportServiceImpl implements ReportService {
     }
   }
 
+  /**
+   * 在流式工作表中追加一行，并复制样式行的单元格样式.
+   *
+   * @param sheet    流式工作表
+   * @param styleRow 样式来源行，可以为空
+   * @param rowIndex 行索引
+   * @return 新建的行
+   */
+  private Row createStyledRow(Sheet sheet, Row styleRow, int rowIndex) {
+    Row row = sheet.createRow(rowIndex);
+    if (styleRow != null) {
+      row.setHeight(styleRow.getHeight());
+      for (Cell styleCell : styleRow) {
+        row.createCell(styleCell.getColumnIndex()).setCellStyle(styleCell.getCellStyle());
+      }
+    }
+    return row;
+  }
+
   /**
    * 获取或创建行.
    *
@@ -530,36 +524,37 @@ public class ReportServiceImpl implements ReportService {
   /**
    * 构建日期列表字符串.
    *
-   * @param dateList 日期列表
+   * @param begin 开始日期
+   * @param days  天数
    * @return 逗号分隔的日期字符串
    */
-  private String buildDateListString(List<LocalDate> dateList) {
-    return dateList.stream()
-        .map(LocalDate::toString)
+  private String buildDateListString(LocalDate begin, int days) {
+    return IntStream.range(0, days)
+        .mapToObj(i -> begin.plusDays(i).toString())
         .collect(Collectors.joining(","));
   }
 
   /**
-   * 构建整数列表字符串.
+   * 构建整数数组字符串.
    *
-   * @param integerList 整数列表
+   * @param values 整数数组
    * @return 逗号分隔的整数字符串
    */
-  private String buildIntegerListString(List<Integer> integerList) {
-    return integerList.stream()
-        .map(String::valueOf)
+  private String buildIntArrayString(int[] values) {
+    return Arrays.stream(values)
+        .mapToObj(String::valueOf)
         .collect(Collectors.joining(","));
   }
 
   /**
-   * 构建BigDecimal列表字符串.
+   * 构建金额数组字符串.
    *
-   * @param bigDecimalList BigDecimal列表
-   * @return 逗号分隔的BigDecimal字符串
+   * @param cents 以分为单位的金额数组
+   * @return 逗号分隔的金额字符串（保留两位小数）
    */
-  private String buildBigDecimalListString(List<BigDecimal> bigDecimalList) {
-    return bigDecimalList.stream()
-        .map(BigDecimal::toString)
+  private String buildAmountListString(long[] cents) {
+    return Arrays.stream(cents)
+        .mapToObj(value -> BigDecimal.valueOf(value, 2).toPlainString())
         .collect(Collectors.joining(","));
   }
 
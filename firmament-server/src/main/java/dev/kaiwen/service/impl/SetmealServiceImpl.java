@@ -15,6 +15,7 @@ import dev.kaiwen.dto.SetmealPageQueryDto;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.entity.SetmealDish;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.exception.SetmealEnableFailedException;
 import dev.kaiwen.mapper.DishMapper;
@@ -34,6 +35,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -52,6 +54,7 @@ public class SetmealServiceImpl extends ServiceImpl<SetmealMapper, Setmeal> impl
   private final CategoryService categoryService;
   private final DishSetmealRelationService dishSetmealRelationService;
   private final DishMapper dishMapper;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * 新增套餐，同时需要保存套餐和菜品的关联关系.
@@ -77,6 +80,7 @@ public class SetmealServiceImpl extends ServiceImpl<SetmealMapper, Setmeal> impl
       // 使用 MyBatis Plus 的批量保存方法
       setmealDishService.saveBatch(setmealDishes);
     }
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.SETMEAL));
   }
 
   /**
@@ -257,6 +261,7 @@ public class SetmealServiceImpl extends ServiceImpl<SetmealMapper, Setmeal> impl
       // 使用 MyBatis Plus 的批量保存方法
       setmealDishService.saveBatch(setmealDishes);
     }
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.SETMEAL));
   }
 
   /**
@@ -288,6 +293,7 @@ public class SetmealServiceImpl extends ServiceImpl<SetmealMapper, Setmeal> impl
 
     // 3. 删除套餐表中的数据，使用 MyBatis Plus 的批量删除方法
     this.removeByIds(ids);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.SETMEAL));
   }
 
   /**
@@ -311,5 +317,6 @@ public class SetmealServiceImpl extends ServiceImpl<SetmealMapper, Setmeal> impl
         .set(Setmeal::getUpdateTime, LocalDateTime.now())
         .set(Setmeal::getUpdateUser, BaseContext.getCurrentId());
     mapper.update(null, updateWrapper);
+    eventPublisher.publishEvent(new MenuChangedEvent(MenuChangedEvent.SETMEAL));
   }
 }
@@ -7,33 +7,38 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import dev.kaiwen.context.BaseContext;
 import dev.kaiwen.converter.ShoppingCartConverter;
 import dev.kaiwen.dto.ShoppingCartDto;
-import dev.kaiwen.entity.Dish;
-import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.entity.ShoppingCart;
 import dev.kaiwen.exception.ShoppingCartBusinessException;
 import dev.kaiwen.mapper.ShoppingCartMapper;
-import dev.kaiwen.service.DishService;
-import dev.kaiwen.service.SetmealService;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
 import dev.kaiwen.service.ShoppingCartService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 /**
  * 购物车服务实现类.
- * 提供购物车的添加、减少、查看、清空等功能.
+ * 提供购物车的添加、减少、查看、清空等功能，购物车条目保存在 shopping_cart 表中.
  */
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "firmament.cart", name = "store", havingValue = "db",
+    matchIfMissing = true)
 public class ShoppingCartServiceImpl extends
     ServiceImpl<ShoppingCartMapper, ShoppingCart> implements ShoppingCartService {
 
   private final ShoppingCartMapper mapper;
-  private final SetmealService setmealService;
-  private final DishService dishService;
+  private final CatalogIndexService catalogIndexService;
 
   /**
    * 添加商品到购物车.
+   * 与批量添加一样通过 upsert 写入，已存在的条目累加数量，重复点击不会因唯一索引冲突而失败.
    *
    * @param shoppingCartDto 购物车DTO
    * @throws ShoppingCartBusinessException 当商品ID为空或商品不存在时
@@ -41,52 +46,83 @@ public class ShoppingCartServiceImpl extends
   @Override
   public void addShoppingCart(ShoppingCartDto shoppingCartDto) {
     // 0. 验证参数：dishId 和 setmealId 不能同时为空
-    Long dishId = shoppingCartDto.getDishId();
-    Long setmealId = shoppingCartDto.getSetmealId();
-    if (dishId == null && setmealId == null) {
+    if (shoppingCartDto.getDishId() == null && shoppingCartDto.getSetmealId() == null) {
       throw new ShoppingCartBusinessException("商品ID不能为空");
     }
 
-    // 1. 查询购物车中是否已经存在这个条目
-    List<ShoppingCart> list = findShoppingCartByDto(shoppingCartDto);
+    // 1. 从商品目录索引读取商品信息
+    CatalogItem item = resolveCatalogItem(shoppingCartDto);
 
-    // 3. 如果已存在，更新数量
-    if (list != null && !list.isEmpty()) {
-      ShoppingCart cart = list.get(0);
-      cart.setNumber(cart.getNumber() + 1);
-      // 更新购物车
-      this.updateById(cart);
-    } else {
-      // 4. 如果不存在，创建新的购物车条目
-      // 4.1 使用 Converter 将 DTO 转换为 Entity
-      ShoppingCart shoppingCart = ShoppingCartConverter.INSTANCE.d2e(shoppingCartDto);
-      shoppingCart.setUserId(BaseContext.getCurrentId());
-      shoppingCart.setNumber(1);
-
-      // 4.2 判断是菜品还是套餐，查询对应信息并设置属性
-      if (dishId != null) {
-        // 是菜品，查询菜品信息
-        Dish dish = dishService.getById(dishId);
-        if (dish == null) {
-          throw new ShoppingCartBusinessException("菜品不存在");
-        }
-        shoppingCart.setName(dish.getName());
-        shoppingCart.setImage(dish.getImage());
-        shoppingCart.setAmount(dish.getPrice());
-      } else {
-        // 是套餐，查询套餐信息
-        Setmeal setmeal = setmealService.getById(setmealId);
-        if (setmeal == null) {
-          throw new ShoppingCartBusinessException("套餐不存在");
-        }
-        shoppingCart.setName(setmeal.getName());
-        shoppingCart.setImage(setmeal.getImage());
-        shoppingCart.setAmount(setmeal.getPrice());
+    // 2. 构建数量为 1 的购物车条目
+    ShoppingCart shoppingCart = ShoppingCartConverter.INSTANCE.d2e(shoppingCartDto);
+    shoppingCart.setUserId(BaseContext.getCurrentId());
+    shoppingCart.setNumber(1);
+    shoppingCart.setName(item.getName());
+    shoppingCart.setImage(item.getImage());
+    shoppingCart.setAmount(item.getPrice());
+    shoppingCart.setCreateTime(LocalDateTime.now());
+
+    // 3. 不存在则插入，已存在则数量加 1
+    mapper.upsertBatch(List.of(shoppingCart));
+  }
+
+  /**
+   * 批量添加商品到购物车.
+   * 商品信息全部从商品目录索引读取，所有条目通过一条多行 upsert 写入，已存在的条目累加数量.
+   *
+   * @param shoppingCartDtoList 购物车DTO列表，number 为添加的数量
+   * @throws ShoppingCartBusinessException 当商品ID为空、数量不合法或商品不存在时
+   */
+  @Override
+  public void addShoppingCartBatch(List<ShoppingCartDto> shoppingCartDtoList) {
+    if (shoppingCartDtoList == null || shoppingCartDtoList.isEmpty()) {
+      return;
+    }
+    Long userId = BaseContext.getCurrentId();
+    LocalDateTime now = LocalDateTime.now();
+
+    // 请求中重复的商品先合并，保证一条语句中同一条目只出现一次
+    Map<String, ShoppingCart> merged = new LinkedHashMap<>();
+    for (ShoppingCartDto dto : shoppingCartDtoList) {
+      int number = resolveNumber(dto);
+      CatalogItem item = resolveCatalogItem(dto);
+      String itemKey = dto.getDishId() + ":" + dto.getSetmealId() + ":" + dto.getDishFlavor();
+      ShoppingCart existing = merged.get(itemKey);
+      if (existing != null) {
+        existing.setNumber(existing.getNumber() + number);
+        continue;
       }
+      ShoppingCart shoppingCart = ShoppingCartConverter.INSTANCE.d2e(dto);
+      shoppingCart.setUserId(userId);
+      shoppingCart.setNumber(number);
+      shoppingCart.setName(item.getName());
+      shoppingCart.setImage(item.getImage());
+      shoppingCart.setAmount(item.getPrice());
+      shoppingCart.setCreateTime(now);
+      merged.put(itemKey, shoppingCart);
+    }
+
+    mapper.upsertBatch(new ArrayList<>(merged.values()));
+  }
 
-      // 4.3 插入新的购物车条目
-      this.save(shoppingCart);
+  /**
+   * 将多个条目加入当前用户的购物车，用于再来一单.
+   * 已存在的条目累加数量.
+   *
+   * @param shoppingCartList 购物车条目列表
+   */
+  @Override
+  public void addShoppingCartItems(List<ShoppingCart> shoppingCartList) {
+    if (shoppingCartList == null || shoppingCartList.isEmpty()) {
+      return;
     }
+    LocalDateTime now = LocalDateTime.now();
+    shoppingCartList.forEach(cart -> {
+      if (cart.getCreateTime() == null) {
+        cart.setCreateTime(now);
+      }
+    });
+    mapper.upsertBatch(shoppingCartList);
   }
 
   /**
@@ -144,6 +180,38 @@ public class ShoppingCartServiceImpl extends
     mapper.delete(updateWrapper);
   }
 
+  /**
+   * 批量添加时的数量，为空时按 1 计算.
+   */
+  private static int resolveNumber(ShoppingCartDto dto) {
+    if (dto.getDishId() == null && dto.getSetmealId() == null) {
+      throw new ShoppingCartBusinessException("商品ID不能为空");
+    }
+    Integer number = dto.getNumber();
+    if (number == null) {
+      return 1;
+    }
+    if (number <= 0) {
+      throw new ShoppingCartBusinessException("商品数量必须大于0");
+    }
+    return number;
+  }
+
+  private CatalogItem resolveCatalogItem(ShoppingCartDto dto) {
+    if (dto.getDishId() != null) {
+      CatalogItem item = catalogIndexService.getDish(dto.getDishId());
+      if (item == null) {
+        throw new ShoppingCartBusinessException("菜品不存在");
+      }
+      return item;
+    }
+    CatalogItem item = catalogIndexService.getSetmeal(dto.getSetmealId());
+    if (item == null) {
+      throw new ShoppingCartBusinessException("套餐不存在");
+    }
+    return item;
+  }
+
   /**
    * 根据购物车DTO查询购物车条目.
    *
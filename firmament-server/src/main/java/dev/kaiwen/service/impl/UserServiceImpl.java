@@ -16,6 +16,7 @@ import dev.kaiwen.exception.LoginFailedException;
 import dev.kaiwen.exception.PasswordErrorException;
 import dev.kaiwen.mapper.UserMapper;
 import dev.kaiwen.properties.WeChatProperties;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.UserService;
 import dev.kaiwen.utils.HttpClientUtil;
 import dev.kaiwen.utils.PasswordService;
@@ -41,6 +42,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
   private final WeChatProperties weChatProperties;
   private final ObjectMapper objectMapper;
   private final PasswordService passwordService;
+  private final DailyBusinessStatsService dailyBusinessStatsService;
 
   /**
    * 微信登录.
@@ -65,6 +67,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
           .createTime(LocalDateTime.now())
           .build();
       this.save(user);
+      dailyBusinessStatsService.recordUserRegistered(user.getCreateTime());
     }
     return user;
 
@@ -3,23 +3,24 @@ package dev.kaiwen.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import dev.kaiwen.constant.StatusConstant;
+import dev.kaiwen.entity.DailyBusinessStats;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.entity.Setmeal;
-import dev.kaiwen.entity.User;
 import dev.kaiwen.mapper.DishMapper;
-import dev.kaiwen.mapper.OrderMapper;
 import dev.kaiwen.mapper.SetmealMapper;
-import dev.kaiwen.mapper.UserMapper;
+import dev.kaiwen.service.DailyBusinessStatsService;
+import dev.kaiwen.service.OrderStatusCounterService;
 import dev.kaiwen.service.WorkspaceService;
 import dev.kaiwen.vo.BusinessDataVo;
 import dev.kaiwen.vo.DishOverViewVo;
 import dev.kaiwen.vo.OrderOverViewVo;
 import dev.kaiwen.vo.SetmealOverViewVo;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -32,10 +33,10 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class WorkspaceServiceImpl implements WorkspaceService {
 
-  private final OrderMapper orderMapper;
-  private final UserMapper userMapper;
+  private final OrderStatusCounterService orderStatusCounterService;
   private final DishMapper dishMapper;
   private final SetmealMapper setmealMapper;
+  private final DailyBusinessStatsService dailyBusinessStatsService;
 
   /**
    * 根据时间段统计营业数据.
@@ -52,29 +53,22 @@ public class WorkspaceServiceImpl implements WorkspaceService {
     // 平均客单价：营业额 / 有效订单数
     // 新增用户：当日新增用户的数量
 
-    // 查询总订单数
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> totalOrderWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin)
-        .le(Orders::getOrderTime, end);
-    long totalOrderCount = orderMapper.selectCount(totalOrderWrapper);
-
-    // 查询已完成订单（有效订单）
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> completedOrderWrapper = Wrappers.lambdaQuery(Orders.class)
-        .eq(Orders::getStatus, Orders.COMPLETED)
-        .ge(Orders::getOrderTime, begin)
-        .le(Orders::getOrderTime, end);
-    List<Orders> completedOrders = orderMapper.selectList(completedOrderWrapper);
+    // 从每日汇总读取时间段覆盖的每一天的数据
+    List<DailyBusinessStats> statsList = dailyBusinessStatsService.listByDateRange(
+        begin.toLocalDate(), end.toLocalDate());
 
-    // 计算营业额和有效订单数
     BigDecimal turnover = BigDecimal.ZERO;
-    int validOrderCount = completedOrders.size();
+    int validOrderCount = 0;
+    int totalOrderCount = 0;
+    int newUsers = 0;
 
-    for (Orders order : completedOrders) {
-      if (order.getAmount() != null) {
-        turnover = turnover.add(order.getAmount());
+    for (DailyBusinessStats stats : statsList) {
+      if (stats.getTurnover() != null) {
+        turnover = turnover.add(stats.getTurnover());
       }
+      validOrderCount += stats.getValidOrders() != null ? stats.getValidOrders() : 0;
+      totalOrderCount += stats.getTotalOrders() != null ? stats.getTotalOrders() : 0;
+      newUsers += stats.getNewUsers() != null ? stats.getNewUsers() : 0;
     }
 
     // 计算订单完成率和平均客单价
@@ -88,19 +82,12 @@ public class WorkspaceServiceImpl implements WorkspaceService {
           .doubleValue();
     }
 
-    // 查询新增用户数
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<User> userWrapper = Wrappers.lambdaQuery(User.class)
-        .ge(User::getCreateTime, begin)
-        .le(User::getCreateTime, end);
-    long newUsers = userMapper.selectCount(userWrapper);
-
     return BusinessDataVo.builder()
         .turnover(turnover.doubleValue())
         .validOrderCount(validOrderCount)
         .orderCompletionRate(orderCompletionRate)
         .unitPrice(unitPrice)
-        .newUsers((int) newUsers)
+        .newUsers(newUsers)
         .build();
   }
 
@@ -111,37 +98,17 @@ public class WorkspaceServiceImpl implements WorkspaceService {
    */
   @Override
   public OrderOverViewVo getOrderOverView() {
-    LocalDateTime begin = LocalDateTime.now().with(LocalTime.MIN);
+    // 直接读取内存中今天各状态的订单数量
+    Map<Integer, Long> statusCounts = orderStatusCounterService.countByStatus(LocalDate.now());
 
-    // 待接单
-    // 使用 Wrappers + mapper 方式查询
-    LambdaQueryWrapper<Orders> waitingWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin)
-        .eq(Orders::getStatus, Orders.TO_BE_CONFIRMED);
-    long waitingOrders = orderMapper.selectCount(waitingWrapper);
-
-    // 待派送
-    LambdaQueryWrapper<Orders> deliveredWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin)
-        .eq(Orders::getStatus, Orders.CONFIRMED);
-    long deliveredOrders = orderMapper.selectCount(deliveredWrapper);
-
-    // 已完成
-    LambdaQueryWrapper<Orders> completedWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin)
-        .eq(Orders::getStatus, Orders.COMPLETED);
-    long completedOrders = orderMapper.selectCount(completedWrapper);
-
-    // 已取消
-    LambdaQueryWrapper<Orders> cancelledWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin)
-        .eq(Orders::getStatus, Orders.CANCELLED);
-    long cancelledOrders = orderMapper.selectCount(cancelledWrapper);
+    // 待接单、待派送、已完成、已取消
+    long waitingOrders = statusCounts.getOrDefault(Orders.TO_BE_CONFIRMED, 0L);
+    long deliveredOrders = statusCounts.getOrDefault(Orders.CONFIRMED, 0L);
+    long completedOrders = statusCounts.getOrDefault(Orders.COMPLETED, 0L);
+    long cancelledOrders = statusCounts.getOrDefault(Orders.CANCELLED, 0L);
 
     // 全部订单
-    LambdaQueryWrapper<Orders> allWrapper = Wrappers.lambdaQuery(Orders.class)
-        .ge(Orders::getOrderTime, begin);
-    long allOrders = orderMapper.selectCount(allWrapper);
+    long allOrders = statusCounts.values().stream().mapToLong(Long::longValue).sum();
 
     return OrderOverViewVo.builder()
         .waitingOrders((int) waitingOrders)
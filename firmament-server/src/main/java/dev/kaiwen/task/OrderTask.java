@@ -1,6 +1,9 @@
 package dev.kaiwen.task;
 
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.OrderService;
+import dev.kaiwen.service.OrderStatusCounterService;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +12,7 @@ import org.springframework.stereotype.Component;
 
 /**
  * 定时任务类.
- * 用于处理超时订单和派送订单的定时任务.
+ * 用于处理超时订单、派送订单、每日营业数据汇总和订单状态计数校准的定时任务.
  */
 
 @Component
@@ -17,13 +20,30 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class OrderTask {
 
+  // 每批从超时队列取出的订单数
+  static final int TIMEOUT_BATCH_SIZE = 100;
+
   private final OrderService orderService;
+  private final DailyBusinessStatsService dailyBusinessStatsService;
+  private final OrderStatusCounterService orderStatusCounterService;
+
+  /**
+   * 取消超时队列中已到期的订单.
+   * 每秒执行一次，每批处理 TIMEOUT_BATCH_SIZE 个，取满一批时继续处理下一批.
+   */
+  @Scheduled(fixedDelay = 1000, initialDelay = 1000)
+  public void processTimeoutQueue() {
+    int polled;
+    do {
+      polled = orderService.processTimeoutQueue(TIMEOUT_BATCH_SIZE);
+    } while (polled == TIMEOUT_BATCH_SIZE);
+  }
 
   /**
    * 定时处理超时订单.
-   * 每分钟执行一次，处理超时未支付的订单.
+   * 每10分钟扫描一次订单表，兜底处理未能通过超时队列取消的订单.
    */
-  @Scheduled(cron = "0 * * * * ?") // 每分钟一次
+  @Scheduled(cron = "0 */10 * * * ?") // 每10分钟一次
   public void processTimeoutOrder() {
     log.info("定时处理超时订单：{}", LocalDateTime.now());
     orderService.processTimeoutOrder();
@@ -39,4 +59,34 @@ public class OrderTask {
     log.info("定时处理前一天未完成的订单:{}", LocalDateTime.now());
     orderService.processDeliveryOrder();
   }
+
+  /**
+   * 写入内存中累积的营业数据增量.
+   * 每秒执行一次，汇总行每秒每个节点只更新一次.
+   */
+  @Scheduled(fixedDelay = 1000, initialDelay = 1000)
+  public void flushDailyStats() {
+    dailyBusinessStatsService.flushPendingDeltas();
+  }
+
+  /**
+   * 定稿前一天的营业数据汇总.
+   * 每天凌晨1点10分执行一次，在处理完前一天未完成的订单之后，根据订单表和用户表重新计算前一天的汇总数据.
+   */
+  @Scheduled(cron = "0 10 1 * * *")
+  public void finalizeDailyStats() {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    log.info("定稿前一天的营业数据汇总:{}", yesterday);
+    dailyBusinessStatsService.rebuild(yesterday, yesterday);
+  }
+
+  /**
+   * 根据数据库校准内存中的订单状态计数.
+   * 每5分钟执行一次.
+   */
+  @Scheduled(fixedDelay = 300000, initialDelay = 300000)
+  public void reconcileOrderStatusCounters() {
+    log.debug("校准订单状态计数：{}", LocalDateTime.now());
+    orderStatusCounterService.reconcile();
+  }
 }
@@ -0,0 +1,79 @@
+package dev.kaiwen.websocket;
+
+import dev.kaiwen.constant.JwtClaimsConstant;
+import dev.kaiwen.properties.JwtProperties;
+import dev.kaiwen.utils.JwtService;
+import io.jsonwebtoken.Claims;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerEndpointConfig;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket握手认证配置器.
+ * 握手时校验管理端JWT，通过后把员工id和角色写入会话属性，由 WebSocketServer 按员工和角色建立索引；
+ * 未通过校验的连接不写入属性，建立后立即被关闭.
+ */
+@Slf4j
+@Component
+public class AdminHandshakeConfigurator extends ServerEndpointConfig.Configurator {
+
+  // 会话属性：员工id
+  static final String EMP_ID_PROPERTY = "empId";
+  // 会话属性：角色
+  static final String ROLE_PROPERTY = "role";
+  // 浏览器建立WebSocket连接时无法设置请求头，令牌通过查询参数传递
+  static final String TOKEN_PARAMETER = "token";
+
+  // 配置器实例由WebSocket容器创建，JWT相关的Bean通过静态字段共享
+  private static JwtService jwtService;
+  private static JwtProperties jwtProperties;
+
+  /**
+   * 注入JWT服务和配置.
+   *
+   * @param service    JWT服务
+   * @param properties JWT配置属性
+   */
+  @Autowired
+  public void setJwtSupport(JwtService service, JwtProperties properties) {
+    AdminHandshakeConfigurator.jwtService = service;
+    AdminHandshakeConfigurator.jwtProperties = properties;
+  }
+
+  @Override
+  public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request,
+      HandshakeResponse response) {
+    String token = firstValue(request.getParameterMap().get(TOKEN_PARAMETER));
+    if (token == null && jwtProperties != null) {
+      token = firstValue(request.getHeaders().get(jwtProperties.getAdminTokenName()));
+    }
+    Long empId = authenticate(token);
+    if (empId != null) {
+      sec.getUserProperties().put(EMP_ID_PROPERTY, empId);
+      // 员工暂无角色划分，持有管理端令牌的会话统一归为管理端角色
+      sec.getUserProperties().put(ROLE_PROPERTY, WebSocketServer.ROLE_ADMIN);
+    }
+  }
+
+  private Long authenticate(String token) {
+    if (token == null || token.isBlank() || jwtService == null) {
+      log.warn("WebSocket握手缺少令牌");
+      return null;
+    }
+    try {
+      Claims claims = jwtService.parseJwt(jwtProperties.getAdminSecretKey(), token);
+      return Long.valueOf(claims.get(JwtClaimsConstant.EMP_ID).toString());
+    } catch (Exception ex) {
+      log.warn("WebSocket握手令牌校验失败：{}", ex.getMessage());
+      return null;
+    }
+  }
+
+  private static String firstValue(List<String> values) {
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+}
@@ -0,0 +1,135 @@
+package dev.kaiwen.websocket;
+
+import com.alibaba.fastjson2.JSON;
+import dev.kaiwen.event.OrderPaidEvent;
+import dev.kaiwen.event.OrderReminderEvent;
+import dev.kaiwen.event.OrderStatusBatchChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 订单消息推送分发器.
+ * 在业务事务提交后接收订单事件，由单独的线程序列化并经 Redis 群发给所有节点的管理端，业务线程不等待推送完成.
+ * 待推送队列有容量上限，管理端推送过慢导致队列已满时丢弃新消息，不反压到下单、支付等请求.
+ */
+@Slf4j
+@Component
+public class OrderNotificationDispatcher {
+
+  // 来单提醒
+  static final int PAYMENT_MESSAGE_TYPE = 1;
+  // 客户催单
+  static final int REMINDER_MESSAGE_TYPE = 2;
+  // 订单状态批量变更
+  static final int BATCH_STATUS_MESSAGE_TYPE = 3;
+
+  // 待推送消息的最大数量
+  private static final int QUEUE_CAPACITY = 1000;
+  // 丢弃消息指标名
+  static final String DROPPED_METRIC = "order.notification.dropped";
+
+  private final WebSocketRelay webSocketRelay;
+  private final ThreadPoolExecutor executor;
+  private final Counter droppedCounter;
+
+  /**
+   * 构造订单消息推送分发器.
+   *
+   * @param webSocketRelay WebSocket跨节点群发中继
+   * @param meterRegistry  指标注册表
+   */
+  @Autowired
+  public OrderNotificationDispatcher(WebSocketRelay webSocketRelay,
+      MeterRegistry meterRegistry) {
+    this(webSocketRelay, meterRegistry, QUEUE_CAPACITY);
+  }
+
+  OrderNotificationDispatcher(WebSocketRelay webSocketRelay, MeterRegistry meterRegistry,
+      int queueCapacity) {
+    this.webSocketRelay = webSocketRelay;
+    this.droppedCounter = Counter.builder(DROPPED_METRIC)
+        .description("推送队列已满时丢弃的订单消息数")
+        .register(meterRegistry);
+    // 单个推送线程，保证管理端收到消息的顺序与事件顺序一致
+    this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new CustomizableThreadFactory("order-notification-"),
+        (task, pool) -> {
+          droppedCounter.increment();
+          log.warn("订单消息推送队列已满，丢弃消息");
+        });
+  }
+
+  /**
+   * 支付事务提交后推送来单提醒.
+   *
+   * @param event 订单支付成功事件
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOrderPaid(OrderPaidEvent event) {
+    dispatch(PAYMENT_MESSAGE_TYPE, "订单号 :" + event.getOrderNumber(),
+        Map.of("orderId", event.getOrderId()));
+  }
+
+  /**
+   * 推送客户催单消息.
+   *
+   * @param event 用户催单事件
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOrderReminder(OrderReminderEvent event) {
+    dispatch(REMINDER_MESSAGE_TYPE, "订单号:" + event.getOrderNumber(),
+        Map.of("orderId", event.getOrderId()));
+  }
+
+  /**
+   * 推送订单状态批量变更消息.
+   *
+   * @param event 订单状态批量变更事件
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onOrderStatusBatchChanged(OrderStatusBatchChangedEvent event) {
+    dispatch(BATCH_STATUS_MESSAGE_TYPE, event.getContent(),
+        Map.of("orderIds", event.getOrderIds(), "status", event.getStatus()));
+  }
+
+  /**
+   * 停止推送线程，丢弃尚未推送的消息.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * 在推送线程中组装、序列化并推送消息.
+   *
+   * @param type    消息类型
+   * @param content 消息内容
+   * @param fields  各类型消息特有的字段
+   */
+  private void dispatch(int type, String content, Map<String, Object> fields) {
+    executor.execute(() -> {
+      Map<String, Object> map = new HashMap<>(fields);
+      map.put("type", type);
+      map.put("content", content);
+      try {
+        // 订单消息只推送给管理端会话
+        webSocketRelay.sendToRole(WebSocketServer.ROLE_ADMIN, JSON.toJSONString(map));
+      } catch (RuntimeException ex) {
+        log.error("订单消息推送失败", ex);
+      }
+    });
+  }
+}
@@ -0,0 +1,191 @@
+package dev.kaiwen.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 单个 WebSocket 会话的待发送队列.
+ * 消息先进入有界队列，再通过 AsyncRemote 逐条异步发送，同一时刻每个会话只有一条消息在发送中；
+ * 队列已满时丢弃最旧的消息，一条消息发送超过停滞时间仍未完成或发送失败时断开该会话，慢客户端不影响其他会话和调用方.
+ */
+@Slf4j
+final class SessionOutbox {
+
+  // 会话队列长度指标名
+  static final String QUEUE_DEPTH_METRIC = "websocket.session.queue.depth";
+  // 单条消息发送耗时指标名
+  static final String SEND_LATENCY_METRIC = "websocket.session.send.latency";
+  // 丢弃消息指标名
+  static final String DROPPED_METRIC = "websocket.session.dropped";
+
+  private final String sid;
+  private final Session session;
+  private final int capacity;
+  private final long stallTimeoutNanos;
+  private final MeterRegistry meterRegistry;
+  private final Deque<String> queue = new ArrayDeque<>();
+  private final Gauge depthGauge;
+  private final Timer sendTimer;
+  private final Counter droppedCounter;
+
+  private boolean sending;
+  private long sendStartNanos;
+  private boolean closed;
+
+  SessionOutbox(String sid, Session session, int capacity, Duration stallTimeout,
+      MeterRegistry meterRegistry) {
+    this.sid = sid;
+    this.session = session;
+    this.capacity = capacity;
+    this.stallTimeoutNanos = stallTimeout.toNanos();
+    this.meterRegistry = meterRegistry;
+    this.depthGauge = Gauge.builder(QUEUE_DEPTH_METRIC, this, SessionOutbox::depth)
+        .description("WebSocket 会话待发送的消息数")
+        .tag("sid", sid)
+        .register(meterRegistry);
+    this.sendTimer = Timer.builder(SEND_LATENCY_METRIC)
+        .description("WebSocket 单条消息从开始发送到完成的耗时")
+        .tag("sid", sid)
+        .register(meterRegistry);
+    this.droppedCounter = Counter.builder(DROPPED_METRIC)
+        .description("WebSocket 会话队列已满或客户端停滞时丢弃的消息数")
+        .tag("sid", sid)
+        .register(meterRegistry);
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  /**
+   * 消息入队并在空闲时开始发送，不等待发送完成.
+   *
+   * @param message 消息内容
+   */
+  void offer(String message) {
+    boolean stalled;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      stalled = sending && System.nanoTime() - sendStartNanos > stallTimeoutNanos;
+      if (stalled) {
+        // 客户端长时间没有读走消息，丢弃积压并断开，由客户端重连
+        droppedCounter.increment(queue.size() + 1.0);
+        queue.clear();
+        closed = true;
+      } else {
+        if (queue.size() >= capacity) {
+          queue.pollFirst();
+          droppedCounter.increment();
+        }
+        queue.addLast(message);
+      }
+    }
+    if (stalled) {
+      log.warn("客户端：{} 消息发送停滞，断开连接", sid);
+      closeSession();
+      return;
+    }
+    sendNext();
+  }
+
+  /**
+   * 停止发送并注销该会话的指标.
+   */
+  void close() {
+    synchronized (this) {
+      closed = true;
+      queue.clear();
+    }
+    meterRegistry.remove(depthGauge);
+    meterRegistry.remove(sendTimer);
+    meterRegistry.remove(droppedCounter);
+  }
+
+  synchronized int depth() {
+    return queue.size();
+  }
+
+  /**
+   * 逐条发送队列中的消息，直到队列为空或有消息仍在发送中.
+   * 发送回调在 sendText 返回前同步执行时由本循环继续发送下一条，否则由回调线程继续，不产生递归调用.
+   */
+  private void sendNext() {
+    while (true) {
+      String next;
+      long start;
+      synchronized (this) {
+        if (sending || closed || queue.isEmpty()) {
+          return;
+        }
+        next = queue.pollFirst();
+        sending = true;
+        start = System.nanoTime();
+        sendStartNanos = start;
+      }
+      // 回调和本线程中先到的一方置为 true，后到的一方负责继续发送
+      AtomicBoolean handedOff = new AtomicBoolean();
+      try {
+        session.getAsyncRemote().sendText(next, result -> {
+          if (onSent(start, result) && !handedOff.compareAndSet(false, true)) {
+            sendNext();
+          }
+        });
+      } catch (RuntimeException ex) {
+        onSent(start, new SendResult(ex));
+        return;
+      }
+      if (handedOff.compareAndSet(false, true)) {
+        // 发送尚未完成，由回调继续
+        return;
+      }
+    }
+  }
+
+  /**
+   * 记录发送结果.
+   * 发送失败说明连接已不可用，丢弃积压的消息并关闭会话，不再向该会话发送.
+   *
+   * @return 发送成功时返回 true
+   */
+  private boolean onSent(long start, SendResult result) {
+    sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    if (result.isOK()) {
+      synchronized (this) {
+        sending = false;
+      }
+      return true;
+    }
+    synchronized (this) {
+      sending = false;
+      if (closed) {
+        return false;
+      }
+      droppedCounter.increment(queue.size());
+      queue.clear();
+      closed = true;
+    }
+    log.warn("向客户端：{} 发送消息失败，断开连接", sid, result.getException());
+    closeSession();
+    return false;
+  }
+
+  private void closeSession() {
+    try {
+      session.close();
+    } catch (Exception e) {
+      log.warn("关闭Session失败", e);
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package dev.kaiwen.websocket;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.kaiwen.constant.CacheConstant;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket跨节点推送中继.
+ * 消息连同推送目标（全部、角色、员工）发布到 Redis 频道一次，每个节点订阅该频道后推送给本节点的目标会话；
+ * 每条消息带唯一id，同一节点重复收到时只推送一次.
+ */
+@Slf4j
+@Component
+public class WebSocketRelay implements MessageListener {
+
+  // 本节点记录的最近消息id数量和保留时间，覆盖重复投递的时间窗口
+  private static final int RECENT_ID_CAPACITY = 10_000;
+  private static final Duration RECENT_ID_TTL = Duration.ofMinutes(5);
+
+  // 推送目标类型
+  static final String TARGET_ALL = "all";
+  static final String TARGET_ROLE = "role";
+  static final String TARGET_EMPLOYEE = "employee";
+
+  private final RedisTemplate<String, String> redisTemplateStringString;
+  private final WebSocketServer webSocketServer;
+  private final Cache<String, Boolean> recentIds = Caffeine.newBuilder()
+      .maximumSize(RECENT_ID_CAPACITY)
+      .expireAfterWrite(RECENT_ID_TTL)
+      .build();
+
+  /**
+   * 构造WebSocket跨节点群发中继.
+   *
+   * @param redisTemplateStringString 用于发布消息的 RedisTemplate
+   * @param webSocketServer           本节点的WebSocket服务
+   */
+  public WebSocketRelay(RedisTemplate<String, String> redisTemplateStringString,
+      WebSocketServer webSocketServer) {
+    this.redisTemplateStringString = redisTemplateStringString;
+    this.webSocketServer = webSocketServer;
+  }
+
+  /**
+   * 向所有节点的客户端群发消息.
+   * 发布失败时退化为只推送本节点的客户端，下同.
+   *
+   * @param message 要发送的消息内容
+   */
+  public void broadcast(String message) {
+    publish(TARGET_ALL, "", message);
+  }
+
+  /**
+   * 向所有节点上指定角色的客户端推送消息.
+   *
+   * @param role    角色
+   * @param message 要发送的消息内容
+   */
+  public void sendToRole(String role, String message) {
+    publish(TARGET_ROLE, role, message);
+  }
+
+  /**
+   * 向所有节点上指定员工的客户端推送消息.
+   *
+   * @param empId   员工id
+   * @param message 要发送的消息内容
+   */
+  public void sendToEmployee(Long empId, String message) {
+    publish(TARGET_EMPLOYEE, String.valueOf(empId), message);
+  }
+
+  /**
+   * 收到频道消息后推送给本节点的客户端.
+   *
+   * @param message 频道消息
+   * @param pattern 订阅的频道模式
+   */
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    JSONObject envelope;
+    try {
+      envelope = JSON.parseObject(body);
+    } catch (JSONException ex) {
+      log.warn("忽略无法解析的WebSocket群发消息：{}", body);
+      return;
+    }
+    String id = envelope == null ? null : envelope.getString("id");
+    String target = envelope == null ? null : envelope.getString("target");
+    String to = envelope == null ? null : envelope.getString("to");
+    String payload = envelope == null ? null : envelope.getString("payload");
+    if (id == null || target == null || to == null || payload == null) {
+      log.warn("忽略格式不正确的WebSocket群发消息：{}", body);
+      return;
+    }
+    deliver(id, target, to, payload);
+  }
+
+  private void publish(String target, String to, String message) {
+    String id = UUID.randomUUID().toString();
+    String envelope = JSON.toJSONString(
+        Map.of("id", id, "target", target, "to", to, "payload", message));
+    try {
+      redisTemplateStringString.convertAndSend(CacheConstant.WEBSOCKET_BROADCAST_CHANNEL,
+          envelope);
+    } catch (RuntimeException ex) {
+      log.warn("WebSocket群发消息发布失败，只推送本节点客户端", ex);
+      deliver(id, target, to, message);
+    }
+  }
+
+  private void deliver(String id, String target, String to, String payload) {
+    if (recentIds.asMap().putIfAbsent(id, Boolean.TRUE) != null) {
+      log.debug("忽略重复的WebSocket群发消息，id={}", id);
+      return;
+    }
+    switch (target) {
+      case TARGET_ALL -> webSocketServer.sendToAllClient(payload);
+      case TARGET_ROLE -> webSocketServer.sendToRole(to, payload);
+      case TARGET_EMPLOYEE -> webSocketServer.sendToEmployee(Long.valueOf(to), payload);
+      default -> log.warn("忽略未知推送目标的WebSocket消息：{}", target);
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package dev.kaiwen.websocket;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.OnClose;
 import jakarta.websocket.OnError;
 import jakarta.websocket.OnMessage;
@@ -7,26 +10,56 @@ import jakarta.websocket.OnOpen;
 import jakarta.websocket.Session;
 import jakarta.websocket.server.PathParam;
 import jakarta.websocket.server.ServerEndpoint;
-import java.util.Collection;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * WebSocket服务.
- * 用于处理WebSocket连接、消息接收和群发消息功能.
+ * 用于处理WebSocket连接、消息接收和消息推送功能.
+ * 连接在握手时通过管理端JWT认证，会话按员工和角色建立索引，推送时只遍历目标会话；
+ * 每个会话有独立的有界待发送队列，推送只负责入队，由 AsyncRemote 异步发送.
  */
 @Slf4j
 @Component
-@ServerEndpoint("/ws/{sid}")
+@ServerEndpoint(value = "/ws/{sid}", configurator = AdminHandshakeConfigurator.class)
 public class WebSocketServer {
 
-  // 存放会话对象（使用ConcurrentHashMap保证线程安全）
-  private static final Map<String, Session> sessionMap = new ConcurrentHashMap<>();
+  // 管理端角色
+  public static final String ROLE_ADMIN = "admin";
+
+  // 每个会话最多积压的消息数，超出时丢弃最旧的消息
+  static final int QUEUE_CAPACITY = 100;
+  // 一条消息发送超过该时间仍未完成时视为客户端停滞
+  static final Duration STALL_TIMEOUT = Duration.ofSeconds(30);
+
+  // 存放会话的待发送队列（使用ConcurrentHashMap保证线程安全）
+  private static final Map<String, SessionOutbox> sessionMap = new ConcurrentHashMap<>();
+  // 员工id -> 该员工的客户端标识
+  private static final Map<Long, Set<String>> employeeSessions = new ConcurrentHashMap<>();
+  // 角色 -> 该角色的客户端标识
+  private static final Map<String, Set<String>> roleSessions = new ConcurrentHashMap<>();
+
+  // 端点实例由WebSocket容器为每个连接创建，指标注册表通过静态字段共享
+  private static MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  /**
+   * 注入指标注册表.
+   *
+   * @param registry 指标注册表
+   */
+  @Autowired
+  public void setMeterRegistry(MeterRegistry registry) {
+    WebSocketServer.meterRegistry = registry;
+  }
 
   /**
    * 连接建立成功调用的方法.
+   * 握手未通过认证的连接直接关闭.
    *
    * @param session WebSocket会话对象
    * @param sid     客户端标识
@@ -34,8 +67,25 @@ public class WebSocketServer {
   @OnOpen
   @SuppressWarnings("unused")
   public void onOpen(Session session, @PathParam("sid") String sid) {
-    log.info("客户端：{} 建立连接", sid);
-    sessionMap.put(sid, session);
+    Map<String, Object> properties = session.getUserProperties();
+    Long empId = (Long) properties.get(AdminHandshakeConfigurator.EMP_ID_PROPERTY);
+    String role = (String) properties.get(AdminHandshakeConfigurator.ROLE_PROPERTY);
+    if (empId == null || role == null) {
+      log.warn("客户端：{} 未通过认证，关闭连接", sid);
+      closeQuietly(session,
+          new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "unauthorized"));
+      return;
+    }
+    log.info("客户端：{} 建立连接，员工id：{}", sid, empId);
+    // 同一客户端标识重新连接时先注销旧队列，避免指标仍指向旧队列
+    SessionOutbox previous = sessionMap.remove(sid);
+    if (previous != null) {
+      unregister(sid, previous);
+    }
+    sessionMap.put(sid, new SessionOutbox(sid, session, QUEUE_CAPACITY, STALL_TIMEOUT,
+        meterRegistry));
+    employeeSessions.computeIfAbsent(empId, key -> ConcurrentHashMap.newKeySet()).add(sid);
+    roleSessions.computeIfAbsent(role, key -> ConcurrentHashMap.newKeySet()).add(sid);
   }
 
   /**
@@ -53,20 +103,22 @@ public class WebSocketServer {
   /**
    * 连接关闭调用的方法.
    *
-   * @param sid 客户端标识
+   * @param session WebSocket会话对象
+   * @param sid     客户端标识
    */
   @OnClose
   @SuppressWarnings({"unused"})
-  public void onClose(@PathParam("sid") String sid) {
+  public void onClose(Session session, @PathParam("sid") String sid) {
     log.info("连接断开: {}", sid);
-    Session session = sessionMap.remove(sid);
+    SessionOutbox outbox = sessionMap.get(sid);
+    // 只注销本会话，同一客户端标识的新连接不受旧连接关闭的影响
+    if (outbox == null || outbox.getSession() != session || !sessionMap.remove(sid, outbox)) {
+      return;
+    }
+    unregister(sid, outbox);
     // Session由WebSocket容器管理，不需要手动关闭
-    if (session != null && session.isOpen()) {
-      try {
-        session.close();
-      } catch (Exception e) {
-        log.warn("关闭Session失败", e);
-      }
+    if (session.isOpen()) {
+      closeQuietly(session, null);
     }
   }
 
@@ -85,19 +137,75 @@ public class WebSocketServer {
 
   /**
    * 群发消息给所有客户端.
+   * 消息进入各会话的待发送队列后立即返回，不等待客户端接收.
    *
    * @param message 要发送的消息内容
    */
   public void sendToAllClient(String message) {
-    Collection<Session> sessions = sessionMap.values();
-    for (Session session : sessions) {
-      try {
-        // 服务器向客户端发送消息
-        session.getBasicRemote().sendText(message);
-      } catch (Exception e) {
-        log.error("向客户端发送消息失败", e);
+    for (SessionOutbox outbox : sessionMap.values()) {
+      outbox.offer(message);
+    }
+  }
+
+  /**
+   * 发送消息给指定角色的所有客户端.
+   *
+   * @param role    角色
+   * @param message 要发送的消息内容
+   */
+  public void sendToRole(String role, String message) {
+    sendTo(roleSessions.get(role), message);
+  }
+
+  /**
+   * 发送消息给指定员工的所有客户端.
+   *
+   * @param empId   员工id
+   * @param message 要发送的消息内容
+   */
+  public void sendToEmployee(Long empId, String message) {
+    sendTo(employeeSessions.get(empId), message);
+  }
+
+  private void sendTo(Set<String> sids, String message) {
+    if (sids == null) {
+      return;
+    }
+    for (String sid : sids) {
+      SessionOutbox outbox = sessionMap.get(sid);
+      if (outbox != null) {
+        outbox.offer(message);
       }
     }
   }
 
+  private void unregister(String sid, SessionOutbox outbox) {
+    outbox.close();
+    Map<String, Object> properties = outbox.getSession().getUserProperties();
+    Object empId = properties.get(AdminHandshakeConfigurator.EMP_ID_PROPERTY);
+    Object role = properties.get(AdminHandshakeConfigurator.ROLE_PROPERTY);
+    if (empId != null) {
+      employeeSessions.computeIfPresent((Long) empId, (key, sids) -> removeSid(sids, sid));
+    }
+    if (role != null) {
+      roleSessions.computeIfPresent((String) role, (key, sids) -> removeSid(sids, sid));
+    }
+  }
+
+  private static Set<String> removeSid(Set<String> sids, String sid) {
+    sids.remove(sid);
+    return sids.isEmpty() ? null : sids;
+  }
+
+  private static void closeQuietly(Session session, CloseReason reason) {
+    try {
+      if (reason == null) {
+        session.close();
+      } else {
+        session.close(reason);
+      }
+    } catch (Exception e) {
+      log.warn("关闭Session失败", e);
+    }
+  }
 }
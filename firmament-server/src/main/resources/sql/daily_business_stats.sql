@@ -0,0 +1,44 @@
+-- 每日营业数据汇总表
+-- 当天数据随订单状态流转和用户注册增量累加，历史数据由 OrderTask 每天凌晨定稿
+CREATE TABLE IF NOT EXISTS daily_business_stats
+(
+    stat_date        DATE           NOT NULL COMMENT '统计日期',
+    turnover         DECIMAL(12, 2) NOT NULL DEFAULT 0 COMMENT '营业额（已完成订单金额）',
+    total_orders     INT            NOT NULL DEFAULT 0 COMMENT '订单总数',
+    valid_orders     INT            NOT NULL DEFAULT 0 COMMENT '有效订单数（已完成）',
+    cancelled_orders INT            NOT NULL DEFAULT 0 COMMENT '已取消订单数',
+    new_users        INT            NOT NULL DEFAULT 0 COMMENT '新增用户数',
+    update_time      DATETIME       NULL COMMENT '最后更新时间',
+    PRIMARY KEY (stat_date)
+) COMMENT '每日营业数据汇总';
+
+-- 上线时根据已有订单和用户回填历史数据（可重复执行）
+INSERT INTO daily_business_stats
+    (stat_date, turnover, total_orders, valid_orders, cancelled_orders, new_users, update_time)
+SELECT d.stat_date,
+       COALESCE(o.turnover, 0),
+       COALESCE(o.total_orders, 0),
+       COALESCE(o.valid_orders, 0),
+       COALESCE(o.cancelled_orders, 0),
+       COALESCE(u.new_users, 0),
+       NOW()
+FROM (SELECT DATE(order_time) AS stat_date FROM orders
+      UNION
+      SELECT DATE(create_time) FROM user) d
+         LEFT JOIN (SELECT DATE(order_time)                                 AS stat_date,
+                           SUM(CASE WHEN status = 5 THEN amount ELSE 0 END) AS turnover,
+                           COUNT(*)                                         AS total_orders,
+                           SUM(CASE WHEN status = 5 THEN 1 ELSE 0 END)      AS valid_orders,
+                           SUM(CASE WHEN status = 6 THEN 1 ELSE 0 END)      AS cancelled_orders
+                    FROM orders
+                    GROUP BY DATE(order_time)) o ON o.stat_date = d.stat_date
+         LEFT JOIN (SELECT DATE(create_time) AS stat_date, COUNT(*) AS new_users
+                    FROM user
+                    GROUP BY DATE(create_time)) u ON u.stat_date = d.stat_date
+WHERE d.stat_date IS NOT NULL
+ON DUPLICATE KEY UPDATE turnover         = VALUES(turnover),
+                        total_orders     = VALUES(total_orders),
+                        valid_orders     = VALUES(valid_orders),
+                        cancelled_orders = VALUES(cancelled_orders),
+                        new_users        = VALUES(new_users),
+                        update_time      = NOW();
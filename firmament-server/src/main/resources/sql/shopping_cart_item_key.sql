@@ -0,0 +1,24 @@
+-- 购物车条目唯一索引，供批量加入购物车时按条目累加数量（INSERT ... ON DUPLICATE KEY UPDATE）
+-- dish_id、setmeal_id、dish_flavor 可以为 NULL，唯一索引建立在把 NULL 视为空串的生成列上
+
+-- 上线前先合并已有的重复条目（可重复执行）
+UPDATE shopping_cart sc
+    JOIN (SELECT MIN(id) AS keep_id, SUM(number) AS total_number
+          FROM shopping_cart
+          GROUP BY user_id, IFNULL(dish_id, 0), IFNULL(setmeal_id, 0), IFNULL(dish_flavor, '')
+          HAVING COUNT(*) > 1) d ON sc.id = d.keep_id
+SET sc.number = d.total_number;
+
+DELETE sc
+FROM shopping_cart sc
+         JOIN shopping_cart keep ON keep.user_id = sc.user_id
+    AND IFNULL(keep.dish_id, 0) = IFNULL(sc.dish_id, 0)
+    AND IFNULL(keep.setmeal_id, 0) = IFNULL(sc.setmeal_id, 0)
+    AND IFNULL(keep.dish_flavor, '') = IFNULL(sc.dish_flavor, '')
+    AND keep.id < sc.id;
+
+ALTER TABLE shopping_cart
+    ADD COLUMN item_key VARCHAR(128) GENERATED ALWAYS AS (
+        CONCAT_WS(':', user_id, IFNULL(dish_id, 0), IFNULL(setmeal_id, 0), IFNULL(dish_flavor, ''))
+        ) STORED COMMENT '购物车条目键：用户id:菜品id:套餐id:口味',
+    ADD UNIQUE KEY uk_shopping_cart_item (item_key);
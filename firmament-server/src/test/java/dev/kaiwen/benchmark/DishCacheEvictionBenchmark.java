@@ -0,0 +1,120 @@
+package dev.kaiwen.benchmark;
+
+import dev.kaiwen.constant.CacheConstant;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * 菜品缓存清理基准测试.
+ * 在预先写入不同数量 key 的 Redis 上对比原来的 KEYS + DEL 清理方式与按分类递增版本号的方式.
+ * 需要本地运行 Redis，默认连接 localhost:6379 的 15 号库，运行前会清空该库，
+ * 可通过 -Dredis.host、-Dredis.port、-Dredis.database 修改.
+ * 运行方式：执行 main 方法，或 mvn -pl firmament-server test-compile 后使用 JMH Runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DishCacheEvictionBenchmark {
+
+  private static final long CATEGORY_ID = 10L;
+  private static final int CATEGORIES = 50;
+
+  @Param({"1000", "10000", "100000"})
+  private int keyspaceSize;
+
+  private LettuceConnectionFactory connectionFactory;
+  private StringRedisTemplate redisTemplate;
+
+  @Setup
+  public void setUp() {
+    RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+        System.getProperty("redis.host", "localhost"),
+        Integer.getInteger("redis.port", 6379));
+    configuration.setDatabase(Integer.getInteger("redis.database", 15));
+    connectionFactory = new LettuceConnectionFactory(configuration);
+    connectionFactory.afterPropertiesSet();
+    connectionFactory.start();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+
+    flushDatabase();
+    // 各分类的菜品缓存，其余为用户的 refresh token，模拟 keyspace 随用户数增长
+    redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+      for (int i = 0; i < keyspaceSize; i++) {
+        String key = i < CATEGORIES
+            ? CacheConstant.DISH_KEY_PREFIX + i
+            : CacheConstant.REFRESH_TOKEN_KEY_PREFIX + i;
+        connection.stringCommands().set(bytes(key), bytes("[]"));
+      }
+      return null;
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    flushDatabase();
+    connectionFactory.destroy();
+  }
+
+  /**
+   * 原来的清理方式：KEYS 扫描整个 keyspace 后删除匹配的 key.
+   * 第一次调用后匹配的 key 已被删除，之后的调用仍然要扫描全部 key，耗时随 keyspace 增长.
+   */
+  @Benchmark
+  public Long legacyKeysEviction() {
+    Set<String> keys = redisTemplate.keys(CacheConstant.DISH_KEY_PREFIX + CATEGORY_ID);
+    if (CollectionUtils.isEmpty(keys)) {
+      return 0L;
+    }
+    return redisTemplate.delete(keys);
+  }
+
+  /**
+   * 现在的清理方式：递增分类的缓存版本号.
+   */
+  @Benchmark
+  public Long versionEviction() {
+    return redisTemplate.opsForValue()
+        .increment(CacheConstant.DISH_VERSION_KEY_PREFIX + CATEGORY_ID);
+  }
+
+  private void flushDatabase() {
+    redisTemplate.execute((RedisCallback<Object>) connection -> {
+      connection.serverCommands().flushDb();
+      return null;
+    });
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(DishCacheEvictionBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
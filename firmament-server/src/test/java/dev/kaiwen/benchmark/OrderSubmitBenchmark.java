@@ -0,0 +1,373 @@
+package dev.kaiwen.benchmark;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 下单 SQL 形态基准测试.
+ * 只衡量下单流程在数据库上执行的语句和连接占用方式，不调用 OrderServiceImpl.submitOrder：
+ * 两个基准方法用手写 JDBC 按顺序重放改动前后 submitOrder 发出的 SQL，不包含 MyBatis-Plus 映射、
+ * 商品目录索引、订单号生成、Redis 购物车等服务层开销，结果不能当作接口吞吐量；
+ * submitOrder 的语句或事务边界变化时需要同步修改这里的重放顺序.
+ * 8 个线程共用只有 2 个连接的 Druid 连接池，对比下单流程改动前后在数据库上执行的语句：
+ * 旧流程整个下单方法在一个事务中执行，购物车、地址、用户的读取也占用事务连接，订单明细逐行插入（JDBC batch）；
+ * 新流程读取在事务外各自借用连接，事务内只有订单插入和一条多行订单明细插入，事务提交后再清空购物车.
+ * 当日营业数据改为提交后在内存中累加、每秒写入一次，因此新流程中没有该语句.
+ * 每次下单后重新写入购物车，两种流程的这部分开销相同.
+ * 默认使用 H2 内存数据库（MySQL 模式），数据库没有网络往返，差距主要来自连接等待；
+ * 需要包含网络延迟时可通过 -Djdbc.url、-Djdbc.username、-Djdbc.password 指向测试用的 MySQL，
+ * 表名均以 bench_ 开头，运行前后会删除这些表.
+ * 运行方式：执行 main 方法.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class OrderSubmitBenchmark {
+
+  private static final int POOL_SIZE = 2;
+
+  private static final String[] DROP_TABLES = {
+      "DROP TABLE IF EXISTS bench_shopping_cart",
+      "DROP TABLE IF EXISTS bench_address_book",
+      "DROP TABLE IF EXISTS bench_user",
+      "DROP TABLE IF EXISTS bench_orders",
+      "DROP TABLE IF EXISTS bench_order_detail",
+      "DROP TABLE IF EXISTS bench_daily_business_stats"
+  };
+
+  private static final String[] CREATE_TABLES = {
+      "CREATE TABLE bench_shopping_cart (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(32),"
+          + " image VARCHAR(255), user_id BIGINT, dish_id BIGINT, setmeal_id BIGINT,"
+          + " dish_flavor VARCHAR(50), number INT, amount DECIMAL(10, 2), create_time DATETIME)",
+      "CREATE INDEX idx_bench_cart_user ON bench_shopping_cart (user_id)",
+      "CREATE TABLE bench_address_book (id BIGINT PRIMARY KEY, user_id BIGINT,"
+          + " consignee VARCHAR(50), phone VARCHAR(11), detail VARCHAR(200))",
+      "CREATE TABLE bench_user (id BIGINT PRIMARY KEY, name VARCHAR(32))",
+      "CREATE TABLE bench_orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, number VARCHAR(50),"
+          + " status INT, user_id BIGINT, address_book_id BIGINT, order_time DATETIME,"
+          + " pay_status INT, amount DECIMAL(10, 2), user_name VARCHAR(32), phone VARCHAR(11),"
+          + " address VARCHAR(255), consignee VARCHAR(32))",
+      "CREATE TABLE bench_order_detail (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(32),"
+          + " image VARCHAR(255), order_id BIGINT, dish_id BIGINT, setmeal_id BIGINT,"
+          + " dish_flavor VARCHAR(50), number INT, amount DECIMAL(10, 2))",
+      "CREATE TABLE bench_daily_business_stats (stat_date DATE PRIMARY KEY,"
+          + " order_count INT, valid_order_count INT, turnover DECIMAL(12, 2))"
+  };
+
+  private static final String SELECT_CART =
+      "SELECT id, name, image, dish_id, setmeal_id, dish_flavor, number, amount"
+          + " FROM bench_shopping_cart WHERE user_id = ?";
+  private static final String SELECT_ADDRESS =
+      "SELECT id, user_id, consignee, phone, detail FROM bench_address_book WHERE id = ?";
+  private static final String SELECT_USER = "SELECT id, name FROM bench_user WHERE id = ?";
+  private static final String INSERT_ORDER =
+      "INSERT INTO bench_orders (number, status, user_id, address_book_id, order_time,"
+          + " pay_status, amount, user_name, phone, address, consignee)"
+          + " VALUES (?, 1, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+  private static final String UPSERT_DAILY_STATS =
+      "INSERT INTO bench_daily_business_stats (stat_date, order_count, valid_order_count, turnover)"
+          + " VALUES (?, 1, 0, 0) ON DUPLICATE KEY UPDATE order_count = order_count + 1";
+  private static final String INSERT_DETAIL_COLUMNS =
+      "INSERT INTO bench_order_detail (name, image, order_id, dish_id, setmeal_id, dish_flavor,"
+          + " number, amount) VALUES ";
+  private static final String DETAIL_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String DELETE_CART = "DELETE FROM bench_shopping_cart WHERE user_id = ?";
+
+  @Param({"3", "10"})
+  private int cartSize;
+
+  private DruidDataSource dataSource;
+
+  private final AtomicLong userIds = new AtomicLong();
+  private final AtomicLong orderNumbers = new AtomicLong();
+
+  /**
+   * 每个线程代表一个下单用户.
+   */
+  @State(Scope.Thread)
+  public static class Submitter {
+
+    long userId;
+
+    @Setup(Level.Trial)
+    public void setUp(OrderSubmitBenchmark benchmark) throws SQLException {
+      userId = benchmark.userIds.incrementAndGet();
+      try (Connection connection = benchmark.dataSource.getConnection()) {
+        try (PreparedStatement user = connection.prepareStatement(
+            "INSERT INTO bench_user (id, name) VALUES (?, ?)")) {
+          user.setLong(1, userId);
+          user.setString(2, "user" + userId);
+          user.executeUpdate();
+        }
+        try (PreparedStatement address = connection.prepareStatement(
+            "INSERT INTO bench_address_book (id, user_id, consignee, phone, detail)"
+                + " VALUES (?, ?, '张三', '13800000000', '北京市海淀区')")) {
+          address.setLong(1, userId);
+          address.setLong(2, userId);
+          address.executeUpdate();
+        }
+        benchmark.refillCart(connection, userId);
+      }
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    dataSource = new DruidDataSource();
+    dataSource.setUrl(System.getProperty("jdbc.url",
+        "jdbc:h2:mem:order_submit;DB_CLOSE_DELAY=-1;MODE=MySQL"));
+    dataSource.setUsername(System.getProperty("jdbc.username", "sa"));
+    dataSource.setPassword(System.getProperty("jdbc.password", ""));
+    dataSource.setInitialSize(POOL_SIZE);
+    dataSource.setMaxActive(POOL_SIZE);
+    dataSource.setMinIdle(POOL_SIZE);
+    dataSource.init();
+    executeAll(DROP_TABLES);
+    executeAll(CREATE_TABLES);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    executeAll(DROP_TABLES);
+    dataSource.close();
+  }
+
+  /**
+   * 改动前的下单流程：读取、写入和清空购物车全部在同一个事务连接上执行.
+   */
+  @Benchmark
+  public long legacySubmit(Submitter submitter) throws SQLException {
+    long orderId;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        List<Object[]> cart = selectCart(connection, submitter.userId);
+        Object[] address = selectRow(connection, SELECT_ADDRESS, submitter.userId);
+        Object[] user = selectRow(connection, SELECT_USER, submitter.userId);
+        orderId = insertOrder(connection, submitter.userId, cart, address, user);
+        upsertDailyStats(connection);
+        insertDetailsOneByOne(connection, orderId, cart);
+        deleteCart(connection, submitter.userId);
+        connection.commit();
+      } catch (SQLException | RuntimeException ex) {
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+      refillCart(connection, submitter.userId);
+    }
+    return orderId;
+  }
+
+  /**
+   * 现在的下单流程：读取各自借用连接，事务内只执行固定的两条写入语句，提交后清空购物车.
+   */
+  @Benchmark
+  public long currentSubmit(Submitter submitter) throws SQLException {
+    List<Object[]> cart;
+    Object[] address;
+    Object[] user;
+    try (Connection connection = dataSource.getConnection()) {
+      cart = selectCart(connection, submitter.userId);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      address = selectRow(connection, SELECT_ADDRESS, submitter.userId);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      user = selectRow(connection, SELECT_USER, submitter.userId);
+    }
+
+    long orderId;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try {
+        orderId = insertOrder(connection, submitter.userId, cart, address, user);
+        insertDetailsInOneStatement(connection, orderId, cart);
+        connection.commit();
+      } catch (SQLException | RuntimeException ex) {
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(true);
+      }
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      deleteCart(connection, submitter.userId);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      refillCart(connection, submitter.userId);
+    }
+    return orderId;
+  }
+
+  private List<Object[]> selectCart(Connection connection, long userId) throws SQLException {
+    List<Object[]> rows = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(SELECT_CART)) {
+      statement.setLong(1, userId);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          rows.add(new Object[] {resultSet.getString("name"), resultSet.getString("image"),
+              resultSet.getObject("dish_id"), resultSet.getObject("setmeal_id"),
+              resultSet.getString("dish_flavor"), resultSet.getInt("number"),
+              resultSet.getBigDecimal("amount")});
+        }
+      }
+    }
+    return rows;
+  }
+
+  private Object[] selectRow(Connection connection, String sql, long id) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setLong(1, id);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        resultSet.next();
+        Object[] row = new Object[resultSet.getMetaData().getColumnCount()];
+        for (int i = 0; i < row.length; i++) {
+          row[i] = resultSet.getObject(i + 1);
+        }
+        return row;
+      }
+    }
+  }
+
+  private long insertOrder(Connection connection, long userId, List<Object[]> cart,
+      Object[] address, Object[] user) throws SQLException {
+    BigDecimal amount = BigDecimal.ZERO;
+    for (Object[] item : cart) {
+      amount = amount.add(((BigDecimal) item[6]).multiply(BigDecimal.valueOf((int) item[5])));
+    }
+    try (PreparedStatement statement = connection.prepareStatement(INSERT_ORDER,
+        Statement.RETURN_GENERATED_KEYS)) {
+      statement.setString(1, String.valueOf(orderNumbers.incrementAndGet()));
+      statement.setLong(2, userId);
+      statement.setLong(3, userId);
+      statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+      statement.setBigDecimal(5, amount);
+      statement.setString(6, (String) user[1]);
+      statement.setString(7, (String) address[3]);
+      statement.setString(8, (String) address[4]);
+      statement.setString(9, (String) address[2]);
+      statement.executeUpdate();
+      try (ResultSet keys = statement.getGeneratedKeys()) {
+        keys.next();
+        return keys.getLong(1);
+      }
+    }
+  }
+
+  private void upsertDailyStats(Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(UPSERT_DAILY_STATS)) {
+      statement.setObject(1, LocalDate.now());
+      statement.executeUpdate();
+    }
+  }
+
+  private void insertDetailsOneByOne(Connection connection, long orderId, List<Object[]> cart)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(
+        INSERT_DETAIL_COLUMNS + DETAIL_VALUES)) {
+      for (Object[] item : cart) {
+        bindDetail(statement, 0, orderId, item);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private void insertDetailsInOneStatement(Connection connection, long orderId,
+      List<Object[]> cart) throws SQLException {
+    StringBuilder sql = new StringBuilder(INSERT_DETAIL_COLUMNS);
+    for (int i = 0; i < cart.size(); i++) {
+      sql.append(i == 0 ? "" : ", ").append(DETAIL_VALUES);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+      for (int i = 0; i < cart.size(); i++) {
+        bindDetail(statement, i * 8, orderId, cart.get(i));
+      }
+      statement.executeUpdate();
+    }
+  }
+
+  private static void bindDetail(PreparedStatement statement, int offset, long orderId,
+      Object[] item) throws SQLException {
+    statement.setString(offset + 1, (String) item[0]);
+    statement.setString(offset + 2, (String) item[1]);
+    statement.setLong(offset + 3, orderId);
+    statement.setObject(offset + 4, item[2]);
+    statement.setObject(offset + 5, item[3]);
+    statement.setString(offset + 6, (String) item[4]);
+    statement.setInt(offset + 7, (int) item[5]);
+    statement.setBigDecimal(offset + 8, (BigDecimal) item[6]);
+  }
+
+  private void deleteCart(Connection connection, long userId) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(DELETE_CART)) {
+      statement.setLong(1, userId);
+      statement.executeUpdate();
+    }
+  }
+
+  private void refillCart(Connection connection, long userId) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO bench_shopping_cart (name, image, user_id, dish_id, number, amount,"
+            + " create_time) VALUES (?, 'image.jpg', ?, ?, 1, 8.00, ?)")) {
+      for (int i = 0; i < cartSize; i++) {
+        statement.setString(1, "菜品" + i);
+        statement.setLong(2, userId);
+        statement.setLong(3, 10L + i);
+        statement.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+
+  private void executeAll(String[] sqls) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      for (String sql : sqls) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(OrderSubmitBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
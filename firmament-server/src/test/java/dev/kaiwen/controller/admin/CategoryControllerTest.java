@@ -15,6 +15,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.constant.JwtClaimsConstant;
 import dev.kaiwen.dto.CategoryDto;
 import dev.kaiwen.dto.CategoryPageQueryDto;
@@ -22,6 +23,7 @@ import dev.kaiwen.entity.Category;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.utils.JwtService;
 import io.jsonwebtoken.Claims;
 import java.util.ArrayList;
@@ -39,6 +41,9 @@ class CategoryControllerTest {
   @MockitoBean
   private CategoryService categoryService;
 
+  @MockitoBean
+  private MenuCacheService menuCacheService;
+
   @MockitoBean
   private JwtService jwtService;
 
@@ -77,6 +82,7 @@ class CategoryControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(categoryService).save(any(CategoryDto.class));
+    verify(menuCacheService).evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
   }
 
   @Test
@@ -144,6 +150,7 @@ class CategoryControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(categoryService).deleteById(categoryId);
+    verify(menuCacheService).evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
   }
 
   @Test
@@ -165,6 +172,7 @@ class CategoryControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(categoryService).update(any(CategoryDto.class));
+    verify(menuCacheService).evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
   }
 
   @Test
@@ -182,6 +190,7 @@ class CategoryControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(categoryService).enableOrDisable(status, categoryId);
+    verify(menuCacheService).evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
   }
 
   @Test
@@ -198,6 +207,7 @@ class CategoryControllerTest {
         .andExpect(jsonPath("$.code").value(1));
 
     verify(categoryService).enableOrDisable(status, categoryId);
+    verify(menuCacheService).evict(CacheConstant.CATEGORY_KEY_PREFIX + "*");
   }
 
   @Test
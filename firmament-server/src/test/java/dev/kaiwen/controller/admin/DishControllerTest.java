@@ -8,6 +8,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -25,18 +26,19 @@ import dev.kaiwen.entity.DishFlavor;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.utils.JwtService;
 import dev.kaiwen.vo.DishVo;
 import io.jsonwebtoken.Claims;
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,8 +55,11 @@ class DishControllerTest {
   @MockitoBean
   private JwtProperties jwtProperties;
 
-  @MockitoBean(name = "redisTemplateStringObject")
-  private RedisTemplate<String, Object> redisTemplate;
+  @MockitoBean
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  @MockitoBean
+  private MenuCacheService menuCacheService;
 
   @Autowired
   private ObjectMapper objectMapper;
@@ -62,6 +67,16 @@ class DishControllerTest {
   @Autowired
   private MockMvc mockMvc;
 
+  private ValueOperations<String, String> valueOperations;
+
+  @BeforeEach
+  void setUp() {
+    @SuppressWarnings("unchecked")
+    ValueOperations<String, String> operations = mock(ValueOperations.class);
+    valueOperations = operations;
+    given(redisTemplateStringString.opsForValue()).willReturn(valueOperations);
+  }
+
   /**
    * 设置 JWT token Mock 的辅助方法.
    */
@@ -73,17 +88,6 @@ class DishControllerTest {
     given(claims.get(JwtClaimsConstant.EMP_ID)).willReturn(empId.toString());
   }
 
-  /**
-   * Mock Redis keys 和 delete 操作的辅助方法.
-   */
-  private void setupRedisMock(String pattern, Set<String> keys) {
-    given(redisTemplate.keys(pattern)).willReturn(keys);
-    if (keys != null && !keys.isEmpty()) {
-      // RedisTemplate 的 delete 方法接受 Collection<String> 参数
-      given(redisTemplate.delete(anyCollection())).willReturn((long) keys.size());
-    }
-  }
-
   @Test
   void createDishSuccess() throws Exception {
     // 准备测试数据
@@ -107,12 +111,8 @@ class DishControllerTest {
     Long empId = 1L;
     setupJwtTokenMock(empId);
 
-    // Mock Redis keys
+    // 缓存 key
     String cacheKey = CacheConstant.DISH_KEY_PREFIX + categoryId;
-    Set<String> cacheKeys = new HashSet<>();
-    cacheKeys.add(cacheKey + "_1");
-    cacheKeys.add(cacheKey + "_2");
-    setupRedisMock(cacheKey, cacheKeys);
 
     // 执行请求
     mockMvc.perform(post("/admin/dish")
@@ -125,8 +125,8 @@ class DishControllerTest {
 
     // 验证方法调用
     verify(dishService).saveWithFlavor(any(DishDto.class));
-    verify(redisTemplate).keys(cacheKey);
-    verify(redisTemplate).delete(cacheKeys);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    verify(menuCacheService).evict(cacheKey);
   }
 
   @Test
@@ -143,9 +143,8 @@ class DishControllerTest {
     Long empId = 1L;
     setupJwtTokenMock(empId);
 
-    // Mock Redis keys（空集合）
+    // 缓存 key
     String cacheKey = CacheConstant.DISH_KEY_PREFIX + categoryId;
-    setupRedisMock(cacheKey, new HashSet<>());
 
     // 执行请求
     mockMvc.perform(post("/admin/dish")
@@ -157,9 +156,9 @@ class DishControllerTest {
 
     // 验证方法调用
     verify(dishService).saveWithFlavor(any(DishDto.class));
-    verify(redisTemplate).keys(cacheKey);
-    // 由于 keys 返回空集合，delete 不会被调用
-    verify(redisTemplate, never()).delete(anyCollection());
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    // 本地缓存仍然需要清理
+    verify(menuCacheService).evict(cacheKey);
   }
 
   @Test
@@ -261,15 +260,9 @@ class DishControllerTest {
     given(dishService.getDishById(1L)).willReturn(dish1);
     given(dishService.getDishById(2L)).willReturn(dish2);
 
-    // Mock Redis keys
+    // 缓存 key
     String cacheKey1 = CacheConstant.DISH_KEY_PREFIX + categoryId1;
     String cacheKey2 = CacheConstant.DISH_KEY_PREFIX + categoryId2;
-    Set<String> cacheKeys1 = new HashSet<>();
-    cacheKeys1.add(cacheKey1 + "_1");
-    Set<String> cacheKeys2 = new HashSet<>();
-    cacheKeys2.add(cacheKey2 + "_1");
-    setupRedisMock(cacheKey1, cacheKeys1);
-    setupRedisMock(cacheKey2, cacheKeys2);
 
     // 执行请求
     mockMvc.perform(delete("/admin/dish")
@@ -283,10 +276,8 @@ class DishControllerTest {
     verify(dishService).getDishById(1L);
     verify(dishService).getDishById(2L);
     verify(dishService).deleteDish(List.of(1L, 2L));
-    verify(redisTemplate).keys(cacheKey1);
-    verify(redisTemplate).keys(cacheKey2);
-    verify(redisTemplate).delete(cacheKeys1);
-    verify(redisTemplate).delete(cacheKeys2);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId1);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId2);
   }
 
   @Test
@@ -310,7 +301,7 @@ class DishControllerTest {
     verify(dishService).getDishById(999L);
     verify(dishService).deleteDish(List.of(999L));
     // 由于菜品不存在，不会清理缓存
-    verify(redisTemplate, never()).keys(anyString());
+    verify(valueOperations, never()).increment(anyString());
   }
 
   @Test
@@ -381,11 +372,8 @@ class DishControllerTest {
         .build();
     given(dishService.getDishById(dishId)).willReturn(oldDish);
 
-    // Mock Redis keys
+    // 缓存 key
     String cacheKey = CacheConstant.DISH_KEY_PREFIX + categoryId;
-    Set<String> cacheKeys = new HashSet<>();
-    cacheKeys.add(cacheKey + "_1");
-    setupRedisMock(cacheKey, cacheKeys);
 
     // 执行请求
     mockMvc.perform(put("/admin/dish")
@@ -399,8 +387,7 @@ class DishControllerTest {
     // 验证方法调用
     verify(dishService).getDishById(dishId);
     verify(dishService).updateDish(any(DishDto.class));
-    verify(redisTemplate).keys(cacheKey);
-    verify(redisTemplate).delete(cacheKeys);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
   }
 
   @Test
@@ -426,15 +413,9 @@ class DishControllerTest {
         .build();
     given(dishService.getDishById(dishId)).willReturn(oldDish);
 
-    // Mock Redis keys（两个分类的缓存都要清理）
+    // 缓存 key
     String oldCacheKey = CacheConstant.DISH_KEY_PREFIX + oldCategoryId;
     String newCacheKey = CacheConstant.DISH_KEY_PREFIX + newCategoryId;
-    Set<String> oldCacheKeys = new HashSet<>();
-    oldCacheKeys.add(oldCacheKey + "_1");
-    Set<String> newCacheKeys = new HashSet<>();
-    newCacheKeys.add(newCacheKey + "_1");
-    setupRedisMock(oldCacheKey, oldCacheKeys);
-    setupRedisMock(newCacheKey, newCacheKeys);
 
     // 执行请求
     mockMvc.perform(put("/admin/dish")
@@ -448,10 +429,10 @@ class DishControllerTest {
     verify(dishService).getDishById(dishId);
     verify(dishService).updateDish(any(DishDto.class));
     // 验证两个分类的缓存都被清理
-    verify(redisTemplate).keys(oldCacheKey);
-    verify(redisTemplate).keys(newCacheKey);
-    verify(redisTemplate).delete(oldCacheKeys);
-    verify(redisTemplate).delete(newCacheKeys);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + oldCategoryId);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + newCategoryId);
+    verify(menuCacheService).evict(oldCacheKey);
+    verify(menuCacheService).evict(newCacheKey);
   }
 
   @Test
@@ -472,11 +453,8 @@ class DishControllerTest {
     // Mock Service 返回 null（旧菜品不存在）
     given(dishService.getDishById(dishId)).willReturn(null);
 
-    // Mock Redis keys（只清理新分类的缓存，因为 oldDish 为 null）
+    // 缓存 key
     String cacheKey = CacheConstant.DISH_KEY_PREFIX + categoryId;
-    Set<String> cacheKeys = new HashSet<>();
-    cacheKeys.add(cacheKey + "_1");
-    setupRedisMock(cacheKey, cacheKeys);
 
     // 执行请求
     mockMvc.perform(put("/admin/dish")
@@ -491,10 +469,8 @@ class DishControllerTest {
     verify(dishService).getDishById(dishId);
     verify(dishService).updateDish(any(DishDto.class));
     // 验证只清理了新分类的缓存（因为 oldDish 为 null，不会进入 if 分支）
-    verify(redisTemplate).keys(cacheKey);
-    verify(redisTemplate).delete(cacheKeys);
-    // 验证不会清理旧分类的缓存（因为 oldDish 为 null）
-    verify(redisTemplate, never()).keys(CacheConstant.DISH_KEY_PREFIX + "oldCategoryId");
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    verify(valueOperations, times(1)).increment(anyString());
   }
 
   @Test
@@ -514,11 +490,8 @@ class DishControllerTest {
         .build();
     given(dishService.getDishById(dishId)).willReturn(dish);
 
-    // Mock Redis keys
+    // 缓存 key
     String cacheKey = CacheConstant.DISH_KEY_PREFIX + categoryId;
-    Set<String> cacheKeys = new HashSet<>();
-    cacheKeys.add(cacheKey + "_1");
-    setupRedisMock(cacheKey, cacheKeys);
 
     // 执行请求
     Integer status = 1; // 起售
@@ -532,8 +505,7 @@ class DishControllerTest {
     // 验证方法调用
     verify(dishService).getDishById(dishId);
     verify(dishService).startOrStop(status, dishId);
-    verify(redisTemplate).keys(cacheKey);
-    verify(redisTemplate).delete(cacheKeys);
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
   }
 
   @Test
@@ -559,6 +531,29 @@ class DishControllerTest {
     verify(dishService).getDishById(dishId);
     verify(dishService).startOrStop(status, dishId);
     // 由于菜品不存在，不会清理缓存
-    verify(redisTemplate, never()).keys(anyString());
+    verify(valueOperations, never()).increment(anyString());
+  }
+
+  /**
+   * 清理缓存只递增分类的版本号，不再用 KEYS 扫描和批量删除.
+   * 清理耗时随 keyspace 大小的对比见 DishCacheEvictionBenchmark.
+   */
+  @Test
+  void updateStatusBumpsCategoryVersionWithoutScanning() throws Exception {
+    setupJwtTokenMock(1L);
+    Long categoryId = 10L;
+    given(dishService.getDishById(1L)).willReturn(
+        DishVo.builder().id(1L).categoryId(categoryId).build());
+
+    mockMvc.perform(post("/admin/dish/status/{status}", 0)
+            .header("token", "mock-accessToken")
+            .param("id", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(1));
+
+    verify(valueOperations).increment(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId);
+    verify(menuCacheService).evict(CacheConstant.DISH_KEY_PREFIX + categoryId);
+    verify(redisTemplateStringString, never()).keys(anyString());
+    verify(redisTemplateStringString, never()).delete(anyCollection());
   }
 }
@@ -1,5 +1,6 @@
 package dev.kaiwen.controller.admin;
 
+import static org.hamcrest.Matchers.hasToString;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -14,6 +15,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.kaiwen.constant.JwtClaimsConstant;
+import dev.kaiwen.dto.OrdersBatchDto;
 import dev.kaiwen.dto.OrdersCancelDto;
 import dev.kaiwen.dto.OrdersConfirmDto;
 import dev.kaiwen.dto.OrdersPageQueryDto;
@@ -22,6 +24,7 @@ import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.service.OrderService;
 import dev.kaiwen.utils.JwtService;
+import dev.kaiwen.vo.OrderBatchResultVo;
 import dev.kaiwen.vo.OrderStatisticsVo;
 import dev.kaiwen.vo.OrderVo;
 import io.jsonwebtoken.Claims;
@@ -251,4 +254,61 @@ class OrderControllerTest {
 
     verify(orderService).complete(orderId);
   }
+
+  @Test
+  void confirmBatchReturnsPerOrderOutcome() throws Exception {
+    setupJwtTokenMock(1L);
+
+    OrdersBatchDto dto = new OrdersBatchDto();
+    dto.setIds(List.of(100L, 101L, 102L));
+    given(orderService.confirmBatch(List.of(100L, 101L, 102L))).willReturn(
+        new OrderBatchResultVo(List.of(100L, 102L), List.of(101L)));
+
+    mockMvc.perform(put("/admin/order/confirm/batch")
+            .header("token", "mock-accessToken")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(1))
+        .andExpect(jsonPath("$.data.succeeded.length()").value(2))
+        .andExpect(jsonPath("$.data.failed[0]", hasToString("101")));
+  }
+
+  @Test
+  void deliveryBatchIsNotMatchedAsOrderId() throws Exception {
+    setupJwtTokenMock(1L);
+
+    OrdersBatchDto dto = new OrdersBatchDto();
+    dto.setIds(List.of(100L));
+    given(orderService.deliveryBatch(List.of(100L))).willReturn(
+        new OrderBatchResultVo(List.of(100L), List.of()));
+
+    mockMvc.perform(put("/admin/order/delivery/batch")
+            .header("token", "mock-accessToken")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.succeeded[0]", hasToString("100")));
+
+    verify(orderService).deliveryBatch(List.of(100L));
+  }
+
+  @Test
+  void completeBatchSuccess() throws Exception {
+    setupJwtTokenMock(1L);
+
+    OrdersBatchDto dto = new OrdersBatchDto();
+    dto.setIds(List.of(100L, 101L));
+    given(orderService.completeBatch(List.of(100L, 101L))).willReturn(
+        new OrderBatchResultVo(List.of(100L, 101L), List.of()));
+
+    mockMvc.perform(put("/admin/order/complete/batch")
+            .header("token", "mock-accessToken")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data.failed.length()").value(0));
+
+    verify(orderService).completeBatch(List.of(100L, 101L));
+  }
 }
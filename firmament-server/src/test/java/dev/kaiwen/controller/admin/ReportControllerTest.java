@@ -1,9 +1,12 @@
 package dev.kaiwen.controller.admin;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -24,6 +27,7 @@ import dev.kaiwen.vo.SalesTop10ReportVo;
 import dev.kaiwen.vo.TurnoverReportVo;
 import dev.kaiwen.vo.UserReportVo;
 import io.jsonwebtoken.Claims;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
@@ -171,16 +175,40 @@ class ReportControllerTest {
     setupJwtTokenMock();
 
     byte[] excelBytes = new byte[]{0x50, 0x4B, 0x03, 0x04};
-    given(reportService.exportBusinessData()).willReturn(excelBytes);
+    willAnswer(invocation -> {
+      OutputStream outputStream = invocation.getArgument(2);
+      outputStream.write(excelBytes);
+      return null;
+    }).given(reportService).exportBusinessData(any(LocalDate.class), any(LocalDate.class),
+        any(OutputStream.class));
 
     mockMvc.perform(get("/admin/report/export").header("token", "mock-accessToken"))
         .andExpect(status().isOk())
         .andExpect(header().string("Content-Type",
             "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
         .andExpect(header().exists("Content-Disposition"))
+        .andExpect(header().doesNotExist("Content-Length"))
         .andExpect(content().bytes(excelBytes));
 
-    verify(reportService).exportBusinessData();
+    LocalDate today = LocalDate.now();
+    verify(reportService).exportBusinessData(eq(today.minusDays(29)), eq(today),
+        any(OutputStream.class));
+  }
+
+  @Test
+  void exportWithDateRange() throws Exception {
+    setupJwtTokenMock();
+
+    mockMvc.perform(get("/admin/report/export")
+            .header("token", "mock-accessToken")
+            .param("begin", "2024-01-01")
+            .param("end", "2024-03-31"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Disposition",
+            containsString("20240101-20240331.xlsx")));
+
+    verify(reportService).exportBusinessData(eq(LocalDate.of(2024, 1, 1)),
+        eq(LocalDate.of(2024, 3, 31)), any(OutputStream.class));
   }
 
   @Test
@@ -213,7 +241,8 @@ class ReportControllerTest {
   void exportWhenServiceThrows() throws Exception {
     setupJwtTokenMock();
 
-    given(reportService.exportBusinessData()).willThrow(new RuntimeException("导出失败"));
+    willThrow(new RuntimeException("导出失败")).given(reportService)
+        .exportBusinessData(any(LocalDate.class), any(LocalDate.class), any(OutputStream.class));
 
     Logger reportLogger = (Logger) LoggerFactory.getLogger(ReportController.class);
     Logger exceptionLogger = (Logger) LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -224,6 +253,7 @@ class ReportControllerTest {
     try {
       mockMvc.perform(get("/admin/report/export").header("token", "mock-accessToken"))
           .andExpect(status().isOk())
+          .andExpect(header().doesNotExist("Content-Disposition"))
           .andExpect(jsonPath("$.code").value(0));
     } finally {
       reportLogger.setLevel(reportOriginalLevel);
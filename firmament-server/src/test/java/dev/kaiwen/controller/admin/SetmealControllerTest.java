@@ -17,12 +17,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.constant.JwtClaimsConstant;
 import dev.kaiwen.dto.SetmealDto;
 import dev.kaiwen.dto.SetmealPageQueryDto;
 import dev.kaiwen.handler.GlobalExceptionHandler;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.result.PageResult;
+import dev.kaiwen.service.MenuCacheService;
 import dev.kaiwen.service.SetmealService;
 import dev.kaiwen.utils.JwtService;
 import dev.kaiwen.vo.SetmealVo;
@@ -44,6 +46,9 @@ class SetmealControllerTest {
   @MockitoBean
   private SetmealService setmealService;
 
+  @MockitoBean
+  private MenuCacheService menuCacheService;
+
   @MockitoBean
   private JwtService jwtService;
 
@@ -85,6 +90,7 @@ class SetmealControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(setmealService).saveWithDish(any(SetmealDto.class));
+    verify(menuCacheService).evict(CacheConstant.SETMEAL_KEY_PREFIX + 10);
   }
 
   @Test
@@ -158,6 +164,7 @@ class SetmealControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(setmealService).update(any(SetmealDto.class));
+    verify(menuCacheService).evict(CacheConstant.SETMEAL_KEY_PREFIX + "*");
   }
 
   @Test
@@ -172,6 +179,7 @@ class SetmealControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(setmealService).deleteBatch(List.of(1L, 2L));
+    verify(menuCacheService).evict(CacheConstant.SETMEAL_KEY_PREFIX + "*");
   }
 
   @Test
@@ -189,6 +197,7 @@ class SetmealControllerTest {
         .andExpect(jsonPath("$.msg").value(nullValue()));
 
     verify(setmealService).startOrStop(status, setmealId);
+    verify(menuCacheService).evict(CacheConstant.SETMEAL_KEY_PREFIX + "*");
   }
 
   @Test
@@ -1,38 +1,58 @@
 package dev.kaiwen.controller.user;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.entity.Category;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.MenuCacheService;
+import dev.kaiwen.service.impl.MenuCacheServiceImpl;
 import dev.kaiwen.utils.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.Collections;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(controllers = CategoryController.class)
+@Import({MenuCacheServiceImpl.class, SimpleMeterRegistry.class})
 class CategoryControllerTest {
 
   @MockitoBean
   private CategoryService categoryService;
 
+  @MockitoBean
+  private RedisTemplate<String, String> redisTemplateStringString;
+
   @MockitoBean
   private JwtService jwtService;
 
   @MockitoBean
   private JwtProperties jwtProperties;
 
+  @Autowired
+  private MenuCacheService menuCacheService;
+
   @Autowired
   private MockMvc mockMvc;
 
+  @BeforeEach
+  void setUp() {
+    menuCacheService.evictLocal(CacheConstant.CATEGORY_KEY_PREFIX + "*");
+  }
+
   @Test
   void listSuccess() throws Exception {
     List<Category> list = Collections.singletonList(
@@ -60,4 +80,19 @@ class CategoryControllerTest {
 
     verify(categoryService).list(2);
   }
+
+  @Test
+  void listServedFromLocalCacheOnSecondRequest() throws Exception {
+    List<Category> list = Collections.singletonList(
+        Category.builder().id(2L).name("主食").type(1).sort(2).build());
+    given(categoryService.list(1)).willReturn(list);
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/user/category/list").param("type", "1"))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.data[0].name").value("主食"));
+    }
+
+    verify(categoryService, times(1)).list(1);
+  }
 }
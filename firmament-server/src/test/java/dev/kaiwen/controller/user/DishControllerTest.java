@@ -1,15 +1,19 @@
 package dev.kaiwen.controller.user;
 
 import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -18,27 +22,38 @@ import ch.qos.logback.classic.Logger;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.MenuCacheService;
+import dev.kaiwen.service.impl.MenuCacheServiceImpl;
 import dev.kaiwen.utils.JwtService;
 import dev.kaiwen.vo.DishVo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(controllers = DishController.class)
+@Import({MenuCacheServiceImpl.class, SimpleMeterRegistry.class})
 class DishControllerTest {
 
   @MockitoBean
@@ -47,6 +62,9 @@ class DishControllerTest {
   @MockitoBean
   private RedisTemplate<String, String> redisTemplateStringString;
 
+  @Autowired
+  private MenuCacheService menuCacheService;
+
   @MockitoBean
   private JwtService jwtService;
 
@@ -67,6 +85,7 @@ class DishControllerTest {
     ValueOperations<String, String> operations = mock(ValueOperations.class);
     valueOperations = operations;
     given(redisTemplateStringString.opsForValue()).willReturn(valueOperations);
+    menuCacheService.evictLocal(CacheConstant.DISH_KEY_PREFIX + "*");
   }
 
   @Test
@@ -74,7 +93,7 @@ class DishControllerTest {
     Long categoryId = 10L;
     List<DishVo> list = Collections.singletonList(
         DishVo.builder().id(1L).name("鱼香肉丝").price(new BigDecimal("28.00")).build());
-    given(valueOperations.get("dish_" + categoryId)).willReturn(null);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(null);
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(list);
 
     mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
@@ -85,13 +104,75 @@ class DishControllerTest {
         .andExpect(jsonPath("$.data[0].name").value("鱼香肉丝"));
 
     verify(dishService).listWithFlavor(any(Dish.class));
+    verify(valueOperations).set(eq("dish_" + categoryId + ":v0"), anyString(),
+        eq(Duration.ofDays(1)));
+  }
+
+  @Test
+  void listReadsCacheOfCurrentVersion() throws Exception {
+    Long categoryId = 10L;
+    String cacheJson = "[{\"id\":9,\"name\":\"辣子鸡\",\"price\":36.00}]";
+    given(valueOperations.get(CacheConstant.DISH_VERSION_KEY_PREFIX + categoryId)).willReturn("3");
+    given(valueOperations.get("dish_" + categoryId + ":v3")).willReturn(cacheJson);
+
+    mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data[0].name").value("辣子鸡"));
+
+    verify(valueOperations, never()).get("dish_" + categoryId + ":v0");
+    verify(dishService, never()).listWithFlavor(any(Dish.class));
+  }
+
+  @Test
+  void listWhenLocalCacheHit() throws Exception {
+    Long categoryId = 10L;
+    List<DishVo> list = Collections.singletonList(
+        DishVo.builder().id(3L).name("回锅肉").price(new BigDecimal("30.00")).build());
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(null);
+    given(dishService.listWithFlavor(any(Dish.class))).willReturn(list);
+    mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
+        .andExpect(status().isOk());
+    clearInvocations(redisTemplateStringString, dishService);
+
+    mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andExpect(jsonPath("$.code").value(1))
+        .andExpect(jsonPath("$.data[0].id").value(3))
+        .andExpect(jsonPath("$.data[0].name").value("回锅肉"));
+
+    // 第二次请求直接返回缓存的字节，不再查询 Redis 和数据库
+    verify(redisTemplateStringString, never()).opsForValue();
+    verify(objectMapper, never()).readValue(anyString(), ArgumentMatchers.<Class<Object>>any());
+    verify(dishService, never()).listWithFlavor(any(Dish.class));
+  }
+
+  @Test
+  void listReturnsGzipWhenAccepted() throws Exception {
+    Long categoryId = 10L;
+    List<DishVo> list = Collections.singletonList(
+        DishVo.builder().id(3L).name("回锅肉").price(new BigDecimal("30.00")).build());
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(null);
+    given(dishService.listWithFlavor(any(Dish.class))).willReturn(list);
+
+    byte[] body = mockMvc.perform(get("/user/dish/list")
+            .param("categoryId", String.valueOf(categoryId))
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      assertTrue(json.contains("回锅肉"));
+    }
   }
 
   @Test
   void listWhenCacheHit() throws Exception {
     Long categoryId = 10L;
     String cacheJson = "[{\"id\":1,\"name\":\"宫保鸡丁\",\"price\":32.00}]";
-    given(valueOperations.get("dish_" + categoryId)).willReturn(cacheJson);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(cacheJson);
 
     mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
         .andExpect(status().isOk())
@@ -100,7 +181,7 @@ class DishControllerTest {
         .andExpect(jsonPath("$.data[0].id").value(1))
         .andExpect(jsonPath("$.data[0].name").value("宫保鸡丁"));
 
-    verify(valueOperations).get("dish_" + categoryId);
+    verify(valueOperations).get("dish_" + categoryId + ":v0");
   }
 
   /**
@@ -109,7 +190,7 @@ class DishControllerTest {
   @Test
   void listWhenCacheBlank() throws Exception {
     Long categoryId = 10L;
-    given(valueOperations.get("dish_" + categoryId)).willReturn("   ");
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn("   ");
     List<DishVo> list = Collections.singletonList(
         DishVo.builder().id(2L).name("青椒肉丝").price(new BigDecimal("26.00")).build());
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(list);
@@ -128,7 +209,7 @@ class DishControllerTest {
   @Test
   void listWhenCacheParsesToEmptyList() throws Exception {
     Long categoryId = 10L;
-    given(valueOperations.get("dish_" + categoryId)).willReturn("[]");
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn("[]");
     List<DishVo> dbList = Collections.singletonList(
         DishVo.builder().id(3L).name("回锅肉").price(new BigDecimal("30.00")).build());
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(dbList);
@@ -147,7 +228,7 @@ class DishControllerTest {
   @Test
   void listWhenCacheInvalidJsonCatchBlock() throws Exception {
     Long categoryId = 10L;
-    String key = "dish_" + categoryId;
+    String key = "dish_" + categoryId + ":v0";
     given(valueOperations.get(key)).willReturn("not-valid-json");
     List<DishVo> list = Collections.singletonList(
         DishVo.builder().id(1L).name("鱼香肉丝").price(new BigDecimal("28.00")).build());
@@ -175,7 +256,7 @@ class DishControllerTest {
   @Test
   void listWhenCacheIsNotListParseReturnsEmpty() throws Exception {
     Long categoryId = 10L;
-    given(valueOperations.get("dish_" + categoryId)).willReturn("{}");
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn("{}");
     List<DishVo> dbList = Collections.singletonList(
         DishVo.builder().id(4L).name("蒜泥白肉").price(new BigDecimal("32.00")).build());
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(dbList);
@@ -195,7 +276,7 @@ class DishControllerTest {
   @Test
   void listWhenCacheSerializationFails() throws Exception {
     Long categoryId = 10L;
-    given(valueOperations.get("dish_" + categoryId)).willReturn(null);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(null);
     List<DishVo> list = Collections.singletonList(
         DishVo.builder().id(1L).name("鱼香肉丝").price(new BigDecimal("28.00")).build());
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(list);
@@ -225,7 +306,7 @@ class DishControllerTest {
   void listWhenCacheWrapperFormat() throws Exception {
     Long categoryId = 10L;
     String cacheJson = "[\"java.util.ArrayList\",[{\"id\":5,\"name\":\"水煮鱼\",\"price\":48.00}]]";
-    given(valueOperations.get("dish_" + categoryId)).willReturn(cacheJson);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(cacheJson);
 
     mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
         .andExpect(status().isOk())
@@ -235,7 +316,7 @@ class DishControllerTest {
         .andExpect(jsonPath("$.data[0].name").value("水煮鱼"))
         .andExpect(jsonPath("$.data[0].price").value(48.0));
 
-    verify(valueOperations).get("dish_" + categoryId);
+    verify(valueOperations).get("dish_" + categoryId + ":v0");
   }
 
   /**
@@ -247,7 +328,7 @@ class DishControllerTest {
     String cacheJson = "[1,[{\"id\":7,\"name\":\"麻婆豆腐\",\"price\":18.00}]]";
     List<DishVo> cachedList = Collections.singletonList(
         DishVo.builder().id(7L).name("麻婆豆腐").price(new BigDecimal("18.00")).build());
-    given(valueOperations.get("dish_" + categoryId)).willReturn(cacheJson);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(cacheJson);
     doReturn(cachedList).when(objectMapper)
         .convertValue(any(), ArgumentMatchers.<TypeReference<List<DishVo>>>any());
 
@@ -268,7 +349,7 @@ class DishControllerTest {
     String cacheJson = "[\"java.util.ArrayList\",\"not-a-list\"]";
     List<DishVo> cachedList = Collections.singletonList(
         DishVo.builder().id(8L).name("鱼香茄子").price(new BigDecimal("22.00")).build());
-    given(valueOperations.get("dish_" + categoryId)).willReturn(cacheJson);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(cacheJson);
     doReturn(cachedList).when(objectMapper)
         .convertValue(any(), ArgumentMatchers.<TypeReference<List<DishVo>>>any());
 
@@ -287,7 +368,7 @@ class DishControllerTest {
   void listWhenCacheParsesToNullList() throws Exception {
     Long categoryId = 10L;
     String cacheJson = "[{\"id\":1,\"name\":\"宫保鸡丁\",\"price\":32.00}]";
-    given(valueOperations.get("dish_" + categoryId)).willReturn(cacheJson);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(cacheJson);
     doReturn(null).when(objectMapper)
         .convertValue(any(), ArgumentMatchers.<TypeReference<List<DishVo>>>any());
     List<DishVo> dbList = Collections.singletonList(
@@ -308,7 +389,7 @@ class DishControllerTest {
   @Test
   void listWhenDbReturnsNull() throws Exception {
     Long categoryId = 10L;
-    given(valueOperations.get("dish_" + categoryId)).willReturn(null);
+    given(valueOperations.get("dish_" + categoryId + ":v0")).willReturn(null);
     given(dishService.listWithFlavor(any(Dish.class))).willReturn(null);
 
     mockMvc.perform(get("/user/dish/list").param("categoryId", String.valueOf(categoryId)))
@@ -317,6 +398,6 @@ class DishControllerTest {
         .andExpect(jsonPath("$.data").value(nullValue()));
 
     verify(dishService).listWithFlavor(any(Dish.class));
-    verify(valueOperations, never()).set(anyString(), anyString());
+    verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
   }
 }
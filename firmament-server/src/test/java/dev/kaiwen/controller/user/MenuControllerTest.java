@@ -0,0 +1,66 @@
+package dev.kaiwen.controller.user;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import dev.kaiwen.properties.JwtProperties;
+import dev.kaiwen.service.MenuSnapshotService;
+import dev.kaiwen.utils.JwtService;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(controllers = MenuController.class)
+class MenuControllerTest {
+
+  @MockitoBean
+  private MenuSnapshotService menuSnapshotService;
+
+  @MockitoBean
+  private JwtService jwtService;
+
+  @MockitoBean
+  private JwtProperties jwtProperties;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Test
+  void snapshotSuccess() throws Exception {
+    String body = "{\"code\":1,\"data\":{\"categories\":[{\"id\":\"1\",\"name\":\"热销\"}]}}";
+    given(menuSnapshotService.respond(null, null)).willReturn(ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag("\"abc\"")
+        .body(body.getBytes(StandardCharsets.UTF_8)));
+
+    mockMvc.perform(get("/user/menu/snapshot"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+        .andExpect(jsonPath("$.code").value(1))
+        .andExpect(jsonPath("$.data.categories[0].name").value("热销"));
+  }
+
+  @Test
+  void snapshotNotModified() throws Exception {
+    given(menuSnapshotService.respond("\"abc\"", "gzip")).willReturn(
+        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"abc\"").build());
+
+    mockMvc.perform(get("/user/menu/snapshot")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+        .andExpect(status().isNotModified());
+
+    verify(menuSnapshotService).respond("\"abc\"", "gzip");
+  }
+}
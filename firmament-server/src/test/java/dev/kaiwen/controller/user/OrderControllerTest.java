@@ -2,7 +2,9 @@ package dev.kaiwen.controller.user;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -12,10 +14,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.kaiwen.constant.JwtClaimsConstant;
+import dev.kaiwen.constant.MessageConstant;
 import dev.kaiwen.dto.OrdersPaymentDto;
 import dev.kaiwen.dto.OrdersSubmitDto;
+import dev.kaiwen.exception.BaseException;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.result.PageResult;
+import dev.kaiwen.service.IdempotencyService;
 import dev.kaiwen.service.OrderService;
 import dev.kaiwen.utils.JwtService;
 import dev.kaiwen.vo.OrderSubmitVo;
@@ -24,6 +29,7 @@ import io.jsonwebtoken.Claims;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -37,6 +43,9 @@ class OrderControllerTest {
   @MockitoBean
   private OrderService orderService;
 
+  @MockitoBean
+  private IdempotencyService idempotencyService;
+
   @MockitoBean
   private JwtService jwtService;
 
@@ -118,6 +127,75 @@ class OrderControllerTest {
     verify(orderService).payment(any(OrdersPaymentDto.class));
   }
 
+  @Test
+  void submitWithIdempotencyKeyReturnsStoredResult() throws Exception {
+    setupUserJwtMock();
+
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(1L);
+    OrderSubmitVo vo = OrderSubmitVo.builder()
+        .id(1L)
+        .orderNumber("202401290001")
+        .build();
+    given(idempotencyService.execute(eq("order_submit"), eq("retry-key-1"),
+        any(OrdersSubmitDto.class), same(OrderSubmitVo.class), any())).willReturn(vo);
+
+    mockMvc.perform(post("/user/order/submit")
+            .header("token", "mock-accessToken")
+            .header("Idempotency-Key", "retry-key-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(1))
+        .andExpect(jsonPath("$.data.orderNumber").value("202401290001"));
+
+    verify(orderService, never()).submitOrder(any(OrdersSubmitDto.class));
+  }
+
+  @Test
+  void submitWithReusedIdempotencyKeyIsRejected() throws Exception {
+    setupUserJwtMock();
+
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(2L);
+    given(idempotencyService.execute(eq("order_submit"), eq("retry-key-1"),
+        any(OrdersSubmitDto.class), same(OrderSubmitVo.class), any()))
+        .willThrow(new BaseException(MessageConstant.IDEMPOTENCY_KEY_REUSED));
+
+    mockMvc.perform(post("/user/order/submit")
+            .header("token", "mock-accessToken")
+            .header("Idempotency-Key", "retry-key-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(0))
+        .andExpect(jsonPath("$.msg").value(MessageConstant.IDEMPOTENCY_KEY_REUSED));
+
+    verify(orderService, never()).submitOrder(any(OrdersSubmitDto.class));
+  }
+
+  @Test
+  void paymentWithIdempotencyKeyPaysThroughIdempotencyService() throws Exception {
+    setupUserJwtMock();
+    given(idempotencyService.execute(eq("order_payment"), eq("retry-key-2"),
+        any(OrdersPaymentDto.class), same(Void.class), any()))
+        .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
+    OrdersPaymentDto dto = new OrdersPaymentDto();
+    dto.setOrderNumber("202401290001");
+    dto.setPayMethod(1);
+
+    mockMvc.perform(put("/user/order/payment")
+            .header("token", "mock-accessToken")
+            .header("Idempotency-Key", "retry-key-2")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(dto)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.data").value("支付成功"));
+
+    verify(orderService).payment(any(OrdersPaymentDto.class));
+  }
+
   @Test
   void pageSuccess() throws Exception {
     setupUserJwtMock();
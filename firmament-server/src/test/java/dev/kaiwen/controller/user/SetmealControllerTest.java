@@ -2,40 +2,60 @@ package dev.kaiwen.controller.user;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import dev.kaiwen.constant.CacheConstant;
 import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.service.SetmealService;
+import dev.kaiwen.service.MenuCacheService;
+import dev.kaiwen.service.impl.MenuCacheServiceImpl;
 import dev.kaiwen.utils.JwtService;
 import dev.kaiwen.vo.DishItemVo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 @WebMvcTest(controllers = SetmealController.class)
+@Import({MenuCacheServiceImpl.class, SimpleMeterRegistry.class})
 class SetmealControllerTest {
 
   @MockitoBean
   private SetmealService setmealService;
 
+  @MockitoBean
+  private RedisTemplate<String, String> redisTemplateStringString;
+
   @MockitoBean
   private JwtService jwtService;
 
   @MockitoBean
   private JwtProperties jwtProperties;
 
+  @Autowired
+  private MenuCacheService menuCacheService;
+
   @Autowired
   private MockMvc mockMvc;
 
+  @BeforeEach
+  void setUp() {
+    menuCacheService.evictLocal(CacheConstant.SETMEAL_KEY_PREFIX + "*");
+  }
+
   @Test
   void listSuccess() throws Exception {
     Long categoryId = 10L;
@@ -54,6 +74,23 @@ class SetmealControllerTest {
     verify(setmealService).list(any(Setmeal.class));
   }
 
+  @Test
+  void listServedFromLocalCacheOnSecondRequest() throws Exception {
+    Long categoryId = 11L;
+    List<Setmeal> list = Collections.singletonList(
+        Setmeal.builder().id(2L).name("家庭套餐").categoryId(categoryId).price(new BigDecimal("88"))
+            .build());
+    given(setmealService.list(any(Setmeal.class))).willReturn(list);
+
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get("/user/setmeal/list").param("categoryId", String.valueOf(categoryId)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.data[0].name").value("家庭套餐"));
+    }
+
+    verify(setmealService, times(1)).list(any(Setmeal.class));
+  }
+
   @Test
   void dishListSuccess() throws Exception {
     Long setmealId = 100L;
@@ -2,7 +2,9 @@ package dev.kaiwen.controller.user;
 
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -18,6 +20,7 @@ import dev.kaiwen.properties.JwtProperties;
 import dev.kaiwen.service.ShoppingCartService;
 import dev.kaiwen.utils.JwtService;
 import io.jsonwebtoken.Claims;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -73,6 +76,48 @@ class ShoppingCartControllerTest {
     verify(shoppingCartService).addShoppingCart(any(ShoppingCartDto.class));
   }
 
+  @Test
+  void addBatchSuccess() throws Exception {
+    setupUserJwtMock();
+
+    ShoppingCartDto dish = new ShoppingCartDto();
+    dish.setDishId(1L);
+    dish.setNumber(3);
+    ShoppingCartDto setmeal = new ShoppingCartDto();
+    setmeal.setSetmealId(2L);
+
+    mockMvc.perform(post("/user/shoppingCart/addBatch")
+            .header("token", "mock-accessToken")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(dish, setmeal))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(1));
+
+    verify(shoppingCartService).addShoppingCartBatch(List.of(dish, setmeal));
+  }
+
+  @Test
+  void addBatchRejectsOversizedRequest() throws Exception {
+    setupUserJwtMock();
+
+    List<ShoppingCartDto> items = new ArrayList<>();
+    for (long i = 0; i < 101; i++) {
+      ShoppingCartDto dto = new ShoppingCartDto();
+      dto.setDishId(i + 1);
+      items.add(dto);
+    }
+
+    mockMvc.perform(post("/user/shoppingCart/addBatch")
+            .header("token", "mock-accessToken")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(items)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.code").value(0))
+        .andExpect(jsonPath("$.msg").value("单次最多添加100个商品"));
+
+    verify(shoppingCartService, never()).addShoppingCartBatch(anyList());
+  }
+
   @Test
   void subSuccess() throws Exception {
     setupUserJwtMock();
@@ -0,0 +1,119 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kaiwen.entity.Dish;
+import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
+import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.SetmealService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogIndexServiceImplTest {
+
+  @InjectMocks
+  private CatalogIndexServiceImpl catalogIndexService;
+
+  @Mock
+  private DishService dishService;
+
+  @Mock
+  private SetmealService setmealService;
+
+  @Test
+  void lookupsAfterFirstBuildDoNotQueryDatabase() {
+    when(dishService.list()).thenReturn(List.of(dish(30L, "18"), dish(10L, "38"),
+        dish(20L, "28")));
+    when(setmealService.list()).thenReturn(List.of(setmeal(200L, "88")));
+
+    CatalogItem dish = catalogIndexService.getDish(10L);
+    CatalogItem again = catalogIndexService.getDish(10L);
+    CatalogItem setmeal = catalogIndexService.getSetmeal(200L);
+
+    assertEquals("菜品10", dish.getName());
+    assertEquals("10.jpg", dish.getImage());
+    assertEquals(new BigDecimal("38"), dish.getPrice());
+    assertSame(dish, again);
+    assertEquals(new BigDecimal("18"), catalogIndexService.getDish(30L).getPrice());
+    assertEquals(new BigDecimal("88"), setmeal.getPrice());
+    verify(dishService, times(1)).list();
+    verify(setmealService, times(1)).list();
+    verify(dishService, never()).getById(anyLong());
+  }
+
+  @Test
+  void menuChangeRebuildsIndex() {
+    when(dishService.list())
+        .thenReturn(List.of(dish(10L, "38")))
+        .thenReturn(List.of(dish(10L, "40")));
+    when(setmealService.list()).thenReturn(List.of());
+
+    assertEquals(new BigDecimal("38"), catalogIndexService.getDish(10L).getPrice());
+    catalogIndexService.onMenuChanged(new MenuChangedEvent(MenuChangedEvent.DISH));
+
+    assertEquals(new BigDecimal("40"), catalogIndexService.getDish(10L).getPrice());
+    verify(dishService, times(2)).list();
+  }
+
+  @Test
+  void missFallsBackToDatabaseAndInvalidatesWhenFound() {
+    when(dishService.list())
+        .thenReturn(List.of())
+        .thenReturn(List.of(dish(10L, "38")));
+    when(setmealService.list()).thenReturn(List.of());
+    // 其他节点新增的菜品，本节点索引中还没有
+    when(dishService.getById(10L)).thenReturn(dish(10L, "38"));
+
+    assertEquals(new BigDecimal("38"), catalogIndexService.getDish(10L).getPrice());
+    assertEquals(new BigDecimal("38"), catalogIndexService.getDish(10L).getPrice());
+
+    verify(dishService, times(1)).getById(10L);
+    verify(dishService, times(2)).list();
+  }
+
+  @Test
+  void missingItemsReturnNull() {
+    when(dishService.list()).thenReturn(List.of(dish(10L, "38")));
+    when(setmealService.list()).thenReturn(List.of());
+
+    assertNull(catalogIndexService.getDish(null));
+    assertNull(catalogIndexService.getDish(11L));
+    assertNull(catalogIndexService.getSetmeal(200L));
+    verify(dishService).getById(11L);
+    verify(setmealService).getById(200L);
+  }
+
+  private Dish dish(Long id, String price) {
+    Dish dish = new Dish();
+    dish.setId(id);
+    dish.setName("菜品" + id);
+    dish.setImage(id + ".jpg");
+    dish.setPrice(new BigDecimal(price));
+    dish.setStatus(1);
+    return dish;
+  }
+
+  private Setmeal setmeal(Long id, String price) {
+    Setmeal setmeal = new Setmeal();
+    setmeal.setId(id);
+    setmeal.setName("套餐" + id);
+    setmeal.setPrice(new BigDecimal(price));
+    setmeal.setStatus(1);
+    return setmeal;
+  }
+}
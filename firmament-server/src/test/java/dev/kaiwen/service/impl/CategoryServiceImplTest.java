@@ -22,6 +22,7 @@ import dev.kaiwen.dto.CategoryPageQueryDto;
 import dev.kaiwen.entity.Category;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.mapper.CategoryMapper;
 import dev.kaiwen.mapper.DishMapper;
@@ -41,6 +42,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,6 +60,9 @@ class CategoryServiceImplTest {
   @Mock
   private SetmealMapper setmealMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Captor
   private ArgumentCaptor<Category> categoryCaptor;
 
@@ -70,6 +75,9 @@ class CategoryServiceImplTest {
   @Captor
   private ArgumentCaptor<LambdaQueryWrapper<Setmeal>> setmealWrapperCaptor;
 
+  @Captor
+  private ArgumentCaptor<MenuChangedEvent> eventCaptor;
+
   @BeforeEach
   void setUp() {
     MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
@@ -236,6 +244,8 @@ class CategoryServiceImplTest {
     verify(dishMapper).selectCount(dishWrapperCaptor.capture());
     verify(setmealMapper).selectCount(setmealWrapperCaptor.capture());
     verify(mapper).deleteById(categoryId);
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertEquals(MenuChangedEvent.CATEGORY, eventCaptor.getValue().getSource());
   }
 
   @Test
@@ -319,6 +329,8 @@ class CategoryServiceImplTest {
 
       // 3. 验证方法调用
       verify(mapper).update(isNull(), any());
+      verify(eventPublisher).publishEvent(eventCaptor.capture());
+      assertEquals(MenuChangedEvent.CATEGORY, eventCaptor.getValue().getSource());
     }
   }
 
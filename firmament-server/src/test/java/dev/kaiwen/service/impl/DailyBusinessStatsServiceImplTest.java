@@ -0,0 +1,291 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import dev.kaiwen.dto.OrderDailyStatDto;
+import dev.kaiwen.dto.UserDailyStatDto;
+import dev.kaiwen.entity.DailyBusinessStats;
+import dev.kaiwen.entity.Orders;
+import dev.kaiwen.mapper.DailyBusinessStatsMapper;
+import dev.kaiwen.mapper.OrderMapper;
+import dev.kaiwen.mapper.UserMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class DailyBusinessStatsServiceImplTest {
+
+  private static final LocalDate DAY = LocalDate.of(2024, 3, 3);
+
+  @InjectMocks
+  private DailyBusinessStatsServiceImpl dailyBusinessStatsService;
+
+  @Mock
+  private DailyBusinessStatsMapper mapper;
+
+  @Mock
+  private OrderMapper orderMapper;
+
+  @Mock
+  private UserMapper userMapper;
+
+  @Captor
+  private ArgumentCaptor<DailyBusinessStats> statsCaptor;
+
+  @BeforeEach
+  void setUp() {
+    MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+    TableInfoHelper.initTableInfo(assistant, DailyBusinessStats.class);
+    ReflectionTestUtils.setField(dailyBusinessStatsService, "baseMapper", mapper);
+  }
+
+  private Orders order(LocalDate date, Integer status, String amount) {
+    Orders orders = new Orders();
+    orders.setOrderTime(date.atTime(12, 0));
+    orders.setStatus(status);
+    orders.setAmount(amount != null ? new BigDecimal(amount) : null);
+    return orders;
+  }
+
+  @Test
+  void listByDateRangeDelegatesToMapper() {
+    List<DailyBusinessStats> rows = List.of(DailyBusinessStats.builder().statDate(DAY).build());
+    when(mapper.selectList(any())).thenReturn(rows);
+
+    assertSame(rows, dailyBusinessStatsService.listByDateRange(DAY, DAY));
+  }
+
+  @Test
+  void rebuildUpsertsEveryDayIncludingEmptyDays() {
+    LocalDate begin = DAY.minusDays(2);
+
+    OrderDailyStatDto orderStat = new OrderDailyStatDto();
+    orderStat.setOrderDate(begin);
+    orderStat.setTotalOrders(5L);
+    orderStat.setValidOrders(3L);
+    orderStat.setCancelledOrders(1L);
+    orderStat.setValidAmount(new BigDecimal("88.50"));
+    when(orderMapper.selectDailyStats(begin.atStartOfDay(), DAY.plusDays(1).atStartOfDay(),
+        Orders.COMPLETED, Orders.CANCELLED)).thenReturn(List.of(orderStat));
+
+    UserDailyStatDto userStat = new UserDailyStatDto();
+    userStat.setCreateDate(DAY);
+    userStat.setNewUsers(4L);
+    when(userMapper.selectDailyNewUsers(begin.atStartOfDay(), DAY.plusDays(1).atStartOfDay()))
+        .thenReturn(List.of(userStat));
+
+    dailyBusinessStatsService.rebuild(begin, DAY);
+
+    verify(mapper, times(3)).upsert(statsCaptor.capture());
+    List<DailyBusinessStats> rows = statsCaptor.getAllValues();
+
+    assertEquals(begin, rows.get(0).getStatDate());
+    assertEquals(new BigDecimal("88.50"), rows.get(0).getTurnover());
+    assertEquals(5, rows.get(0).getTotalOrders());
+    assertEquals(3, rows.get(0).getValidOrders());
+    assertEquals(1, rows.get(0).getCancelledOrders());
+    assertEquals(0, rows.get(0).getNewUsers());
+
+    // 没有订单也没有新用户的日期写入全 0
+    assertEquals(begin.plusDays(1), rows.get(1).getStatDate());
+    assertEquals(BigDecimal.ZERO, rows.get(1).getTurnover());
+    assertEquals(0, rows.get(1).getTotalOrders());
+
+    assertEquals(DAY, rows.get(2).getStatDate());
+    assertEquals(4, rows.get(2).getNewUsers());
+  }
+
+  @Test
+  void recordOrderCreatedIncrementsTotalOrders() {
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    DailyBusinessStats delta = statsCaptor.getValue();
+    assertEquals(DAY, delta.getStatDate());
+    assertEquals(1, delta.getTotalOrders());
+    assertEquals(0, delta.getValidOrders());
+    assertEquals(BigDecimal.ZERO, delta.getTurnover());
+  }
+
+  @Test
+  void recordOrderTransitionToCompletedAddsTurnover() {
+    dailyBusinessStatsService.recordOrderTransition(
+        order(DAY, Orders.DELIVERY_IN_PROGRESS, "36.50"), Orders.COMPLETED);
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    DailyBusinessStats delta = statsCaptor.getValue();
+    assertEquals(0, delta.getTotalOrders());
+    assertEquals(1, delta.getValidOrders());
+    assertEquals(new BigDecimal("36.50"), delta.getTurnover());
+    assertEquals(0, delta.getCancelledOrders());
+  }
+
+  @Test
+  void recordOrderTransitionFromCompletedToCancelledReversesTurnover() {
+    dailyBusinessStatsService.recordOrderTransition(order(DAY, Orders.COMPLETED, "36.50"),
+        Orders.CANCELLED);
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    DailyBusinessStats delta = statsCaptor.getValue();
+    assertEquals(-1, delta.getValidOrders());
+    assertEquals(new BigDecimal("-36.50"), delta.getTurnover());
+    assertEquals(1, delta.getCancelledOrders());
+  }
+
+  @Test
+  void recordOrderTransitionsMergesOrdersOfTheSameDay() {
+    dailyBusinessStatsService.recordOrderTransitions(List.of(
+        order(DAY, Orders.PENDING_PAYMENT, "10"),
+        order(DAY, Orders.PENDING_PAYMENT, null),
+        order(DAY.minusDays(1), Orders.PENDING_PAYMENT, "10")), Orders.CANCELLED);
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper, times(2)).upsertIncrement(statsCaptor.capture());
+    Map<LocalDate, DailyBusinessStats> deltas = statsCaptor.getAllValues().stream()
+        .collect(Collectors.toMap(DailyBusinessStats::getStatDate, Function.identity()));
+    assertEquals(2, deltas.get(DAY).getCancelledOrders());
+    assertEquals(1, deltas.get(DAY.minusDays(1)).getCancelledOrders());
+  }
+
+  @Test
+  void recordOrderTransitionsSkipsUnchangedStatusAndMissingOrderTime() {
+    Orders withoutTime = new Orders();
+    withoutTime.setStatus(Orders.PENDING_PAYMENT);
+
+    dailyBusinessStatsService.recordOrderTransitions(List.of(
+        order(DAY, Orders.CANCELLED, "10"), withoutTime), Orders.CANCELLED);
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper, never()).upsertIncrement(any());
+  }
+
+  @Test
+  void recordUserRegisteredIncrementsNewUsers() {
+    dailyBusinessStatsService.recordUserRegistered(LocalDateTime.of(2024, 3, 3, 23, 59));
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    DailyBusinessStats delta = statsCaptor.getValue();
+    assertEquals(DAY, delta.getStatDate());
+    assertEquals(1, delta.getNewUsers());
+    assertEquals(0, delta.getTotalOrders());
+  }
+
+  @Test
+  void deltasOfTheSameDayAreMergedIntoOneWrite() {
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "30"));
+    dailyBusinessStatsService.recordOrderTransition(
+        order(DAY, Orders.DELIVERY_IN_PROGRESS, "36.50"), Orders.COMPLETED);
+
+    dailyBusinessStatsService.flushPendingDeltas();
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    DailyBusinessStats delta = statsCaptor.getValue();
+    assertEquals(2, delta.getTotalOrders());
+    assertEquals(1, delta.getValidOrders());
+    assertEquals(new BigDecimal("36.50"), delta.getTurnover());
+  }
+
+  @Test
+  void deltaInsideTransactionIsAppliedOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+
+      // 事务提交前不写入也不合并
+      dailyBusinessStatsService.flushPendingDeltas();
+      verify(mapper, never()).upsertIncrement(any());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    dailyBusinessStatsService.flushPendingDeltas();
+    verify(mapper).upsertIncrement(statsCaptor.capture());
+    assertEquals(1, statsCaptor.getValue().getTotalOrders());
+  }
+
+  @Test
+  void rolledBackTransactionDiscardsDelta() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+      TransactionSynchronizationManager.getSynchronizations().forEach(
+          sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    dailyBusinessStatsService.flushPendingDeltas();
+    verify(mapper, never()).upsertIncrement(any());
+  }
+
+  @Test
+  void rebuildWritesPendingDeltasFirst() {
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+
+    dailyBusinessStatsService.rebuild(DAY, DAY);
+
+    InOrder order = inOrder(mapper);
+    order.verify(mapper).upsertIncrement(any());
+    order.verify(mapper).upsert(any());
+  }
+
+  @Test
+  void failedWriteKeepsDeltaForNextFlush() {
+    when(mapper.upsertIncrement(any())).thenThrow(new IllegalStateException("db down"))
+        .thenReturn(1);
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "20"));
+
+    Logger logger = (Logger) LoggerFactory.getLogger(DailyBusinessStatsServiceImpl.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      dailyBusinessStatsService.flushPendingDeltas();
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+    dailyBusinessStatsService.recordOrderCreated(order(DAY, Orders.PENDING_PAYMENT, "30"));
+    dailyBusinessStatsService.flushPendingDeltas();
+
+    verify(mapper, times(2)).upsertIncrement(statsCaptor.capture());
+    assertEquals(2, statsCaptor.getAllValues().get(1).getTotalOrders());
+  }
+}
@@ -25,6 +25,7 @@ import dev.kaiwen.dto.DishPageQueryDto;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.DishFlavor;
 import dev.kaiwen.entity.SetmealDish;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.exception.DishDisableFailedException;
 import dev.kaiwen.mapper.DishFlavorMapper;
@@ -48,6 +49,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,12 +76,18 @@ class DishServiceImplTest {
   @Mock
   private DishSetmealRelationService dishSetmealRelationService;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Captor
   private ArgumentCaptor<List<DishFlavor>> flavorListCaptor;
 
   @Captor
   private ArgumentCaptor<LambdaQueryWrapper<Dish>> dishWrapperCaptor;
 
+  @Captor
+  private ArgumentCaptor<MenuChangedEvent> eventCaptor;
+
   @BeforeEach
   void setUp() {
     MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
@@ -114,6 +122,8 @@ class DishServiceImplTest {
     List<DishFlavor> savedFlavors = flavorListCaptor.getValue();
     assertEquals(2, savedFlavors.size());
     assertTrue(savedFlavors.stream().allMatch(f -> 10L == f.getDishId()));
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertEquals(MenuChangedEvent.DISH, eventCaptor.getValue().getSource());
   }
 
   @Test
@@ -436,6 +446,8 @@ class DishServiceImplTest {
       dishService.startOrStop(StatusConstant.ENABLE, 9L);
 
       verify(mapper).update(any(), any());
+      verify(eventPublisher).publishEvent(eventCaptor.capture());
+      assertEquals(MenuChangedEvent.DISH, eventCaptor.getValue().getSource());
     }
   }
 }
@@ -0,0 +1,264 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.MessageConstant;
+import dev.kaiwen.context.BaseContext;
+import dev.kaiwen.exception.BaseException;
+import dev.kaiwen.vo.OrderSubmitVo;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+  private static final String REDIS_KEY = "idempotency:order_submit:7:key-1";
+  private static final String REQUEST = "submit-1";
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  private IdempotencyServiceImpl idempotencyService;
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    idempotencyService = new IdempotencyServiceImpl(redisTemplateStringString);
+  }
+
+  @Test
+  void firstRequestExecutesAndStoresResult() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    String requestHash = idempotencyService.requestHash(REQUEST);
+    when(valueOperations.setIfAbsent(REDIS_KEY,
+        IdempotencyServiceImpl.record(requestHash, IdempotencyServiceImpl.PENDING),
+        IdempotencyServiceImpl.PENDING_TTL)).thenReturn(true);
+    OrderSubmitVo vo = vo();
+
+    OrderSubmitVo result;
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      result = idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+          () -> {
+            calls.incrementAndGet();
+            return vo;
+          });
+    }
+
+    assertSame(vo, result);
+    assertEquals(1, calls.get());
+    ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+    verify(valueOperations).set(eq(REDIS_KEY), stored.capture(),
+        eq(IdempotencyServiceImpl.RESULT_TTL));
+    assertTrue(stored.getValue().startsWith(requestHash + ":{"));
+    assertTrue(stored.getValue().contains("\"orderNumber\":\"202401290001\""));
+  }
+
+  @Test
+  void duplicateRequestReturnsStoredResultWithoutExecuting() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(valueOperations.get(REDIS_KEY)).thenReturn(idempotencyService.requestHash(REQUEST) + ":"
+        + "{\"id\":\"1\",\"orderNumber\":\"202401290001\",\"orderAmount\":88.00,"
+            + "\"orderTime\":\"2024-01-29 12:00\"}");
+
+    OrderSubmitVo result;
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      result = idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+          () -> {
+            calls.incrementAndGet();
+            return vo();
+          });
+    }
+
+    assertEquals(0, calls.get());
+    assertEquals(1L, result.getId());
+    assertEquals("202401290001", result.getOrderNumber());
+    assertEquals(0, new BigDecimal("88.00").compareTo(result.getOrderAmount()));
+    verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+  }
+
+  @Test
+  void duplicateRequestWhileInFlightIsRejected() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(valueOperations.get(REDIS_KEY)).thenReturn(IdempotencyServiceImpl.record(
+        idempotencyService.requestHash(REQUEST), IdempotencyServiceImpl.PENDING));
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      BaseException ex = assertThrows(BaseException.class,
+          () -> idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+              this::vo));
+      assertEquals(MessageConstant.REQUEST_IN_PROGRESS, ex.getMessage());
+    }
+  }
+
+  @Test
+  void reusedKeyWithDifferentRequestIsRejected() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(valueOperations.get(REDIS_KEY)).thenReturn(idempotencyService.requestHash("submit-2")
+        + ":{\"id\":\"1\",\"orderNumber\":\"202401290001\"}");
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      BaseException ex = assertThrows(BaseException.class,
+          () -> idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+              () -> {
+                calls.incrementAndGet();
+                return vo();
+              }));
+      assertEquals(MessageConstant.IDEMPOTENCY_KEY_REUSED, ex.getMessage());
+    }
+
+    assertEquals(0, calls.get());
+  }
+
+  @Test
+  void reusedKeyWhileInFlightWithDifferentRequestIsRejectedAsReused() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(valueOperations.get(REDIS_KEY)).thenReturn(IdempotencyServiceImpl.record(
+        idempotencyService.requestHash("submit-2"), IdempotencyServiceImpl.PENDING));
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      BaseException ex = assertThrows(BaseException.class,
+          () -> idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+              this::vo));
+      assertEquals(MessageConstant.IDEMPOTENCY_KEY_REUSED, ex.getMessage());
+    }
+  }
+
+  @Test
+  void requestHashDependsOnRequestContent() {
+    assertEquals(idempotencyService.requestHash(vo()), idempotencyService.requestHash(vo()));
+    OrderSubmitVo other = vo();
+    other.setOrderAmount(new BigDecimal("99.00"));
+    assertNotEquals(idempotencyService.requestHash(vo()), idempotencyService.requestHash(other));
+  }
+
+  @Test
+  void failedActionReleasesKeyForRetry() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      assertThrows(IllegalStateException.class,
+          () -> idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+              () -> {
+                throw new IllegalStateException("db down");
+              }));
+    }
+
+    verify(redisTemplateStringString).delete(REDIS_KEY);
+    verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+  }
+
+  @Test
+  void failedResultSaveKeepsPendingMarkerForResultTtl() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    doThrow(new RedisConnectionFailureException("down")).when(valueOperations)
+        .set(anyString(), anyString(), any(Duration.class));
+    OrderSubmitVo vo = vo();
+
+    Logger logger = (Logger) LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    OrderSubmitVo result;
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      result = idempotencyService.execute("order_submit", "key-1", REQUEST, OrderSubmitVo.class,
+          () -> vo);
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    // 操作已经完成，结果照常返回，处理中标记延长到结果的保留时间，重复请求不会再次执行
+    assertSame(vo, result);
+    verify(redisTemplateStringString).expire(REDIS_KEY, IdempotencyServiceImpl.RESULT_TTL);
+    verify(redisTemplateStringString, never()).delete(anyString());
+  }
+
+  @Test
+  void voidResultIsStoredAndReplayed() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+    when(valueOperations.get("idempotency:order_payment:7:key-2"))
+        .thenReturn(idempotencyService.requestHash(REQUEST) + ":null");
+
+    Void result;
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(7L);
+      result = idempotencyService.execute("order_payment", "key-2", REQUEST, Void.class, () -> {
+        calls.incrementAndGet();
+        return null;
+      });
+    }
+
+    assertNull(result);
+    assertEquals(0, calls.get());
+  }
+
+  @Test
+  void invalidKeyIsRejectedBeforeTouchingRedis() {
+    BaseException ex = assertThrows(BaseException.class,
+        () -> idempotencyService.execute("order_submit", "bad key:*", REQUEST,
+            OrderSubmitVo.class, this::vo));
+
+    assertEquals(MessageConstant.IDEMPOTENCY_KEY_INVALID, ex.getMessage());
+    verify(redisTemplateStringString, never()).opsForValue();
+  }
+
+  private OrderSubmitVo vo() {
+    return OrderSubmitVo.builder()
+        .id(1L)
+        .orderNumber("202401290001")
+        .orderAmount(new BigDecimal("88.00"))
+        .orderTime(LocalDateTime.of(2024, 1, 29, 12, 0))
+        .build();
+  }
+}
@@ -0,0 +1,252 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.result.Result;
+import dev.kaiwen.vo.DishVo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class MenuCacheServiceImplTest {
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  private MenuCacheServiceImpl menuCacheService;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    menuCacheService = new MenuCacheServiceImpl(redisTemplateStringString, meterRegistry);
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void respondLoadsOnceAndServesCachedBytes() {
+    ResponseEntity<byte[]> first = menuCacheService.respond("dish_10", null, loader(10L));
+    ResponseEntity<byte[]> second = menuCacheService.respond("dish_10", null, loader(10L));
+
+    assertEquals(1, loads.get());
+    assertArrayEquals(first.getBody(), second.getBody());
+    assertEquals(MediaType.APPLICATION_JSON, second.getHeaders().getContentType());
+    assertEquals(HttpHeaders.ACCEPT_ENCODING, second.getHeaders().getFirst(HttpHeaders.VARY));
+    assertNull(second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+    String json = new String(second.getBody(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"code\":1"));
+    assertTrue(json.contains("\"id\":\"10\""));
+    assertTrue(json.contains("宫保鸡丁"));
+  }
+
+  @Test
+  void respondReturnsGzipBodyWhenAccepted() throws IOException {
+    ResponseEntity<byte[]> plain = menuCacheService.respond("dish_10", null, loader(10L));
+    ResponseEntity<byte[]> gzip = menuCacheService.respond("dish_10", "gzip, deflate, br",
+        loader(10L));
+
+    assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertArrayEquals(plain.getBody(), gunzip(gzip.getBody()));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void respondDoesNotCacheEmptyResult() {
+    Supplier<Result<?>> empty = () -> {
+      loads.incrementAndGet();
+      return Result.success();
+    };
+
+    menuCacheService.respond("category_null", null, empty);
+    menuCacheService.respond("category_null", null, empty);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void evictLocalRemovesExactKey() {
+    menuCacheService.respond("dish_10", null, loader(10L));
+    menuCacheService.respond("dish_11", null, loader(11L));
+
+    menuCacheService.evictLocal(CacheConstant.DISH_KEY_PREFIX + 10);
+    menuCacheService.respond("dish_10", null, loader(10L));
+    menuCacheService.respond("dish_11", null, loader(11L));
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void evictLocalWithWildcardRemovesMatchingPrefixOnly() {
+    menuCacheService.respond("dish_10", null, loader(10L));
+    menuCacheService.respond("dish_11", null, loader(11L));
+    menuCacheService.respond("setmeal_10", null, loader(10L));
+
+    menuCacheService.evictLocal(CacheConstant.DISH_KEY_PREFIX + "*");
+    menuCacheService.evictLocal(null);
+    menuCacheService.respond("dish_10", null, loader(10L));
+    menuCacheService.respond("dish_11", null, loader(11L));
+    menuCacheService.respond("setmeal_10", null, loader(10L));
+
+    assertEquals(5, loads.get());
+  }
+
+  @Test
+  void evictClearsLocalAndPublishes() {
+    menuCacheService.respond("setmeal_10", null, loader(10L));
+
+    menuCacheService.evict(CacheConstant.SETMEAL_KEY_PREFIX + 10);
+    menuCacheService.respond("setmeal_10", null, loader(10L));
+
+    assertEquals(2, loads.get());
+    verify(redisTemplateStringString).convertAndSend(
+        CacheConstant.MENU_CACHE_INVALIDATION_CHANNEL, CacheConstant.SETMEAL_KEY_PREFIX + 10);
+  }
+
+  @Test
+  void evictStillClearsLocalWhenPublishFails() {
+    menuCacheService.respond("dish_10", null, loader(10L));
+    doThrow(new RedisConnectionFailureException("down")).when(redisTemplateStringString)
+        .convertAndSend(anyString(), anyString());
+
+    Logger logger = (Logger) LoggerFactory.getLogger(MenuCacheServiceImpl.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      menuCacheService.evict(CacheConstant.DISH_KEY_PREFIX + 10);
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+    menuCacheService.respond("dish_10", null, loader(10L));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void respondDoesNotTouchRedis() {
+    menuCacheService.respond("dish_10", "gzip", loader(10L));
+
+    verify(redisTemplateStringString, never()).opsForValue();
+  }
+
+  @Test
+  void concurrentMissesShareOneLoad() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<Result<?>> slowLoader = () -> {
+      loads.incrementAndGet();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return Result.success(List.of(DishVo.builder().id(10L).name("宫保鸡丁").build()));
+    };
+
+    int requests = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(requests);
+    try {
+      List<Future<ResponseEntity<byte[]>>> futures = new ArrayList<>();
+      for (int i = 0; i < requests; i++) {
+        futures.add(executor.submit(() -> menuCacheService.respond("dish_10", null, slowLoader)));
+      }
+      // 等其余请求都在等待同一个加载结果后再放行
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (count("coalesced") < requests - 1 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      release.countDown();
+
+      byte[] body = futures.get(0).get(5, TimeUnit.SECONDS).getBody();
+      for (Future<ResponseEntity<byte[]>> future : futures) {
+        assertArrayEquals(body, future.get(5, TimeUnit.SECONDS).getBody());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(1.0, count("leader"));
+    assertEquals(requests - 1.0, count("coalesced"));
+  }
+
+  @Test
+  void failedLoadIsNotCachedAndNextRequestRetries() {
+    assertThrows(IllegalStateException.class, () -> menuCacheService.respond("dish_10", null,
+        () -> {
+          throw new IllegalStateException("db down");
+        }));
+
+    menuCacheService.respond("dish_10", null, loader(10L));
+
+    assertEquals(1, loads.get());
+    assertEquals(2.0, count("leader"));
+  }
+
+  @Test
+  void loadEvictedWhileInFlightIsNotCached() {
+    menuCacheService.respond("dish_10", null, () -> {
+      loads.incrementAndGet();
+      // 模拟加载期间管理端修改了菜品
+      menuCacheService.evictLocal(CacheConstant.DISH_KEY_PREFIX + "*");
+      return Result.success(List.of(DishVo.builder().id(10L).build()));
+    });
+
+    menuCacheService.respond("dish_10", null, loader(10L));
+
+    assertEquals(2, loads.get());
+  }
+
+  private Supplier<Result<?>> loader(Long id) {
+    return () -> {
+      loads.incrementAndGet();
+      return Result.success(List.of(DishVo.builder().id(id).name("宫保鸡丁").build()));
+    };
+  }
+
+  private double count(String role) {
+    return meterRegistry.get(MenuCacheServiceImpl.LOAD_METRIC).tag("role", role).counter().count();
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kaiwen.entity.Category;
+import dev.kaiwen.entity.Dish;
+import dev.kaiwen.entity.Setmeal;
+import dev.kaiwen.event.MenuChangedEvent;
+import dev.kaiwen.service.CategoryService;
+import dev.kaiwen.service.DishService;
+import dev.kaiwen.service.SetmealService;
+import dev.kaiwen.vo.DishVo;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSnapshotServiceImplTest {
+
+  @InjectMocks
+  private MenuSnapshotServiceImpl menuSnapshotService;
+
+  @Mock
+  private CategoryService categoryService;
+
+  @Mock
+  private DishService dishService;
+
+  @Mock
+  private SetmealService setmealService;
+
+  @Test
+  void respondBuildsSnapshotOnce() {
+    stubMenu("宫保鸡丁");
+
+    ResponseEntity<byte[]> first = menuSnapshotService.respond(null, null);
+    ResponseEntity<byte[]> second = menuSnapshotService.respond(null, null);
+
+    assertEquals(HttpStatus.OK, first.getStatusCode());
+    assertArrayEquals(first.getBody(), second.getBody());
+    assertNotNull(first.getHeaders().getETag());
+    assertEquals("no-cache", first.getHeaders().getCacheControl());
+    String json = new String(first.getBody(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"categories\""));
+    assertTrue(json.contains("宫保鸡丁"));
+    assertTrue(json.contains("商务套餐"));
+    verify(categoryService, times(1)).list(null);
+    verify(dishService, times(1)).listWithFlavor(any(Dish.class));
+    verify(setmealService, times(1)).list(any(Setmeal.class));
+  }
+
+  @Test
+  void respondReturnsNotModifiedWhenEtagMatches() {
+    stubMenu("宫保鸡丁");
+    String etag = menuSnapshotService.respond(null, null).getHeaders().getETag();
+
+    ResponseEntity<byte[]> response = menuSnapshotService.respond(etag, null);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+    assertEquals(etag, response.getHeaders().getETag());
+    assertEquals(HttpStatus.NOT_MODIFIED,
+        menuSnapshotService.respond("\"other\", W/" + etag, null).getStatusCode());
+    assertEquals(HttpStatus.OK, menuSnapshotService.respond("\"other\"", null).getStatusCode());
+  }
+
+  @Test
+  void respondReturnsGzipWithSeparateEtag() throws IOException {
+    stubMenu("宫保鸡丁");
+    ResponseEntity<byte[]> plain = menuSnapshotService.respond(null, null);
+
+    ResponseEntity<byte[]> gzip = menuSnapshotService.respond(null, "gzip");
+
+    assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertNotEquals(plain.getHeaders().getETag(), gzip.getHeaders().getETag());
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+      assertArrayEquals(plain.getBody(), in.readAllBytes());
+    }
+    assertEquals(HttpStatus.NOT_MODIFIED,
+        menuSnapshotService.respond(gzip.getHeaders().getETag(), "gzip").getStatusCode());
+  }
+
+  @Test
+  void snapshotSkipsItemsOfDisabledCategories() {
+    when(categoryService.list(null)).thenReturn(List.of(category(1L)));
+    when(dishService.listWithFlavor(any(Dish.class))).thenReturn(List.of(
+        DishVo.builder().id(1L).name("宫保鸡丁").categoryId(1L).build(),
+        DishVo.builder().id(2L).name("停用分类的菜").categoryId(2L).build()));
+    when(setmealService.list(any(Setmeal.class))).thenReturn(List.of());
+
+    String json = new String(menuSnapshotService.respond(null, null).getBody(),
+        StandardCharsets.UTF_8);
+
+    assertTrue(json.contains("宫保鸡丁"));
+    assertFalse(json.contains("停用分类的菜"));
+  }
+
+  @Test
+  void menuChangedEventRebuildsOnNextRequest() {
+    stubMenu("宫保鸡丁");
+    String etag = menuSnapshotService.respond(null, null).getHeaders().getETag();
+
+    stubMenu("鱼香肉丝");
+    menuSnapshotService.onMenuChanged(new MenuChangedEvent(MenuChangedEvent.DISH));
+    ResponseEntity<byte[]> response = menuSnapshotService.respond(etag, null);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotEquals(etag, response.getHeaders().getETag());
+    assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("鱼香肉丝"));
+    verify(categoryService, times(2)).list(null);
+  }
+
+  @Test
+  void snapshotBuiltDuringChangeIsNotKept() {
+    when(categoryService.list(null)).thenReturn(List.of(category(1L)));
+    when(dishService.listWithFlavor(any(Dish.class))).thenReturn(List.of());
+    when(setmealService.list(any(Setmeal.class))).thenAnswer(invocation -> {
+      // 构建期间管理端修改了菜单
+      menuSnapshotService.invalidate();
+      return List.of();
+    }).thenReturn(List.of());
+
+    menuSnapshotService.respond(null, null);
+    menuSnapshotService.respond(null, null);
+    menuSnapshotService.respond(null, null);
+
+    verify(categoryService, times(2)).list(null);
+  }
+
+  private void stubMenu(String dishName) {
+    when(categoryService.list(null)).thenReturn(List.of(category(1L)));
+    when(dishService.listWithFlavor(any(Dish.class))).thenReturn(List.of(
+        DishVo.builder().id(1L).name(dishName).categoryId(1L).build()));
+    when(setmealService.list(any(Setmeal.class))).thenReturn(List.of(
+        Setmeal.builder().id(1L).name("商务套餐").categoryId(1L).build()));
+  }
+
+  private Category category(Long id) {
+    return Category.builder().id(id).name("热销").type(1).sort(1).build();
+  }
+}
@@ -0,0 +1,199 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.exception.OrderBusinessException;
+import dev.kaiwen.service.OrderNodeIdService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNodeIdServiceImplTest {
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private OrderNodeIdServiceImpl orderNodeIdService;
+
+  private Logger logger;
+  private Level originalLevel;
+
+  @BeforeEach
+  void setUp() {
+    orderNodeIdService = new OrderNodeIdServiceImpl(redisTemplateStringString, nanos::get);
+    logger = (Logger) LoggerFactory.getLogger(OrderNodeIdServiceImpl.class);
+    originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+  }
+
+  @AfterEach
+  void tearDown() {
+    // 停止续期线程
+    orderNodeIdService.release();
+    logger.setLevel(originalLevel);
+  }
+
+  @Test
+  void acquireTakesFirstFreeNodeId() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false, false, true);
+
+    assertEquals(2, orderNodeIdService.acquire());
+
+    verify(valueOperations).setIfAbsent(eq(CacheConstant.ORDER_NODE_ID_KEY_PREFIX + 2),
+        anyString(), eq(OrderNodeIdService.LEASE_TTL));
+    assertEquals(2, orderNodeIdService.currentNodeId());
+    // 已租用时不再访问 Redis
+    assertEquals(2, orderNodeIdService.acquire());
+    verify(valueOperations, times(3)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+  }
+
+  @Test
+  void acquireFailsWhenAllNodeIdsAreTaken() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(false);
+
+    assertThrows(IllegalStateException.class, () -> orderNodeIdService.acquire());
+    verify(valueOperations, times(10)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    assertThrows(OrderBusinessException.class, () -> orderNodeIdService.currentNodeId());
+  }
+
+  @Test
+  void renewAndReleaseDoNothingBeforeAcquire() {
+    orderNodeIdService.renew();
+    orderNodeIdService.release();
+
+    verifyNoInteractions(redisTemplateStringString);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void renewExtendsLeaseWithSameHolder() {
+    acquireNodeIdZero();
+    when(redisTemplateStringString.execute(eq(OrderNodeIdServiceImpl.RENEW_SCRIPT),
+        any(List.class), anyString(), anyString())).thenReturn(1L);
+
+    nanos.set(Duration.ofSeconds(25).toNanos());
+    orderNodeIdService.renew();
+    nanos.set(Duration.ofSeconds(50).toNanos());
+
+    // 续期后到期时间从续期时算起
+    assertEquals(0, orderNodeIdService.currentNodeId());
+    ArgumentCaptor<String> holderCaptor = ArgumentCaptor.forClass(String.class);
+    verify(valueOperations).setIfAbsent(eq(CacheConstant.ORDER_NODE_ID_KEY_PREFIX + 0),
+        holderCaptor.capture(), any(Duration.class));
+    verify(redisTemplateStringString).execute(OrderNodeIdServiceImpl.RENEW_SCRIPT,
+        List.of(CacheConstant.ORDER_NODE_ID_KEY_PREFIX + 0), holderCaptor.getValue(),
+        String.valueOf(OrderNodeIdService.LEASE_TTL.toMillis()));
+  }
+
+  @Test
+  void nodeIdIsRefusedOnceLeaseExpiresWithoutRenewal() {
+    acquireNodeIdZero();
+
+    nanos.set(OrderNodeIdService.LEASE_TTL.toNanos());
+
+    assertThrows(OrderBusinessException.class, () -> orderNodeIdService.currentNodeId());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void failedRenewalKeepsLeaseOnlyUntilItExpires() {
+    acquireNodeIdZero();
+    when(redisTemplateStringString.execute(eq(OrderNodeIdServiceImpl.RENEW_SCRIPT),
+        any(List.class), anyString(), anyString()))
+        .thenThrow(new RedisConnectionFailureException("down"));
+
+    nanos.set(Duration.ofSeconds(10).toNanos());
+    orderNodeIdService.renew();
+
+    nanos.set(Duration.ofSeconds(29).toNanos());
+    assertEquals(0, orderNodeIdService.currentNodeId());
+    nanos.set(Duration.ofSeconds(30).toNanos());
+    assertThrows(OrderBusinessException.class, () -> orderNodeIdService.currentNodeId());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void lostLeaseSwitchesToFreshNodeId() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    // 启动时租到 0 号；续期发现 0 号已被占用后重新租用，0 号失败、1 号成功
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true, false, true);
+    when(redisTemplateStringString.execute(eq(OrderNodeIdServiceImpl.RENEW_SCRIPT),
+        any(List.class), anyString(), anyString())).thenReturn(0L);
+    assertEquals(0, orderNodeIdService.acquire());
+
+    orderNodeIdService.renew();
+
+    assertEquals(1, orderNodeIdService.currentNodeId());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void lostLeaseWithoutFreeNodeIdRefusesUntilOneIsReacquired() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true, false, false, false, false, false, false, false, false, false, false,
+            true);
+    when(redisTemplateStringString.execute(eq(OrderNodeIdServiceImpl.RENEW_SCRIPT),
+        any(List.class), anyString(), anyString())).thenReturn(0L);
+    orderNodeIdService.acquire();
+
+    orderNodeIdService.renew();
+    assertThrows(OrderBusinessException.class, () -> orderNodeIdService.currentNodeId());
+
+    // 下一次续期时重新租用
+    orderNodeIdService.renew();
+    assertEquals(0, orderNodeIdService.currentNodeId());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void releaseDeletesOwnLease() {
+    acquireNodeIdZero();
+
+    orderNodeIdService.release();
+
+    verify(redisTemplateStringString).execute(eq(OrderNodeIdServiceImpl.RELEASE_SCRIPT),
+        eq(List.of(CacheConstant.ORDER_NODE_ID_KEY_PREFIX + 0)), anyString());
+    assertThrows(OrderBusinessException.class, () -> orderNodeIdService.currentNodeId());
+  }
+
+  private void acquireNodeIdZero() {
+    when(redisTemplateStringString.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(true);
+    assertEquals(0, orderNodeIdService.acquire());
+  }
+}
@@ -4,18 +4,29 @@ import static dev.kaiwen.constant.MessageConstant.ORDER_NOT_FOUND;
 import static dev.kaiwen.constant.MessageConstant.ORDER_STATUS_ERROR;
 import static dev.kaiwen.constant.MessageConstant.SHOPPING_CART_IS_NULL;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import dev.kaiwen.context.BaseContext;
@@ -30,37 +41,56 @@ import dev.kaiwen.entity.OrderDetail;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.entity.ShoppingCart;
 import dev.kaiwen.entity.User;
+import dev.kaiwen.event.OrderPaidEvent;
+import dev.kaiwen.event.OrderReminderEvent;
+import dev.kaiwen.event.OrderStatusBatchChangedEvent;
 import dev.kaiwen.exception.OrderBusinessException;
 import dev.kaiwen.exception.ShoppingCartBusinessException;
 import dev.kaiwen.mapper.OrderDetailMapper;
 import dev.kaiwen.mapper.OrderMapper;
-import dev.kaiwen.mapper.ShoppingCartMapper;
 import dev.kaiwen.result.PageResult;
 import dev.kaiwen.service.AddressBookService;
-import dev.kaiwen.service.OrderDetailService;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.OrderService;
+import dev.kaiwen.service.OrderStatusCounterService;
+import dev.kaiwen.service.OrderTimeoutService;
 import dev.kaiwen.service.ShoppingCartService;
 import dev.kaiwen.service.UserService;
+import dev.kaiwen.utils.OrderNumberGenerator;
+import dev.kaiwen.vo.OrderBatchResultVo;
 import dev.kaiwen.vo.OrderStatisticsVo;
 import dev.kaiwen.vo.OrderSubmitVo;
 import dev.kaiwen.vo.OrderVo;
-import dev.kaiwen.websocket.WebSocketServer;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -71,14 +101,11 @@ class OrderServiceImplTest {
   @Mock
   private OrderMapper mapper;
 
-  @Mock
-  private ShoppingCartMapper shoppingCartMapper;
-
   @Mock
   private OrderDetailMapper orderDetailMapper;
 
   @Mock
-  private OrderDetailService orderDetailService;
+  private TransactionTemplate transactionTemplate;
 
   @Mock
   private AddressBookService addressBookService;
@@ -86,11 +113,23 @@ class OrderServiceImplTest {
   @Mock
   private ShoppingCartService shoppingCartService;
 
+  @Mock
+  private CatalogIndexService catalogIndexService;
+
   @Mock
   private UserService userService;
 
   @Mock
-  private WebSocketServer webSocketServer;
+  private DailyBusinessStatsService dailyBusinessStatsService;
+
+  @Mock
+  private OrderStatusCounterService orderStatusCounterService;
+
+  @Mock
+  private OrderTimeoutService orderTimeoutService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
 
   @Mock
   private ObjectProvider<OrderService> orderServiceProvider;
@@ -98,11 +137,14 @@ class OrderServiceImplTest {
   @Mock
   private OrderService orderServiceProxy;
 
+  @Spy
+  private OrderNumberGenerator orderNumberGenerator = new OrderNumberGenerator(0);
+
   @Captor
   private ArgumentCaptor<Orders> ordersCaptor;
 
   @Captor
-  private ArgumentCaptor<String> messageCaptor;
+  private ArgumentCaptor<Object> eventCaptor;
 
   @Captor
   private ArgumentCaptor<List<Orders>> ordersListCaptor;
@@ -120,6 +162,12 @@ class OrderServiceImplTest {
     TableInfoHelper.initTableInfo(assistant, OrderDetail.class);
     TableInfoHelper.initTableInfo(assistant, ShoppingCart.class);
     ReflectionTestUtils.setField(orderService, "baseMapper", mapper);
+    // 直接执行事务回调
+    lenient().doAnswer(invocation -> {
+      Consumer<TransactionStatus> action = invocation.getArgument(0);
+      action.accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
   }
 
   @Test
@@ -136,7 +184,6 @@ class OrderServiceImplTest {
     cart2.setAmount(new BigDecimal("5"));
     cart2.setNumber(1);
 
-    when(shoppingCartMapper.selectCount(any())).thenReturn(1L);
     when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart1, cart2));
 
     AddressBook addressBook = new AddressBook();
@@ -178,19 +225,165 @@ class OrderServiceImplTest {
     assertEquals("Jerry", savedOrder.getUserName());
     assertEquals(Orders.PENDING_PAYMENT, savedOrder.getStatus());
 
-    verify(orderDetailService).saveBatch(orderDetailCaptor.capture());
+    verify(orderDetailMapper).insertBatch(orderDetailCaptor.capture());
     List<OrderDetail> savedDetails = orderDetailCaptor.getValue();
     assertEquals(2, savedDetails.size());
     assertTrue(savedDetails.stream().allMatch(detail -> 100L == detail.getOrderId()));
     verify(shoppingCartService).cleanShoppingCart();
+    verify(dailyBusinessStatsService).recordOrderCreated(savedOrder);
+    verify(orderStatusCounterService).recordOrderCreated(savedOrder);
+    verify(orderTimeoutService).register(100L, savedOrder.getOrderTime());
   }
 
   @Test
-  void submitOrderThrowsWhenCartCountZero() {
+  void submitOrderUsesCurrentCatalogPrices() {
     OrdersSubmitDto dto = new OrdersSubmitDto();
     dto.setAddressBookId(1L);
 
-    when(shoppingCartMapper.selectCount(any())).thenReturn(0L);
+    ShoppingCart dishCart = new ShoppingCart();
+    dishCart.setDishId(10L);
+    dishCart.setName("旧名称");
+    dishCart.setAmount(new BigDecimal("10"));
+    dishCart.setNumber(2);
+    ShoppingCart setmealCart = new ShoppingCart();
+    setmealCart.setSetmealId(20L);
+    setmealCart.setAmount(new BigDecimal("30"));
+    setmealCart.setNumber(1);
+
+    when(shoppingCartService.showShoppingCart()).thenReturn(List.of(dishCart, setmealCart));
+    when(catalogIndexService.getDish(10L)).thenReturn(
+        new CatalogItem(10L, "宫保鸡丁", "dish.jpg", new BigDecimal("12"), 1));
+    // 套餐已不在目录中，保留购物车中的价格
+    when(catalogIndexService.getSetmeal(20L)).thenReturn(null);
+    when(addressBookService.getByIdWithCheck(1L)).thenReturn(new AddressBook());
+    when(userService.getById(9001L)).thenReturn(new User());
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(9001L);
+
+      OrderSubmitVo result = orderService.submitOrder(dto);
+
+      assertEquals(new BigDecimal("54"), result.getOrderAmount());
+    }
+
+    verify(orderDetailMapper).insertBatch(orderDetailCaptor.capture());
+    OrderDetail dishDetail = orderDetailCaptor.getValue().get(0);
+    assertEquals("宫保鸡丁", dishDetail.getName());
+    assertEquals("dish.jpg", dishDetail.getImage());
+    assertEquals(new BigDecimal("12"), dishDetail.getAmount());
+    assertEquals(new BigDecimal("30"), orderDetailCaptor.getValue().get(1).getAmount());
+  }
+
+  @Test
+  void submitOrderReadsBeforeTransactionAndRunsFixedWritesInside() {
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(1L);
+
+    ShoppingCart cart1 = new ShoppingCart();
+    cart1.setDishId(10L);
+    cart1.setAmount(new BigDecimal("10"));
+    cart1.setNumber(2);
+    ShoppingCart cart2 = new ShoppingCart();
+    cart2.setSetmealId(20L);
+    cart2.setAmount(new BigDecimal("5"));
+    cart2.setNumber(1);
+    ShoppingCart cart3 = new ShoppingCart();
+    cart3.setDishId(11L);
+    cart3.setAmount(new BigDecimal("3"));
+    cart3.setNumber(4);
+
+    when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart1, cart2, cart3));
+    when(addressBookService.getByIdWithCheck(1L)).thenReturn(new AddressBook());
+    when(userService.getById(9001L)).thenReturn(new User());
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(9001L);
+
+      orderService.submitOrder(dto);
+    }
+
+    // 读取全部在事务开始前完成，事务内依次为订单、当日营业数据、订单明细，提交后清空购物车
+    InOrder inOrder = inOrder(shoppingCartService, addressBookService, userService,
+        transactionTemplate, mapper, dailyBusinessStatsService, orderDetailMapper,
+        orderTimeoutService);
+    inOrder.verify(shoppingCartService).showShoppingCart();
+    inOrder.verify(addressBookService).getByIdWithCheck(1L);
+    inOrder.verify(userService).getById(9001L);
+    inOrder.verify(transactionTemplate).executeWithoutResult(any());
+    inOrder.verify(mapper).insert(any(Orders.class));
+    inOrder.verify(dailyBusinessStatsService).recordOrderCreated(any(Orders.class));
+    inOrder.verify(orderDetailMapper).insertBatch(orderDetailCaptor.capture());
+    inOrder.verify(shoppingCartService).cleanShoppingCart();
+    inOrder.verify(orderTimeoutService).register(any(), any());
+
+    // 明细条数不影响语句数：3 条明细仍是一条 INSERT，且不再查询订单号是否重复
+    assertEquals(3, orderDetailCaptor.getValue().size());
+    verifyNoMoreInteractions(mapper, orderDetailMapper, addressBookService, userService,
+        dailyBusinessStatsService, transactionTemplate);
+  }
+
+  @Test
+  void submitOrderKeepsShoppingCartWhenTransactionFails() {
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(1L);
+
+    ShoppingCart cart = new ShoppingCart();
+    cart.setDishId(10L);
+    cart.setAmount(new BigDecimal("10"));
+    cart.setNumber(1);
+
+    when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart));
+    when(addressBookService.getByIdWithCheck(1L)).thenReturn(new AddressBook());
+    when(userService.getById(9001L)).thenReturn(new User());
+    doThrow(new DataIntegrityViolationException("insert failed"))
+        .when(orderDetailMapper).insertBatch(anyList());
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(9001L);
+
+      assertThrows(DataIntegrityViolationException.class, () -> orderService.submitOrder(dto));
+    }
+
+    verify(shoppingCartService, never()).cleanShoppingCart();
+    verify(orderTimeoutService, never()).register(any(), any());
+  }
+
+  @Test
+  void submitOrderSucceedsWhenCleaningShoppingCartFailsAfterCommit() {
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(1L);
+
+    ShoppingCart cart = new ShoppingCart();
+    cart.setDishId(10L);
+    cart.setAmount(new BigDecimal("10"));
+    cart.setNumber(1);
+
+    when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart));
+    when(addressBookService.getByIdWithCheck(1L)).thenReturn(new AddressBook());
+    when(userService.getById(9001L)).thenReturn(new User());
+    doThrow(new RedisConnectionFailureException("down")).when(shoppingCartService)
+        .cleanShoppingCart();
+
+    Logger logger = (Logger) LoggerFactory.getLogger(OrderServiceImpl.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(9001L);
+
+      assertNotNull(orderService.submitOrder(dto));
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    verify(orderTimeoutService).register(any(), any());
+  }
+
+  @Test
+  void submitOrderThrowsWhenCartIsNull() {
+    OrdersSubmitDto dto = new OrdersSubmitDto();
+    dto.setAddressBookId(1L);
+
+    when(shoppingCartService.showShoppingCart()).thenReturn(null);
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(9002L);
@@ -207,7 +400,6 @@ class OrderServiceImplTest {
     OrdersSubmitDto dto = new OrdersSubmitDto();
     dto.setAddressBookId(1L);
 
-    when(shoppingCartMapper.selectCount(any())).thenReturn(1L);
     when(shoppingCartService.showShoppingCart()).thenReturn(Collections.emptyList());
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
@@ -236,7 +428,6 @@ class OrderServiceImplTest {
     cart3.setAmount(new BigDecimal("2"));
     cart3.setNumber(3);
 
-    when(shoppingCartMapper.selectCount(any())).thenReturn(1L);
     when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart1, cart2, cart3));
 
     AddressBook addressBook = new AddressBook();
@@ -277,7 +468,7 @@ class OrderServiceImplTest {
   }
 
   @Test
-  void submitOrderFallsBackWhenOrderNumberCollides() {
+  void submitOrderGeneratesNumberWithoutQueryingOrders() {
     OrdersSubmitDto dto = new OrdersSubmitDto();
     dto.setAddressBookId(3L);
     dto.setPackAmount(null);
@@ -286,7 +477,6 @@ class OrderServiceImplTest {
     cart.setAmount(new BigDecimal("1"));
     cart.setNumber(1);
 
-    when(shoppingCartMapper.selectCount(any())).thenReturn(1L);
     when(shoppingCartService.showShoppingCart()).thenReturn(List.of(cart));
 
     AddressBook addressBook = new AddressBook();
@@ -298,8 +488,6 @@ class OrderServiceImplTest {
     addressBook.setDetail("F");
     when(addressBookService.getByIdWithCheck(3L)).thenReturn(addressBook);
 
-    when(mapper.selectCount(any())).thenReturn(1L, 1L, 1L, 1L, 1L);
-
     doAnswer(invocation -> {
       Orders orders = invocation.getArgument(0);
       orders.setId(102L);
@@ -312,8 +500,10 @@ class OrderServiceImplTest {
       OrderSubmitVo result = orderService.submitOrder(dto);
 
       assertEquals(102L, result.getId());
-      assertEquals(27, result.getOrderNumber().length());
+      assertEquals(24, result.getOrderNumber().length());
+      assertEquals("2345", result.getOrderNumber().substring(17, 21));
     }
+    verify(mapper, never()).selectCount(any());
   }
 
   @Test
@@ -419,6 +609,47 @@ class OrderServiceImplTest {
     }
   }
 
+  @Test
+  void pageQuery4UserLoadsDetailsWithSingleQuery() {
+    Orders first = new Orders();
+    first.setId(5L);
+    Orders second = new Orders();
+    second.setId(6L);
+    Orders third = new Orders();
+    third.setId(7L);
+
+    OrderDetail firstDetailA = new OrderDetail();
+    firstDetailA.setOrderId(5L);
+    OrderDetail firstDetailB = new OrderDetail();
+    firstDetailB.setOrderId(5L);
+    OrderDetail secondDetail = new OrderDetail();
+    secondDetail.setOrderId(6L);
+
+    doAnswer(invocation -> {
+      Page<Orders> pageArg = invocation.getArgument(0);
+      pageArg.setRecords(List.of(first, second, third));
+      pageArg.setTotal(3L);
+      return pageArg;
+    }).when(mapper).selectPage(any(), any());
+
+    when(orderDetailMapper.selectList(any()))
+        .thenReturn(List.of(firstDetailA, secondDetail, firstDetailB));
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(101L);
+
+      PageResult result = orderService.pageQuery4User(1, 10, null);
+
+      @SuppressWarnings("unchecked")
+      List<OrderVo> recordList = (List<OrderVo>) result.getRecords();
+      assertEquals(3, recordList.size());
+      assertEquals(List.of(firstDetailA, firstDetailB), recordList.get(0).getOrderDetailList());
+      assertEquals(List.of(secondDetail), recordList.get(1).getOrderDetailList());
+      assertTrue(recordList.get(2).getOrderDetailList().isEmpty());
+      verify(orderDetailMapper, times(1)).selectList(any());
+    }
+  }
+
   @Test
   void pageQuery4UserWithNoRecordsReturnsEmpty() {
     doAnswer(invocation -> {
@@ -450,20 +681,31 @@ class OrderServiceImplTest {
     dto.setPayMethod(1);
 
     when(mapper.selectOne(any())).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(200L);
 
       orderService.payment(dto);
 
-      verify(mapper).updateById(ordersCaptor.capture());
+      ArgumentCaptor<LambdaUpdateWrapper<Orders>> wrapperCaptor = ArgumentCaptor.forClass(
+          LambdaUpdateWrapper.class);
+      verify(mapper).update(ordersCaptor.capture(), wrapperCaptor.capture());
+      // 以待付款、未支付作为更新条件
+      assertTrue(wrapperCaptor.getValue().getSqlSegment().contains("pay_status"));
+      assertTrue(wrapperCaptor.getValue().getParamNameValuePairs().values()
+          .containsAll(List.of(6L, Orders.PENDING_PAYMENT, Orders.UN_PAID)));
+      verify(mapper, never()).updateById(any(Orders.class));
       Orders saved = ordersCaptor.getValue();
       assertEquals(Orders.PAID, saved.getPayStatus());
       assertEquals(Orders.TO_BE_CONFIRMED, saved.getStatus());
       assertNotNull(saved.getCheckoutTime());
       assertEquals(1, saved.getPayMethod());
-      verify(webSocketServer).sendToAllClient(messageCaptor.capture());
+      verify(orderStatusCounterService).recordOrderTransition(orders, Orders.TO_BE_CONFIRMED);
+      verify(eventPublisher).publishEvent(eventCaptor.capture());
+      OrderPaidEvent event = assertInstanceOf(OrderPaidEvent.class, eventCaptor.getValue());
+      assertEquals(orders.getId(), event.getOrderId());
+      assertEquals(dto.getOrderNumber(), event.getOrderNumber());
     }
   }
 
@@ -481,16 +723,44 @@ class OrderServiceImplTest {
     dto.setPayMethod(null);
 
     when(mapper.selectOne(any())).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(200L);
 
       orderService.payment(dto);
 
-      verify(mapper).updateById(ordersCaptor.capture());
+      // 支付方式为 null 时不更新该字段，保留原来的值
+      verify(mapper).update(ordersCaptor.capture(), any());
       Orders saved = ordersCaptor.getValue();
-      assertEquals(2, saved.getPayMethod());
+      assertNull(saved.getPayMethod());
+    }
+  }
+
+  @Test
+  void paymentChangedConcurrentlyThrowsWithoutRecording() {
+    Orders orders = new Orders();
+    orders.setId(6L);
+    orders.setNumber("N6");
+    orders.setStatus(Orders.PENDING_PAYMENT);
+    orders.setPayStatus(Orders.UN_PAID);
+
+    OrdersPaymentDto dto = new OrdersPaymentDto();
+    dto.setOrderNumber("N6");
+
+    // 读取后订单已被超时取消或另一个支付请求修改，条件更新影响 0 行
+    when(mapper.selectOne(any())).thenReturn(orders);
+    when(mapper.update(any(Orders.class), any())).thenReturn(0);
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(200L);
+
+      OrderBusinessException exception = assertThrows(OrderBusinessException.class,
+          () -> orderService.payment(dto));
+
+      assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
+      verify(orderStatusCounterService, never()).recordOrderTransition(any(), any());
+      verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
   }
 
@@ -554,42 +824,102 @@ class OrderServiceImplTest {
   }
 
   @Test
-  void processTimeoutOrderUpdatesBatch() {
+  void processTimeoutOrderCancelsScannedIdsWithGuardedUpdate() {
     Orders order = new Orders();
     order.setId(10L);
     order.setStatus(Orders.PENDING_PAYMENT);
     order.setPayStatus(Orders.UN_PAID);
     order.setOrderTime(LocalDateTime.now().minusMinutes(20));
 
-    when(orderServiceProvider.getObject()).thenReturn(orderServiceProxy);
+    when(mapper.<Long>selectObjs(any())).thenReturn(List.of(10L));
     when(mapper.selectList(any())).thenReturn(List.of(order));
 
     orderService.processTimeoutOrder();
 
-    verify(orderServiceProxy).updateBatchById(ordersListCaptor.capture());
-    List<Orders> updated = ordersListCaptor.getValue();
-    assertEquals(Orders.CANCELLED, updated.get(0).getStatus());
-    assertNotNull(updated.get(0).getCancelTime());
+    // 与超时队列相同：事务内加锁查询后按状态条件更新，不再整行覆盖
+    verify(transactionTemplate).executeWithoutResult(any());
+    verify(dailyBusinessStatsService).recordOrderTransitions(List.of(order), Orders.CANCELLED);
+    verify(orderStatusCounterService).recordOrderTransitions(List.of(order), Orders.CANCELLED);
+    ArgumentCaptor<LambdaUpdateWrapper<Orders>> wrapperCaptor = ArgumentCaptor.forClass(
+        LambdaUpdateWrapper.class);
+    verify(mapper).update(isNull(), wrapperCaptor.capture());
+    assertTrue(wrapperCaptor.getValue().getSqlSegment().contains("pay_status"));
+    verify(orderServiceProxy, never()).updateBatchById(any());
   }
 
   @Test
   void processTimeoutOrderSkipsWhenEmpty() {
-    when(mapper.selectList(any())).thenReturn(List.of());
+    when(mapper.<Long>selectObjs(any())).thenReturn(List.of());
 
     orderService.processTimeoutOrder();
 
-    verify(orderServiceProxy, never()).updateBatchById(any());
+    verify(transactionTemplate, never()).executeWithoutResult(any());
+    verify(mapper, never()).update(any(), any());
   }
 
   @Test
-  void processTimeoutOrderSkipsWhenNull() {
-    when(mapper.selectList(any())).thenReturn(null);
+  void processTimeoutOrderCancelsInBatches() {
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= 150; id++) {
+      ids.add(id);
+    }
+    when(mapper.<Long>selectObjs(any())).thenReturn(ids);
+    when(mapper.selectList(any())).thenReturn(List.of());
 
     orderService.processTimeoutOrder();
 
+    verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    verify(mapper, times(2)).selectList(any());
+  }
+
+  @Test
+  void processTimeoutQueueCancelsPendingOrdersWithGuardedUpdate() {
+    Orders order = new Orders();
+    order.setId(10L);
+    order.setStatus(Orders.PENDING_PAYMENT);
+    order.setPayStatus(Orders.UN_PAID);
+
+    when(orderTimeoutService.pollExpired(100)).thenReturn(List.of(10L, 11L));
+    when(mapper.selectList(any())).thenReturn(List.of(order));
+
+    assertEquals(2, orderService.processTimeoutQueue(100));
+
+    verify(transactionTemplate).executeWithoutResult(any());
+    verify(dailyBusinessStatsService).recordOrderTransitions(List.of(order), Orders.CANCELLED);
+    verify(orderStatusCounterService).recordOrderTransitions(List.of(order), Orders.CANCELLED);
+    ArgumentCaptor<LambdaUpdateWrapper<Orders>> wrapperCaptor = ArgumentCaptor.forClass(
+        LambdaUpdateWrapper.class);
+    verify(mapper).update(isNull(), wrapperCaptor.capture());
+    String sqlSet = wrapperCaptor.getValue().getSqlSet();
+    String sqlSegment = wrapperCaptor.getValue().getSqlSegment();
+    assertTrue(sqlSet.contains("status"));
+    assertTrue(sqlSet.contains("cancel_reason"));
+    assertTrue(sqlSegment.contains("id IN"));
+    assertTrue(sqlSegment.contains("pay_status"));
     verify(orderServiceProxy, never()).updateBatchById(any());
   }
 
+  @Test
+  void processTimeoutQueueSkipsOrdersNoLongerPending() {
+    when(orderTimeoutService.pollExpired(100)).thenReturn(List.of(10L));
+    when(mapper.selectList(any())).thenReturn(List.of());
+
+    assertEquals(1, orderService.processTimeoutQueue(100));
+
+    verify(mapper, never()).update(any(), any());
+    verify(dailyBusinessStatsService, never()).recordOrderTransitions(any(), any());
+  }
+
+  @Test
+  void processTimeoutQueueDoesNothingWhenQueueIsEmpty() {
+    when(orderTimeoutService.pollExpired(100)).thenReturn(List.of());
+
+    assertEquals(0, orderService.processTimeoutQueue(100));
+
+    verify(transactionTemplate, never()).executeWithoutResult(any());
+    verify(mapper, never()).selectList(any());
+  }
+
   @Test
   void processDeliveryOrderUpdatesBatch() {
     Orders order = new Orders();
@@ -670,6 +1000,7 @@ class OrderServiceImplTest {
     }).when(mapper).selectPage(any(), any());
 
     OrderDetail detail = new OrderDetail();
+    detail.setOrderId(20L);
     detail.setName("宫保鸡丁");
     detail.setNumber(2);
     when(orderDetailMapper.selectList(any())).thenReturn(List.of(detail));
@@ -682,6 +1013,51 @@ class OrderServiceImplTest {
     assertEquals("宫保鸡丁*2;", voList.get(0).getOrderDishes());
   }
 
+  @Test
+  void conditionSearchBuildsOrderDishesWithSingleDetailQuery() {
+    OrdersPageQueryDto dto = new OrdersPageQueryDto();
+    dto.setPage(1);
+    dto.setPageSize(10);
+
+    Orders first = new Orders();
+    first.setId(21L);
+    Orders second = new Orders();
+    second.setId(22L);
+    Orders third = new Orders();
+    third.setId(23L);
+
+    doAnswer(invocation -> {
+      Page<Orders> pageArg = invocation.getArgument(0);
+      pageArg.setRecords(List.of(first, second, third));
+      pageArg.setTotal(3L);
+      return pageArg;
+    }).when(mapper).selectPage(any(), any());
+
+    OrderDetail firstDish = new OrderDetail();
+    firstDish.setOrderId(21L);
+    firstDish.setName("宫保鸡丁");
+    firstDish.setNumber(3);
+    OrderDetail firstDrink = new OrderDetail();
+    firstDrink.setOrderId(21L);
+    firstDrink.setName("可乐");
+    firstDrink.setNumber(1);
+    OrderDetail secondDish = new OrderDetail();
+    secondDish.setOrderId(22L);
+    secondDish.setName("鱼香肉丝");
+    secondDish.setNumber(2);
+    when(orderDetailMapper.selectList(any()))
+        .thenReturn(List.of(firstDish, secondDish, firstDrink));
+
+    PageResult result = orderService.conditionSearch(dto);
+
+    @SuppressWarnings("unchecked")
+    List<OrderVo> voList = (List<OrderVo>) result.getRecords();
+    assertEquals("宫保鸡丁*3;可乐*1;", voList.get(0).getOrderDishes());
+    assertEquals("鱼香肉丝*2;", voList.get(1).getOrderDishes());
+    assertEquals("", voList.get(2).getOrderDishes());
+    verify(orderDetailMapper, times(1)).selectList(any());
+  }
+
   @Test
   void conditionSearchWithEmptyFiltersReturnsEmpty() {
     OrdersPageQueryDto dto = new OrdersPageQueryDto();
@@ -706,13 +1082,29 @@ class OrderServiceImplTest {
 
   @Test
   void statisticsReturnsCounts() {
-    when(mapper.selectCount(any())).thenReturn(1L, 2L, 3L);
+    when(orderStatusCounterService.countOpenByStatus()).thenReturn(Map.of(
+        Orders.PENDING_PAYMENT, 4L,
+        Orders.TO_BE_CONFIRMED, 1L,
+        Orders.CONFIRMED, 2L,
+        Orders.DELIVERY_IN_PROGRESS, 3L));
 
     OrderStatisticsVo statistics = orderService.statistics();
 
     assertEquals(1, statistics.getToBeConfirmed());
     assertEquals(2, statistics.getConfirmed());
     assertEquals(3, statistics.getDeliveryInProgress());
+    verify(mapper, never()).selectCount(any());
+  }
+
+  @Test
+  void statisticsWithNoOrdersReturnsZero() {
+    when(orderStatusCounterService.countOpenByStatus()).thenReturn(Map.of());
+
+    OrderStatisticsVo statistics = orderService.statistics();
+
+    assertEquals(0, statistics.getToBeConfirmed());
+    assertEquals(0, statistics.getConfirmed());
+    assertEquals(0, statistics.getDeliveryInProgress());
   }
 
   @Test
@@ -748,11 +1140,11 @@ class OrderServiceImplTest {
     orders.setPayStatus(Orders.PAID);
 
     when(mapper.selectById(13L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     orderService.userCancelById(13L);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("用户取消", updated.getCancelReason());
@@ -768,11 +1160,11 @@ class OrderServiceImplTest {
     orders.setPayStatus(Orders.UN_PAID);
 
     when(mapper.selectById(29L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     orderService.userCancelById(29L);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("用户取消", updated.getCancelReason());
@@ -803,14 +1195,92 @@ class OrderServiceImplTest {
   void confirmUpdatesStatus() {
     OrdersConfirmDto dto = new OrdersConfirmDto();
     dto.setId(15L);
+    Orders ordersDb = new Orders();
+    ordersDb.setId(15L);
+    ordersDb.setStatus(Orders.TO_BE_CONFIRMED);
 
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.selectById(15L)).thenReturn(ordersDb);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     orderService.confirm(dto);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CONFIRMED, updated.getStatus());
+    verify(orderStatusCounterService).recordOrderTransition(ordersDb, Orders.CONFIRMED);
+  }
+
+  @Test
+  void confirmThrowsWhenOrderMissing() {
+    OrdersConfirmDto dto = new OrdersConfirmDto();
+    dto.setId(32L);
+
+    when(mapper.selectById(32L)).thenReturn(null);
+
+    OrderBusinessException exception = assertThrows(OrderBusinessException.class,
+        () -> orderService.confirm(dto));
+
+    assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
+    verify(mapper, never()).update(any(), any());
+    verify(orderStatusCounterService, never()).recordOrderTransition(any(), any());
+  }
+
+  @Test
+  void confirmThrowsWhenStatusInvalid() {
+    OrdersConfirmDto dto = new OrdersConfirmDto();
+    dto.setId(33L);
+    Orders ordersDb = new Orders();
+    ordersDb.setId(33L);
+    ordersDb.setStatus(Orders.PENDING_PAYMENT);
+
+    when(mapper.selectById(33L)).thenReturn(ordersDb);
+
+    OrderBusinessException exception = assertThrows(OrderBusinessException.class,
+        () -> orderService.confirm(dto));
+
+    assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
+    verify(mapper, never()).update(any(), any());
+  }
+
+  @Test
+  void confirmGuardsUpdateWithStatusRead() {
+    OrdersConfirmDto dto = new OrdersConfirmDto();
+    dto.setId(34L);
+    Orders ordersDb = new Orders();
+    ordersDb.setId(34L);
+    ordersDb.setStatus(Orders.TO_BE_CONFIRMED);
+
+    when(mapper.selectById(34L)).thenReturn(ordersDb);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
+
+    orderService.confirm(dto);
+
+    ArgumentCaptor<LambdaUpdateWrapper<Orders>> wrapperCaptor = ArgumentCaptor.forClass(
+        LambdaUpdateWrapper.class);
+    verify(mapper).update(any(Orders.class), wrapperCaptor.capture());
+    LambdaUpdateWrapper<Orders> wrapper = wrapperCaptor.getValue();
+    assertTrue(wrapper.getSqlSegment().contains("id ="));
+    assertTrue(wrapper.getSqlSegment().contains("status ="));
+    assertTrue(wrapper.getParamNameValuePairs().containsValue(Orders.TO_BE_CONFIRMED));
+  }
+
+  @Test
+  void confirmThrowsWhenOrderChangedConcurrently() {
+    OrdersConfirmDto dto = new OrdersConfirmDto();
+    dto.setId(35L);
+    Orders ordersDb = new Orders();
+    ordersDb.setId(35L);
+    ordersDb.setStatus(Orders.TO_BE_CONFIRMED);
+
+    when(mapper.selectById(35L)).thenReturn(ordersDb);
+    // 读取后订单已被其他请求取消，按原状态更新不到任何行
+    when(mapper.update(any(Orders.class), any())).thenReturn(0);
+
+    OrderBusinessException exception = assertThrows(OrderBusinessException.class,
+        () -> orderService.confirm(dto));
+
+    assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
+    verify(orderStatusCounterService, never()).recordOrderTransition(any(), any());
   }
 
   @Test
@@ -853,7 +1323,7 @@ class OrderServiceImplTest {
     orders.setPayStatus(Orders.UN_PAID);
 
     when(mapper.selectById(26L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     OrdersRejectionDto dto = new OrdersRejectionDto();
     dto.setId(26L);
@@ -861,7 +1331,7 @@ class OrderServiceImplTest {
 
     orderService.rejection(dto);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("售罄", updated.getRejectionReason());
@@ -878,7 +1348,7 @@ class OrderServiceImplTest {
     orders.setPayStatus(Orders.PAID);
 
     when(mapper.selectById(17L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     OrdersRejectionDto dto = new OrdersRejectionDto();
     dto.setId(17L);
@@ -886,7 +1356,7 @@ class OrderServiceImplTest {
 
     orderService.rejection(dto);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("打烊", updated.getRejectionReason());
@@ -898,10 +1368,11 @@ class OrderServiceImplTest {
     Orders orders = new Orders();
     orders.setId(18L);
     orders.setNumber("N18");
+    orders.setStatus(Orders.TO_BE_CONFIRMED);
     orders.setPayStatus(Orders.PAID);
 
     when(mapper.selectById(18L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     OrdersCancelDto dto = new OrdersCancelDto();
     dto.setId(18L);
@@ -909,11 +1380,13 @@ class OrderServiceImplTest {
 
     orderService.cancel(dto);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("超时", updated.getCancelReason());
     assertEquals(Orders.REFUND, updated.getPayStatus());
+    verify(dailyBusinessStatsService).recordOrderTransition(orders, Orders.CANCELLED);
+    verify(orderStatusCounterService).recordOrderTransition(orders, Orders.CANCELLED);
   }
 
   @Test
@@ -930,14 +1403,36 @@ class OrderServiceImplTest {
     assertEquals(ORDER_NOT_FOUND, exception.getMessage());
   }
 
+  @Test
+  void cancelThrowsWhenOrderAlreadyCompleted() {
+    Orders orders = new Orders();
+    orders.setId(36L);
+    orders.setStatus(Orders.COMPLETED);
+    orders.setPayStatus(Orders.PAID);
+
+    when(mapper.selectById(36L)).thenReturn(orders);
+
+    OrdersCancelDto dto = new OrdersCancelDto();
+    dto.setId(36L);
+    dto.setCancelReason("关闭");
+
+    OrderBusinessException exception = assertThrows(OrderBusinessException.class,
+        () -> orderService.cancel(dto));
+
+    assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
+    verify(mapper, never()).update(any(), any());
+    verify(dailyBusinessStatsService, never()).recordOrderTransition(any(), any());
+  }
+
   @Test
   void cancelWithoutRefundWhenUnpaid() {
     Orders orders = new Orders();
     orders.setId(28L);
+    orders.setStatus(Orders.PENDING_PAYMENT);
     orders.setPayStatus(Orders.UN_PAID);
 
     when(mapper.selectById(28L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     OrdersCancelDto dto = new OrdersCancelDto();
     dto.setId(28L);
@@ -945,7 +1440,7 @@ class OrderServiceImplTest {
 
     orderService.cancel(dto);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.CANCELLED, updated.getStatus());
     assertEquals("取消", updated.getCancelReason());
@@ -960,13 +1455,14 @@ class OrderServiceImplTest {
     orders.setStatus(Orders.CONFIRMED);
 
     when(mapper.selectById(19L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     orderService.delivery(19L);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.DELIVERY_IN_PROGRESS, updated.getStatus());
+    verify(orderStatusCounterService).recordOrderTransition(orders, Orders.DELIVERY_IN_PROGRESS);
   }
 
   @Test
@@ -1000,14 +1496,16 @@ class OrderServiceImplTest {
     orders.setStatus(Orders.DELIVERY_IN_PROGRESS);
 
     when(mapper.selectById(21L)).thenReturn(orders);
-    when(mapper.updateById(any(Orders.class))).thenReturn(1);
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
 
     orderService.complete(21L);
 
-    verify(mapper).updateById(ordersCaptor.capture());
+    verify(mapper).update(ordersCaptor.capture(), any());
     Orders updated = ordersCaptor.getValue();
     assertEquals(Orders.COMPLETED, updated.getStatus());
     assertNotNull(updated.getDeliveryTime());
+    verify(dailyBusinessStatsService).recordOrderTransition(orders, Orders.COMPLETED);
+    verify(orderStatusCounterService).recordOrderTransition(orders, Orders.COMPLETED);
   }
 
   @Test
@@ -1034,6 +1532,101 @@ class OrderServiceImplTest {
     assertEquals(ORDER_STATUS_ERROR, exception.getMessage());
   }
 
+  @Test
+  void confirmBatchUpdatesAllowedOrdersAndNotifiesOnce() {
+    Orders toBeConfirmed = new Orders();
+    toBeConfirmed.setId(40L);
+    toBeConfirmed.setStatus(Orders.TO_BE_CONFIRMED);
+    Orders completed = new Orders();
+    completed.setId(41L);
+    completed.setStatus(Orders.COMPLETED);
+
+    runTransactionCallbacks();
+    when(mapper.selectList(any())).thenReturn(List.of(toBeConfirmed, completed));
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
+
+    OrderBatchResultVo result = orderService.confirmBatch(List.of(40L, 41L, 42L, 40L));
+
+    assertEquals(List.of(40L), result.getSucceeded());
+    assertEquals(List.of(41L, 42L), result.getFailed());
+    verify(mapper).update(ordersCaptor.capture(), any());
+    assertEquals(Orders.CONFIRMED, ordersCaptor.getValue().getStatus());
+    verify(orderStatusCounterService).recordOrderTransitions(List.of(toBeConfirmed),
+        Orders.CONFIRMED);
+    verify(dailyBusinessStatsService, never()).recordOrderTransitions(any(), any());
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    OrderStatusBatchChangedEvent event = assertInstanceOf(OrderStatusBatchChangedEvent.class,
+        eventCaptor.getValue());
+    assertEquals(List.of(40L), event.getOrderIds());
+    assertEquals(Orders.CONFIRMED, event.getStatus());
+  }
+
+  @Test
+  void completeBatchSetsDeliveryTimeAndRecordsDailyStats() {
+    Orders delivering = new Orders();
+    delivering.setId(43L);
+    delivering.setStatus(Orders.DELIVERY_IN_PROGRESS);
+
+    runTransactionCallbacks();
+    when(mapper.selectList(any())).thenReturn(List.of(delivering));
+    when(mapper.update(any(Orders.class), any())).thenReturn(1);
+
+    OrderBatchResultVo result = orderService.completeBatch(List.of(43L));
+
+    assertEquals(List.of(43L), result.getSucceeded());
+    verify(mapper).update(ordersCaptor.capture(), any());
+    assertEquals(Orders.COMPLETED, ordersCaptor.getValue().getStatus());
+    assertNotNull(ordersCaptor.getValue().getDeliveryTime());
+    verify(dailyBusinessStatsService).recordOrderTransitions(List.of(delivering),
+        Orders.COMPLETED);
+    verify(orderStatusCounterService).recordOrderTransitions(List.of(delivering),
+        Orders.COMPLETED);
+  }
+
+  @Test
+  void deliveryBatchSkipsUpdateAndNotificationWhenNothingAllowed() {
+    Orders pending = new Orders();
+    pending.setId(44L);
+    pending.setStatus(Orders.PENDING_PAYMENT);
+
+    runTransactionCallbacks();
+    when(mapper.selectList(any())).thenReturn(List.of(pending));
+
+    OrderBatchResultVo result = orderService.deliveryBatch(List.of(44L));
+
+    assertTrue(result.getSucceeded().isEmpty());
+    assertEquals(List.of(44L), result.getFailed());
+    verify(mapper, never()).update(any(), any());
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void batchWithoutIdsDoesNothing() {
+    OrderBatchResultVo result = orderService.confirmBatch(null);
+
+    assertTrue(result.getSucceeded().isEmpty());
+    assertTrue(result.getFailed().isEmpty());
+    verify(transactionTemplate, never()).execute(any());
+  }
+
+  @Test
+  void batchRejectsTooManyIds() {
+    List<Long> ids = new ArrayList<>();
+    for (long id = 1; id <= 101; id++) {
+      ids.add(id);
+    }
+
+    assertThrows(OrderBusinessException.class, () -> orderService.deliveryBatch(ids));
+    verify(transactionTemplate, never()).execute(any());
+  }
+
+  private void runTransactionCallbacks() {
+    when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+      TransactionCallback<?> callback = invocation.getArgument(0);
+      return callback.doInTransaction(null);
+    });
+  }
+
   @Test
   void reminderSendsMessage() {
     Orders orders = new Orders();
@@ -1044,7 +1637,10 @@ class OrderServiceImplTest {
 
     orderService.reminder(22L);
 
-    verify(webSocketServer).sendToAllClient(messageCaptor.capture());
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    OrderReminderEvent event = assertInstanceOf(OrderReminderEvent.class, eventCaptor.getValue());
+    assertEquals(22L, event.getOrderId());
+    assertEquals("N22", event.getOrderNumber());
   }
 
   @Test
@@ -1091,7 +1687,7 @@ class OrderServiceImplTest {
 
       orderService.reminderByNumber("N25");
 
-      verify(webSocketServer).sendToAllClient(messageCaptor.capture());
+      verify(eventPublisher).publishEvent(any(OrderReminderEvent.class));
     }
   }
 
@@ -1110,7 +1706,7 @@ class OrderServiceImplTest {
 
       orderService.repetition(20L);
 
-      verify(shoppingCartService).saveBatch(shoppingCartCaptor.capture());
+      verify(shoppingCartService).addShoppingCartItems(shoppingCartCaptor.capture());
       List<ShoppingCart> carts = shoppingCartCaptor.getValue();
       assertEquals(1, carts.size());
       assertEquals(500L, carts.get(0).getUserId());
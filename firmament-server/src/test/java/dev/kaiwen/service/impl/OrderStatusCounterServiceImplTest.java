@@ -0,0 +1,236 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kaiwen.dto.OrderStatusCountDto;
+import dev.kaiwen.entity.Orders;
+import dev.kaiwen.mapper.OrderMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusCounterServiceImplTest {
+
+  @Mock
+  private OrderMapper orderMapper;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private OrderStatusCounterServiceImpl counterService;
+
+  private final LocalDate today = LocalDate.now();
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    counterService = new OrderStatusCounterServiceImpl(orderMapper, meterRegistry);
+  }
+
+  @Test
+  void firstReadLoadsCountsFromDatabase() {
+    when(orderMapper.selectDailyStatusCounts(today.atStartOfDay(),
+        OrderStatusCounterServiceImpl.OPEN_STATUSES)).thenReturn(List.of(
+        row(today, Orders.TO_BE_CONFIRMED, 2L),
+        row(today, Orders.COMPLETED, 5L)));
+
+    Map<Integer, Long> counts = counterService.countByStatus(today);
+    counterService.countByStatus(today);
+
+    assertEquals(Map.of(Orders.TO_BE_CONFIRMED, 2L, Orders.COMPLETED, 5L), counts);
+    verify(orderMapper, times(1)).selectDailyStatusCounts(any(), any());
+    assertThrows(UnsupportedOperationException.class, () -> counts.put(Orders.CANCELLED, 1L));
+  }
+
+  @Test
+  void countByStatusReturnsEmptyForUntrackedDay() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of());
+
+    assertEquals(Map.of(), counterService.countByStatus(today.minusDays(3)));
+  }
+
+  @Test
+  void recordOrderCreatedAndTransitionsUpdateCounts() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of());
+    counterService.reconcile();
+
+    Orders orders = order(Orders.PENDING_PAYMENT, today.atTime(12, 0));
+    counterService.recordOrderCreated(orders);
+    assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+
+    counterService.recordOrderTransition(orders, Orders.TO_BE_CONFIRMED);
+    orders.setStatus(Orders.TO_BE_CONFIRMED);
+    counterService.recordOrderTransition(orders, Orders.CONFIRMED);
+
+    assertEquals(Map.of(Orders.CONFIRMED, 1L), counterService.countByStatus(today));
+  }
+
+  @Test
+  void recordOrderTransitionsSkipsUnchangedAndMissingOrderTime() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(today, Orders.DELIVERY_IN_PROGRESS, 3L)));
+    counterService.reconcile();
+
+    counterService.recordOrderTransitions(List.of(
+        order(Orders.DELIVERY_IN_PROGRESS, today.atTime(10, 0)),
+        order(Orders.DELIVERY_IN_PROGRESS, today.atTime(11, 0)),
+        order(Orders.COMPLETED, today.atTime(11, 0)),
+        order(Orders.DELIVERY_IN_PROGRESS, null)), Orders.COMPLETED);
+
+    assertEquals(Map.of(Orders.DELIVERY_IN_PROGRESS, 1L, Orders.COMPLETED, 2L),
+        counterService.countByStatus(today));
+  }
+
+  @Test
+  void recordsBeforeFirstReconcileAreIgnored() {
+    counterService.recordOrderCreated(order(Orders.PENDING_PAYMENT, today.atTime(9, 0)));
+
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(today, Orders.PENDING_PAYMENT, 1L)));
+
+    assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+  }
+
+  @Test
+  void countOpenByStatusSumsAcrossDays() {
+    LocalDate yesterday = today.minusDays(1);
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(yesterday, Orders.DELIVERY_IN_PROGRESS, 2L),
+        row(today, Orders.DELIVERY_IN_PROGRESS, 1L),
+        row(today, Orders.TO_BE_CONFIRMED, 4L),
+        row(today, Orders.COMPLETED, 7L)));
+
+    Map<Integer, Long> counts = counterService.countOpenByStatus();
+
+    assertEquals(Map.of(Orders.DELIVERY_IN_PROGRESS, 3L, Orders.TO_BE_CONFIRMED, 4L), counts);
+  }
+
+  @Test
+  void reconcileRecordsDrift() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(today, Orders.TO_BE_CONFIRMED, 2L)));
+    counterService.reconcile();
+    assertEquals(0.0, meterRegistry.get("order.status.counter.drift").gauge().value());
+
+    // 内存中多记了一单，数据库中另有一单已完成
+    counterService.recordOrderCreated(order(Orders.PENDING_PAYMENT, today.atTime(8, 0)));
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(today, Orders.TO_BE_CONFIRMED, 2L),
+        row(today, Orders.COMPLETED, 1L)));
+    counterService.reconcile();
+
+    assertEquals(2.0, meterRegistry.get("order.status.counter.drift").gauge().value());
+    assertEquals(Map.of(Orders.TO_BE_CONFIRMED, 2L, Orders.COMPLETED, 1L),
+        counterService.countByStatus(today));
+  }
+
+  @Test
+  void reconcileIgnoresClosedOrdersOfEarlierDaysInDrift() {
+    LocalDate yesterday = today.minusDays(1);
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(yesterday, Orders.DELIVERY_IN_PROGRESS, 1L)));
+    counterService.reconcile();
+
+    // 昨天的订单完成后不再在数据库查询范围内
+    counterService.recordOrderTransition(order(Orders.DELIVERY_IN_PROGRESS,
+        yesterday.atTime(20, 0)), Orders.COMPLETED);
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of());
+    counterService.reconcile();
+
+    assertEquals(0.0, meterRegistry.get("order.status.counter.drift").gauge().value());
+  }
+
+  @Test
+  void transitionsDuringReconcileQueryAreKept() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of(
+        row(today, Orders.TO_BE_CONFIRMED, 2L)));
+    counterService.reconcile();
+
+    // 查询读到的是流转前的数据，流转在查询返回前提交
+    Orders orders = order(Orders.TO_BE_CONFIRMED, today.atTime(12, 0));
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenAnswer(invocation -> {
+      counterService.recordOrderTransition(orders, Orders.CONFIRMED);
+      return List.of(row(today, Orders.TO_BE_CONFIRMED, 2L));
+    });
+    counterService.reconcile();
+
+    assertEquals(Map.of(Orders.TO_BE_CONFIRMED, 1L, Orders.CONFIRMED, 1L),
+        counterService.countByStatus(today));
+    assertEquals(0.0, meterRegistry.get("order.status.counter.drift").gauge().value());
+  }
+
+  @Test
+  void transitionsDuringFirstLoadAreKept() {
+    Orders orders = order(Orders.PENDING_PAYMENT, today.atTime(12, 0));
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenAnswer(invocation -> {
+      counterService.recordOrderCreated(orders);
+      return List.of();
+    });
+
+    assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+  }
+
+  @Test
+  void failedReconcileKeepsCurrentCounts() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of());
+    counterService.reconcile();
+    when(orderMapper.selectDailyStatusCounts(any(), any()))
+        .thenThrow(new IllegalStateException("db down"))
+        .thenReturn(List.of(row(today, Orders.PENDING_PAYMENT, 1L)));
+    assertThrows(IllegalStateException.class, () -> counterService.reconcile());
+
+    counterService.recordOrderCreated(order(Orders.PENDING_PAYMENT, today.atTime(12, 0)));
+    assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+
+    counterService.reconcile();
+    assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+    assertEquals(0.0, meterRegistry.get("order.status.counter.drift").gauge().value());
+  }
+
+  @Test
+  void recordAppliedOnlyAfterCommit() {
+    when(orderMapper.selectDailyStatusCounts(any(), any())).thenReturn(List.of());
+    counterService.reconcile();
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      counterService.recordOrderCreated(order(Orders.PENDING_PAYMENT, today.atTime(9, 0)));
+      assertEquals(Map.of(), counterService.countByStatus(today));
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      assertEquals(Map.of(Orders.PENDING_PAYMENT, 1L), counterService.countByStatus(today));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private Orders order(Integer status, LocalDateTime orderTime) {
+    Orders orders = new Orders();
+    orders.setStatus(status);
+    orders.setOrderTime(orderTime);
+    return orders;
+  }
+
+  private OrderStatusCountDto row(LocalDate orderDate, Integer status, Long orderCount) {
+    OrderStatusCountDto row = new OrderStatusCountDto();
+    row.setOrderDate(orderDate);
+    row.setStatus(status);
+    row.setOrderCount(orderCount);
+    return row;
+  }
+}
@@ -0,0 +1,99 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.CacheConstant;
+import dev.kaiwen.service.OrderTimeoutService;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+@ExtendWith(MockitoExtension.class)
+class OrderTimeoutServiceImplTest {
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  @Mock
+  private ZSetOperations<String, String> zSetOperations;
+
+  private OrderTimeoutServiceImpl orderTimeoutService;
+
+  @BeforeEach
+  void setUp() {
+    orderTimeoutService = new OrderTimeoutServiceImpl(redisTemplateStringString);
+  }
+
+  @Test
+  void registerScoresOrderByPaymentDeadline() {
+    when(redisTemplateStringString.opsForZSet()).thenReturn(zSetOperations);
+    LocalDateTime orderTime = LocalDateTime.of(2024, 1, 29, 12, 0);
+
+    orderTimeoutService.register(10L, orderTime);
+
+    long expected = orderTime.plus(OrderTimeoutService.PAYMENT_TIMEOUT)
+        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    verify(zSetOperations).add(CacheConstant.ORDER_TIMEOUT_KEY, "10", expected);
+  }
+
+  @Test
+  void registerSwallowsRedisFailure() {
+    when(redisTemplateStringString.opsForZSet()).thenReturn(zSetOperations);
+    when(zSetOperations.add(anyString(), anyString(), anyDouble()))
+        .thenThrow(new RedisConnectionFailureException("down"));
+
+    Logger logger = (Logger) LoggerFactory.getLogger(OrderTimeoutServiceImpl.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      assertDoesNotThrow(() -> orderTimeoutService.register(10L, LocalDateTime.now()));
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void pollExpiredClaimsDueIdsUpToLimit() {
+    long before = System.currentTimeMillis();
+    when(redisTemplateStringString.execute(eq(OrderTimeoutServiceImpl.POLL_SCRIPT),
+        eq(List.of(CacheConstant.ORDER_TIMEOUT_KEY)), anyString(), eq("50")))
+        .thenReturn(List.of("10", "11"));
+
+    List<Long> ids = orderTimeoutService.pollExpired(50);
+
+    assertEquals(List.of(10L, 11L), ids);
+    ArgumentCaptor<Object> nowCaptor = ArgumentCaptor.forClass(Object.class);
+    verify(redisTemplateStringString).execute(eq(OrderTimeoutServiceImpl.POLL_SCRIPT),
+        eq(List.of(CacheConstant.ORDER_TIMEOUT_KEY)), nowCaptor.capture(), eq("50"));
+    assertTrue(Long.parseLong(nowCaptor.getValue().toString()) >= before);
+  }
+
+  @Test
+  void pollExpiredReturnsEmptyListWhenNothingIsDue() {
+    when(redisTemplateStringString.execute(eq(OrderTimeoutServiceImpl.POLL_SCRIPT),
+        eq(List.of(CacheConstant.ORDER_TIMEOUT_KEY)), anyString(), eq("50")))
+        .thenReturn(null);
+
+    assertTrue(orderTimeoutService.pollExpired(50).isEmpty());
+  }
+}
@@ -0,0 +1,187 @@
+package dev.kaiwen.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.kaiwen.context.BaseContext;
+import dev.kaiwen.dto.ShoppingCartDto;
+import dev.kaiwen.entity.ShoppingCart;
+import dev.kaiwen.exception.ShoppingCartBusinessException;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class RedisShoppingCartServiceImplTest {
+
+  private static final String TTL = String.valueOf(
+      RedisShoppingCartServiceImpl.CART_TTL.toSeconds());
+
+  @InjectMocks
+  private RedisShoppingCartServiceImpl shoppingCartService;
+
+  @Mock
+  private RedisTemplate<String, String> redisTemplateStringString;
+
+  @Mock
+  private CatalogIndexService catalogIndexService;
+
+  @Mock
+  private HashOperations<String, String, String> hashOperations;
+
+  @Test
+  void addShoppingCartIncrementsHashFieldWithOneScriptCall() {
+    ShoppingCartDto dto = new ShoppingCartDto();
+    dto.setDishId(100L);
+    dto.setDishFlavor("微辣");
+    when(catalogIndexService.getDish(100L)).thenReturn(item(100L, "宫保鸡丁", "38"));
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      shoppingCartService.addShoppingCart(dto);
+    }
+
+    verify(redisTemplateStringString).execute(RedisShoppingCartServiceImpl.INCREMENT_SCRIPT,
+        List.of("shopping_cart:888"), TTL, "dish:100:微辣", "1");
+  }
+
+  @Test
+  void addShoppingCartThrowsWhenSetmealMissing() {
+    ShoppingCartDto dto = new ShoppingCartDto();
+    dto.setSetmealId(200L);
+
+    ShoppingCartBusinessException exception = assertThrows(ShoppingCartBusinessException.class,
+        () -> shoppingCartService.addShoppingCart(dto));
+
+    assertEquals("套餐不存在", exception.getMessage());
+    verify(redisTemplateStringString, never()).execute(any(), any(), any(Object[].class));
+  }
+
+  @Test
+  void addShoppingCartThrowsWhenIdsMissing() {
+    ShoppingCartDto dto = new ShoppingCartDto();
+
+    ShoppingCartBusinessException exception = assertThrows(ShoppingCartBusinessException.class,
+        () -> shoppingCartService.addShoppingCart(dto));
+
+    assertEquals("商品ID不能为空", exception.getMessage());
+  }
+
+  @Test
+  void subShoppingCartDecrementsHashField() {
+    ShoppingCartDto dto = new ShoppingCartDto();
+    dto.setSetmealId(200L);
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      shoppingCartService.subShoppingCart(dto);
+    }
+
+    verify(redisTemplateStringString).execute(RedisShoppingCartServiceImpl.INCREMENT_SCRIPT,
+        List.of("shopping_cart:888"), TTL, "setmeal:200", "-1");
+  }
+
+  @Test
+  void addShoppingCartItemsIncrementsAllFieldsTogether() {
+    ShoppingCart dish = new ShoppingCart();
+    dish.setDishId(100L);
+    dish.setNumber(2);
+    ShoppingCart setmeal = new ShoppingCart();
+    setmeal.setSetmealId(200L);
+    setmeal.setNumber(1);
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      shoppingCartService.addShoppingCartItems(List.of(dish, setmeal));
+    }
+
+    verify(redisTemplateStringString).execute(RedisShoppingCartServiceImpl.INCREMENT_SCRIPT,
+        List.of("shopping_cart:888"), TTL, "dish:100:", "2", "setmeal:200", "1");
+  }
+
+  @Test
+  void addShoppingCartBatchIncrementsAllFieldsWithOneScriptCall() {
+    ShoppingCartDto dish = new ShoppingCartDto();
+    dish.setDishId(100L);
+    dish.setNumber(2);
+    ShoppingCartDto setmeal = new ShoppingCartDto();
+    setmeal.setSetmealId(200L);
+    when(catalogIndexService.getDish(100L)).thenReturn(item(100L, "宫保鸡丁", "38"));
+    when(catalogIndexService.getSetmeal(200L)).thenReturn(item(200L, "豪华套餐", "88"));
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      shoppingCartService.addShoppingCartBatch(List.of(dish, setmeal));
+    }
+
+    verify(redisTemplateStringString).execute(RedisShoppingCartServiceImpl.INCREMENT_SCRIPT,
+        List.of("shopping_cart:888"), TTL, "dish:100:", "2", "setmeal:200", "1");
+  }
+
+  @Test
+  void showShoppingCartBuildsItemsFromHashAndCatalog() {
+    when(redisTemplateStringString.<String, String>opsForHash()).thenReturn(hashOperations);
+    when(hashOperations.entries("shopping_cart:888")).thenReturn(Map.of(
+        "setmeal:200", "1",
+        "dish:100:微辣", "3",
+        "dish:101:", "1"));
+    when(catalogIndexService.getDish(100L)).thenReturn(item(100L, "宫保鸡丁", "38"));
+    when(catalogIndexService.getSetmeal(200L)).thenReturn(item(200L, "豪华套餐", "88"));
+
+    List<ShoppingCart> carts;
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      carts = shoppingCartService.showShoppingCart();
+    }
+
+    // 菜品 101 已不在目录中，不返回
+    assertEquals(2, carts.size());
+    ShoppingCart dish = carts.get(0);
+    assertEquals(100L, dish.getDishId());
+    assertEquals("微辣", dish.getDishFlavor());
+    assertEquals(3, dish.getNumber());
+    assertEquals("宫保鸡丁", dish.getName());
+    assertEquals(new BigDecimal("38"), dish.getAmount());
+    assertEquals(888L, dish.getUserId());
+    ShoppingCart setmeal = carts.get(1);
+    assertEquals(200L, setmeal.getSetmealId());
+    assertNull(setmeal.getDishFlavor());
+    assertEquals(1, setmeal.getNumber());
+  }
+
+  @Test
+  void cleanShoppingCartDeletesHash() {
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      shoppingCartService.cleanShoppingCart();
+    }
+
+    verify(redisTemplateStringString).delete("shopping_cart:888");
+  }
+
+  private CatalogItem item(Long id, String name, String price) {
+    return new CatalogItem(id, name, id + ".jpg", new BigDecimal(price), 1);
+  }
+}
@@ -3,6 +3,7 @@ package dev.kaiwen.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.verify;
@@ -13,32 +14,42 @@ import ch.qos.logback.classic.Logger;
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import dev.kaiwen.entity.DailyBusinessStats;
 import dev.kaiwen.entity.OrderDetail;
 import dev.kaiwen.entity.Orders;
 import dev.kaiwen.entity.User;
 import dev.kaiwen.mapper.OrderDetailMapper;
 import dev.kaiwen.mapper.OrderMapper;
 import dev.kaiwen.mapper.UserMapper;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.vo.OrderReportVo;
 import dev.kaiwen.vo.SalesTop10ReportVo;
 import dev.kaiwen.vo.TurnoverReportVo;
 import dev.kaiwen.vo.UserReportVo;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
@@ -63,6 +74,9 @@ class ReportServiceImplTest {
   @Mock
   private OrderDetailMapper orderDetailMapper;
 
+  @Mock
+  private DailyBusinessStatsService dailyBusinessStatsService;
+
   @Captor
   private ArgumentCaptor<LambdaQueryWrapper<Orders>> ordersWrapperCaptor;
 
@@ -95,97 +109,148 @@ class ReportServiceImplTest {
     action.run();
   }
 
+  private DailyBusinessStats dailyStats(LocalDate date, String turnover, int totalOrders,
+      int validOrders, int newUsers) {
+    return DailyBusinessStats.builder()
+        .statDate(date)
+        .turnover(turnover != null ? new BigDecimal(turnover) : null)
+        .totalOrders(totalOrders)
+        .validOrders(validOrders)
+        .cancelledOrders(0)
+        .newUsers(newUsers)
+        .build();
+  }
+
   @Test
   void getTurnoverStatisticsSuccess() {
-    // 1. 准备测试数据
-    Orders order1 = new Orders();
-    order1.setOrderTime(LocalDateTime.now().minusDays(1));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(LocalDateTime.now());
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
+    LocalDate end = LocalDate.of(2024, 3, 3);
+    LocalDate begin = end.minusDays(2);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin, "100.50", 2, 2, 0),
+        dailyStats(end, "200.00", 1, 1, 0)));
 
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
+    TurnoverReportVo result = reportService.getTurnoverStatistics(begin, end);
 
-    // 3. 执行测试
+    assertEquals("2024-03-01,2024-03-02,2024-03-03", result.getDateList());
+    assertEquals("100.50,0.00,200.00", result.getTurnoverList());
+  }
+
+  @Test
+  void getTurnoverStatisticsWithNullAmount() {
+    LocalDate date = LocalDate.of(2024, 3, 3);
+    when(dailyBusinessStatsService.listByDateRange(date, date))
+        .thenReturn(List.of(dailyStats(date, null, 1, 1, 0)));
+
+    TurnoverReportVo result = reportService.getTurnoverStatistics(date, date);
+
+    // 金额为 null 时应该被处理为 0
+    assertEquals("0.00", result.getTurnoverList());
+  }
+
+  @Test
+  void getTurnoverStatisticsWithEmptyStats() {
     LocalDate begin = LocalDate.now().minusDays(7);
     LocalDate end = LocalDate.now();
+    when(dailyBusinessStatsService.listByDateRange(begin, end))
+        .thenReturn(Collections.emptyList());
+
     TurnoverReportVo result = reportService.getTurnoverStatistics(begin, end);
 
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getTurnoverList());
+    // 应该返回 8 天的数据（7天前到今天，共8天），营业额都为 0
+    assertEquals(8, result.getDateList().split(",").length);
+    assertEquals(String.join(",", Collections.nCopies(8, "0.00")), result.getTurnoverList());
+  }
 
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-    LambdaQueryWrapper<Orders> capturedWrapper = ordersWrapperCaptor.getValue();
-    assertNotNull(capturedWrapper);
+  @Test
+  void getTurnoverStatisticsIgnoresRowsOutOfRange() {
+    LocalDate date = LocalDate.of(2024, 3, 3);
+    when(dailyBusinessStatsService.listByDateRange(date, date)).thenReturn(List.of(
+        dailyStats(date.minusDays(1), "10.00", 1, 1, 0),
+        dailyStats(null, "20.00", 1, 1, 0),
+        dailyStats(date, "300.00", 2, 2, 0)));
+
+    TurnoverReportVo result = reportService.getTurnoverStatistics(date, date);
+
+    assertEquals("2024-03-03", result.getDateList());
+    assertEquals("300.00", result.getTurnoverList());
   }
 
   @Test
   void getUserStatisticsSuccess() {
-    // 1. 准备测试数据
-    User user1 = new User();
-    user1.setCreateTime(LocalDateTime.now().minusDays(1));
-    User user2 = new User();
-    user2.setCreateTime(LocalDateTime.now());
-    List<User> userList = List.of(user1, user2);
+    LocalDate end = LocalDate.of(2024, 3, 3);
+    LocalDate begin = end.minusDays(2);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin, "0", 0, 0, 1),
+        dailyStats(end, "0", 0, 0, 3)));
+    when(userMapper.selectCount(any())).thenReturn(50L);
 
-    // 2. Mock 依赖行为
-    when(userMapper.selectList(any())).thenReturn(userList);
-    when(userMapper.selectCount(any())).thenReturn(100L);
+    UserReportVo result = reportService.getUserStatistics(begin, end);
 
-    // 3. 执行测试
+    assertEquals("2024-03-01,2024-03-02,2024-03-03", result.getDateList());
+    assertEquals("1,0,3", result.getNewUserList());
+    assertEquals("51,51,54", result.getTotalUserList());
+    verify(userMapper).selectCount(userWrapperCaptor.capture());
+  }
+
+  @Test
+  void getUserStatisticsWithEmptyStats() {
     LocalDate begin = LocalDate.now().minusDays(7);
     LocalDate end = LocalDate.now();
-    UserReportVo result = reportService.getUserStatistics(begin, end);
+    when(dailyBusinessStatsService.listByDateRange(begin, end))
+        .thenReturn(Collections.emptyList());
+    when(userMapper.selectCount(any())).thenReturn(0L);
 
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getNewUserList());
-    assertNotNull(result.getTotalUserList());
+    UserReportVo result = reportService.getUserStatistics(begin, end);
 
-    // 5. 验证方法调用
-    verify(userMapper).selectList(userWrapperCaptor.capture());
-    verify(userMapper).selectCount(userWrapperCaptor.capture());
+    // 应该返回 8 天的数据，新增用户都为 0，总用户数都为基准数（0）
+    assertEquals(String.join(",", Collections.nCopies(8, "0")), result.getNewUserList());
+    assertEquals(String.join(",", Collections.nCopies(8, "0")), result.getTotalUserList());
   }
 
   @Test
   void getOrderStatisticsSuccess() {
-    // 1. 准备测试数据
-    Orders order1 = new Orders();
-    order1.setOrderTime(LocalDateTime.now().minusDays(1));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(LocalDateTime.now());
-    order2.setStatus(Orders.PENDING_PAYMENT);
-    List<Orders> ordersList = List.of(order1, order2);
+    LocalDate end = LocalDate.of(2024, 3, 3);
+    LocalDate begin = end.minusDays(1);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin, "10.00", 3, 1, 0),
+        dailyStats(end, "20.00", 1, 1, 0)));
 
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
+    OrderReportVo result = reportService.getOrderStatistics(begin, end);
 
-    // 3. 执行测试
+    assertEquals("2024-03-02,2024-03-03", result.getDateList());
+    assertEquals("3,1", result.getOrderCountList());
+    assertEquals("1,1", result.getValidOrderCountList());
+    assertEquals(4, result.getTotalOrderCount());
+    assertEquals(2, result.getValidOrderCount());
+    assertEquals(0.5, result.getOrderCompletionRate());
+  }
+
+  @Test
+  void getOrderStatisticsWithEmptyStats() {
     LocalDate begin = LocalDate.now().minusDays(7);
     LocalDate end = LocalDate.now();
+    when(dailyBusinessStatsService.listByDateRange(begin, end))
+        .thenReturn(Collections.emptyList());
+
     OrderReportVo result = reportService.getOrderStatistics(begin, end);
 
-    // 4. 验证结果
-    assertNotNull(result);
-    assertEquals(2, result.getTotalOrderCount());
-    assertEquals(1, result.getValidOrderCount());
-    assertEquals(0.5, result.getOrderCompletionRate());
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getOrderCountList());
-    assertNotNull(result.getValidOrderCountList());
+    assertEquals(0, result.getTotalOrderCount());
+    assertEquals(0, result.getValidOrderCount());
+    assertEquals(0.0, result.getOrderCompletionRate());
+    assertEquals(String.join(",", Collections.nCopies(8, "0")), result.getOrderCountList());
+  }
 
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
+  @Test
+  void getOrderStatisticsWithNoCompletedOrders() {
+    LocalDate date = LocalDate.of(2024, 3, 3);
+    when(dailyBusinessStatsService.listByDateRange(date, date))
+        .thenReturn(List.of(dailyStats(date, "0", 2, 0, 0)));
+
+    OrderReportVo result = reportService.getOrderStatistics(date, date);
+
+    assertEquals(2, result.getTotalOrderCount());
+    assertEquals(0, result.getValidOrderCount());
+    assertEquals(0.0, result.getOrderCompletionRate());
   }
 
   @Test
@@ -322,229 +387,6 @@ class ReportServiceImplTest {
     assertEquals("查询日期范围不能超过1年", exception.getMessage());
   }
 
-  @Test
-  void getTurnoverStatisticsWithNullAmount() {
-    // 测试场景：订单金额为 null 的情况
-    // 1. 准备测试数据
-    Orders order1 = new Orders();
-    order1.setOrderTime(LocalDateTime.now());
-    order1.setAmount(null); // 金额为 null
-    order1.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(1);
-    LocalDate end = LocalDate.now();
-    TurnoverReportVo result = reportService.getTurnoverStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getTurnoverList());
-    // 金额为 null 时应该被处理为 0
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
-  @Test
-  void getTurnoverStatisticsWithEmptyOrders() {
-    // 测试场景：空订单列表
-    // 1. 准备测试数据
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(7);
-    LocalDate end = LocalDate.now();
-    TurnoverReportVo result = reportService.getTurnoverStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getTurnoverList());
-    // 应该返回 8 天的数据（7天前到今天，共8天），营业额都为 0
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
-  @Test
-  void getTurnoverStatisticsWithSameDate() {
-    // 测试场景：开始日期和结束日期相同
-    // 1. 准备测试数据
-    LocalDate date = LocalDate.now();
-
-    Orders order1 = new Orders();
-    order1.setOrderTime(date.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(date.atTime(LocalTime.of(18, 0)));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    // 3. 执行测试
-    TurnoverReportVo result = reportService.getTurnoverStatistics(date, date);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getTurnoverList());
-    // 应该返回 1 天的数据，营业额为 300.0
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
-  @Test
-  void getUserStatisticsWithEmptyUsers() {
-    // 测试场景：空用户列表
-    // 1. 准备测试数据
-    // 2. Mock 依赖行为
-    when(userMapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(userMapper.selectCount(any())).thenReturn(0L);
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(7);
-    LocalDate end = LocalDate.now();
-    UserReportVo result = reportService.getUserStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getNewUserList());
-    assertNotNull(result.getTotalUserList());
-    // 应该返回 8 天的数据，新增用户都为 0，总用户数都为基准数（0）
-
-    // 5. 验证方法调用
-    verify(userMapper).selectList(userWrapperCaptor.capture());
-    verify(userMapper).selectCount(userWrapperCaptor.capture());
-  }
-
-  @Test
-  void getUserStatisticsWithBaseUserCount() {
-    // 测试场景：有基准用户数的情况
-    // 1. 准备测试数据
-    LocalDate begin = LocalDate.now().minusDays(2);
-    LocalDate end = LocalDate.now();
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    User user2 = new User();
-    user2.setCreateTime(end.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1, user2);
-
-    // 2. Mock 依赖行为
-    when(userMapper.selectList(any())).thenReturn(userList);
-    when(userMapper.selectCount(any())).thenReturn(50L); // 基准用户数为 50
-
-    // 3. 执行测试
-    UserReportVo result = reportService.getUserStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getNewUserList());
-    assertNotNull(result.getTotalUserList());
-    // 第一天新增 1 个，总数为 51；第二天新增 0 个，总数为 51；第三天新增 1 个，总数为 52
-
-    // 5. 验证方法调用
-    verify(userMapper).selectList(userWrapperCaptor.capture());
-    verify(userMapper).selectCount(userWrapperCaptor.capture());
-  }
-
-  @Test
-  void getOrderStatisticsWithEmptyOrders() {
-    // 测试场景：空订单列表
-    // 1. 准备测试数据
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(7);
-    LocalDate end = LocalDate.now();
-    OrderReportVo result = reportService.getOrderStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertEquals(0, result.getTotalOrderCount());
-    assertEquals(0, result.getValidOrderCount());
-    assertEquals(0.0, result.getOrderCompletionRate());
-    assertNotNull(result.getDateList());
-    assertNotNull(result.getOrderCountList());
-    assertNotNull(result.getValidOrderCountList());
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
-  @Test
-  void getOrderStatisticsWithAllCompletedOrders() {
-    // 测试场景：所有订单都是已完成状态
-    // 1. 准备测试数据
-    Orders order1 = new Orders();
-    order1.setOrderTime(LocalDateTime.now().minusDays(1));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(LocalDateTime.now());
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(1);
-    LocalDate end = LocalDate.now();
-    OrderReportVo result = reportService.getOrderStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertEquals(2, result.getTotalOrderCount());
-    assertEquals(2, result.getValidOrderCount());
-    assertEquals(1.0, result.getOrderCompletionRate());
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
-  @Test
-  void getOrderStatisticsWithNoCompletedOrders() {
-    // 测试场景：没有已完成订单
-    // 1. 准备测试数据
-    Orders order1 = new Orders();
-    order1.setOrderTime(LocalDateTime.now().minusDays(1));
-    order1.setStatus(Orders.PENDING_PAYMENT);
-    Orders order2 = new Orders();
-    order2.setOrderTime(LocalDateTime.now());
-    order2.setStatus(Orders.CANCELLED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    // 3. 执行测试
-    LocalDate begin = LocalDate.now().minusDays(1);
-    LocalDate end = LocalDate.now();
-    OrderReportVo result = reportService.getOrderStatistics(begin, end);
-
-    // 4. 验证结果
-    assertNotNull(result);
-    assertEquals(2, result.getTotalOrderCount());
-    assertEquals(0, result.getValidOrderCount());
-    assertEquals(0.0, result.getOrderCompletionRate());
-
-    // 5. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-  }
-
   @Test
   void getSalesTop10WithMoreThan10Items() {
     // 测试场景：超过 10 个商品的情况
@@ -680,576 +522,6 @@ class ReportServiceImplTest {
     verify(orderDetailMapper).selectList(orderDetailWrapperCaptor.capture());
   }
 
-  @Test
-  void exportBusinessDataSuccess() {
-    // 测试场景：导出业务数据 Excel
-    // 注意：这个测试需要实际的模板文件 template/model.xlsx 存在
-    // 如果模板文件不存在，会抛出 IllegalStateException，这是预期的
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(end.atTime(LocalTime.NOON));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.PENDING_PAYMENT);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    User user2 = new User();
-    user2.setCreateTime(end.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1, user2);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0; // Excel 文件应该有内容
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      // 如果模板文件不存在，会抛出异常，这是预期的
-      // 在实际环境中，模板文件应该存在
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithEmptyData() {
-    // 测试场景：导出业务数据，但没有数据
-    // 1. Mock 依赖行为 - 返回空列表
-    when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(userMapper.selectList(any())).thenReturn(Collections.emptyList());
-
-    // 2. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 3. 验证结果
-      assertNotNull(result);
-      assert result.length > 0; // Excel 文件应该有内容（即使没有数据）
-
-      // 4. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      // 如果模板文件不存在，会抛出异常
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithOrderAmountNull() {
-    // 测试场景：导出业务数据，订单金额为 null
-    // 覆盖：aggregateOrderData 方法中 order.getAmount() != null 的 else 分支（Line 368）
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(null); // 金额为 null
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(end.atTime(LocalTime.NOON));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithNonCompletedOrders() {
-    // 测试场景：导出业务数据，包含非已完成订单
-    // 覆盖：aggregateOrderData 方法中 Orders.COMPLETED.equals(order.getStatus()) 的 else 分支（Line 371）
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED); // 已完成订单
-    Orders order2 = new Orders();
-    order2.setOrderTime(end.atTime(LocalTime.NOON));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.PENDING_PAYMENT); // 待支付订单（非已完成）
-    Orders order3 = new Orders();
-    order3.setOrderTime(end.atTime(LocalTime.of(18, 0)));
-    order3.setAmount(BigDecimal.valueOf(150.0));
-    order3.setStatus(Orders.CANCELLED); // 已取消订单（非已完成）
-    List<Orders> ordersList = List.of(order1, order2, order3);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 应该统计：总订单数 3，有效订单数 1（只有 order1 是 COMPLETED）
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithMultipleOrdersSameDate() {
-    // 测试场景：导出业务数据，同一天有多个订单
-    // 覆盖：aggregateOrderData 方法中的聚合逻辑（Line 367, 369, 372）
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-    LocalDate testDate = begin.plusDays(5); // 选择中间某一天
-
-    // 同一天有多个订单
-    Orders order1 = new Orders();
-    order1.setOrderTime(testDate.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(testDate.atTime(LocalTime.of(18, 0)));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.COMPLETED);
-    Orders order3 = new Orders();
-    order3.setOrderTime(testDate.atTime(LocalTime.of(20, 0)));
-    order3.setAmount(BigDecimal.valueOf(150.0));
-    order3.setStatus(Orders.PENDING_PAYMENT); // 非已完成
-    List<Orders> ordersList = List.of(order1, order2, order3);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(testDate.atTime(LocalTime.NOON));
-    User user2 = new User();
-    user2.setCreateTime(testDate.atTime(LocalTime.of(19, 0)));
-    List<User> userList = List.of(user1, user2);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithOrderDateNotInRange() {
-    // 测试场景：导出业务数据，订单日期不在 dailyDataMap 中
-    // 覆盖：aggregateOrderData 方法中 data != null 的 else 分支（Line 366）
-    // 注意：由于 exportBusinessData 会初始化所有30天的数据，这个场景实际上不会发生
-    // 但我们可以测试边界情况：订单日期正好在范围边界
-    // 1. 准备测试数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    // 订单日期正好在开始日期的开始时刻
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atStartOfDay());
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    // 订单日期正好在结束日期的结束时刻
-    Orders order2 = new Orders();
-    order2.setOrderTime(end.atTime(LocalTime.MAX));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(begin.atStartOfDay());
-    User user2 = new User();
-    user2.setCreateTime(end.atTime(LocalTime.MAX));
-    List<User> userList = List.of(user1, user2);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithZeroOrders() {
-    // 测试场景：导出业务数据，某天订单数为 0
-    // 覆盖：fillDetailData 方法中 data.totalOrders > 0 的 else 分支（Line 497）
-    // 覆盖：calculateOverviewStatistics 方法中 overview.totalOrders > 0 的 else 分支（Line 422）
-    // 1. 准备测试数据 - 最近30天的数据，但没有订单
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    // 只有用户，没有订单
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 所有天的 totalOrders 都为 0，orderCompletionRate 应该为 0.0
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithZeroValidOrders() {
-    // 测试场景：导出业务数据，某天有效订单数为 0（所有订单都未完成）
-    // 覆盖：fillDetailData 方法中 data.validOrders > 0 的 else 分支（Line 498）
-    // 覆盖：calculateOverviewStatistics 方法中 overview.totalValidOrders > 0 的 else 分支（Line 423）
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-    LocalDate testDate = begin.plusDays(10);
-
-    // 所有订单都是非已完成状态
-    Orders order1 = new Orders();
-    order1.setOrderTime(testDate.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.PENDING_PAYMENT);
-    Orders order2 = new Orders();
-    order2.setOrderTime(testDate.atTime(LocalTime.of(18, 0)));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.CANCELLED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(testDate.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // testDate 这一天：totalOrders = 2, validOrders = 0
-      // dailyUnitPrice 应该为 0.0（因为 validOrders = 0）
-      // 总体：totalValidOrders = 0, unitPrice 应该为 0.0
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithMixedData() {
-    // 测试场景：导出业务数据，包含各种混合情况
-    // 覆盖：fillDetailData 和 fillOverviewData 的各种分支
-    // 覆盖：getOrCreateRow 和 setCellValue 方法（创建新行和新单元格）
-    // 1. 准备测试数据 - 最近30天的数据，包含各种情况
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    // 第一天：有已完成订单
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-
-    // 中间某天：有订单但未完成
-    LocalDate midDate = begin.plusDays(15);
-    Orders order2 = new Orders();
-    order2.setOrderTime(midDate.atTime(LocalTime.NOON));
-    order2.setAmount(BigDecimal.valueOf(200.0));
-    order2.setStatus(Orders.PENDING_PAYMENT);
-
-    // 最后一天：有多个订单，部分完成
-    Orders order3 = new Orders();
-    order3.setOrderTime(end.atTime(LocalTime.NOON));
-    order3.setAmount(BigDecimal.valueOf(150.0));
-    order3.setStatus(Orders.COMPLETED);
-    Orders order4 = new Orders();
-    order4.setOrderTime(end.atTime(LocalTime.of(18, 0)));
-    order4.setAmount(BigDecimal.valueOf(250.0));
-    order4.setStatus(Orders.COMPLETED);
-
-    List<Orders> ordersList = List.of(order1, order2, order3, order4);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    // 用户分布在不同日期
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    User user2 = new User();
-    user2.setCreateTime(midDate.atTime(LocalTime.NOON));
-    User user3 = new User();
-    user3.setCreateTime(end.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1, user2, user3);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 验证各种数据组合都能正确处理
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithLargeAmounts() {
-    // 测试场景：导出业务数据，包含大金额订单
-    // 覆盖：fillOverviewData 和 fillDetailData 中的金额格式化逻辑
-    // 1. 准备测试数据 - 最近30天的数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    // 大金额订单
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(99999.99));
-    order1.setStatus(Orders.COMPLETED);
-    Orders order2 = new Orders();
-    order2.setOrderTime(end.atTime(LocalTime.NOON));
-    order2.setAmount(BigDecimal.valueOf(123456.78));
-    order2.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1, order2);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
-
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 验证大金额能正确格式化和处理
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithAllDaysHaveData() {
-    // 测试场景：导出业务数据，30天每天都有数据
-    // 覆盖：fillDetailData 方法中的 while 循环，确保所有30天都被处理
-    // 1. 准备测试数据 - 最近30天的数据，每天都有订单和用户
-    LocalDate end = LocalDate.now();
-
-    // 为每一天创建订单和用户
-    LocalDate currentDate = end.minusDays(29);
-    int dayIndex = 0;
-    List<Orders> ordersList = new ArrayList<>();
-    List<User> userList = new ArrayList<>();
-    while (!currentDate.isAfter(end)) {
-      Orders order = new Orders();
-      order.setOrderTime(currentDate.atTime(LocalTime.NOON));
-      order.setAmount(BigDecimal.valueOf(100.0 + dayIndex));
-      order.setStatus(Orders.COMPLETED);
-      ordersList.add(order);
-
-      User user = new User();
-      user.setCreateTime(currentDate.atTime(LocalTime.NOON));
-      userList.add(user);
-
-      currentDate = currentDate.plusDays(1);
-      dayIndex++;
-    }
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
-    when(userMapper.selectList(any())).thenReturn(userList);
-
-    // 3. 执行测试
-    try {
-      byte[] result = reportService.exportBusinessData();
-
-      // 4. 验证结果
-      assertNotNull(result);
-      assert result.length > 0;
-      // 验证30天的数据都被正确处理
-
-      // 5. 验证方法调用
-      verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-      verify(userMapper).selectList(userWrapperCaptor.capture());
-    } catch (IllegalStateException e) {
-      assertEquals("导出Excel失败", e.getMessage());
-    }
-  }
-
-  @Test
-  void exportBusinessDataWithIoException() {
-    // 测试场景：导出业务数据时发生 IOException
-    // 覆盖：generateExcel 方法中的 IOException catch 块
-    // 1. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(userMapper.selectList(any())).thenReturn(Collections.emptyList());
-
-    try (MockedConstruction<ClassPathResource> mockedResource = mockConstruction(
-        ClassPathResource.class,
-        (mock, context) -> when(mock.getInputStream()).thenThrow(new IOException("io error")))) {
-      assertNotNull(mockedResource);
-
-      // 2. 执行测试并验证异常
-      withMutedReportLogger(() -> {
-        IllegalStateException exception = assertThrows(IllegalStateException.class,
-            () -> reportService.exportBusinessData());
-
-        // 3. 验证异常信息
-        assertEquals("导出Excel失败", exception.getMessage());
-        assertNotNull(exception.getCause());
-        assertEquals(IOException.class, exception.getCause().getClass());
-      });
-    }
-
-    // 4. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-    verify(userMapper).selectList(userWrapperCaptor.capture());
-  }
-
-  @Test
-  void exportBusinessDataIgnoreOutOfRangeData() {
-    // 测试场景：订单/用户日期不在统计范围内，aggregate 方法应忽略 data == null 的情况
-    // 1. 准备测试数据（超出统计范围）
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
-
-    Orders order = new Orders();
-    order.setOrderTime(begin.minusDays(1).atTime(LocalTime.NOON));
-    order.setAmount(BigDecimal.valueOf(100.0));
-    order.setStatus(Orders.COMPLETED);
-
-    User user = new User();
-    user.setCreateTime(end.plusDays(1).atTime(LocalTime.NOON));
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(List.of(order));
-    when(userMapper.selectList(any())).thenReturn(List.of(user));
-
-    try (MockedConstruction<ClassPathResource> mockedResource = mockConstruction(
-        ClassPathResource.class,
-        (mock, context) -> when(mock.getInputStream()).thenThrow(new IOException("io error")))) {
-      assertNotNull(mockedResource);
-
-      // 3. 执行测试并验证异常
-      withMutedReportLogger(() -> {
-        IllegalStateException exception = assertThrows(IllegalStateException.class,
-            () -> reportService.exportBusinessData());
-        assertEquals("导出Excel失败", exception.getMessage());
-        assertNotNull(exception.getCause());
-        assertEquals(IOException.class, exception.getCause().getClass());
-      });
-    }
-
-    // 4. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-    verify(userMapper).selectList(userWrapperCaptor.capture());
-  }
-
   @Test
   void getOrCreateRowCreatesWhenMissing() throws Exception {
     // 覆盖 getOrCreateRow 中 row == null 的分支
@@ -1310,95 +582,168 @@ class ReportServiceImplTest {
   }
 
   @Test
-  void exportBusinessDataWithIoExceptionOnWorkbookWrite() {
-    // 测试场景：导出业务数据时，在写入 workbook 时发生 IOException
-    // 覆盖：generateExcel 方法中的 IOException catch 块（Line 454-456）
-    // 注意：这个测试场景比较难模拟，因为 workbook.write() 通常不会失败
-    // 但我们可以通过使用一个无效的模板文件来触发可能的 IOException
-    // 1. 准备测试数据
+  void exportBusinessDataFillsTemplateFromDailyStats() throws Exception {
     LocalDate end = LocalDate.now();
     LocalDate begin = end.minusDays(29);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin, "100.00", 2, 1, 1),
+        dailyStats(end, "200.00", 2, 1, 1)));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    reportService.exportBusinessData(begin, end, out);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = workbook.getSheetAt(0);
+      // 概览：营业额、完成率、新增用户、有效订单、客单价
+      assertEquals("300.00", sheet.getRow(3).getCell(2).getStringCellValue());
+      assertEquals("50.00%", sheet.getRow(3).getCell(4).getStringCellValue());
+      assertEquals("2", sheet.getRow(3).getCell(6).getStringCellValue());
+      assertEquals("2", sheet.getRow(4).getCell(2).getStringCellValue());
+      assertEquals("150.00", sheet.getRow(4).getCell(4).getStringCellValue());
+      // 明细：第一天和最后一天有数据，中间日期为 0
+      assertEquals(begin.toString(), sheet.getRow(7).getCell(1).getStringCellValue());
+      assertEquals("100.00", sheet.getRow(7).getCell(2).getStringCellValue());
+      assertEquals("0.00", sheet.getRow(8).getCell(2).getStringCellValue());
+      assertEquals(end.toString(), sheet.getRow(36).getCell(1).getStringCellValue());
+      assertEquals("200.00", sheet.getRow(36).getCell(2).getStringCellValue());
+    }
+  }
 
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1);
-
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
+  @Test
+  void exportBusinessDataIgnoresStatsOutOfRange() throws Exception {
+    LocalDate end = LocalDate.now();
+    LocalDate begin = end.minusDays(29);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin.minusDays(1), "100.00", 1, 1, 1),
+        dailyStats(end, null, 1, 0, 0)));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    reportService.exportBusinessData(begin, end, out);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = workbook.getSheetAt(0);
+      assertEquals("0.00", sheet.getRow(3).getCell(2).getStringCellValue());
+      assertEquals("0", sheet.getRow(3).getCell(6).getStringCellValue());
+      assertEquals("0.00", sheet.getRow(4).getCell(4).getStringCellValue());
+    }
+  }
 
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
+  @Test
+  void exportBusinessDataStreamsRowsBeyondTemplate() throws Exception {
+    LocalDate begin = LocalDate.of(2024, 1, 1);
+    LocalDate end = LocalDate.of(2024, 3, 30);
+    when(dailyBusinessStatsService.listByDateRange(begin, end)).thenReturn(List.of(
+        dailyStats(begin, "100.00", 1, 1, 1),
+        dailyStats(end, "300.00", 3, 2, 2)));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    reportService.exportBusinessData(begin, end, out);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = workbook.getSheetAt(0);
+      assertEquals("400.00", sheet.getRow(3).getCell(2).getStringCellValue());
+      // 90 天明细：第 7 行开始，最后一行在模板之外
+      assertEquals(96, sheet.getLastRowNum());
+      assertEquals(begin.toString(), sheet.getRow(7).getCell(1).getStringCellValue());
+      assertEquals("2024-02-07", sheet.getRow(44).getCell(1).getStringCellValue());
+      assertEquals("0.00", sheet.getRow(44).getCell(2).getStringCellValue());
+      Row lastRow = sheet.getRow(96);
+      assertEquals(end.toString(), lastRow.getCell(1).getStringCellValue());
+      assertEquals("300.00", lastRow.getCell(2).getStringCellValue());
+      assertEquals("2", lastRow.getCell(3).getStringCellValue());
+      assertEquals("66.67%", lastRow.getCell(4).getStringCellValue());
+      assertEquals("150.00", lastRow.getCell(5).getStringCellValue());
+      assertEquals("2", lastRow.getCell(6).getStringCellValue());
+      // 模板外的行沿用模板明细行的样式
+      assertEquals(sheet.getRow(36).getCell(2).getCellStyle().getIndex(),
+          lastRow.getCell(2).getCellStyle().getIndex());
+    }
+  }
 
-    when(userMapper.selectList(any())).thenReturn(userList);
+  @Test
+  void exportBusinessDataLoadsTemplateOnce() {
+    LocalDate begin = LocalDate.of(2024, 1, 1);
+    LocalDate end = LocalDate.of(2024, 1, 30);
+    when(dailyBusinessStatsService.listByDateRange(begin, end))
+        .thenReturn(Collections.emptyList());
 
-    // 3. 执行测试
-    // 如果模板文件不存在或损坏，会在读取模板或写入 workbook 时抛出 IOException
-    try {
-      byte[] result = reportService.exportBusinessData();
-      // 如果成功，说明模板文件存在且正常
-      assertNotNull(result);
-    } catch (IllegalStateException e) {
-      // 如果抛出异常，验证异常处理逻辑
-      assertNotNull(e);
-      assertEquals("导出Excel失败", e.getMessage());
-      // 验证原始异常是 IOException
-      assertNotNull(e.getCause());
-      assertEquals(IOException.class, e.getCause().getClass());
+    try (MockedConstruction<ClassPathResource> mockedResource = mockConstruction(
+        ClassPathResource.class, (mock, context) -> when(mock.getInputStream())
+            .thenAnswer(invocation -> getClass().getClassLoader()
+                .getResourceAsStream("template/model.xlsx")))) {
+      ByteArrayOutputStream first = new ByteArrayOutputStream();
+      ByteArrayOutputStream second = new ByteArrayOutputStream();
+      reportService.exportBusinessData(begin, end, first);
+      reportService.exportBusinessData(begin, end, second);
+
+      assertEquals(1, mockedResource.constructed().size());
+      assertTrue(first.size() > 0);
+      assertTrue(second.size() > 0);
     }
-
-    // 4. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-    verify(userMapper).selectList(userWrapperCaptor.capture());
   }
 
   @Test
-  void exportBusinessDataWithIoExceptionOnTemplateRead() {
-    // 测试场景：导出业务数据时，在读取模板文件时发生 IOException
-    // 覆盖：generateExcel 方法中 templateResource.getInputStream() 抛出 IOException 的情况
-    // 覆盖：IOException catch 块（Line 454-456）
-    // 注意：这个测试依赖于模板文件是否存在
-    // 如果模板文件不存在，会触发 IOException；如果存在，测试会成功执行
-    // 1. 准备测试数据
-    LocalDate end = LocalDate.now();
-    LocalDate begin = end.minusDays(29);
+  void exportBusinessDataWithIoException() {
+    when(dailyBusinessStatsService.listByDateRange(any(), any()))
+        .thenReturn(Collections.emptyList());
 
-    Orders order1 = new Orders();
-    order1.setOrderTime(begin.atTime(LocalTime.NOON));
-    order1.setAmount(BigDecimal.valueOf(100.0));
-    order1.setStatus(Orders.COMPLETED);
-    List<Orders> ordersList = List.of(order1);
+    try (MockedConstruction<ClassPathResource> mockedResource = mockConstruction(
+        ClassPathResource.class,
+        (mock, context) -> when(mock.getInputStream()).thenThrow(new IOException("io error")))) {
+      assertNotNull(mockedResource);
 
-    // 2. Mock 依赖行为
-    when(orderMapper.selectList(any())).thenReturn(ordersList);
+      withMutedReportLogger(() -> {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> reportService.exportBusinessData(LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 1, 30), new ByteArrayOutputStream()));
 
-    User user1 = new User();
-    user1.setCreateTime(begin.atTime(LocalTime.NOON));
-    List<User> userList = List.of(user1);
+        assertEquals("导出Excel失败", exception.getMessage());
+        assertEquals(IOException.class, exception.getCause().getClass());
+      });
+    }
+  }
 
-    when(userMapper.selectList(any())).thenReturn(userList);
+  @Test
+  void exportBusinessDataWithIoExceptionOnWorkbookWrite(@TempDir Path tempDir) throws Exception {
+    LocalDate begin = LocalDate.of(2024, 1, 1);
+    LocalDate end = LocalDate.of(2024, 1, 30);
+    when(dailyBusinessStatsService.listByDateRange(begin, end))
+        .thenReturn(Collections.emptyList());
+    OutputStream failingOut = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("broken pipe");
+      }
+    };
 
-    // 3. 执行测试
-    // 如果模板文件不存在，ClassPathResource.getInputStream() 会抛出 FileNotFoundException（IOException 的子类）
-    // IOException 会被 catch 块捕获，记录日志，然后转换为 IllegalStateException
-    try {
-      byte[] result = reportService.exportBusinessData();
-      // 如果模板文件存在，测试成功
-      assertNotNull(result);
-    } catch (IllegalStateException e) {
-      // 如果模板文件不存在，会抛出 IllegalStateException（包装了 IOException）
-      // 验证异常处理逻辑
-      assertNotNull(e);
-      assertEquals("导出Excel失败", e.getMessage());
-      // 验证原始异常是 IOException 或其子类（如 FileNotFoundException）
-      assertNotNull(e.getCause());
-      assert (e.getCause() instanceof IOException);
-    }
+    // SXSSF 的临时文件写到单独的目录，便于确认失败后已删除
+    TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(tempDir.toFile()));
+    try (MockedConstruction<ClassPathResource> mockedResource = mockConstruction(
+        ClassPathResource.class, (mock, context) -> when(mock.getInputStream())
+            .thenAnswer(invocation -> getClass().getClassLoader()
+                .getResourceAsStream("template/model.xlsx")))) {
+      withMutedReportLogger(() -> {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> reportService.exportBusinessData(begin, end, failingOut));
 
-    // 4. 验证方法调用
-    verify(orderMapper).selectList(ordersWrapperCaptor.capture());
-    verify(userMapper).selectList(userWrapperCaptor.capture());
+        assertEquals("导出Excel失败", exception.getMessage());
+        assertEquals(IOException.class, exception.getCause().getClass());
+      });
+      try (Stream<Path> files = Files.walk(tempDir)) {
+        assertTrue(files.noneMatch(Files::isRegularFile));
+      }
+
+      // 写入失败不影响模板缓存，下一次导出直接使用缓存的模板
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      reportService.exportBusinessData(begin, end, out);
+
+      assertEquals(1, mockedResource.constructed().size());
+      try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+        assertEquals(begin.toString(), workbook.getSheetAt(0).getRow(7).getCell(1)
+            .getStringCellValue());
+      }
+    } finally {
+      TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+    }
   }
 }
@@ -24,6 +24,7 @@ import dev.kaiwen.dto.SetmealPageQueryDto;
 import dev.kaiwen.entity.Dish;
 import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.entity.SetmealDish;
+import dev.kaiwen.event.MenuChangedEvent;
 import dev.kaiwen.exception.DeletionNotAllowedException;
 import dev.kaiwen.exception.SetmealEnableFailedException;
 import dev.kaiwen.mapper.DishMapper;
@@ -48,6 +49,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
@@ -74,12 +76,18 @@ class SetmealServiceImplTest {
   @Mock
   private DishMapper dishMapper;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Captor
   private ArgumentCaptor<List<SetmealDish>> setmealDishCaptor;
 
   @Captor
   private ArgumentCaptor<LambdaQueryWrapper<Setmeal>> setmealWrapperCaptor;
 
+  @Captor
+  private ArgumentCaptor<MenuChangedEvent> eventCaptor;
+
   @BeforeEach
   void setUp() {
     MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
@@ -414,6 +422,8 @@ class SetmealServiceImplTest {
 
     verify(setmealDishMapper).delete(any());
     verify(mapper).deleteByIds(List.of(7L, 8L));
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertEquals(MenuChangedEvent.SETMEAL, eventCaptor.getValue().getSource());
   }
 
   @Test
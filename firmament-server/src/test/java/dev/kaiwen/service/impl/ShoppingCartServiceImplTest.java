@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,13 +15,11 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import dev.kaiwen.context.BaseContext;
 import dev.kaiwen.dto.ShoppingCartDto;
-import dev.kaiwen.entity.Dish;
-import dev.kaiwen.entity.Setmeal;
 import dev.kaiwen.entity.ShoppingCart;
 import dev.kaiwen.exception.ShoppingCartBusinessException;
 import dev.kaiwen.mapper.ShoppingCartMapper;
-import dev.kaiwen.service.DishService;
-import dev.kaiwen.service.SetmealService;
+import dev.kaiwen.service.CatalogIndexService;
+import dev.kaiwen.service.CatalogIndexService.CatalogItem;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
@@ -45,10 +45,7 @@ class ShoppingCartServiceImplTest {
   private ShoppingCartMapper mapper;
 
   @Mock
-  private SetmealService setmealService;
-
-  @Mock
-  private DishService dishService;
+  private CatalogIndexService catalogIndexService;
 
   @Captor
   private ArgumentCaptor<ShoppingCart> shoppingCartCaptor;
@@ -56,6 +53,9 @@ class ShoppingCartServiceImplTest {
   @Captor
   private ArgumentCaptor<LambdaQueryWrapper<ShoppingCart>> wrapperCaptor;
 
+  @Captor
+  private ArgumentCaptor<List<ShoppingCart>> shoppingCartListCaptor;
+
   @BeforeEach
   void setUp() {
     MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
@@ -64,21 +64,18 @@ class ShoppingCartServiceImplTest {
   }
 
   @Test
-  void addShoppingCartWithExistingItem() {
-    // 测试场景：购物车中已存在该商品，需要更新数量
+  void addShoppingCartWithDishUpsertsOneItem() {
+    // 测试场景：添加菜品，直接 upsert 数量为 1 的条目，不再先查询购物车
     // 1. 准备测试数据
     ShoppingCartDto dto = new ShoppingCartDto();
     dto.setDishId(100L);
+    dto.setDishFlavor("微辣");
 
-    ShoppingCart existingCart = new ShoppingCart();
-    existingCart.setId(1L);
-    existingCart.setDishId(100L);
-    existingCart.setNumber(2);
-    List<ShoppingCart> existingList = Collections.singletonList(existingCart);
+    CatalogItem dish = new CatalogItem(100L, "宫保鸡丁", "image.jpg",
+        BigDecimal.valueOf(38.0), 1);
 
     // 2. Mock 依赖行为
-    when(mapper.selectList(any())).thenReturn(existingList);
-    when(mapper.updateById(any(ShoppingCart.class))).thenReturn(1);
+    when(catalogIndexService.getDish(100L)).thenReturn(dish);
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
@@ -87,31 +84,34 @@ class ShoppingCartServiceImplTest {
       shoppingCartService.addShoppingCart(dto);
 
       // 4. 验证方法调用
-      verify(mapper).selectList(wrapperCaptor.capture());
-      verify(mapper).updateById(shoppingCartCaptor.capture());
-      ShoppingCart updatedCart = shoppingCartCaptor.getValue();
-      assertEquals(3, updatedCart.getNumber()); // 2 + 1 = 3
-      assertEquals(1L, updatedCart.getId());
-      assertEquals(100L, updatedCart.getDishId());
+      verify(mapper).upsertBatch(shoppingCartListCaptor.capture());
+      verify(mapper, never()).selectList(any());
+      List<ShoppingCart> carts = shoppingCartListCaptor.getValue();
+      assertEquals(1, carts.size());
+      ShoppingCart savedCart = carts.get(0);
+      assertEquals(100L, savedCart.getDishId());
+      assertEquals("微辣", savedCart.getDishFlavor());
+      assertEquals("宫保鸡丁", savedCart.getName());
+      assertEquals("image.jpg", savedCart.getImage());
+      assertEquals(BigDecimal.valueOf(38.0), savedCart.getAmount());
+      assertEquals(1, savedCart.getNumber());
+      assertEquals(888L, savedCart.getUserId());
+      assertNotNull(savedCart.getCreateTime());
     }
   }
 
   @Test
-  void addShoppingCartWithExistingSetmeal() {
-    // 测试场景：购物车中已存在套餐商品，需要更新数量
+  void addShoppingCartWithSetmealUpsertsOneItem() {
+    // 测试场景：添加套餐，直接 upsert 数量为 1 的条目
     // 1. 准备测试数据
     ShoppingCartDto dto = new ShoppingCartDto();
     dto.setSetmealId(200L);
 
-    ShoppingCart existingCart = new ShoppingCart();
-    existingCart.setId(2L);
-    existingCart.setSetmealId(200L);
-    existingCart.setNumber(1);
-    List<ShoppingCart> existingList = Collections.singletonList(existingCart);
+    CatalogItem setmeal = new CatalogItem(200L, "豪华套餐", "setmeal.jpg",
+        BigDecimal.valueOf(88.0), 1);
 
     // 2. Mock 依赖行为
-    when(mapper.selectList(any())).thenReturn(existingList);
-    when(mapper.updateById(any(ShoppingCart.class))).thenReturn(1);
+    when(catalogIndexService.getSetmeal(200L)).thenReturn(setmeal);
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
@@ -120,89 +120,109 @@ class ShoppingCartServiceImplTest {
       shoppingCartService.addShoppingCart(dto);
 
       // 4. 验证方法调用
-      verify(mapper).selectList(wrapperCaptor.capture());
-      verify(mapper).updateById(shoppingCartCaptor.capture());
-      ShoppingCart updatedCart = shoppingCartCaptor.getValue();
-      assertEquals(2, updatedCart.getNumber()); // 1 + 1 = 2
-      assertEquals(2L, updatedCart.getId());
-      assertEquals(200L, updatedCart.getSetmealId());
+      verify(mapper).upsertBatch(shoppingCartListCaptor.capture());
+      ShoppingCart savedCart = shoppingCartListCaptor.getValue().get(0);
+      assertEquals(200L, savedCart.getSetmealId());
+      assertEquals("豪华套餐", savedCart.getName());
+      assertEquals("setmeal.jpg", savedCart.getImage());
+      assertEquals(BigDecimal.valueOf(88.0), savedCart.getAmount());
+      assertEquals(1, savedCart.getNumber());
+      assertEquals(888L, savedCart.getUserId());
     }
   }
 
   @Test
-  void addShoppingCartWithNewDish() {
-    // 测试场景：添加新菜品到购物车，且菜品存在
-    // 1. 准备测试数据
+  void addShoppingCartTwiceSendsTwoIncrementsInsteadOfInsertingTwice() {
+    // 测试场景：重复点击添加，每次都是一条 upsert，数量由数据库累加，不会出现重复插入
     ShoppingCartDto dto = new ShoppingCartDto();
     dto.setDishId(100L);
 
-    Dish dish = new Dish();
-    dish.setId(100L);
-    dish.setName("宫保鸡丁");
-    dish.setImage("image.jpg");
-    dish.setPrice(BigDecimal.valueOf(38.0));
-
-    // 2. Mock 依赖行为 - 购物车中没有该商品
-    when(mapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(dishService.getById(100L)).thenReturn(dish);
-    when(mapper.insert(any(ShoppingCart.class))).thenReturn(1);
+    when(catalogIndexService.getDish(100L)).thenReturn(
+        new CatalogItem(100L, "宫保鸡丁", "image.jpg", BigDecimal.valueOf(38.0), 1));
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
 
-      // 3. 执行测试
+      shoppingCartService.addShoppingCart(dto);
       shoppingCartService.addShoppingCart(dto);
 
-      // 4. 验证方法调用
-      verify(mapper).selectList(wrapperCaptor.capture());
-      verify(dishService).getById(100L);
-      verify(mapper).insert(shoppingCartCaptor.capture());
-      ShoppingCart savedCart = shoppingCartCaptor.getValue();
-      assertEquals(100L, savedCart.getDishId());
-      assertEquals("宫保鸡丁", savedCart.getName());
-      assertEquals("image.jpg", savedCart.getImage());
-      assertEquals(BigDecimal.valueOf(38.0), savedCart.getAmount());
-      assertEquals(1, savedCart.getNumber());
-      assertEquals(888L, savedCart.getUserId());
+      verify(mapper, times(2)).upsertBatch(shoppingCartListCaptor.capture());
+      shoppingCartListCaptor.getAllValues()
+          .forEach(carts -> assertEquals(1, carts.get(0).getNumber()));
+      verify(mapper, never()).insert(any(ShoppingCart.class));
+      verify(mapper, never()).updateById(any(ShoppingCart.class));
     }
   }
 
   @Test
-  void addShoppingCartWithNewSetmeal() {
-    // 测试场景：添加新套餐到购物车，且套餐存在
-    // 1. 准备测试数据
-    ShoppingCartDto dto = new ShoppingCartDto();
-    dto.setSetmealId(200L);
+  void addShoppingCartItemsUpsertsAll() {
+    ShoppingCart cart = new ShoppingCart();
+    cart.setDishId(100L);
+    cart.setNumber(2);
+    List<ShoppingCart> carts = List.of(cart);
 
-    Setmeal setmeal = new Setmeal();
-    setmeal.setId(200L);
-    setmeal.setName("豪华套餐");
-    setmeal.setImage("setmeal.jpg");
-    setmeal.setPrice(BigDecimal.valueOf(88.0));
+    shoppingCartService.addShoppingCartItems(carts);
 
-    // 2. Mock 依赖行为 - 购物车中没有该商品
-    when(mapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(setmealService.getById(200L)).thenReturn(setmeal);
-    when(mapper.insert(any(ShoppingCart.class))).thenReturn(1);
+    verify(mapper).upsertBatch(carts);
+    assertNotNull(cart.getCreateTime());
+  }
+
+  @Test
+  void addShoppingCartBatchMergesItemsIntoOneUpsert() {
+    ShoppingCartDto dish = new ShoppingCartDto();
+    dish.setDishId(100L);
+    dish.setDishFlavor("微辣");
+    dish.setNumber(2);
+    ShoppingCartDto sameDish = new ShoppingCartDto();
+    sameDish.setDishId(100L);
+    sameDish.setDishFlavor("微辣");
+    ShoppingCartDto setmeal = new ShoppingCartDto();
+    setmeal.setSetmealId(200L);
+    setmeal.setNumber(3);
+
+    when(catalogIndexService.getDish(100L)).thenReturn(
+        new CatalogItem(100L, "宫保鸡丁", "image.jpg", BigDecimal.valueOf(38.0), 1));
+    when(catalogIndexService.getSetmeal(200L)).thenReturn(
+        new CatalogItem(200L, "豪华套餐", "setmeal.jpg", BigDecimal.valueOf(88.0), 1));
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
 
-      // 3. 执行测试
-      shoppingCartService.addShoppingCart(dto);
+      shoppingCartService.addShoppingCartBatch(List.of(dish, sameDish, setmeal));
+    }
 
-      // 4. 验证方法调用
-      verify(mapper).selectList(wrapperCaptor.capture());
-      verify(setmealService).getById(200L);
-      verify(mapper).insert(shoppingCartCaptor.capture());
-      ShoppingCart savedCart = shoppingCartCaptor.getValue();
-      assertEquals(200L, savedCart.getSetmealId());
-      assertEquals("豪华套餐", savedCart.getName());
-      assertEquals("setmeal.jpg", savedCart.getImage());
-      assertEquals(BigDecimal.valueOf(88.0), savedCart.getAmount());
-      assertEquals(1, savedCart.getNumber());
-      assertEquals(888L, savedCart.getUserId());
+    verify(mapper).upsertBatch(shoppingCartListCaptor.capture());
+    verify(mapper, never()).selectList(any());
+    List<ShoppingCart> saved = shoppingCartListCaptor.getValue();
+    assertEquals(2, saved.size());
+    assertEquals(100L, saved.get(0).getDishId());
+    assertEquals("微辣", saved.get(0).getDishFlavor());
+    assertEquals(3, saved.get(0).getNumber());
+    assertEquals("宫保鸡丁", saved.get(0).getName());
+    assertEquals(888L, saved.get(0).getUserId());
+    assertNotNull(saved.get(0).getCreateTime());
+    assertEquals(200L, saved.get(1).getSetmealId());
+    assertEquals(3, saved.get(1).getNumber());
+    assertEquals(BigDecimal.valueOf(88.0), saved.get(1).getAmount());
+  }
+
+  @Test
+  void addShoppingCartBatchRejectsNonPositiveNumber() {
+    ShoppingCartDto dto = new ShoppingCartDto();
+    dto.setDishId(100L);
+    dto.setNumber(0);
+    List<ShoppingCartDto> dtoList = List.of(dto);
+
+    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
+      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
+
+      ShoppingCartBusinessException exception = assertThrows(
+          ShoppingCartBusinessException.class,
+          () -> shoppingCartService.addShoppingCartBatch(dtoList));
+
+      assertEquals("商品数量必须大于0", exception.getMessage());
     }
+    verify(mapper, never()).upsertBatch(any());
   }
 
   @Test
@@ -326,9 +346,8 @@ class ShoppingCartServiceImplTest {
     ShoppingCartDto dto = new ShoppingCartDto();
     dto.setDishId(100L);
 
-    // 2. Mock 依赖行为 - 购物车中没有该商品，且查询不到菜品
-    when(mapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(dishService.getById(100L)).thenReturn(null); // 返回 null，模拟菜品不存在
+    // 2. Mock 依赖行为 - 查询不到菜品
+    when(catalogIndexService.getDish(100L)).thenReturn(null); // 返回 null，模拟菜品不存在
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
@@ -351,9 +370,8 @@ class ShoppingCartServiceImplTest {
     ShoppingCartDto dto = new ShoppingCartDto();
     dto.setSetmealId(200L);
 
-    // 2. Mock 依赖行为 - 购物车中没有该商品，且查询不到套餐
-    when(mapper.selectList(any())).thenReturn(Collections.emptyList());
-    when(setmealService.getById(200L)).thenReturn(null); // 返回 null，模拟套餐不存在
+    // 2. Mock 依赖行为 - 查询不到套餐
+    when(catalogIndexService.getSetmeal(200L)).thenReturn(null); // 返回 null，模拟套餐不存在
 
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
@@ -408,8 +426,8 @@ class ShoppingCartServiceImplTest {
     try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
       baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
 
-      // 3. 执行测试 - 通过调用 addShoppingCart 来间接测试 findShoppingCartByDto
-      shoppingCartService.addShoppingCart(dto);
+      // 3. 执行测试 - 通过调用 subShoppingCart 来间接测试 findShoppingCartByDto
+      shoppingCartService.subShoppingCart(dto);
 
       // 4. 验证方法调用 - 验证 wrapper 中包含了 dishFlavor 条件
       verify(mapper).selectList(wrapperCaptor.capture());
@@ -418,43 +436,6 @@ class ShoppingCartServiceImplTest {
     }
   }
 
-  @Test
-  void addShoppingCartWithNullList() {
-    // 测试场景：findShoppingCartByDto 返回 null，确保进入 else 块
-    // 覆盖：else 块（第11行）- 创建新购物车条目的逻辑
-    // 1. 准备测试数据
-    ShoppingCartDto dto = new ShoppingCartDto();
-    dto.setDishId(100L);
-
-    Dish dish = new Dish();
-    dish.setId(100L);
-    dish.setName("宫保鸡丁");
-    dish.setImage("image.jpg");
-    dish.setPrice(BigDecimal.valueOf(38.0));
-
-    // 2. Mock 依赖行为 - 返回 null 而不是空列表
-    when(mapper.selectList(any())).thenReturn(null);
-    when(dishService.getById(100L)).thenReturn(dish);
-    when(mapper.insert(any(ShoppingCart.class))).thenReturn(1);
-
-    try (MockedStatic<BaseContext> baseContext = mockStatic(BaseContext.class)) {
-      baseContext.when(BaseContext::getCurrentId).thenReturn(888L);
-
-      // 3. 执行测试
-      shoppingCartService.addShoppingCart(dto);
-
-      // 4. 验证方法调用 - 确保进入了 else 块
-      verify(mapper).selectList(wrapperCaptor.capture());
-      verify(dishService).getById(100L);
-      verify(mapper).insert(shoppingCartCaptor.capture());
-      ShoppingCart savedCart = shoppingCartCaptor.getValue();
-      assertEquals(100L, savedCart.getDishId());
-      assertEquals("宫保鸡丁", savedCart.getName());
-      assertEquals(1, savedCart.getNumber());
-      assertEquals(888L, savedCart.getUserId());
-    }
-  }
-
   @Test
   void addShoppingCartWithBothDishIdAndSetmealIdNull() {
     // 测试场景：dishId 和 setmealId 都为 null，应抛出异常
@@ -29,6 +29,7 @@ import dev.kaiwen.exception.LoginFailedException;
 import dev.kaiwen.exception.PasswordErrorException;
 import dev.kaiwen.mapper.UserMapper;
 import dev.kaiwen.properties.WeChatProperties;
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.utils.HttpClientUtil;
 import dev.kaiwen.utils.PasswordService;
 import dev.kaiwen.vo.UserInfoVo;
@@ -63,6 +64,9 @@ class UserServiceImplTest {
   @Mock
   private PasswordService passwordService;
 
+  @Mock
+  private DailyBusinessStatsService dailyBusinessStatsService;
+
   @Captor
   private ArgumentCaptor<User> userCaptor;
 
@@ -98,6 +102,7 @@ class UserServiceImplTest {
       assertNotNull(result);
       assertEquals("openid-1", result.getOpenid());
       verify(mapper).insert(userCaptor.capture());
+      verify(dailyBusinessStatsService).recordUserRegistered(result.getCreateTime());
     }
   }
 
@@ -123,6 +128,7 @@ class UserServiceImplTest {
 
       assertEquals(10L, result.getId());
       verify(mapper, never()).insert(any(User.class));
+      verify(dailyBusinessStatsService, never()).recordUserRegistered(any());
     }
   }
 
@@ -1,8 +1,13 @@
 package dev.kaiwen.task;
 
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import dev.kaiwen.service.DailyBusinessStatsService;
 import dev.kaiwen.service.OrderService;
+import dev.kaiwen.service.OrderStatusCounterService;
+import java.time.LocalDate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,11 +20,18 @@ class OrderTaskTest {
   @Mock
   private OrderService orderService;
 
+  @Mock
+  private DailyBusinessStatsService dailyBusinessStatsService;
+
+  @Mock
+  private OrderStatusCounterService orderStatusCounterService;
+
   private OrderTask orderTask;
 
   @BeforeEach
   void setUp() {
-    orderTask = new OrderTask(orderService);
+    orderTask = new OrderTask(orderService, dailyBusinessStatsService,
+        orderStatusCounterService);
   }
 
   @Test
@@ -28,9 +40,38 @@ class OrderTaskTest {
     verify(orderService).processTimeoutOrder();
   }
 
+  @Test
+  void processTimeoutQueueDrainsUntilBatchIsNotFull() {
+    when(orderService.processTimeoutQueue(OrderTask.TIMEOUT_BATCH_SIZE))
+        .thenReturn(OrderTask.TIMEOUT_BATCH_SIZE, OrderTask.TIMEOUT_BATCH_SIZE, 3);
+
+    orderTask.processTimeoutQueue();
+
+    verify(orderService, times(3)).processTimeoutQueue(OrderTask.TIMEOUT_BATCH_SIZE);
+  }
+
   @Test
   void processDeliveryOrderInvokesService() {
     orderTask.processDeliveryOrder();
     verify(orderService).processDeliveryOrder();
   }
+
+  @Test
+  void flushDailyStatsWritesPendingDeltas() {
+    orderTask.flushDailyStats();
+    verify(dailyBusinessStatsService).flushPendingDeltas();
+  }
+
+  @Test
+  void finalizeDailyStatsRebuildsYesterday() {
+    orderTask.finalizeDailyStats();
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    verify(dailyBusinessStatsService).rebuild(yesterday, yesterday);
+  }
+
+  @Test
+  void reconcileOrderStatusCountersInvokesService() {
+    orderTask.reconcileOrderStatusCounters();
+    verify(orderStatusCounterService).reconcile();
+  }
 }
@@ -0,0 +1,109 @@
+package dev.kaiwen.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.JwtClaimsConstant;
+import dev.kaiwen.properties.JwtProperties;
+import dev.kaiwen.utils.JwtService;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerEndpointConfig;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class AdminHandshakeConfiguratorTest {
+
+  private static final String SECRET = "websocket-handshake-test-secret-key-0123456789";
+
+  @Mock
+  private ServerEndpointConfig endpointConfig;
+
+  @Mock
+  private HandshakeRequest request;
+
+  private final JwtService jwtService = new JwtService();
+
+  private final AdminHandshakeConfigurator configurator = new AdminHandshakeConfigurator();
+
+  private final Map<String, Object> userProperties = new HashMap<>();
+
+  private Level originalLevel;
+
+  @BeforeEach
+  void setUp() {
+    JwtProperties jwtProperties = new JwtProperties();
+    jwtProperties.setAdminSecretKey(SECRET);
+    jwtProperties.setAdminTtl(60_000);
+    jwtProperties.setAdminTokenName("token");
+    configurator.setJwtSupport(jwtService, jwtProperties);
+
+    Logger logger = (Logger) LoggerFactory.getLogger(AdminHandshakeConfigurator.class);
+    originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ((Logger) LoggerFactory.getLogger(AdminHandshakeConfigurator.class)).setLevel(originalLevel);
+  }
+
+  @Test
+  void validQueryTokenRegistersEmployeeAndRole() {
+    when(endpointConfig.getUserProperties()).thenReturn(userProperties);
+    when(request.getParameterMap()).thenReturn(
+        Map.of(AdminHandshakeConfigurator.TOKEN_PARAMETER, List.of(token(SECRET, 5L))));
+
+    configurator.modifyHandshake(endpointConfig, request, null);
+
+    assertEquals(5L, userProperties.get(AdminHandshakeConfigurator.EMP_ID_PROPERTY));
+    assertEquals(WebSocketServer.ROLE_ADMIN,
+        userProperties.get(AdminHandshakeConfigurator.ROLE_PROPERTY));
+  }
+
+  @Test
+  void tokenHeaderIsAcceptedWhenQueryTokenIsAbsent() {
+    when(endpointConfig.getUserProperties()).thenReturn(userProperties);
+    when(request.getParameterMap()).thenReturn(Map.of());
+    when(request.getHeaders()).thenReturn(Map.of("token", List.of(token(SECRET, 6L))));
+
+    configurator.modifyHandshake(endpointConfig, request, null);
+
+    assertEquals(6L, userProperties.get(AdminHandshakeConfigurator.EMP_ID_PROPERTY));
+  }
+
+  @Test
+  void tokenSignedWithOtherKeyIsRejected() {
+    when(request.getParameterMap()).thenReturn(Map.of(AdminHandshakeConfigurator.TOKEN_PARAMETER,
+        List.of(token("another-secret-key-for-user-tokens-0123456789", 5L))));
+
+    configurator.modifyHandshake(endpointConfig, request, null);
+
+    assertTrue(userProperties.isEmpty());
+  }
+
+  @Test
+  void missingTokenIsRejected() {
+    when(request.getParameterMap()).thenReturn(Map.of());
+    when(request.getHeaders()).thenReturn(Map.of());
+
+    configurator.modifyHandshake(endpointConfig, request, null);
+
+    assertTrue(userProperties.isEmpty());
+  }
+
+  private String token(String secret, Long empId) {
+    return jwtService.createJwt(secret, 60_000, Map.of(JwtClaimsConstant.EMP_ID, empId));
+  }
+}
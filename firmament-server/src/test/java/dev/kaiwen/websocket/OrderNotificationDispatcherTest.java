@@ -0,0 +1,136 @@
+package dev.kaiwen.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.event.OrderPaidEvent;
+import dev.kaiwen.event.OrderReminderEvent;
+import dev.kaiwen.event.OrderStatusBatchChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class OrderNotificationDispatcherTest {
+
+  @Mock
+  private WebSocketRelay webSocketRelay;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private OrderNotificationDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    dispatcher = new OrderNotificationDispatcher(webSocketRelay, meterRegistry, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  void orderPaidIsPushedAsPaymentMessage() {
+    dispatcher.onOrderPaid(new OrderPaidEvent(6L, "N6"));
+
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(webSocketRelay, timeout(1000)).sendToRole(eq(WebSocketServer.ROLE_ADMIN),
+        message.capture());
+    assertTrue(message.getValue().contains("\"type\":1"));
+    assertTrue(message.getValue().contains("\"orderId\":6"));
+    assertTrue(message.getValue().contains("订单号 :N6"));
+  }
+
+  @Test
+  void orderReminderIsPushedAsReminderMessage() {
+    dispatcher.onOrderReminder(new OrderReminderEvent(22L, "N22"));
+
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(webSocketRelay, timeout(1000)).sendToRole(eq(WebSocketServer.ROLE_ADMIN),
+        message.capture());
+    assertTrue(message.getValue().contains("\"type\":2"));
+    assertTrue(message.getValue().contains("订单号:N22"));
+  }
+
+  @Test
+  void batchStatusChangeIsPushedAsSummaryMessage() {
+    dispatcher.onOrderStatusBatchChanged(
+        new OrderStatusBatchChangedEvent(List.of(40L, 41L), 3, "批量接单2单"));
+
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(webSocketRelay, timeout(1000)).sendToRole(eq(WebSocketServer.ROLE_ADMIN),
+        message.capture());
+    assertTrue(message.getValue().contains("\"type\":3"));
+    assertTrue(message.getValue().contains("\"orderIds\":[40,41]"));
+  }
+
+  @Test
+  void slowPushDoesNotBlockPublisherAndDropsWhenQueueIsFull() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      sending.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(webSocketRelay).sendToRole(anyString(), anyString());
+
+    Logger logger = (Logger) LoggerFactory.getLogger(OrderNotificationDispatcher.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      // 第一条占住推送线程，第二条进入队列，第三条因队列已满被丢弃
+      dispatcher.onOrderPaid(new OrderPaidEvent(1L, "N1"));
+      assertTrue(sending.await(1, TimeUnit.SECONDS));
+      long start = System.nanoTime();
+      dispatcher.onOrderPaid(new OrderPaidEvent(2L, "N2"));
+      dispatcher.onOrderPaid(new OrderPaidEvent(3L, "N3"));
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      assertTrue(elapsedMillis < 500, "发布事件不应等待推送完成，耗时 " + elapsedMillis + " ms");
+      assertEquals(1.0,
+          meterRegistry.get(OrderNotificationDispatcher.DROPPED_METRIC).counter().count());
+    } finally {
+      release.countDown();
+      logger.setLevel(originalLevel);
+    }
+
+    verify(webSocketRelay, timeout(1000).times(2)).sendToRole(anyString(), anyString());
+  }
+
+  @Test
+  void pushFailureDoesNotStopLaterMessages() {
+    doAnswer(invocation -> {
+      throw new IllegalStateException("session closed");
+    }).doNothing().when(webSocketRelay).sendToRole(anyString(), anyString());
+
+    Logger logger = (Logger) LoggerFactory.getLogger(OrderNotificationDispatcher.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      dispatcher.onOrderPaid(new OrderPaidEvent(1L, "N1"));
+      verify(webSocketRelay, timeout(1000)).sendToRole(anyString(), anyString());
+      dispatcher.onOrderPaid(new OrderPaidEvent(2L, "N2"));
+      verify(webSocketRelay, timeout(1000).times(2)).sendToRole(anyString(), anyString());
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+  }
+}
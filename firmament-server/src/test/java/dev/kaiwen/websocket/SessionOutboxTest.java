@@ -0,0 +1,227 @@
+package dev.kaiwen.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class SessionOutboxTest {
+
+  @Mock
+  private Session session;
+
+  @Mock
+  private RemoteEndpoint.Async asyncRemote;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void sendsOneMessageAtATimeInOrder() {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    SessionOutbox outbox = outbox(10, Duration.ofSeconds(30));
+
+    outbox.offer("a");
+    outbox.offer("b");
+
+    ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+    verify(asyncRemote).sendText(eq("a"), handler.capture());
+    verify(asyncRemote, never()).sendText(eq("b"), any());
+    assertEquals(1.0, depth());
+
+    handler.getValue().onResult(new SendResult());
+
+    verify(asyncRemote).sendText(eq("b"), any());
+    assertEquals(0.0, depth());
+    assertEquals(1, meterRegistry.get(SessionOutbox.SEND_LATENCY_METRIC).tag("sid", "s1")
+        .timer().count());
+  }
+
+  @Test
+  void fullQueueDropsOldestMessage() {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    SessionOutbox outbox = outbox(2, Duration.ofSeconds(30));
+
+    outbox.offer("a");
+    outbox.offer("b");
+    outbox.offer("c");
+    outbox.offer("d");
+
+    assertEquals(2.0, depth());
+    assertEquals(1.0, dropped());
+
+    ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+    verify(asyncRemote).sendText(eq("a"), handler.capture());
+    handler.getValue().onResult(new SendResult());
+    verify(asyncRemote).sendText(eq("c"), handler.capture());
+    handler.getValue().onResult(new SendResult());
+
+    InOrder order = inOrder(asyncRemote);
+    order.verify(asyncRemote).sendText(eq("a"), any());
+    order.verify(asyncRemote).sendText(eq("c"), any());
+    order.verify(asyncRemote).sendText(eq("d"), any());
+    verify(asyncRemote, never()).sendText(eq("b"), any());
+  }
+
+  @Test
+  void stalledConsumerIsDisconnected() throws Exception {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    SessionOutbox outbox = outbox(10, Duration.ofMillis(1));
+
+    outbox.offer("a");
+    outbox.offer("b");
+    Thread.sleep(5);
+
+    Logger logger = (Logger) LoggerFactory.getLogger(SessionOutbox.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      outbox.offer("c");
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    verify(session).close();
+    assertEquals(0.0, depth());
+    assertEquals(2.0, dropped());
+
+    // 断开后不再接收新消息
+    outbox.offer("d");
+    verify(asyncRemote, times(1)).sendText(anyString(), any());
+  }
+
+  @Test
+  void sendExceptionClosesSessionAndStopsSending() throws Exception {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    doThrow(new IllegalStateException("closed")).when(asyncRemote)
+        .sendText(eq("a"), any());
+    SessionOutbox outbox = outbox(10, Duration.ofSeconds(30));
+
+    Logger logger = (Logger) LoggerFactory.getLogger(SessionOutbox.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      outbox.offer("a");
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+    outbox.offer("b");
+
+    verify(session).close();
+    verify(asyncRemote, never()).sendText(eq("b"), any());
+  }
+
+  @Test
+  void failedSendResultClosesSessionAndDropsBacklog() throws Exception {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    SessionOutbox outbox = outbox(10, Duration.ofSeconds(30));
+
+    outbox.offer("a");
+    outbox.offer("b");
+    outbox.offer("c");
+    ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+    verify(asyncRemote).sendText(eq("a"), handler.capture());
+
+    Logger logger = (Logger) LoggerFactory.getLogger(SessionOutbox.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      handler.getValue().onResult(new SendResult(new IOException("broken pipe")));
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    verify(session).close();
+    assertEquals(0.0, depth());
+    assertEquals(2.0, dropped());
+    verify(asyncRemote, times(1)).sendText(anyString(), any());
+  }
+
+  @Test
+  void inlineCompletionsDrainQueueWithoutRecursion() {
+    when(session.getAsyncRemote()).thenReturn(asyncRemote);
+    int messages = 500;
+    SessionOutbox outbox = outbox(messages, Duration.ofSeconds(30));
+    AtomicReference<SendHandler> pending = new AtomicReference<>();
+    List<Integer> stackDepths = new ArrayList<>();
+    doAnswer(invocation -> {
+      SendHandler handler = invocation.getArgument(1);
+      if (pending.get() == null) {
+        // 第一条消息异步完成，之后的消息在 sendText 返回前同步完成
+        pending.set(handler);
+      } else {
+        stackDepths.add(Thread.currentThread().getStackTrace().length);
+        handler.onResult(new SendResult());
+      }
+      return null;
+    }).when(asyncRemote).sendText(anyString(), any());
+
+    for (int i = 0; i < messages; i++) {
+      outbox.offer("m" + i);
+    }
+    stackDepths.add(Thread.currentThread().getStackTrace().length);
+    pending.get().onResult(new SendResult());
+
+    assertEquals(0.0, depth());
+    verify(asyncRemote, times(messages)).sendText(anyString(), any());
+    // 所有后续消息都在同一层循环中发送，调用栈深度不随消息数增长
+    assertEquals(1, stackDepths.subList(1, stackDepths.size()).stream().distinct().count());
+  }
+
+  @Test
+  void closeRemovesSessionMetrics() {
+    SessionOutbox outbox = outbox(10, Duration.ofSeconds(30));
+
+    outbox.close();
+
+    assertNull(meterRegistry.find(SessionOutbox.QUEUE_DEPTH_METRIC).gauge());
+    assertNull(meterRegistry.find(SessionOutbox.SEND_LATENCY_METRIC).timer());
+    assertNull(meterRegistry.find(SessionOutbox.DROPPED_METRIC).counter());
+  }
+
+  private SessionOutbox outbox(int capacity, Duration stallTimeout) {
+    return new SessionOutbox("s1", session, capacity, stallTimeout, meterRegistry);
+  }
+
+  private double depth() {
+    return meterRegistry.get(SessionOutbox.QUEUE_DEPTH_METRIC).tag("sid", "s1").gauge().value();
+  }
+
+  private double dropped() {
+    return meterRegistry.get(SessionOutbox.DROPPED_METRIC).tag("sid", "s1").counter().count();
+  }
+}
@@ -0,0 +1,165 @@
+package dev.kaiwen.websocket;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import dev.kaiwen.constant.CacheConstant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+class WebSocketRelayTest {
+
+  private static final byte[] CHANNEL =
+      CacheConstant.WEBSOCKET_BROADCAST_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void broadcastFromOneNodeReachesSessionsOnEveryNode() {
+    LocalPubSub redis = new LocalPubSub();
+    try (AnnotationConfigApplicationContext nodeA = node(redis);
+        AnnotationConfigApplicationContext nodeB = node(redis)) {
+
+      nodeA.getBean(WebSocketRelay.class).broadcast("{\"type\":1}");
+
+      verify(nodeA.getBean(WebSocketServer.class)).sendToAllClient("{\"type\":1}");
+      verify(nodeB.getBean(WebSocketServer.class)).sendToAllClient("{\"type\":1}");
+    }
+  }
+
+  @Test
+  void targetedMessageIsRoutedOnEveryNode() {
+    LocalPubSub redis = new LocalPubSub();
+    try (AnnotationConfigApplicationContext nodeA = node(redis);
+        AnnotationConfigApplicationContext nodeB = node(redis)) {
+
+      nodeA.getBean(WebSocketRelay.class).sendToEmployee(7L, "m1");
+      nodeB.getBean(WebSocketRelay.class).sendToRole(WebSocketServer.ROLE_ADMIN, "m2");
+
+      for (AnnotationConfigApplicationContext node : List.of(nodeA, nodeB)) {
+        WebSocketServer webSocketServer = node.getBean(WebSocketServer.class);
+        verify(webSocketServer).sendToEmployee(7L, "m1");
+        verify(webSocketServer).sendToRole(WebSocketServer.ROLE_ADMIN, "m2");
+        verify(webSocketServer, never()).sendToAllClient(anyString());
+      }
+    }
+  }
+
+  @Test
+  void duplicateDeliveryIsPushedOnce() {
+    LocalPubSub redis = new LocalPubSub();
+    redis.duplicate = true;
+    try (AnnotationConfigApplicationContext nodeA = node(redis);
+        AnnotationConfigApplicationContext nodeB = node(redis)) {
+
+      nodeA.getBean(WebSocketRelay.class).broadcast("m1");
+      nodeB.getBean(WebSocketRelay.class).broadcast("m1");
+
+      // 两次群发是两条消息，各自的重复投递被忽略
+      verify(nodeA.getBean(WebSocketServer.class), times(2)).sendToAllClient("m1");
+      verify(nodeB.getBean(WebSocketServer.class), times(2)).sendToAllClient("m1");
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void publishFailureFallsBackToLocalSessions() {
+    RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    WebSocketServer webSocketServer = mock(WebSocketServer.class);
+    when(redisTemplate.convertAndSend(eq(CacheConstant.WEBSOCKET_BROADCAST_CHANNEL), anyString()))
+        .thenThrow(new RedisConnectionFailureException("down"));
+    WebSocketRelay relay = new WebSocketRelay(redisTemplate, webSocketServer);
+
+    Logger logger = (Logger) LoggerFactory.getLogger(WebSocketRelay.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      relay.broadcast("m1");
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    verify(webSocketServer).sendToAllClient("m1");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void malformedMessageIsIgnored() {
+    WebSocketServer webSocketServer = mock(WebSocketServer.class);
+    WebSocketRelay relay = new WebSocketRelay(mock(RedisTemplate.class), webSocketServer);
+
+    Logger logger = (Logger) LoggerFactory.getLogger(WebSocketRelay.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      relay.onMessage(new DefaultMessage(CHANNEL, "not json".getBytes(StandardCharsets.UTF_8)),
+          null);
+      relay.onMessage(new DefaultMessage(CHANNEL, "{\"id\":\"1\"}".getBytes(
+          StandardCharsets.UTF_8)), null);
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+
+    verify(webSocketServer, never()).sendToAllClient(anyString());
+  }
+
+  /**
+   * 启动一个节点：本节点的中继、WebSocket服务，以及连接到共享 Redis 替身的 RedisTemplate.
+   */
+  @SuppressWarnings("unchecked")
+  private static AnnotationConfigApplicationContext node(LocalPubSub redis) {
+    RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    when(redisTemplate.convertAndSend(eq(CacheConstant.WEBSOCKET_BROADCAST_CHANNEL), anyString()))
+        .thenAnswer(invocation -> redis.publish(invocation.getArgument(1)));
+
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+    context.registerBean("redisTemplateStringString", RedisTemplate.class, () -> redisTemplate);
+    context.registerBean(WebSocketServer.class, () -> mock(WebSocketServer.class));
+    context.registerBean(WebSocketRelay.class);
+    context.refresh();
+    redis.subscribe(context.getBean(WebSocketRelay.class));
+    return context;
+  }
+
+  /**
+   * 进程内的 Redis 发布订阅替身，同步投递给所有订阅者.
+   */
+  private static final class LocalPubSub {
+
+    private final List<MessageListener> subscribers = new CopyOnWriteArrayList<>();
+    // 为 true 时每条消息投递两次，模拟重复投递
+    private boolean duplicate;
+
+    void subscribe(MessageListener listener) {
+      subscribers.add(listener);
+    }
+
+    long publish(String body) {
+      Message message = new DefaultMessage(CHANNEL, body.getBytes(StandardCharsets.UTF_8));
+      for (MessageListener subscriber : subscribers) {
+        subscriber.onMessage(message, null);
+        if (duplicate) {
+          subscriber.onMessage(message, null);
+        }
+      }
+      return subscribers.size();
+    }
+  }
+}
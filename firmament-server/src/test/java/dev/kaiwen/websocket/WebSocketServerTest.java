@@ -0,0 +1,162 @@
+package dev.kaiwen.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketServerTest {
+
+  @Mock
+  private Session slowSession;
+
+  @Mock
+  private Session fastSession;
+
+  @Mock
+  private RemoteEndpoint.Async slowRemote;
+
+  @Mock
+  private RemoteEndpoint.Async fastRemote;
+
+  private final WebSocketServer webSocketServer = new WebSocketServer();
+
+  @BeforeEach
+  void setUp() {
+    webSocketServer.setMeterRegistry(new SimpleMeterRegistry());
+    when(slowSession.getUserProperties()).thenReturn(properties(1L));
+    when(fastSession.getUserProperties()).thenReturn(properties(2L));
+    webSocketServer.onOpen(slowSession, "slow");
+    webSocketServer.onOpen(fastSession, "fast");
+  }
+
+  @AfterEach
+  void tearDown() {
+    webSocketServer.onClose(slowSession, "slow");
+    webSocketServer.onClose(fastSession, "fast");
+  }
+
+  @Test
+  void stalledSessionDoesNotBlockOtherSessions() {
+    when(slowSession.getAsyncRemote()).thenReturn(slowRemote);
+    when(fastSession.getAsyncRemote()).thenReturn(fastRemote);
+    // 正常客户端立即完成发送，慢客户端的发送回调一直不返回
+    completeImmediately(fastRemote);
+
+    webSocketServer.sendToAllClient("m1");
+    webSocketServer.sendToAllClient("m2");
+
+    verify(fastRemote).sendText(eq("m1"), any());
+    verify(fastRemote).sendText(eq("m2"), any());
+    verify(slowRemote).sendText(eq("m1"), any());
+  }
+
+  @Test
+  void sendToEmployeeReachesOnlyThatEmployeesSessions() {
+    when(fastSession.getAsyncRemote()).thenReturn(fastRemote);
+
+    webSocketServer.sendToEmployee(2L, "m1");
+    webSocketServer.sendToEmployee(3L, "m2");
+
+    verify(fastRemote).sendText(eq("m1"), any());
+    verify(fastRemote, never()).sendText(eq("m2"), any());
+    verify(slowSession, never()).getAsyncRemote();
+  }
+
+  @Test
+  void sendToRoleReachesSessionsOfThatRole() {
+    when(slowSession.getAsyncRemote()).thenReturn(slowRemote);
+    when(fastSession.getAsyncRemote()).thenReturn(fastRemote);
+
+    webSocketServer.sendToRole(WebSocketServer.ROLE_ADMIN, "m1");
+    webSocketServer.sendToRole("courier", "m2");
+
+    verify(slowRemote).sendText(eq("m1"), any());
+    verify(fastRemote).sendText(eq("m1"), any());
+    verify(fastRemote, never()).sendText(eq("m2"), any());
+  }
+
+  @Test
+  void closedSessionIsRemovedFromIndexes() {
+    webSocketServer.onClose(fastSession, "fast");
+
+    webSocketServer.sendToEmployee(2L, "m1");
+
+    verify(fastSession, never()).getAsyncRemote();
+  }
+
+  @Test
+  void unauthenticatedSessionIsClosedAndNotRegistered(@Mock Session anonymous) throws Exception {
+    when(anonymous.getUserProperties()).thenReturn(new HashMap<>());
+    when(slowSession.getAsyncRemote()).thenReturn(slowRemote);
+    when(fastSession.getAsyncRemote()).thenReturn(fastRemote);
+
+    Logger logger = (Logger) LoggerFactory.getLogger(WebSocketServer.class);
+    Level originalLevel = logger.getLevel();
+    logger.setLevel(Level.OFF);
+    try {
+      webSocketServer.onOpen(anonymous, "anonymous");
+    } finally {
+      logger.setLevel(originalLevel);
+    }
+    webSocketServer.sendToAllClient("m1");
+
+    ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+    verify(anonymous).close(reason.capture());
+    assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY, reason.getValue().getCloseCode());
+    verify(anonymous, never()).getAsyncRemote();
+  }
+
+  @Test
+  void closingStaleConnectionKeepsReconnectedSession(@Mock Session reconnected) {
+    when(reconnected.getUserProperties()).thenReturn(properties(2L));
+    when(reconnected.getAsyncRemote()).thenReturn(fastRemote);
+    webSocketServer.onOpen(reconnected, "fast");
+
+    // 旧连接随后才关闭，不应注销新连接
+    webSocketServer.onClose(fastSession, "fast");
+    webSocketServer.sendToEmployee(2L, "m1");
+
+    verify(fastRemote).sendText(eq("m1"), any());
+    verify(fastSession, never()).getAsyncRemote();
+    webSocketServer.onClose(reconnected, "fast");
+  }
+
+  private static Map<String, Object> properties(Long empId) {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AdminHandshakeConfigurator.EMP_ID_PROPERTY, empId);
+    properties.put(AdminHandshakeConfigurator.ROLE_PROPERTY, WebSocketServer.ROLE_ADMIN);
+    return properties;
+  }
+
+  private static void completeImmediately(RemoteEndpoint.Async remote) {
+    doAnswer(invocation -> {
+      invocation.<SendHandler>getArgument(1).onResult(new SendResult());
+      return null;
+    }).when(remote).sendText(anyString(), any());
+  }
+}